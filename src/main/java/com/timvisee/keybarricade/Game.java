@@ -23,12 +23,17 @@
 package com.timvisee.keybarricade;
 
 import com.timvisee.keybarricade.game.asset.GameResourceBundle;
+import com.timvisee.keybarricade.game.scene.GameScene;
 import com.timvisee.keybarricade.game.scene.MainMenuScene;
 import com.timvisee.voxeltex.architecture.scene.DeveloperSplashScene;
 import com.timvisee.voxeltex.engine.VoxelTexEngine;
+import com.timvisee.voxeltex.engine.render.RenderBackend;
+import com.timvisee.voxeltex.runtime.global.Time;
 import com.timvisee.voxeltex.util.swing.ProgressDialog;
 import com.timvisee.voxeltex.util.swing.SwingUtils;
 
+import java.io.File;
+
 public class Game {
 
     /**
@@ -41,21 +46,106 @@ public class Game {
      */
     private ProgressDialog progressDialog;
 
+    /**
+     * Defines whether the game runs headless, rendering into an offscreen framebuffer without any visible window.
+     */
+    private boolean headless = false;
+
+    /**
+     * Defines whether the game only simulates, ticking the game logic without any window or graphics context.
+     */
+    private boolean simulate = false;
+
+    /**
+     * Number of frames to render or steps to simulate, or zero to run until the game is closed.
+     */
+    private long frameLimit = 0;
+
+    /**
+     * File to capture the last headless frame to, or null to not capture anything.
+     */
+    private File captureFile = null;
+
+    /**
+     * True to load the game scene directly when running without a display, false to load the main menu scene.
+     */
+    private boolean loadGameScene = false;
+
     /**
      * Constructor.
      */
     public Game() { }
 
+    /**
+     * Set whether the game runs headless.
+     * Headless games render a fixed number of frames with a fixed time step, which makes them suitable for
+     * automated frame tests and benchmarks on machines without a display.
+     *
+     * @param headless True to run headless, false if not.
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Set whether the game only simulates.
+     * The game logic and physics are ticked with a fixed time step as fast as possible, without rendering anything.
+     * This uses the null render backend, and doesn't require a display or GPU.
+     *
+     * @param simulate True to only simulate, false if not.
+     */
+    public void setSimulate(boolean simulate) {
+        this.simulate = simulate;
+    }
+
+    /**
+     * Check whether the game runs without a display, either headless or simulating.
+     *
+     * @return True if running without a display, false if not.
+     */
+    private boolean isDisplayless() {
+        return this.headless || this.simulate;
+    }
+
+    /**
+     * Set the number of frames to render, or steps to simulate.
+     *
+     * @param frameLimit Frame limit, or zero to run until the game is closed.
+     */
+    public void setFrameLimit(long frameLimit) {
+        this.frameLimit = frameLimit;
+    }
+
+    /**
+     * Set the file the last rendered frame is captured to.
+     *
+     * @param captureFile Capture file, or null to not capture anything.
+     */
+    public void setCaptureFile(File captureFile) {
+        this.captureFile = captureFile;
+    }
+
+    /**
+     * Set whether to load the game scene directly when running without a display, instead of the main menu scene.
+     *
+     * @param loadGameScene True to load the game scene, false to load the main menu scene.
+     */
+    public void setLoadGameScene(boolean loadGameScene) {
+        this.loadGameScene = loadGameScene;
+    }
+
     /**
      * Initialize.
      */
     public void init() {
-        // Use the native look and feel for Swing windows when possible
-        SwingUtils.useNativeLookAndFeel();
+        // Create and show the progress dialog, there's no display to show it on when headless or simulating
+        if(!isDisplayless()) {
+            // Use the native look and feel for Swing windows when possible
+            SwingUtils.useNativeLookAndFeel();
 
-        // Create and show the progress dialog
-        this.progressDialog = new ProgressDialog(null, "VoxelTex Engine", false);
-        this.progressDialog.setVisible(true);
+            this.progressDialog = new ProgressDialog(null, "VoxelTex Engine", false);
+            this.progressDialog.setVisible(true);
+        }
 
         // Show initialization message
         System.out.println("Initializing " + KeyBarricade.APP_NAME + "...");
@@ -75,10 +165,13 @@ public class Game {
      */
     private void initEngine() {
         // Show status
-        this.progressDialog.setStatus("Initializing VoxelTex engine...");
+        setStatus("Initializing VoxelTex engine...");
 
         // Create a VoxelTex engine instance
         this.engine = new VoxelTexEngine();
+        this.engine.setHeadless(this.headless);
+        if(this.simulate)
+            this.engine.setRenderBackend(RenderBackend.NULL);
 
         // Set the title
         this.engine.setTitle(KeyBarricade.APP_NAME + " v" + KeyBarricade.APP_VERSION_NAME);
@@ -87,7 +180,7 @@ public class Game {
         this.engine.init(false);
 
         // Manually load the engine resources...
-        this.progressDialog.setStatus("Loading engine resources...");
+        setStatus("Loading engine resources...");
         this.engine.load();
     }
 
@@ -95,39 +188,91 @@ public class Game {
      * Start the VoxelTex engine after it has been initialized.
      */
     private void startEngine() {
-        // Load the resource bundle
-        this.progressDialog.setStatus("Loading game resources...");
-        GameResourceBundle.getInstance().load();
+        // Load the resource bundle, and show the loading progress
+        setStatus("Loading game resources...");
+        GameResourceBundle.getInstance().load((loaded, total) -> setProgress((float) loaded / total));
+        setProgress(-1.0f);
+
+        // Load the developer splash scene followed by the main menu scene, or the tested scene without a display
+        setStatus("Loading scene...");
+        if(!isDisplayless())
+            this.engine.getSceneManager().loadScene(new DeveloperSplashScene(new MainMenuScene()));
+        else
+            this.engine.getSceneManager().loadScene(this.loadGameScene ? new GameScene() : new MainMenuScene());
 
-        // Load the developer splash scene followed by the main menu scene scene
-        this.progressDialog.setStatus("Loading scene...");
-        this.engine.getSceneManager().loadScene(new DeveloperSplashScene(new MainMenuScene()));
+        // Configure the step limit when simulating, or the fixed frame loop and the frame capture when headless
+        if(this.simulate)
+            this.engine.getNullRenderer().setStepLimit(this.frameLimit);
+        else if(this.headless) {
+            Time.setFixedStep(1.0 / 60.0);
+            this.engine.getRenderer().setFrameLimit(this.frameLimit);
+            if(this.captureFile != null)
+                this.engine.getRenderer().requestCapture(this.captureFile, this.frameLimit > 0 ? this.frameLimit : -1);
+        }
 
         // Done, hide the progress dialog before starting the engine
-        this.progressDialog.setVisible(false);
+        setProgressVisible(false);
 
         // Start and run the engine
         this.engine.loop();
     }
 
+    /**
+     * Show a status message in the progress dialog, or in the console when there is no progress dialog.
+     *
+     * @param status Status message.
+     */
+    private void setStatus(String status) {
+        if(this.progressDialog != null)
+            this.progressDialog.setStatus(status);
+        else
+            System.out.println(status);
+    }
+
+    /**
+     * Set the progress shown in the progress dialog, if there is one.
+     *
+     * @param progress Progress from 0.0 to 1.0, or a negative value for an unknown amount of progress.
+     */
+    private void setProgress(float progress) {
+        if(this.progressDialog == null)
+            return;
+
+        if(progress >= 0.0f)
+            this.progressDialog.setProgress(progress);
+        else
+            this.progressDialog.setProgressIndeterminate();
+    }
+
+    /**
+     * Set whether the progress dialog is visible, if there is one.
+     *
+     * @param visible True to show the dialog, false to hide it.
+     */
+    private void setProgressVisible(boolean visible) {
+        if(this.progressDialog != null)
+            this.progressDialog.setVisible(visible);
+    }
+
     /**
      * Stop and exit the game.
      */
     private void exit() {
         // Exiting, show the progress dialog
-        this.progressDialog.setStatus("Quitting " + KeyBarricade.APP_NAME + "...");
-        this.progressDialog.setVisible(true);
+        setStatus("Quitting " + KeyBarricade.APP_NAME + "...");
+        setProgressVisible(true);
 
         // Dispose the game resources
-        this.progressDialog.setStatus("Disposing game resources...");
+        setStatus("Disposing game resources...");
         // TODO: GameResourceBundle.getInstance().dispose();
 
         // Dispose the engine resources
-        this.progressDialog.setStatus("Disposing engine resources...");
+        setStatus("Disposing engine resources...");
         // TODO: EngineResourceBundle.getInstance().dispose();
 
         // Dispose the progress frame to ensure we're quitting properly
-        this.progressDialog.dispose();
+        if(this.progressDialog != null)
+            this.progressDialog.dispose();
 
         // The game has quit, show a status message and force quit
         System.out.println(KeyBarricade.APP_NAME + " has quit");
@@ -22,6 +22,8 @@
 
 package com.timvisee.keybarricade;
 
+import java.io.File;
+
 public class KeyBarricade {
 
     /**
@@ -49,6 +51,24 @@ public class KeyBarricade {
         // Load the game
         Game game = new Game();
 
+        // Parse the start up arguments
+        for(String arg : args) {
+            if(arg.equals("--headless"))
+                game.setHeadless(true);
+            else if(arg.equals("--simulate"))
+                game.setSimulate(true);
+            else if(arg.startsWith("--frames="))
+                game.setFrameLimit(Long.parseLong(arg.substring("--frames=".length())));
+            else if(arg.startsWith("--capture="))
+                game.setCaptureFile(new File(arg.substring("--capture=".length())));
+            else if(arg.equals("--scene=game"))
+                game.setLoadGameScene(true);
+            else if(arg.equals("--scene=menu"))
+                game.setLoadGameScene(false);
+            else
+                System.out.println("Ignoring unknown argument: " + arg);
+        }
+
         // Initialize the game
         game.init();
     }
@@ -28,11 +28,17 @@ import com.timvisee.keybarricade.game.entity.LockType;
 import com.timvisee.keybarricade.game.entity.prefab.BoxPrefab;
 import com.timvisee.keybarricade.game.entity.prefab.LampPrefab;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import com.timvisee.voxeltex.architecture.prefab.PrefabPool;
 import com.timvisee.voxeltex.runtime.global.Time;
 import org.joml.Vector3f;
 
 public class MainMenuSpawnerComponent extends BaseComponent {
 
+    /**
+     * Pool of spawned boxes, which are recycled after they've decayed.
+     */
+    private final PrefabPool<BoxPrefab> boxPool = new PrefabPool<>(() -> new BoxPrefab(new Vector3f(), true, 0.0f, 10.0f));
+
     /**
      * Constructor.
      */
@@ -56,11 +62,13 @@ public class MainMenuSpawnerComponent extends BaseComponent {
             float z = (int) (-25f + (float) Math.random() * 50);
 
             // Determine what to spawn
-            if(Math.random() < 0.95f)
-                // Spawn a box
-                getScene().addGameObject(new BoxPrefab(new Vector3f(x + 0.5f, 0.5f, z + 0.5f), true, 0.0f, 10.0f));
+            if(Math.random() < 0.95f) {
+                // Obtain a box from the pool, position and spawn it
+                BoxPrefab box = this.boxPool.obtain();
+                box.getTransform().setPosition(x + 0.5f, 0.5f, z + 0.5f);
+                getScene().addGameObject(box);
 
-            else {
+            } else {
                 // Create a lamp
                 LampPrefab lamp = new LampPrefab(
                                 "LampPrefab",
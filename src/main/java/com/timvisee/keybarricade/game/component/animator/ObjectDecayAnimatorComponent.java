@@ -25,11 +25,23 @@ package com.timvisee.keybarricade.game.component.animator;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
 import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
 import com.timvisee.voxeltex.architecture.component.rigidbody.RigidbodyComponent;
+import com.timvisee.voxeltex.architecture.scene.schedule.ScheduledTask;
+import com.timvisee.voxeltex.architecture.scene.schedule.TweenListener;
 import com.timvisee.voxeltex.module.transform.Transform;
 import com.timvisee.voxeltex.runtime.global.Time;
 import org.joml.Vector3f;
 
-public class ObjectDecayAnimatorComponent extends BaseComponent {
+public class ObjectDecayAnimatorComponent extends BaseComponent implements TweenListener {
+
+    /**
+     * Duration of the decay animation in seconds.
+     */
+    private static final float ANIMATION_DURATION = 1f;
+
+    /**
+     * Decay delay in seconds.
+     */
+    private float delay;
 
     /**
      * Time to decay the object at.
@@ -51,12 +63,18 @@ public class ObjectDecayAnimatorComponent extends BaseComponent {
      */
     private boolean firstDecayRun = true;
 
+    /**
+     * The scheduled decay animation, or null if it isn't scheduled.
+     */
+    private ScheduledTask animation;
+
     /**
      * Constructor.
      *
      * @param delay Decay delay.
      */
     public ObjectDecayAnimatorComponent(float delay) {
+        this.delay = delay;
         this.decayAt = Time.timeFloat + delay;
     }
 
@@ -76,47 +94,96 @@ public class ObjectDecayAnimatorComponent extends BaseComponent {
     public void start() {
         // Call the super
         super.start();
+
+        // The decay is driven by a scene tween, this component doesn't have to be updated
+        setSleeping(true);
+
+        // Schedule the decay animation
+        cancelAnimation();
+        this.animation = getScene().tween(Math.max(this.decayAt - Time.timeFloat, 0f), ANIMATION_DURATION, this);
     }
 
     @Override
-    public void update() {
-        // Decay the object
-        if(this.meshRenderer != null && Time.timeFloat >= this.decayAt) {
-            // Get the proper transform object
-            Transform transform = getTransform();
-            if(this.meshRenderer != null)
-                transform = this.meshRenderer.getTransform();
-
-            // Do some stuff on the first decay run
-            if(this.firstDecayRun) {
-                // Store the initial scale
-                this.initialScale = new Vector3f(transform.getScale());
-
-                // Get and destroy the rigidbody component if available
-                RigidbodyComponent rigidbodyComponent = getOwner().getComponent(RigidbodyComponent.class);
-                if(rigidbodyComponent != null)
-                    rigidbodyComponent.destroy();
-
-                // Flip the first decay run flag
-                this.firstDecayRun = false;
-            }
-
-            // Calculate the animation factor
-            float factor = (1.0f - (Time.timeFloat - this.decayAt)) / 1.0f;
-
-            // Animate the alpha channel
-            this.meshRenderer.getColor().setAlpha(factor);
-
-            // Animate the scale
-            transform.getScale().set(
-                    this.initialScale.x * factor,
-                    this.initialScale.y * factor,
-                    this.initialScale.z * factor
-            );
+    public void reset() {
+        // Restore the initial scale and alpha if the object has decayed
+        if(!this.firstDecayRun && this.meshRenderer != null) {
+            this.meshRenderer.getTransform().setScale(this.initialScale);
+            this.meshRenderer.setAlpha(1.0f);
+        }
+
+        // Restart the decay timing
+        this.decayAt = Time.timeFloat + this.delay;
+        this.firstDecayRun = true;
+        cancelAnimation();
+    }
+
+    @Override
+    public void update() { }
+
+    @Override
+    public void onTweenUpdate(float progress) {
+        // Only animate if a mesh renderer is available
+        if(this.meshRenderer == null)
+            return;
+
+        // Get the proper transform object
+        Transform transform = this.meshRenderer.getTransform();
+
+        // Do some stuff on the first decay run
+        if(this.firstDecayRun) {
+            // Store the initial scale
+            if(this.initialScale == null)
+                this.initialScale = new Vector3f();
+            transform.getScale(this.initialScale);
+
+            // Get and destroy the rigidbody component if available
+            RigidbodyComponent rigidbodyComponent = getOwner().getComponent(RigidbodyComponent.class);
+            if(rigidbodyComponent != null)
+                rigidbodyComponent.destroy();
+
+            // Flip the first decay run flag
+            this.firstDecayRun = false;
         }
 
+        // Calculate the animation factor
+        float factor = 1.0f - progress;
+
+        // Animate the alpha channel
+        this.meshRenderer.setAlpha(factor);
+
+        // Animate the scale
+        transform.setScale(
+                this.initialScale.x * factor,
+                this.initialScale.y * factor,
+                this.initialScale.z * factor
+        );
+    }
+
+    @Override
+    public void onTweenComplete() {
+        // Reset the animation handle
+        this.animation = null;
+
         // Destroy the game object after it's decayed
-        if(Time.timeFloat >= this.decayAt + 1f)
-            getOwner().destroy();
+        getOwner().destroy();
+    }
+
+    @Override
+    public void destroy() {
+        // Cancel the animation
+        cancelAnimation();
+
+        // Destroy the super
+        super.destroy();
+    }
+
+    /**
+     * Cancel the scheduled animation if there is any.
+     */
+    private void cancelAnimation() {
+        if(this.animation != null) {
+            this.animation.cancel();
+            this.animation = null;
+        }
     }
 }
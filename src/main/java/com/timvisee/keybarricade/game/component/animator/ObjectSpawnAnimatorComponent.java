@@ -25,29 +25,42 @@ package com.timvisee.keybarricade.game.component.animator;
 import com.timvisee.voxeltex.architecture.component.AbstractComponent;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
 import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
+import com.timvisee.voxeltex.architecture.scene.schedule.ScheduledTask;
+import com.timvisee.voxeltex.architecture.scene.schedule.TweenListener;
+import com.timvisee.voxeltex.module.transform.Transform;
 import com.timvisee.voxeltex.runtime.global.Time;
 import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class ObjectSpawnAnimatorComponent extends BaseComponent {
+public class ObjectSpawnAnimatorComponent extends BaseComponent implements TweenListener {
 
     /**
-     * The time offset used for animations.
+     * Duration of the spawn animation in seconds.
      */
-    private float timeOffset;
+    private static final float ANIMATION_DURATION = 1f;
 
     /**
      * Target position of the object.
      */
     private Vector3f targetPosition;
 
+    /**
+     * Cached position, used to update the transform.
+     */
+    private final Vector3f positionCache = new Vector3f();
+
     /**
      * Mesh renderer component.
      */
     private MeshRendererComponent meshRenderer;
 
+    /**
+     * Time in seconds to wait before starting the animation.
+     */
+    private float delay = 0f;
+
     /**
      * Wait until the given time before starting the animation.
      */
@@ -58,6 +71,16 @@ public class ObjectSpawnAnimatorComponent extends BaseComponent {
      */
     private List<AbstractComponent> delayedComponents;
 
+    /**
+     * Defines whether to mark the object as static after the spawn animation has finished.
+     */
+    private boolean staticAfterSpawn = false;
+
+    /**
+     * The scheduled spawn animation, or null if it isn't scheduled.
+     */
+    private ScheduledTask animation;
+
     /**
      * Constructor.
      */
@@ -69,6 +92,7 @@ public class ObjectSpawnAnimatorComponent extends BaseComponent {
      * @param delay Time in seconds to wait before starting the animation.
      */
     public ObjectSpawnAnimatorComponent(float delay) {
+        this.delay = delay;
         this.waitUntil += delay;
     }
 
@@ -91,10 +115,30 @@ public class ObjectSpawnAnimatorComponent extends BaseComponent {
      * @param delayedComponents List of components that will be added after the animation has finished, or null.
      */
     public ObjectSpawnAnimatorComponent(float delay, List<AbstractComponent> delayedComponents) {
+        this.delay = delay;
         this.waitUntil += delay;
         this.delayedComponents = delayedComponents;
     }
 
+    /**
+     * Check whether the object is marked as static after the spawn animation has finished.
+     *
+     * @return True if the object will be static, false if not.
+     */
+    public boolean isStaticAfterSpawn() {
+        return this.staticAfterSpawn;
+    }
+
+    /**
+     * Set whether to mark the object as static after the spawn animation has finished.
+     * This should be used for objects that never move after they've been spawned.
+     *
+     * @param staticAfterSpawn True to mark the object as static, false if not.
+     */
+    public void setStaticAfterSpawn(boolean staticAfterSpawn) {
+        this.staticAfterSpawn = staticAfterSpawn;
+    }
+
     @Override
     public void create() {
         // Use the mesh renderer of a child object if available
@@ -112,52 +156,99 @@ public class ObjectSpawnAnimatorComponent extends BaseComponent {
         // Call the super
         super.start();
 
-        // Set the time offset
-        this.timeOffset = this.waitUntil;
+        // The animation is driven by a scene tween, this component doesn't have to be updated
+        setSleeping(true);
 
         // Store the object's targetPosition position
-        targetPosition = new Vector3f(getTransform().getPosition());
+        if(this.targetPosition == null)
+            this.targetPosition = new Vector3f();
+        getTransform().getPosition(this.targetPosition);
 
         // Place the object in the air
         getTransform().getPosition().y = 6f;
+
+        // Disable the mesh renderer, to ensure the blocks aren't visible already in the air
+        if(this.meshRenderer != null)
+            this.meshRenderer.setEnabled(false);
+
+        // Schedule the animation
+        cancelAnimation();
+        this.animation = getScene().tween(Math.max(this.waitUntil - Time.timeFloat, 0f), ANIMATION_DURATION, this);
     }
 
     @Override
-    public void update() {
-        // Do not start the animation if we still need to wait
-        if(Time.timeFloat < waitUntil) {
-            // Disable the mesh renderer, to ensure the blocks aren't visible already in the air
-            if(this.meshRenderer != null)
-                this.meshRenderer.setEnabled(false);
-
-            // Return
-            return;
-        }
+    public void reset() {
+        // Restart the animation timing, the animation is scheduled again when the object is started
+        this.waitUntil = Time.timeFloat + this.delay;
+        cancelAnimation();
+
+        // Make the object movable again
+        if(this.staticAfterSpawn)
+            getTransform().setStatic(false);
+    }
+
+    @Override
+    public void update() { }
+
+    @Override
+    public void onTweenUpdate(float progress) {
+        // Determine the elapsed animation time
+        final float elapsed = progress * ANIMATION_DURATION;
 
         // Enable the mesh renderer
         if(this.meshRenderer != null)
             this.meshRenderer.setEnabled(true);
 
         // Lerp the position
-        getTransform().getPosition().lerp(this.targetPosition, (Time.timeFloat - timeOffset) / 4.0f);
+        final Transform transform = getTransform();
+        transform.setPosition(transform.getPosition(this.positionCache).lerp(this.targetPosition, elapsed / 4.0f));
 
         // Set the alpha intensity of the object based on it's spawn time
         if(this.meshRenderer != null)
-            this.meshRenderer.getColor().setAlpha(Math.min((Time.timeFloat - timeOffset) / 0.25f, 1));
+            this.meshRenderer.setAlpha(Math.min(elapsed / 0.25f, 1));
+    }
 
-        // Destroy the spawn animator after a second
-        if(Time.timeFloat - timeOffset > 1f) {
-            // Force-set the position of the box
-            getTransform().setPosition(this.targetPosition);
+    @Override
+    public void onTweenComplete() {
+        // Reset the animation handle
+        this.animation = null;
 
-            // Destroy the component
+        // Force-set the position of the box
+        getTransform().setPosition(this.targetPosition);
+
+        // Mark the object as static if configured
+        if(this.staticAfterSpawn)
+            getTransform().setStatic(true);
+
+        // Remove the component, unless the object is pooled so it can be reset
+        if(!getOwner().isPooled())
             removeComponent(this);
 
-            // Check if any delayed components are given, if so, add them
-            if(this.delayedComponents != null)
-                //noinspection ForLoopReplaceableByForEach
-                for(int i = 0, size = this.delayedComponents.size(); i < size; i++)
+        // Check if any delayed components are given, if so, add them unless they're still attached from a
+        // previous spawn of a pooled object
+        if(this.delayedComponents != null)
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0, size = this.delayedComponents.size(); i < size; i++)
+                if(this.delayedComponents.get(i).getOwner() != getOwner())
                     addComponent(this.delayedComponents.get(i));
+    }
+
+    @Override
+    public void destroy() {
+        // Cancel the animation
+        cancelAnimation();
+
+        // Destroy the super
+        super.destroy();
+    }
+
+    /**
+     * Cancel the scheduled animation if there is any.
+     */
+    private void cancelAnimation() {
+        if(this.animation != null) {
+            this.animation.cancel();
+            this.animation = null;
         }
     }
 }
@@ -23,6 +23,7 @@
 package com.timvisee.keybarricade.game.entity.component;
 
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import org.joml.Vector3f;
 
 public class FinishControllerComponent extends BaseComponent {
 
@@ -41,6 +42,16 @@ public class FinishControllerComponent extends BaseComponent {
      */
     private boolean triggered = false;
 
+    /**
+     * Temporary vector holding the position of the player.
+     */
+    private final Vector3f tempPlayerPosition = new Vector3f();
+
+    /**
+     * Temporary vector holding the position of this object.
+     */
+    private final Vector3f tempPosition = new Vector3f();
+
     /**
      * Constructor.
      *
@@ -62,7 +73,8 @@ public class FinishControllerComponent extends BaseComponent {
         // Make sure a player controller reference is given
         if(this.controller != null && this.controller.getOwner() != null) {
             // Calculate the distance (squared) to the player controller
-            float distance = this.controller.getTransform().getPosition().distanceSquared(getTransform().getPosition());
+            float distance = this.controller.getTransform().getPosition(this.tempPlayerPosition)
+                    .distanceSquared(getTransform().getPosition(this.tempPosition));
 
             // Determine whether to pickup the item, trigger the player controller if that's the case
             if(distance <= PICKUP_TRIGGER_DISTANCE * PICKUP_TRIGGER_DISTANCE) {
@@ -24,6 +24,7 @@ package com.timvisee.keybarricade.game.entity.component;
 
 import com.timvisee.keybarricade.game.entity.LockType;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import org.joml.Vector3f;
 
 public class KeyPickupControllerComponent extends BaseComponent {
 
@@ -42,6 +43,16 @@ public class KeyPickupControllerComponent extends BaseComponent {
      */
     private LockType lockType;
 
+    /**
+     * Temporary vector holding the position of the player.
+     */
+    private final Vector3f tempPlayerPosition = new Vector3f();
+
+    /**
+     * Temporary vector holding the position of this object.
+     */
+    private final Vector3f tempPosition = new Vector3f();
+
     /**
      * Constructor.
      *
@@ -57,11 +68,12 @@ public class KeyPickupControllerComponent extends BaseComponent {
     public void create() { }
 
     @Override
-    public synchronized void update() {
+    public void update() {
         // Make sure a player controller reference is given
         if(this.playerController != null && this.playerController.getOwner() != null) {
             // Calculate the distance (squared) to the player controller
-            float distance = this.playerController.getTransform().getPosition().distanceSquared(getTransform().getPosition());
+            float distance = this.playerController.getTransform().getPosition(this.tempPlayerPosition)
+                    .distanceSquared(getTransform().getPosition(this.tempPosition));
 
             // Determine whether to pickup the item, trigger the player controller if that's the case
             if(distance <= PICKUP_TRIGGER_DISTANCE * PICKUP_TRIGGER_DISTANCE)
@@ -26,6 +26,7 @@ import com.timvisee.keybarricade.game.component.animator.ObjectDecayAnimatorComp
 import com.timvisee.keybarricade.game.entity.LockType;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
 import com.timvisee.voxeltex.architecture.prefab.primitive.CubePrefab;
+import org.joml.Vector3f;
 
 public class PadlockControllerComponent extends BaseComponent {
 
@@ -54,6 +55,16 @@ public class PadlockControllerComponent extends BaseComponent {
      */
     private boolean unlocked = false;
 
+    /**
+     * Temporary vector holding the position of the player.
+     */
+    private final Vector3f tempPlayerPosition = new Vector3f();
+
+    /**
+     * Temporary vector holding the position of this object.
+     */
+    private final Vector3f tempPosition = new Vector3f();
+
     /**
      * Constructor.
      *
@@ -82,11 +93,12 @@ public class PadlockControllerComponent extends BaseComponent {
     public void create() { }
 
     @Override
-    public synchronized void update() {
+    public void update() {
         // Make sure a player controller reference is given
         if(this.playerController != null && this.playerController.getOwner() != null) {
             // Calculate the distance (squared) to the player controller
-            float distance = this.playerController.getTransform().getPosition().distanceSquared(getTransform().getPosition());
+            float distance = this.playerController.getTransform().getPosition(this.tempPlayerPosition)
+                    .distanceSquared(getTransform().getPosition(this.tempPosition));
 
             // Determine whether to pickup the item, trigger the player controller if that's the case
             if(distance <= PICKUP_TRIGGER_DISTANCE * PICKUP_TRIGGER_DISTANCE && !this.unlocked) {
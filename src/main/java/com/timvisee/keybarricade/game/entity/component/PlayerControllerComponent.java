@@ -39,6 +39,7 @@ import com.timvisee.voxeltex.architecture.component.overlay.gui.GuiLabelComponen
 import com.timvisee.voxeltex.architecture.component.overlay.gui.GuiPanelComponent;
 import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
 import com.timvisee.voxeltex.architecture.gameobject.GameObject;
+import com.timvisee.voxeltex.architecture.scene.schedule.ScheduledTask;
 import com.timvisee.voxeltex.engine.light.Light;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.material.Material;
@@ -46,7 +47,6 @@ import com.timvisee.voxeltex.module.texture.Texture;
 import com.timvisee.voxeltex.module.transform.rectangle.RectangleTransform;
 import com.timvisee.voxeltex.module.transform.rectangle.anchor.HorizontalTransformAnchorType;
 import com.timvisee.voxeltex.module.transform.rectangle.anchor.VerticalTransformAnchorType;
-import com.timvisee.voxeltex.runtime.global.Time;
 import org.joml.Vector2f;
 
 public class PlayerControllerComponent extends BaseComponent {
@@ -87,9 +87,9 @@ public class PlayerControllerComponent extends BaseComponent {
     private GuiLabelComponent hintLabel;
 
     /**
-     * Time to show the hint at.
+     * Scheduled task to show the hint panel, or null if it isn't scheduled.
      */
-    private float showHintAt = -1.0f;
+    private ScheduledTask hintTask;
 
     /**
      * Constructor.
@@ -106,7 +106,7 @@ public class PlayerControllerComponent extends BaseComponent {
         this.playerMaterial = new Material(Texture.fromColor(Color.ORANGE, 1, 1));
 
         // Create the mesh filter and renderer
-        addComponent(new MeshFilterComponent(GameResourceBundle.getInstance().MESH_SPHERE));
+        addComponent(new MeshFilterComponent(GameResourceBundle.getInstance().getMesh("sphere_mesh")));
         addComponent(new MeshRendererComponent(this.playerMaterial));
 
         // Set the position of the player
@@ -152,7 +152,7 @@ public class PlayerControllerComponent extends BaseComponent {
                 HorizontalTransformAnchorType.RIGHT,
                 VerticalTransformAnchorType.BOTTOM
         ));
-        this.keyImage = new GuiImageComponent(GameResourceBundle.getInstance().IMAGE_KEY);
+        this.keyImage = new GuiImageComponent(GameResourceBundle.getInstance().getImage("key_image"));
         this.keyImage.setAlpha(0f);
         keyPanel.addComponent(this.keyImage);
         addOwnerChild(keyPanel);
@@ -183,17 +183,17 @@ public class PlayerControllerComponent extends BaseComponent {
     }
 
     @Override
-    public synchronized void update() {
-        // Show the hint panel if it's time
-        if(this.showHintAt >= 0.0f && this.showHintAt <= Time.timeFloat) {
-            // Show the hint panel
-            this.hintPanel.setEnabled(true);
-
-            // Disable the timer
-            this.showHintAt = -1f;
-        }
+    public void start() {
+        // Call the super
+        super.start();
+
+        // The controller is driven by triggers and scheduled tasks, it doesn't have to be updated
+        setSleeping(true);
     }
 
+    @Override
+    public void update() { }
+
     /**
      * Get the pickup lock type. Null if the player hasn't picked up anything.
      *
@@ -230,6 +230,12 @@ public class PlayerControllerComponent extends BaseComponent {
      * @param hintText Hint.
      */
     public void setHint(String hintText) {
+        // Cancel the previously scheduled hint
+        if(this.hintTask != null) {
+            this.hintTask.cancel();
+            this.hintTask = null;
+        }
+
         // Make sure the hint contains any text
         if(hintText == null || hintText.trim().length() == 0) {
             this.hintPanel.setEnabled(false);
@@ -239,7 +245,7 @@ public class PlayerControllerComponent extends BaseComponent {
         // Set the hint text
         this.hintLabel.setText(hintText);
 
-        // Set the hint timer
-        this.showHintAt = Time.timeFloat + 2f;
+        // Show the hint panel after a short delay
+        this.hintTask = this.gameScene.schedule(2f, () -> this.hintPanel.setEnabled(true));
     }
 }
@@ -33,6 +33,11 @@ import org.joml.Vector3f;
 
 public class BoxPrefab extends CubePrefab {
 
+    /**
+     * Name of the asset group containing the box materials.
+     */
+    private static final String BOX_MATERIAL_GROUP = "box";
+
     /**
      * Constructor.
      */
@@ -46,9 +51,14 @@ public class BoxPrefab extends CubePrefab {
         // Set the position
         getTransform().setPosition(position);
 
-        // Add the animator components
-        if(spawnDelay >= 0)
-            addComponent(new ObjectSpawnAnimatorComponent(spawnDelay, !dummy ? new RigidbodyComponent(true) : null));
+        // Add the animator components, boxes that don't decay never move after they've been spawned
+        if(spawnDelay >= 0) {
+            ObjectSpawnAnimatorComponent spawnAnimator = new ObjectSpawnAnimatorComponent(spawnDelay, !dummy ? new RigidbodyComponent(true) : null);
+            spawnAnimator.setStaticAfterSpawn(decayDelay < 0.0f);
+            addComponent(spawnAnimator);
+
+        } else if(decayDelay < 0.0f)
+            getTransform().setStatic(true);
 
         // Add a decay animation
         if(decayDelay >= 0.0f)
@@ -57,79 +67,11 @@ public class BoxPrefab extends CubePrefab {
 
     /**
      * Get a random box material.
+     * The material is picked from the box asset group, based on the weights in the asset manifest.
      *
      * @return Box material.
      */
     private Material getRandomMaterial() {
-        // Get a random value
-        float randomized = (float) Math.random();
-
-        if(randomized < 0.5f) {
-            // 3/4th chance to use the regular box
-            if(randomized * 2.0f < 0.75f)
-                return GameResourceBundle.getInstance().MATERIAL_BOX0;
-
-            else {
-                // Re-randomize the value
-                randomized = (float) Math.random();
-
-                // Pick the correct material
-                if(randomized < 0.15f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX1;
-                else if(randomized < 0.3f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX2;
-                else if(randomized < 0.4f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX3;
-                else if(randomized < 0.5f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX4;
-                else if(randomized < 0.55f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX5;
-                else if(randomized < 0.6f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX6;
-                else if(randomized < 0.7f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX7;
-                else if(randomized < 0.8f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX8;
-                else if(randomized < 0.85f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX9;
-                else if(randomized < 0.9f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX10;
-                else
-                    return GameResourceBundle.getInstance().MATERIAL_BOX11;
-            }
-        } else {
-            // 3/4th chance to use the regular box
-            if((randomized - 0.5f) * 2.0f < 0.75f)
-                return GameResourceBundle.getInstance().MATERIAL_BOX0_DARK;
-
-            else {
-                // Re-randomize the value
-                randomized = (float) Math.random();
-
-                // Pick the correct material
-                if(randomized < 0.15f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX1_DARK;
-                else if(randomized < 0.3f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX2_DARK;
-                else if(randomized < 0.4f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX3_DARK;
-                else if(randomized < 0.5f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX4_DARK;
-                else if(randomized < 0.55f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX5_DARK;
-                else if(randomized < 0.6f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX6_DARK;
-                else if(randomized < 0.7f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX7_DARK;
-                else if(randomized < 0.8f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX8_DARK;
-                else if(randomized < 0.85f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX9_DARK;
-                else if(randomized < 0.9f)
-                    return GameResourceBundle.getInstance().MATERIAL_BOX10_DARK;
-                else
-                    return GameResourceBundle.getInstance().MATERIAL_BOX11_DARK;
-            }
-        }
+        return GameResourceBundle.getInstance().getRandomMaterial(BOX_MATERIAL_GROUP);
     }
 }
@@ -64,6 +64,6 @@ public class FinishPrefab extends QuadPrefab {
         addComponent(new FinishControllerComponent(playerController));
 
         // Set the finish material
-        setMaterial(GameResourceBundle.getInstance().MATERIAL_FINISH);
+        setMaterial(GameResourceBundle.getInstance().getMaterial("finish_material"));
     }
 }
@@ -57,13 +57,16 @@ public class GroundPrefab extends QuadPrefab {
 
         // Create a ground surface material
         System.out.println("Generating " + this + " surface material...");
-        Material groundMaterial = new Material(GameResourceBundle.getInstance().TEXTURE_GROUND);
+        Material groundMaterial = new Material(GameResourceBundle.getInstance().getTexture("ground_texture"));
         groundMaterial.getTiling().set(size.x / 8.0f);
 
         // Set the quad material to the ground
         setMaterial(groundMaterial);
 
-        // Add a kinematic rigidbody for collision
+        // The ground never moves
+        getTransform().setStatic(true);
+
+        // Add a static rigidbody for collision
         addComponent(new RigidbodyComponent(true));
     }
 }
@@ -87,7 +87,7 @@ public class KeyPickupPrefab extends GameObject {
 
         // Create a child game object that holds the key model
         GameObject keyModelObject = new GameObject("KeyPickupModel");
-        keyModelObject.addComponent(new MeshFilterComponent(GameResourceBundle.getInstance().MESH_KEY));
+        keyModelObject.addComponent(new MeshFilterComponent(GameResourceBundle.getInstance().getMesh("key_mesh")));
         keyModelObject.addComponent(new MeshRendererComponent(keyMaterial));
         keyModelObject.getTransform().getPosition().y = 0.2f;
         keyModelObject.getTransform().getAngularVelocity().x = 2f;
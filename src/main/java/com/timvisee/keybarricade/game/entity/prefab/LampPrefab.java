@@ -66,7 +66,7 @@ public class LampPrefab extends QuadPrefab {
         this.color = color;
 
         // Generate the padlock material
-        Material lockMaterial = new Material(GameResourceBundle.getInstance().TEXTURE_LAMP);
+        Material lockMaterial = new Material(GameResourceBundle.getInstance().getTexture("lamp_texture"));
 
         // Set the material
         setMaterial(lockMaterial);
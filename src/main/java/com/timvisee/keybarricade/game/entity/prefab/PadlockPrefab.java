@@ -35,6 +35,7 @@ import com.timvisee.voxeltex.architecture.prefab.primitive.CubePrefab;
 import com.timvisee.voxeltex.engine.light.Light;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
 import com.timvisee.voxeltex.module.texture.Texture;
 import org.joml.Vector3f;
 
@@ -93,7 +94,8 @@ public class PadlockPrefab extends GameObject {
 
         // Create a child game object that holds the padlock model
         GameObject padlockModelObject = new GameObject("PadlockRenderer");
-        padlockModelObject.addComponent(new MeshFilterComponent(GameResourceBundle.getInstance().MESH_PADLOCK));
+        Mesh padlockMesh = GameResourceBundle.getInstance().getMesh("padlock_mesh");
+        padlockModelObject.addComponent(new MeshFilterComponent(padlockMesh));
         padlockModelObject.addComponent(new MeshRendererComponent(lockMaterial));
         padlockModelObject.getTransform().getPosition().y = 0.05f;
         padlockModelObject.getTransform().getAngularVelocity().y = 0.6f;
@@ -102,7 +104,9 @@ public class PadlockPrefab extends GameObject {
         // Create a child game object that holds the force field
         CubePrefab forceField = new CubePrefab("ForceField");
         forceField.getTransform().getPosition().set(0, 0.5f, 0);
-        forceField.setMaterial(new Material(Texture.fromColor(Color.RED, 1, 1)));
+        final Material forceFieldMaterial = new Material(Texture.fromColor(Color.RED, 1, 1));
+        forceFieldMaterial.setTransparent(true);
+        forceField.setMaterial(forceFieldMaterial);
         forceField.getMeshRenderer().setAlpha(0f);
         addChild(forceField);
 
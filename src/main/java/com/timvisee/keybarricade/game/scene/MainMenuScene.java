@@ -54,6 +54,12 @@ public class MainMenuScene extends Scene {
         // Load the super
         super.load();
 
+        // Pack the transforms into a transform store, the spawner creates a lot of objects in this scene
+        setTransformStoreEnabled(true);
+
+        // Update the game objects in parallel, most of the spawned objects only have thread-safe components
+        setParallelUpdate(true);
+
         // Set the mouse cursor mode
         Input.setMouseCursorMode(MouseInputManager.CURSOR_MODE_NORMAL);
 
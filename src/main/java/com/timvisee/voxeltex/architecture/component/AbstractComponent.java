@@ -38,6 +38,13 @@ public abstract class AbstractComponent {
      */
     private EnabledState enabled = EnabledState.UNDEFINED;
 
+    /**
+     * True if the component is sleeping, false if not.
+     * Sleeping components aren't updated each frame, but are still drawn. This should be used by components that only
+     * react to scheduled callbacks or tweens.
+     */
+    private boolean sleeping = false;
+
     /**
      * Check whether this component is enabled.
      * If the enabled state is yet undefined, false will be returned.
@@ -79,6 +86,27 @@ public abstract class AbstractComponent {
         }
     }
 
+    /**
+     * Check whether the component is sleeping.
+     * Sleeping components aren't updated each frame.
+     *
+     * @return True if sleeping, false if not.
+     */
+    public boolean isSleeping() {
+        return this.sleeping;
+    }
+
+    /**
+     * Set whether the component is sleeping.
+     * Sleeping components aren't updated each frame, which should be used by components that are driven by scheduled
+     * callbacks or tweens, see {@link com.timvisee.voxeltex.architecture.scene.AbstractScene#schedule(float, Runnable)}.
+     *
+     * @param sleeping True to let the component sleep, false to wake it up.
+     */
+    public void setSleeping(boolean sleeping) {
+        this.sleeping = sleeping;
+    }
+
     /**
      * Get the game object owner/parent of this component.
      *
@@ -232,6 +260,19 @@ public abstract class AbstractComponent {
      */
     public abstract <T extends AbstractComponent> T getComponent(Class<T> componentType);
 
+    /**
+     * Get all components of the given type, in the order they were added.
+     * The type may be any class or interface, such as {@link com.timvisee.voxeltex.architecture.component.drawable.DrawableComponentInterface}.
+     *
+     * The returned list is cached and shared, and must not be modified.
+     *
+     * @param componentType Component type.
+     * @param <T> Component type.
+     *
+     * @return List of components of the given type, which is empty if none was found.
+     */
+    public abstract <T> List<T> getComponents(Class<T> componentType);
+
     /**
      * Create the component.
      *
@@ -262,6 +303,14 @@ public abstract class AbstractComponent {
      */
     public abstract void destroy();
 
+    /**
+     * Reset the component to it's initial state.
+     *
+     * Called when the game object this component is attached to is reused from a prefab pool, before it's added to a
+     * scene again. Components that keep state which changes during their lifetime should restore it here.
+     */
+    public abstract void reset();
+
     /**
      * On enable of this component.
      * This will be called when the component is enabled.
@@ -62,6 +62,9 @@ public abstract class BaseComponent extends AbstractComponent {
         }
     }
 
+    @Override
+    public void reset() { }
+
     @Override
     public void onEnable() { }
 
@@ -167,4 +170,9 @@ public abstract class BaseComponent extends AbstractComponent {
     public <T extends AbstractComponent> T getComponent(Class<T> componentType) {
         return getOwner().getComponent(componentType);
     }
+
+    @Override
+    public <T> List<T> getComponents(Class<T> componentType) {
+        return getOwner().getComponents(componentType);
+    }
 }
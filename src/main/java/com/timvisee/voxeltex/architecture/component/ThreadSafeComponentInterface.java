@@ -0,0 +1,39 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.architecture.component;
+
+/**
+ * Marker for components that may be updated concurrently, when the scene they're in uses parallel updates.
+ *
+ * The {@link AbstractComponent#update()} method of a component marked with this interface may be called from a worker
+ * thread, at the same time as the update of components on other game objects. Such an update may only modify the
+ * state of the component itself and the transform of it's own game object, and may read the world space transform
+ * of it's own game object and it's ancestors. It must not modify other game objects, add or remove components or game
+ * objects, or touch shared engine state such as the physics engine, the light manager or OpenGL.
+ *
+ * Components that don't implement this interface are always updated on the engine thread, after all concurrent
+ * updates have finished. The concurrent components of all game objects are therefore updated before any other
+ * component, regardless of the order in which they were added. Listeners of transforms that are modified concurrently
+ * are notified on the engine thread, after the concurrent updates and before the other components are updated.
+ */
+public interface ThreadSafeComponentInterface { }
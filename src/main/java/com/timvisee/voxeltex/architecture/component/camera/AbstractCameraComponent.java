@@ -31,7 +31,7 @@ public abstract class AbstractCameraComponent extends BaseComponent {
     public void create() { }
 
     @Override
-    public synchronized void update() { }
+    public void update() { }
 
     /**
      * Update the camera position.
@@ -23,6 +23,7 @@
 package com.timvisee.voxeltex.architecture.component.camera;
 
 import com.timvisee.voxeltex.runtime.global.Input;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -41,6 +42,18 @@ public class FpsCameraComponent extends MouseLookCameraComponent {
     @SuppressWarnings("FieldCanBeLocal")
     private float flySpeedFast = 100.0f;
 
+    /**
+     * Cached rotation.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Quaternionf rotationCache = new Quaternionf();
+
+    /**
+     * Cached linear velocity.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Vector3f velocityCache = new Vector3f();
+
     @Override
     public void updateCamera() {
         // Update the super camera
@@ -49,8 +62,8 @@ public class FpsCameraComponent extends MouseLookCameraComponent {
         // Determine the movement speed, move 10 times faster when shift is held
         final float flySpeed = Input.isKeyDown(GLFW_KEY_LEFT_SHIFT) ? this.flySpeedFast : this.flySpeedNormal;
 
-        // Get the linear velocity of the object, and set it back to it's identity
-        Vector3f target = getTransform().getLinearVelocity().zero();
+        // Start with a zero linear velocity
+        Vector3f target = this.velocityCache.zero();
 
         // Determine the linear velocity based on user input
         target.add(
@@ -60,7 +73,7 @@ public class FpsCameraComponent extends MouseLookCameraComponent {
         );
 
         // Rotate the linear velocity vector based on the rotation of the object
-        target.rotate(getTransform().getRotation());
+        target.rotate(getTransform().getRotation(this.rotationCache));
 
         // Add the vertical movement
         target.add(
@@ -68,5 +81,8 @@ public class FpsCameraComponent extends MouseLookCameraComponent {
                 (Input.isKeyDown(GLFW_KEY_SPACE) ? flySpeed : 0) + (Input.isKeyDown(GLFW_KEY_LEFT_CONTROL) ? -flySpeed : 0),
                 0.0f
         );
+
+        // Set the linear velocity of the object
+        getTransform().setLinearVelocity(target);
     }
 }
@@ -24,6 +24,7 @@ package com.timvisee.voxeltex.architecture.component.camera;
 
 import com.timvisee.voxeltex.runtime.global.Input;
 import com.timvisee.voxeltex.runtime.input.mouse.MouseInputManager;
+import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
 public class MouseLookCameraComponent extends CameraComponent {
@@ -42,7 +43,13 @@ public class MouseLookCameraComponent extends CameraComponent {
      * Cached up vector.
      * Used to minimize object allocation which improves performance.
      */
-    private static final Vector3f upVectorCache = new Vector3f();
+    private final Vector3f upVectorCache = new Vector3f();
+
+    /**
+     * Cached rotation.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Quaternionf rotationCache = new Quaternionf();
 
     @Override
     public void start() {
@@ -66,12 +73,10 @@ public class MouseLookCameraComponent extends CameraComponent {
         float yRot = Input.getMouseDeltaX() * this.mouseSensitivityX / getScene().getEngine().getRenderer().getWindow().getWidth();
         float xRot = Input.getMouseDeltaY() * this.mouseSensitivityY / getScene().getEngine().getRenderer().getWindow().getHeight();
 
-        // Synchronize to ensure we don't use the cached vector twice at the same time
-        synchronized(upVectorCache) {
-            // Rotate the current object around it's axis to move the view
-            getTransform().getRotation().rotateAxis(-xRot, 1, 0, 0);
-            getTransform().getRotation().rotateAxis(-yRot, getTransform().up(upVectorCache));
-        }
+        // Rotate the current object around it's axis to move the view
+        final Quaternionf rotation = getTransform().getRotation(this.rotationCache).rotateAxis(-xRot, 1, 0, 0);
+        rotation.rotateAxis(-yRot, rotation.positiveY(this.upVectorCache));
+        getTransform().setRotation(rotation);
     }
 
     /**
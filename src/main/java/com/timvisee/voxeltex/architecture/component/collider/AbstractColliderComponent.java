@@ -24,10 +24,11 @@ package com.timvisee.voxeltex.architecture.component.collider;
 
 import com.bulletphysics.collision.shapes.CollisionShape;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 import com.timvisee.voxeltex.util.math.vector.Vector3fFactory;
 import org.joml.Vector3f;
 
-public abstract class AbstractColliderComponent extends BaseComponent implements ColliderComponentInterface {
+public abstract class AbstractColliderComponent extends BaseComponent implements ColliderComponentInterface, ThreadSafeComponentInterface {
 
     /**
      * Collider offset in local space.
@@ -36,5 +36,5 @@ public abstract class AbstractDrawableComponent extends BaseComponent implements
     }
 
     @Override
-    public synchronized void update() { }
+    public void update() { }
 }
@@ -47,7 +47,7 @@ public class AxisDrawComponent extends AbstractDrawableComponent {
     }
 
     @Override
-    public synchronized void onDraw() {
+    public void onDraw() {
         // Set the thickness of the axis drawn
         GL11.glLineWidth(this.lineWidth);
 
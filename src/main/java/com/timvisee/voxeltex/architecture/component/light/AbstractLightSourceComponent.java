@@ -36,5 +36,5 @@ public abstract class AbstractLightSourceComponent extends BaseComponent impleme
     }
 
     @Override
-    public synchronized void update() { }
+    public void update() { }
 }
@@ -22,11 +22,12 @@
 
 package com.timvisee.voxeltex.architecture.component.light;
 
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 import com.timvisee.voxeltex.engine.light.Light;
 import com.timvisee.voxeltex.module.Color;
 import org.joml.Vector3f;
 
-public class LightSourceComponent extends AbstractLightSourceComponent {
+public class LightSourceComponent extends AbstractLightSourceComponent implements ThreadSafeComponentInterface {
 
     /**
      * Light instance.
@@ -125,7 +126,7 @@ public class LightSourceComponent extends AbstractLightSourceComponent {
     }
 
     @Override
-    public synchronized void update() {
+    public void update() {
         // Update the position of the light
         this.light.updatePosition(getOwner());
     }
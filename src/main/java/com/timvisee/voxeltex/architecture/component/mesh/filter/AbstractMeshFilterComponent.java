@@ -23,8 +23,9 @@
 package com.timvisee.voxeltex.architecture.component.mesh.filter;
 
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 
-public abstract class AbstractMeshFilterComponent extends BaseComponent implements MeshFilterComponentInterface {
+public abstract class AbstractMeshFilterComponent extends BaseComponent implements MeshFilterComponentInterface, ThreadSafeComponentInterface {
 
     @Override
     public void create() { }
@@ -36,7 +37,7 @@ public abstract class AbstractMeshFilterComponent extends BaseComponent implemen
     }
 
     @Override
-    public synchronized void update() { }
+    public void update() { }
 
     @Override
     public boolean hasMesh() {
@@ -22,7 +22,12 @@
 
 package com.timvisee.voxeltex.architecture.component.mesh.filter;
 
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
 import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.mesh.MeshCache;
+
+import java.util.List;
+import java.util.function.Function;
 
 public class MeshFilterComponent extends AbstractMeshFilterComponent {
 
@@ -31,6 +36,18 @@ public class MeshFilterComponent extends AbstractMeshFilterComponent {
      */
     private Mesh mesh;
 
+    /**
+     * Function that obtains the mesh from a mesh cache, or null if the mesh isn't cached.
+     */
+    private Function<MeshCache, Mesh> cachedMesh;
+
+    /**
+     * The mesh cache the attached mesh was obtained from, or null if it isn't cached.
+     * This component owns a reference to the mesh, which is released when the mesh is replaced or the component is
+     * destroyed.
+     */
+    private MeshCache meshCache;
+
     /**
      * Comstructor.
      */
@@ -45,6 +62,35 @@ public class MeshFilterComponent extends AbstractMeshFilterComponent {
         this.mesh = mesh;
     }
 
+    /**
+     * Constructor.
+     * The mesh is obtained from the mesh cache of the scene once this component is created, so it's shared with the
+     * other game objects in the scene.
+     *
+     * @param cachedMesh Function that obtains the mesh from a mesh cache, such as {@code c -> c.obtainCube(size)}.
+     */
+    public MeshFilterComponent(Function<MeshCache, Mesh> cachedMesh) {
+        this.cachedMesh = cachedMesh;
+    }
+
+    @Override
+    public void create() {
+        // Call the super
+        super.create();
+
+        // Obtain the cached mesh from the mesh cache of the scene, unless it was obtained from that cache already
+        final MeshCache cache = getScene().getMeshCache();
+        if(this.cachedMesh != null && this.meshCache != cache) {
+            final Mesh previous = this.mesh;
+            final MeshCache previousCache = this.meshCache;
+            this.mesh = this.cachedMesh.apply(cache);
+            this.meshCache = cache;
+            if(previousCache != null)
+                previousCache.release(previous);
+            notifyMeshChanged();
+        }
+    }
+
     @Override
     public Mesh getMesh() {
         return this.mesh;
@@ -52,6 +98,44 @@ public class MeshFilterComponent extends AbstractMeshFilterComponent {
 
     @Override
     public void setMesh(Mesh mesh) {
+        // Make sure the mesh changes
+        if(this.mesh == mesh)
+            return;
+
+        // Release the reference to the current mesh if it's cached, a mesh that is set explicitly isn't cached
+        if(this.meshCache != null)
+            this.meshCache.release(this.mesh);
+        this.meshCache = null;
+        this.cachedMesh = null;
+
+        // Set the mesh
         this.mesh = mesh;
+        notifyMeshChanged();
+    }
+
+    /**
+     * Let the renderers on the owner know the mesh has changed.
+     */
+    private void notifyMeshChanged() {
+        if(getOwner() != null) {
+            final List<MeshRendererComponent> renderers = getComponents(MeshRendererComponent.class);
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0, size = renderers.size(); i < size; i++)
+                if(renderers.get(i).getMeshFilterComponent() == this)
+                    renderers.get(i).onMeshChanged();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Release the reference to the mesh if it's cached
+        if(this.meshCache != null) {
+            this.meshCache.release(this.mesh);
+            this.meshCache = null;
+        }
+        this.mesh = null;
+
+        // Destroy the super
+        super.destroy();
     }
 }
@@ -23,12 +23,13 @@
 package com.timvisee.voxeltex.architecture.component.mesh.renderer;
 
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 import com.timvisee.voxeltex.module.material.Material;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class AbstractMeshRendererComponent extends BaseComponent implements MeshRendererComponentInterface {
+public abstract class AbstractMeshRendererComponent extends BaseComponent implements MeshRendererComponentInterface, ThreadSafeComponentInterface {
 
     @Override
     public void create() { }
@@ -40,7 +41,7 @@ public abstract class AbstractMeshRendererComponent extends BaseComponent implem
     }
 
     @Override
-    public synchronized void update() { }
+    public void update() { }
 
     @Override
     public boolean hasMeshFilterComponent() {
@@ -25,14 +25,21 @@ package com.timvisee.voxeltex.architecture.component.mesh.renderer;
 import com.timvisee.voxeltex.architecture.component.mesh.filter.AbstractMeshFilterComponent;
 import com.timvisee.voxeltex.architecture.component.mesh.filter.MeshFilterComponentInterface;
 import com.timvisee.voxeltex.module.Color;
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
+import com.timvisee.voxeltex.engine.render.batch.StaticBatcher;
+import com.timvisee.voxeltex.engine.render.culling.CullableInterface;
 import com.timvisee.voxeltex.module.material.Material;
-import com.timvisee.voxeltex.module.shader.Shader;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.transform.Transform;
+import com.timvisee.voxeltex.module.transform.TransformListener;
 import org.joml.Matrix4f;
+import org.joml.Vector3f;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class MeshRendererComponent extends AbstractMeshRendererComponent {
+public class MeshRendererComponent extends AbstractMeshRendererComponent
+        implements CullableInterface, TransformListener {
 
     /**
      * Mesh filter component, which provides the mesh.
@@ -50,10 +57,49 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
     private Color color = new Color(1, 1, 1, 1);
 
     /**
-     * Cached model matrix that is used for rendering from time to time.
-     * Caching and recycling the instance adds a huge performance benefit.
+     * The scene whose culling hierarchy this renderer is in, or null if it isn't in any.
      */
-    private final Matrix4f tempModelMatrix = new Matrix4f();
+    private AbstractScene cullingScene;
+
+    /**
+     * Flag whether the world bounds that were last reported to the culling hierarchy are still valid.
+     */
+    private boolean boundsValid = false;
+
+    /**
+     * Flag whether a change of the world bounds was reported to the culling hierarchy, and hasn't been fetched yet.
+     */
+    private boolean boundsChanged = false;
+
+    /**
+     * The mesh the world bounds were last computed for.
+     */
+    private Mesh boundsMesh;
+
+    /**
+     * The world version of the transform the world bounds were last computed for.
+     */
+    private int boundsVersion;
+
+    /**
+     * Cached world matrix, used to compute the world bounds.
+     */
+    private final Matrix4f tempWorldMatrix = new Matrix4f();
+
+    /**
+     * Flag whether this renderer is merged into a static batch, which draws it instead.
+     */
+    private boolean staticBatched = false;
+
+    /**
+     * The static batcher this renderer is a batch member of, or null if it isn't in a batch.
+     */
+    private StaticBatcher staticBatcher;
+
+    /**
+     * Flag whether this renderer changed while it was in a static batch, so it isn't batched again.
+     */
+    private boolean staticBatchingRejected = false;
 
     /**
      * Constructor.
@@ -99,48 +145,221 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
         // Get the mesh filter if it hasn't been configured already
         if(!hasMeshFilterComponent())
             this.meshFilter = getComponent(AbstractMeshFilterComponent.class);
+
+        // Add this renderer to the culling hierarchy of the scene
+        addToCullingHierarchy();
     }
 
     @Override
-    public synchronized void onDraw() {
-        // Make sure a mesh filter is attached and that a mesh is set
-        if(!hasMeshFilterComponent() || !getMeshFilterComponent().hasMesh())
+    public void reset() {
+        // Call the super
+        super.reset();
+
+        // The renderer may be batched again after it's reused from a prefab pool
+        this.staticBatchingRejected = false;
+    }
+
+    @Override
+    public void onEnable() {
+        // Call the super
+        super.onEnable();
+
+        // Report the change to the static batcher
+        reportBatchChanged();
+    }
+
+    @Override
+    public void onDisable() {
+        // Call the super
+        super.onDisable();
+
+        // Report the change to the static batcher, a disabled renderer must leave it's batch
+        reportBatchChanged();
+    }
+
+    @Override
+    public void destroy() {
+        // Remove this renderer from the static batch and the culling hierarchy it's in
+        if(this.staticBatcher != null)
+            this.staticBatcher.remove(this);
+        removeFromCullingHierarchy();
+
+        // Destroy the super
+        super.destroy();
+    }
+
+    /**
+     * Add this renderer to the culling hierarchy of the scene it's in, so it's only drawn when it's in view.
+     * This is called automatically when the renderer is started.
+     * Renderers that are merged into a static batch are skipped, they're added again when they leave the batch.
+     */
+    public void addToCullingHierarchy() {
+        // Make sure the renderer isn't statically batched or in the hierarchy of this scene already
+        final AbstractScene scene = getScene();
+        if(this.staticBatched || scene == this.cullingScene)
             return;
 
-        // TODO: Should we also render if no material is available, with a default color of some sort?
-        // TODO: Add compatibility for multiple materials!
-        // TODO: Use a default material if none is found!
+        // Remove the renderer from the hierarchy of a previous scene
+        removeFromCullingHierarchy();
+        if(scene == null)
+            return;
 
-        // Make sure a material is available before using it
-        if(hasMaterial()) {
-            // Get the main material and shader
-            Material material = getMaterial();
-            Shader shader = material.getShader();
+        // Add the renderer, and report it's bounds when they change
+        this.boundsValid = false;
+        this.cullingScene = scene;
+        scene.getCullingHierarchy().add(this);
+        getTransform().addListener(this);
+    }
 
-            // Bind material to OpenGL and update the shader
-            material.bind();
-            shader.update(getScene(), material);
+    /**
+     * Remove this renderer from the culling hierarchy it's in.
+     * It will then be drawn by it's game object, without culling.
+     */
+    public void removeFromCullingHierarchy() {
+        if(this.cullingScene != null) {
+            getTransform().removeListener(this);
+            this.cullingScene.getCullingHierarchy().remove(this);
+            this.cullingScene = null;
+        }
+    }
 
-            // Get the model matrix and send it to the shader
-            synchronized(this.tempModelMatrix) {
-                shader.setUniformMatrix4f("modelMatrix", getTransform().getWorldMatrix(this.tempModelMatrix));
-            }
+    /**
+     * Check whether this renderer is in a culling hierarchy.
+     *
+     * @return True if it's in a culling hierarchy, false if not.
+     */
+    public boolean isInCullingHierarchy() {
+        return this.cullingScene != null;
+    }
+
+    /**
+     * Check whether this renderer is merged into a static batch.
+     * The batch draws this renderer, so it isn't drawn on it's own.
+     *
+     * @return True if statically batched, false if not.
+     */
+    public boolean isStaticBatched() {
+        return this.staticBatched;
+    }
 
-            // Bind the texture if available
-            // TODO: Also bind the normal!
-            if(material.hasTexture())
-                shader.setUniform1f("texture", material.getTexture().getId());
+    /**
+     * Set whether this renderer is merged into a static batch.
+     * This is managed by the static batcher of the scene.
+     *
+     * @param staticBatched True if statically batched, false if not.
+     */
+    public void setStaticBatched(boolean staticBatched) {
+        this.staticBatched = staticBatched;
+    }
+
+    /**
+     * Set the static batcher this renderer is a batch member of.
+     * This is managed by the static batcher of the scene, which is notified when this renderer changes.
+     *
+     * @param staticBatcher Static batcher, or null if this renderer isn't in a batch.
+     */
+    public void setStaticBatcher(StaticBatcher staticBatcher) {
+        this.staticBatcher = staticBatcher;
+    }
 
-            // Send the color
-            // TODO: Use buffering!
-            shader.setUniform4f("color", this.color.toVector4f());
+    /**
+     * Check whether this renderer changed while it was in a static batch.
+     * Such a renderer is animated, and isn't batched again until it's reused from a prefab pool.
+     *
+     * @return True if rejected, false if not.
+     */
+    public boolean isStaticBatchingRejected() {
+        return this.staticBatchingRejected;
+    }
 
-            // Draw the mesh attached to the mesh filter
-            this.meshFilter.getMesh().draw(material);
+    /**
+     * Set whether this renderer changed while it was in a static batch.
+     * This is managed by the static batcher of the scene.
+     *
+     * @param staticBatchingRejected True if rejected, false if not.
+     */
+    public void setStaticBatchingRejected(boolean staticBatchingRejected) {
+        this.staticBatchingRejected = staticBatchingRejected;
+    }
 
-            // Unbind the material
-            material.unbind();
+    /**
+     * Report to the static batcher this renderer is in that it has changed, so it's validated on the next update.
+     */
+    private void reportBatchChanged() {
+        if(this.staticBatcher != null)
+            this.staticBatcher.markChanged(this);
+    }
+
+    @Override
+    public void onWorldInvalidated(Transform transform) {
+        reportBoundsChanged();
+    }
+
+    /**
+     * Called when the mesh of the mesh filter has been replaced.
+     */
+    public void onMeshChanged() {
+        reportBoundsChanged();
+        reportBatchChanged();
+    }
+
+    /**
+     * Report to the culling hierarchy that the world bounds of this renderer have changed, if not reported already.
+     * This must be called on the engine thread.
+     */
+    private void reportBoundsChanged() {
+        final AbstractScene scene = this.cullingScene;
+        if(scene != null && !this.boundsChanged) {
+            this.boundsChanged = true;
+            scene.getCullingHierarchy().markChanged(this);
         }
+    }
+
+    @Override
+    public boolean updateWorldBounds(Vector3f min, Vector3f max) {
+        // The reported change is being fetched
+        this.boundsChanged = false;
+
+        // Get the mesh and the transform version, and make sure the bounds have changed
+        final Mesh mesh = hasMeshFilterComponent() ? getMeshFilterComponent().getMesh() : null;
+        final Transform transform = getTransform();
+        final int version = transform.getWorldVersion();
+        if(this.boundsValid && this.boundsMesh == mesh && this.boundsVersion == version)
+            return false;
+
+        // Transform the bounds of the mesh to world space, or use the position if there is no mesh
+        transform.getWorldMatrix(this.tempWorldMatrix);
+        if(mesh != null)
+            this.tempWorldMatrix.transformAab(mesh.getBoundsMin(), mesh.getBoundsMax(), min, max);
+        else
+            max.set(this.tempWorldMatrix.getTranslation(min));
+
+        // Store the state the bounds were computed for
+        this.boundsValid = true;
+        this.boundsMesh = mesh;
+        this.boundsVersion = version;
+        return true;
+    }
+
+    @Override
+    public boolean isRenderable() {
+        return isEnabled() && getOwner() != null && getOwner().isEnabledInHierarchy();
+    }
+
+    @Override
+    public void onDraw() {
+        // Make sure a mesh filter is attached and that a mesh is set
+        if(!hasMeshFilterComponent() || !getMeshFilterComponent().hasMesh())
+            return;
+
+        // TODO: Should we also render if no material is available, with a default color of some sort?
+        // TODO: Add compatibility for multiple materials!
+        // TODO: Use a default material if none is found!
+
+        // Make sure a material is available before using it, and queue the mesh to be rendered with it
+        // TODO: Also bind the normal!
+        if(hasMaterial())
+            getScene().getRenderQueue().submit(getMaterial(), this.meshFilter.getMesh(), getTransform(), this.color);
 
         // TODO: Also draw the mesh if no material is attached!
     }
@@ -166,6 +385,7 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
     @Override
     public void addMaterial(Material material) {
         this.materials.add(material);
+        reportBatchChanged();
     }
 
     @Override
@@ -176,20 +396,25 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
     @Override
     public void setMaterials(List<Material> materials) {
         this.materials = materials;
+        reportBatchChanged();
     }
 
     @Override
     public boolean removeMaterial(Material material) {
+        reportBatchChanged();
         return this.materials.remove(material);
     }
 
     @Override
     public Material removeMaterial(int i) {
+        reportBatchChanged();
         return this.materials.remove(i);
     }
 
     /**
      * Get the color.
+     * Change the color through {@link #setColor(Color)} or {@link #setAlpha(float)}, so a static batch this renderer is
+     * in notices the change.
      *
      * @return Color.
      */
@@ -204,6 +429,7 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
      */
     public void setColor(Color color) {
         this.color = color;
+        reportBatchChanged();
     }
 
     /**
@@ -222,5 +448,6 @@ public class MeshRendererComponent extends AbstractMeshRendererComponent {
      */
     public void setAlpha(float alpha) {
         this.color.setAlpha(alpha);
+        reportBatchChanged();
     }
 }
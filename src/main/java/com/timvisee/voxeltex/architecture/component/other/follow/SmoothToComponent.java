@@ -53,6 +53,18 @@ public class SmoothToComponent extends BaseComponent {
      */
     private Quaternionf targetRotation = QuaternionfFactory.identity();
 
+    /**
+     * Cached position, used to update the transform.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Vector3f positionCache = new Vector3f();
+
+    /**
+     * Cached rotation, used to update the transform.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Quaternionf rotationCache = new Quaternionf();
+
     /**
      * Define whether to use the target rotation.
      */
@@ -203,11 +215,13 @@ public class SmoothToComponent extends BaseComponent {
 
         // Lerp to the target position with the specified position damping
         if(this.useTargetPosition)
-            getTransform().getPosition().lerp(targetPosition, positionFactor);
+            getTransform().setPosition(
+                    getTransform().getPosition(this.positionCache).lerp(targetPosition, positionFactor));
 
         // Lerp to the target rotation with the specified rotation damping
         if(this.useTargetRotation)
-            getTransform().getRotation().nlerp(targetRotation, rotationFactor);
+            getTransform().setRotation(
+                    getTransform().getRotation(this.rotationCache).nlerp(targetRotation, rotationFactor));
     }
 
     /**
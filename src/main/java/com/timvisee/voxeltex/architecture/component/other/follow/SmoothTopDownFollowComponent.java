@@ -56,6 +56,18 @@ public class SmoothTopDownFollowComponent extends BaseComponent {
      */
     private Quaternionf targetRotation = null;
 
+    /**
+     * Cached position, used to update the transform.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Vector3f positionCache = new Vector3f();
+
+    /**
+     * Cached rotation, used to update the transform.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Quaternionf rotationCache = new Quaternionf();
+
     /**
      * Constructor.
      */
@@ -170,11 +182,12 @@ public class SmoothTopDownFollowComponent extends BaseComponent {
         targetPos.add(0, height, 0);
 
         // Lerp to the target position with the specified position damping
-        getTransform().getPosition().lerp(targetPos, positionFactor);
+        getTransform().setPosition(getTransform().getPosition(this.positionCache).lerp(targetPos, positionFactor));
 
         // Lerp to the target rotation with the specified rotation damping if set
         if(this.targetRotation != null)
-            getTransform().getRotation().nlerp(targetRotation, rotationFactor);
+            getTransform().setRotation(
+                    getTransform().getRotation(this.rotationCache).nlerp(targetRotation, rotationFactor));
     }
 
     /**
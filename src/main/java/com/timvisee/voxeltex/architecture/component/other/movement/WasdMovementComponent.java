@@ -34,10 +34,16 @@ public class WasdMovementComponent extends AbstractMovementComponent {
      */
     private float movementSpeed = 5.0f;
 
+    /**
+     * Cached linear velocity.
+     * Used to minimize object allocation which improves performance.
+     */
+    private final Vector3f velocityCache = new Vector3f();
+
     @Override
     public void update() {
-        // Get the linear velocity of the object, and set it back to it's identity
-        Vector3f target = getTransform().getLinearVelocity().zero();
+        // Start with a zero linear velocity
+        Vector3f target = this.velocityCache.zero();
 
         // TODO: Make sure moving sideways has the same speed!
 
@@ -47,6 +53,9 @@ public class WasdMovementComponent extends AbstractMovementComponent {
                 0.0f,
                 (Input.isKeyDown(GLFW_KEY_W) ? -movementSpeed : 0) + (Input.isKeyDown(GLFW_KEY_S) ? movementSpeed : 0)
         );
+
+        // Set the linear velocity of the object
+        getTransform().setLinearVelocity(target);
     }
 
     /**
@@ -25,6 +25,7 @@ package com.timvisee.voxeltex.architecture.component.other.splash;
 import com.timvisee.voxeltex.architecture.component.BaseComponent;
 import com.timvisee.voxeltex.architecture.component.overlay.gui.GuiImageComponent;
 import com.timvisee.voxeltex.architecture.scene.Scene;
+import com.timvisee.voxeltex.engine.render.RenderBackend;
 import com.timvisee.voxeltex.module.transform.rectangle.Rectangle;
 import com.timvisee.voxeltex.module.transform.rectangle.RectangleTransform;
 import com.timvisee.voxeltex.runtime.global.Time;
@@ -77,7 +78,8 @@ public class SplashAnimatorComponent extends BaseComponent {
     public void update() {
         // Set the clear color of this scene
         // TODO: Configure this in the renderer class!
-        GL11.glClearColor(0, 0, 0, 1.0f);
+        if(!RenderBackend.isNull())
+            GL11.glClearColor(0, 0, 0, 1.0f);
 
         // Make sure the proper components are attached
         if(this.rectangleTransform == null || this.guiImage == null) {
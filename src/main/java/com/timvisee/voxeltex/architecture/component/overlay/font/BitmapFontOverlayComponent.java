@@ -26,7 +26,6 @@ import com.timvisee.voxeltex.architecture.component.overlay.AbstractOverlayCompo
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.font.BitmapFont;
 import com.timvisee.voxeltex.module.font.BitmapFontManager;
-import com.timvisee.voxeltex.module.render.OverlayUtil;
 import com.timvisee.voxeltex.module.render.RenderOverlayHelper;
 import com.timvisee.voxeltex.util.math.vector.Vector2fFactory;
 import org.joml.Vector2f;
@@ -133,37 +132,8 @@ public class BitmapFontOverlayComponent extends AbstractOverlayComponent {
 
     @Override
     public void onDrawOverlay() {
-        // Apply the font color to the material
-        this.font.getMaterial().setColor(this.color);
-
-        // TODO: Use the font rendering code available in the RenderOverlayHelper class!
-
-        // Bind and render each character separately
-        for(int i = 0; i < text.length(); i++) {
-            // Get the current character
-            final char c = text.charAt(i);
-
-            // Calculate the width factor of the current character
-            final float widthFactor = this.font.getFontWidths().getCharacterWidthFactor(c);
-
-            // Bind the font material with the current character and the proper character width
-            this.font.getMaterial().bind(c, widthFactor);
-
-            // Calculate the character width offset
-            final float characterWidthOffset = this.size * this.font.getFontWidths().getStringWidthFactor(text.substring(0, i));
-
-            // Get the window ratio factor
-            final float windowRatio = OverlayUtil.getWindowRatioFactor();
-
-            // Render the rectangle, and compensate with the window ratio factor
-            RenderOverlayHelper.renderRectangle(
-                    position.x + characterWidthOffset / windowRatio, position.y,
-                    this.size * widthFactor / windowRatio, this.size
-            );
-
-            // Unbind the material
-            this.font.getMaterial().unbind();
-        }
+        // Render the text
+        RenderOverlayHelper.renderFont(this.position.x, this.position.y, this.size, this.font, this.text, this.color);
     }
 
     /**
@@ -48,7 +48,7 @@ public abstract class AbstractGuiComponent extends AbstractOverlayComponent {
     }
 
     @Override
-    public synchronized void update() {
+    public void update() {
         // Update the rectangle transform if none is attached
         if(!hasRectangleTransform())
             updateRectangleTransform();
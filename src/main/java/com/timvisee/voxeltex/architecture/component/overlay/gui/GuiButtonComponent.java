@@ -127,7 +127,8 @@ public class GuiButtonComponent extends AbstractGuiComponent {
             this.lastDown = down;
             this.lastPressed = pressed;
 
-            // Update the button visuals
+            // Update the button visuals, the background is drawn without material
+            RenderOverlayHelper.material(null);
             if(pressed) {
                 RenderOverlayHelper.color(0.2f, 0.2f, 0.2f, .9f);
                 this.label.setColor(Color.WHITE);
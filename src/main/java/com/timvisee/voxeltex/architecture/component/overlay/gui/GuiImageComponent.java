@@ -26,7 +26,6 @@ import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.render.RenderOverlayHelper;
 import com.timvisee.voxeltex.module.shader.ShaderManager;
-import com.timvisee.voxeltex.module.shader.specific.GuiTextureShader;
 import com.timvisee.voxeltex.module.texture.Image;
 import com.timvisee.voxeltex.module.texture.Texture;
 import com.timvisee.voxeltex.module.transform.rectangle.Rectangle;
@@ -82,18 +81,9 @@ public class GuiImageComponent extends AbstractGuiComponent {
 
     @Override
     public void onDrawOverlay() {
-        // Bind the material if available
-        if(this.material != null)
-            this.material.bind();
-
-        // Set the color level if this is an GUI texture shader
-        if(this.material != null && this.material.getShader() instanceof GuiTextureShader) {
-            // Set the color intensity
-            ((GuiTextureShader) this.material.getShader()).setColor(this.color);
-
-            // Update the shader
-            this.material.update(getScene());
-        }
+        // Set the material and the color intensity
+        RenderOverlayHelper.material(this.material);
+        RenderOverlayHelper.color(this.color);
 
         // Synchronize to ensure we aren't using this temporary variable in multiple spots at the same time
         //noinspection Duplicates
@@ -113,10 +103,6 @@ public class GuiImageComponent extends AbstractGuiComponent {
                     this.tempRectangle.getWidth(), this.tempRectangle.getHeight()
             );
         }
-
-        // Unbind the material if available
-        if(this.material != null)
-            this.material.unbind();
     }
 
     /**
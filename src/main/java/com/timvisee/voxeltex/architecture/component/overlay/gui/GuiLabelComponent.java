@@ -113,9 +113,6 @@ public class GuiLabelComponent extends AbstractGuiComponent {
 
     @Override
     public void onDrawOverlay() {
-        // Apply the font color to the material
-        this.font.getMaterial().setColor(this.color);
-
         // Synchronize to ensure we aren't using this temporary variable in multiple spots at the same time
         synchronized(this.tempRectangle) {
             // Make sure we've a valid transform component, if not, skip the following code with an error message
@@ -128,7 +125,7 @@ public class GuiLabelComponent extends AbstractGuiComponent {
             getRectangleTransform().getOverlayRectangle(this.tempRectangle);
 
             // Draw the font
-            RenderOverlayHelper.renderFont(this.tempRectangle, this.font, text);
+            RenderOverlayHelper.renderFont(this.tempRectangle, this.font, text, this.color);
         }
     }
 
@@ -54,7 +54,8 @@ public class GuiPanelComponent extends AbstractGuiComponent {
 
     @Override
     public void onDrawOverlay() {
-        // Set the drawing color
+        // Set the drawing color, without material
+        RenderOverlayHelper.material(null);
         RenderOverlayHelper.color(this.color);
 
         // Synchronize to ensure we aren't using this temporary variable in multiple spots at the same time
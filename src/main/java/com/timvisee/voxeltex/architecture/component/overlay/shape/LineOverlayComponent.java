@@ -73,7 +73,8 @@ public class LineOverlayComponent extends AbstractOverlayComponent {
         // Set the thickness of the line drawn
         RenderOverlayHelper.lineWidth(this.lineWidth);
 
-        // Set the drawing color
+        // Set the drawing color, without material
+        RenderOverlayHelper.material(null);
         RenderOverlayHelper.color(1, 0, 0, 0.5f);
 
         // Render the line
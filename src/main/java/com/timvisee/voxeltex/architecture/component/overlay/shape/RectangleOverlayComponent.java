@@ -65,7 +65,8 @@ public class RectangleOverlayComponent extends AbstractOverlayComponent {
 
     @Override
     public void onDrawOverlay() {
-        // Set the drawing color
+        // Set the drawing color, without material
+        RenderOverlayHelper.material(null);
         RenderOverlayHelper.color(1, 0, 0, 0.5f);
 
         // Render the rectangle
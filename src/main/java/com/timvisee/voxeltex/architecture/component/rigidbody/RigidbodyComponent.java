@@ -30,14 +30,16 @@ import com.bulletphysics.dynamics.RigidBodyConstructionInfo;
 import com.bulletphysics.linearmath.DefaultMotionState;
 import com.bulletphysics.linearmath.MotionState;
 import com.bulletphysics.linearmath.Transform;
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 import com.timvisee.voxeltex.architecture.component.collider.AbstractColliderComponent;
 import com.timvisee.voxeltex.engine.physics.ScenePhysicsEngine;
 import com.timvisee.voxeltex.util.math.matrix.Matrix4fUtil;
+import org.joml.Quaternionf;
 
 import javax.vecmath.Matrix4f;
 import javax.vecmath.Vector3f;
 
-public class RigidbodyComponent extends AbstractRigidbodyComponent {
+public class RigidbodyComponent extends AbstractRigidbodyComponent implements ThreadSafeComponentInterface {
 
     /**
      * Rigid body used with the Bullet physics engine.
@@ -55,31 +57,32 @@ public class RigidbodyComponent extends AbstractRigidbodyComponent {
     private boolean initKinematic = false;
 
     /**
-     * Shared lock for the temporary shared field usage.
-     * These temporary fields are used to minimize object allocation at runtime,
-     * which minimizes GC and greatly improved performance.
-     * This ensures the temporary fields aren't used in multiple spots at the same time,
-     * because that may cause unwanted behaviour.
+     * Temporary transform, used for transform representations, one instance for each thread.
+     * Using and recycling this temporary transform minimizes object allocation, resulting in better performance.
      */
-    private static final Object tempSharedLock = new Object();
+    private static final ThreadLocal<Transform> tempTransform = ThreadLocal.withInitial(Transform::new);
 
     /**
-     * Temporary transform, used for transform representations.
-     * Using and recycling this temporary transform minimizes object allocation, resulting in better performance.
+     * Temporary VecMath matrix, used for transform calculations, one instance for each thread.
+     * Using and recycling this temporary matrix minimizes object allocation, resulting in better performance.
      */
-    private static final Transform tempTransform = new Transform();
+    private static final ThreadLocal<Matrix4f> tempMatrixVecmath = ThreadLocal.withInitial(Matrix4f::new);
 
     /**
-     * Temporary VecMath matrix, used for transform calculations.
+     * Temporary JOML matrix, used for transform calculations, one instance for each thread.
      * Using and recycling this temporary matrix minimizes object allocation, resulting in better performance.
      */
-    private static final Matrix4f tempMatrixVecmath = new Matrix4f();
+    private static final ThreadLocal<org.joml.Matrix4f> tempMatrixJoml = ThreadLocal.withInitial(org.joml.Matrix4f::new);
 
     /**
-     * Temporary JOML matrix, used for transform calculations.
-     * Using and recycling this temporary matrix minimizes object allocation, resulting in better performance.
+     * Temporary JOML position, used to update the game object transform, one instance for each thread.
      */
-    private static final org.joml.Matrix4f tempMatrixJoml = new org.joml.Matrix4f();
+    private static final ThreadLocal<org.joml.Vector3f> tempPosition = ThreadLocal.withInitial(org.joml.Vector3f::new);
+
+    /**
+     * Temporary JOML rotation, used to update the game object transform, one instance for each thread.
+     */
+    private static final ThreadLocal<Quaternionf> tempRotation = ThreadLocal.withInitial(Quaternionf::new);
 
     /**
      * Constructor.
@@ -108,22 +111,23 @@ public class RigidbodyComponent extends AbstractRigidbodyComponent {
     }
 
     @Override
-    public synchronized void update() {
-        // Update the transform of the game object according to the physics object if available
-        if(this.physicsRigidbody != null) {
-            // Ensure we aren't using the temporary transform and matrix in multiple spots at the same time
-            synchronized(tempSharedLock) {
-                // Get the world transform matrix of the physics object
-                this.physicsRigidbody.getWorldTransform(tempTransform);
-
-                // Convert the transformation matrix to a JOML matrix
-                Matrix4fUtil.toJoml(tempTransform.getMatrix(tempMatrixVecmath), tempMatrixJoml);
-
-                // Update the game object transform
-                tempMatrixJoml.getTranslation(getTransform().getPosition());
-                tempMatrixJoml.getUnnormalizedRotation(getTransform().getRotation());
-                //tempMatrixJoml.getScale(getTransform().getScale()); // TODO: Implement this!
-            }
+    public void update() {
+        // Update the transform of the game object according to the physics object if available, static objects never move
+        if(this.physicsRigidbody != null && !getTransform().isStatic()) {
+            // Get the temporary transform and matrices for this thread
+            final Transform transform = tempTransform.get();
+            final org.joml.Matrix4f matrixJoml = tempMatrixJoml.get();
+
+            // Get the world transform matrix of the physics object
+            this.physicsRigidbody.getWorldTransform(transform);
+
+            // Convert the transformation matrix to a JOML matrix
+            Matrix4fUtil.toJoml(transform.getMatrix(tempMatrixVecmath.get()), matrixJoml);
+
+            // Update the game object transform
+            getTransform().setPosition(matrixJoml.getTranslation(tempPosition.get()));
+            getTransform().setRotation(matrixJoml.getUnnormalizedRotation(tempRotation.get()));
+            //matrixJoml.getScale(getTransform().getScale()); // TODO: Implement this!
         }
     }
 
@@ -153,22 +157,25 @@ public class RigidbodyComponent extends AbstractRigidbodyComponent {
         // Define the motion state variable
         MotionState motionState;
 
-        // Make sure the temporary fields being used aren't used in multiple spots at the same time
-        synchronized(tempSharedLock) {
-            // Get the transform object for the collision shape
-            tempTransform.set(Matrix4fUtil.toVecmath(getTransform().getWorldMatrix(tempMatrixJoml), tempMatrixVecmath));
+        // Get the transform object for the collision shape
+        final Transform transform = tempTransform.get();
+        transform.set(Matrix4fUtil.toVecmath(getTransform().getWorldMatrix(tempMatrixJoml.get()), tempMatrixVecmath.get()));
 
-            // Create the motion state for the game object
-            motionState = new DefaultMotionState(tempTransform);
-        }
+        // Create the motion state for the game object
+        motionState = new DefaultMotionState(transform);
+
+        // Static game objects are immovable, and get a static rigidbody without mass
+        final boolean staticBody = getTransform().isStatic();
+        final float mass = staticBody ? 0f : 1f;
 
         // Calculate and define the inertia
         // TODO: Use proper inertia here!
         Vector3f inertia = new Vector3f(0, 0, 0);
-        collisionShape.calculateLocalInertia(1f, inertia);
+        if(!staticBody)
+            collisionShape.calculateLocalInertia(mass, inertia);
 
         // Create and configure the rigidbody construction info
-        RigidBodyConstructionInfo constructionInfo = new RigidBodyConstructionInfo(1f, motionState, collisionShape, inertia);
+        RigidBodyConstructionInfo constructionInfo = new RigidBodyConstructionInfo(mass, motionState, collisionShape, inertia);
         // TODO: Use proper restitution and angular damping here!
         constructionInfo.restitution = 0.5f;
         constructionInfo.angularDamping = 0.1f;
@@ -178,8 +185,11 @@ public class RigidbodyComponent extends AbstractRigidbodyComponent {
         // TODO: Determine what the activation state should be!
         this.physicsRigidbody.setActivationState(CollisionObject.DISABLE_DEACTIVATION);
 
-        // Set whether the game rigidbody is kinematic or not
-        setKinematic(this.initKinematic);
+        // Set whether the game rigidbody is static, or whether it's kinematic or not
+        if(staticBody)
+            setCollisionFlag(CollisionFlags.STATIC_OBJECT, true);
+        else
+            setKinematic(this.initKinematic);
 
         // Set the user pointer to the game object
         this.physicsRigidbody.setUserPointer(getOwner());
@@ -23,6 +23,7 @@
 package com.timvisee.voxeltex.architecture.gameobject;
 
 import com.timvisee.voxeltex.architecture.component.AbstractComponent;
+import com.timvisee.voxeltex.architecture.prefab.PrefabPool;
 import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.engine.VoxelTexEngine;
 import com.timvisee.voxeltex.module.transform.Transform;
@@ -43,6 +44,16 @@ public abstract class AbstractGameObject {
      */
     private AbstractScene scene;
 
+    /**
+     * Number of descendants of this game object, maintained incrementally when children are added or removed.
+     */
+    private int descendantCount = 0;
+
+    /**
+     * The prefab pool this game object is returned to when it's destroyed, or null if it isn't pooled.
+     */
+    private PrefabPool<?> prefabPool = null;
+
     /**
      * Constructor.
      *
@@ -83,6 +94,14 @@ public abstract class AbstractGameObject {
         // Set the new state
         this.enabled = enabled ? EnabledState.ENABLED : EnabledState.DISABLED;
 
+        // Let the transform know, a transform store only integrates enabled game objects
+        if(change && getTransform() != null)
+            getTransform().onEnabledChanged();
+
+        // Let the scene know, renderers that aren't rendered anymore must leave their static batch
+        if(change && this.scene != null)
+            this.scene.onGameObjectEnabledChanged(this);
+
         // Call the onEnable or onDisable method accordingly
         // TODO: Only call this if the game object has started?
         if(change) {
@@ -153,6 +172,14 @@ public abstract class AbstractGameObject {
      * @param scene Game object scene.
      */
     public void setScene(AbstractScene scene) {
+        // Detach this game object from the previous scene, and attach it to the new scene
+        if(this.scene != scene) {
+            if(this.scene != null)
+                this.scene.onGameObjectDetached(this);
+            if(scene != null)
+                scene.onGameObjectAttached(this);
+        }
+
         // Set the scene
         this.scene = scene;
 
@@ -161,6 +188,33 @@ public abstract class AbstractGameObject {
             child.setScene(this.scene);
     }
 
+    /**
+     * Get the prefab pool this game object is returned to when it's destroyed.
+     *
+     * @return Prefab pool, or null if this game object isn't pooled.
+     */
+    public PrefabPool<?> getPrefabPool() {
+        return this.prefabPool;
+    }
+
+    /**
+     * Check whether this game object is pooled.
+     *
+     * @return True if pooled, false if not.
+     */
+    public boolean isPooled() {
+        return this.prefabPool != null;
+    }
+
+    /**
+     * Set the prefab pool this game object is returned to when it's destroyed.
+     *
+     * @param prefabPool Prefab pool, or null.
+     */
+    public void setPrefabPool(PrefabPool<?> prefabPool) {
+        this.prefabPool = prefabPool;
+    }
+
     /**
      * Get the parent game object.
      *
@@ -206,13 +260,57 @@ public abstract class AbstractGameObject {
      */
     public abstract int getChildCount(boolean recursive);
 
+    /**
+     * Get the number of descendants of this game object.
+     * This count is maintained incrementally, and is thus available in constant time.
+     *
+     * @return Number of descendants.
+     */
+    public int getDescendantCount() {
+        return this.descendantCount;
+    }
+
+    /**
+     * Adjust the descendant count of this game object and all it's ancestors.
+     * This must be called when a child is added or removed.
+     *
+     * @param delta Number of descendants that were added, or a negative number if descendants were removed.
+     */
+    protected void adjustDescendantCount(int delta) {
+        for(AbstractGameObject gameObject = this; gameObject != null; gameObject = gameObject.getParent())
+            gameObject.descendantCount += delta;
+    }
+
+    /**
+     * Check whether this game object and all it's parents are enabled.
+     *
+     * @return True if enabled in the hierarchy, false if this game object or any of it's parents is disabled.
+     */
+    public boolean isEnabledInHierarchy() {
+        for(AbstractGameObject gameObject = this; gameObject != null; gameObject = gameObject.getParent())
+            if(!gameObject.isEnabled())
+                return false;
+        return true;
+    }
+
     /**
      * Add a child to this game object.
+     * If the game object already has a different parent, it's detached from that parent first.
      *
      * @param gameObject Game object to add.
      */
     public abstract void addChild(AbstractGameObject gameObject);
 
+    /**
+     * Detach a child from this game object right away.
+     * The child is removed from the list of children, it's parent is reset, and it's subtree is subtracted from the
+     * descendant counts of this game object and all it's ancestors. Nothing is done if it isn't a child of this game
+     * object.
+     *
+     * @param child Child to detach.
+     */
+    protected abstract void detachChild(AbstractGameObject child);
+
     /**
      * Get a child of this game object by it's index.
      *
@@ -291,6 +389,19 @@ public abstract class AbstractGameObject {
      */
     public abstract <T extends AbstractComponent> T getComponent(Class<T> componentType);
 
+    /**
+     * Get all components of the given type, in the order they were added.
+     * The type may be any class or interface, such as {@link com.timvisee.voxeltex.architecture.component.drawable.DrawableComponentInterface}.
+     *
+     * The returned list is cached and shared, and must not be modified.
+     *
+     * @param componentType Component type.
+     * @param <T> Component type.
+     *
+     * @return List of components of the given type, which is empty if none was found.
+     */
+    public abstract <T> List<T> getComponents(Class<T> componentType);
+
     /**
      * Remove a component from the game object before the next update.
      * To destroy the component, call {@see AbstractComponent.destroy()} instead since this method doesn't imply
@@ -331,6 +442,25 @@ public abstract class AbstractGameObject {
      */
     public abstract void update();
 
+    /**
+     * Update the parts of this game object that may be updated concurrently.
+     * This integrates the transform, and updates all enabled components that are marked as thread-safe with
+     * {@link com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface}. Children aren't updated.
+     *
+     * This is used by scenes with parallel updates enabled, and may be called from a worker thread.
+     */
+    public abstract void updateConcurrent();
+
+    /**
+     * Update the parts of this game object that must be updated on the engine thread.
+     * This updates all enabled components that aren't thread-safe, and processes the parts of all enabled children
+     * recursively that must be updated on the engine thread.
+     *
+     * This is used by scenes with parallel updates enabled, after {@link #updateConcurrent()} has been called for
+     * all game objects.
+     */
+    public abstract void updateSequential();
+
     /**
      * Destroy the game object.
      * This will remove the game object from the parent game object or scene automatically before the next update.
@@ -340,6 +470,12 @@ public abstract class AbstractGameObject {
      */
     public abstract void destroy();
 
+    /**
+     * Reset the game object, so it can be reused by it's prefab pool.
+     * This clears the motion state of the transform, and resets all components and children recursively.
+     */
+    public abstract void reset();
+
     /**
      * Draw the game object.
      * This will be called when drawing the game object.
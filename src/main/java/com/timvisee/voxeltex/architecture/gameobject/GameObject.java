@@ -23,17 +23,24 @@
 package com.timvisee.voxeltex.architecture.gameobject;
 
 import com.timvisee.voxeltex.architecture.component.AbstractComponent;
+import com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface;
 import com.timvisee.voxeltex.architecture.component.drawable.DrawableComponentInterface;
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponentInterface;
 import com.timvisee.voxeltex.architecture.component.overlay.OverlayComponentInterface;
 import com.timvisee.voxeltex.module.transform.Transform;
 import com.timvisee.voxeltex.runtime.global.MainCamera;
+import com.timvisee.voxeltex.util.ListUtil;
 import org.joml.Matrix4f;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class GameObject extends AbstractGameObject {
 
@@ -72,16 +79,22 @@ public class GameObject extends AbstractGameObject {
      */
     private List<AbstractComponent> componentsRemoveQueue = new ArrayList<>();
 
+    /**
+     * Index of components by the type they were looked up with, or null if nothing has been looked up yet.
+     * Lookups are cached lazily, and the index is invalidated when components are added or removed.
+     */
+    private Map<Class<?>, List<AbstractComponent>> componentIndex = null;
+
     /**
      * Float buffer for the rendering matrix.
      */
     private FloatBuffer fb = BufferUtils.createFloatBuffer(16);
 
     /**
-     * View matrix cache.
-     * This is used to optimize performance and object allocation at runtime.
+     * View matrix cache, one instance for each thread.
+     * This is used to optimize performance and object allocation at runtime, without requiring any locking.
      */
-    private static final Matrix4f viewMatrixCache = new Matrix4f();
+    private static final ThreadLocal<Matrix4f> viewMatrixCache = ThreadLocal.withInitial(Matrix4f::new);
 
     /**
      * Constructor.
@@ -119,7 +132,11 @@ public class GameObject extends AbstractGameObject {
 
     @Override
     public void setParent(AbstractGameObject parent) {
-        this.parent = parent;
+        // Set the parent, and invalidate the world matrices of the transform hierarchy if it has changed
+        if(this.parent != parent) {
+            this.parent = parent;
+            this.transform.onParentChanged();
+        }
     }
 
     @Override
@@ -138,28 +155,28 @@ public class GameObject extends AbstractGameObject {
         if(!recursive)
             return this.children.size();
 
-        // Count the number of recursive children
-        int count = 0;
-
-        // Loop through all the children, and count
-        //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.children.size(); i < size; i++)
-            count += this.children.get(i).getChildCount(true);
-
-        // Return the number of recursive children
-        return count;
+        // Return the maintained number of recursive children
+        return getDescendantCount();
     }
 
     @Override
     public void addChild(AbstractGameObject gameObject) {
+        // Detach the game object from it's current parent if it's reparented
+        final AbstractGameObject previousParent = gameObject.getParent();
+        if(previousParent == this)
+            return;
+        if(previousParent != null)
+            previousParent.detachChild(gameObject);
+
         // Set the parent
         gameObject.setParent(this);
 
         // Set the scene
         gameObject.setScene(getScene());
 
-        // Add the game object to the children
+        // Add the game object to the children, and update the descendant counts
         this.children.add(gameObject);
+        adjustDescendantCount(1 + gameObject.getDescendantCount());
 
         // Create the game object
         if(getScene() != null)
@@ -170,6 +187,29 @@ public class GameObject extends AbstractGameObject {
             gameObject.start();
     }
 
+    @Override
+    protected void detachChild(AbstractGameObject child) {
+        // Make sure the game object is a child of this game object
+        if(child.getParent() != this)
+            return;
+
+        // Unlink the child, and remove it from the list of children right away
+        unlinkChild(child);
+        this.children.remove(child);
+    }
+
+    /**
+     * Unlink a child from this game object, by resetting it's parent and subtracting it's subtree from the
+     * descendant counts of this game object and all of it's ancestors.
+     * The child isn't removed from the list of children.
+     *
+     * @param child Child to unlink.
+     */
+    private void unlinkChild(AbstractGameObject child) {
+        adjustDescendantCount(-(1 + child.getDescendantCount()));
+        child.setParent(null);
+    }
+
     @Override
     public AbstractGameObject getChild(int i) {
         return this.children.get(i);
@@ -207,8 +247,9 @@ public class GameObject extends AbstractGameObject {
 
     @Override
     public void addComponent(AbstractComponent component) {
-        // Add the component
+        // Add the component, and invalidate the component index
         this.components.add(component);
+        invalidateComponentIndex();
 
         // Set the component owner
         component.setOwner(this);
@@ -229,17 +270,61 @@ public class GameObject extends AbstractGameObject {
 
     @Override
     public <T extends AbstractComponent> T getComponent(Class<T> componentType) {
-        // Loop through all components to find an applicable one
+        // Get the indexed components of this type
+        List<AbstractComponent> indexed = getIndexedComponents(componentType);
+
+        // Return the first component, or null if none was found
+        //noinspection unchecked
+        return indexed.isEmpty() ? null : (T) indexed.get(0);
+    }
+
+    @Override
+    public <T> List<T> getComponents(Class<T> componentType) {
+        //noinspection unchecked
+        return (List<T>) getIndexedComponents(componentType);
+    }
+
+    /**
+     * Get all components of the given type from the component index.
+     * The components are looked up and indexed if this type hasn't been indexed yet.
+     *
+     * @param componentType Component type.
+     *
+     * @return List of components of the given type.
+     */
+    private List<AbstractComponent> getIndexedComponents(Class<?> componentType) {
+        // Create the index if it doesn't exist yet, or return the indexed components if available
+        if(this.componentIndex == null)
+            this.componentIndex = new HashMap<>();
+        else {
+            List<AbstractComponent> indexed = this.componentIndex.get(componentType);
+            if(indexed != null)
+                return indexed;
+        }
+
+        // Loop through all components to find the applicable ones
+        List<AbstractComponent> found = null;
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.components.size(); i < size; i++) {
-            // Check whether this component is valid
-            if(componentType.isAssignableFrom(this.components.get(i).getClass()))
-                //noinspection unchecked
-                return (T) this.components.get(i);
+            if(componentType.isInstance(this.components.get(i))) {
+                if(found == null)
+                    found = new ArrayList<>(1);
+                found.add(this.components.get(i));
+            }
         }
 
-        // None found, return null
-        return null;
+        // Index and return the result
+        List<AbstractComponent> result = found != null ? Collections.unmodifiableList(found) : Collections.<AbstractComponent>emptyList();
+        this.componentIndex.put(componentType, result);
+        return result;
+    }
+
+    /**
+     * Invalidate the component index, because components were added or removed.
+     */
+    private void invalidateComponentIndex() {
+        if(this.componentIndex != null)
+            this.componentIndex.clear();
     }
 
     @Override
@@ -288,40 +373,108 @@ public class GameObject extends AbstractGameObject {
     }
 
     @Override
-    public synchronized void update() {
-        // Update the transform
-        this.transform.update();
+    public void update() {
+        // Update the transform, skip static and non-moving transforms
+        if(this.transform.isMoving())
+            this.transform.update();
 
         // Update all components
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.components.size(); i < size; i++)
-            if(this.components.get(i).isEnabled())
+            if(isAwake(this.components.get(i)))
                 this.components.get(i).update();
 
-        // Update all children
+        // Update all children, children may be reparented meanwhile so the size is checked on each iteration
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.children.size(); i < size; i++)
+        for(int i = 0; i < this.children.size(); i++)
             if(this.children.get(i).isEnabled())
                 this.children.get(i).update();
 
-        // Remove all components that were queued to be removed
+        // Process the remove queues
+        processRemoveQueues();
+    }
+
+    @Override
+    public void updateConcurrent() {
+        // Update the transform, skip static and non-moving transforms
+        if(this.transform.isMoving())
+            this.transform.update();
+
+        // Update all thread-safe components
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.componentsRemoveQueue.size(); i < size; i++) {
-            // Reset the owner of the component
-            this.componentsRemoveQueue.get(i).setOwner(null);
+        for(int i = 0, size = this.components.size(); i < size; i++)
+            if(isAwake(this.components.get(i)) && this.components.get(i) instanceof ThreadSafeComponentInterface)
+                this.components.get(i).update();
+    }
 
-            // Remove the component
-            this.components.remove(this.componentsRemoveQueue.get(i));
+    @Override
+    public void updateSequential() {
+        // Update all components that aren't thread-safe
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.components.size(); i < size; i++)
+            if(isAwake(this.components.get(i)) && !(this.components.get(i) instanceof ThreadSafeComponentInterface))
+                this.components.get(i).update();
+
+        // Update all children, children may be reparented meanwhile so the size is checked on each iteration
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0; i < this.children.size(); i++)
+            if(this.children.get(i).isEnabled())
+                this.children.get(i).updateSequential();
+
+        // Process the remove queues
+        processRemoveQueues();
+    }
+
+    /**
+     * Check whether the given component should be updated, which is the case if it's enabled and not sleeping.
+     *
+     * @param component Component.
+     *
+     * @return True if the component should be updated, false if not.
+     */
+    private static boolean isAwake(AbstractComponent component) {
+        return component.isEnabled() && !component.isSleeping();
+    }
+
+    /**
+     * Remove all components and children that were queued to be removed.
+     */
+    private void processRemoveQueues() {
+        // Reset the owner of all components that were queued to be removed, mesh renderers leave their static batch and
+        // the culling hierarchy first
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.componentsRemoveQueue.size(); i < size; i++) {
+            final AbstractComponent component = this.componentsRemoveQueue.get(i);
+            if(component instanceof MeshRendererComponent) {
+                if(getScene() != null)
+                    getScene().getStaticBatcher().remove((MeshRendererComponent) component);
+                ((MeshRendererComponent) component).removeFromCullingHierarchy();
+            }
+            component.setOwner(null);
         }
 
+        // Remove the components in a single pass, and invalidate the component index
+        if(ListUtil.removeAll(this.components, this.componentsRemoveQueue) > 0)
+            invalidateComponentIndex();
+
         // Clear the list of queued destroyed components
         this.componentsRemoveQueue.clear();
 
-        // Remove all children that were queued to be removed
+        // Detach all children that were queued to be removed, skip children that were queued more than once
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.childrenRemoveQueue.size(); i < size; i++)
-            // Remove the child
-            this.children.remove(this.childrenRemoveQueue.get(i));
+        for(int i = 0, size = this.childrenRemoveQueue.size(); i < size; i++) {
+            // Get the child, and make sure it's still attached
+            final AbstractGameObject child = this.childrenRemoveQueue.get(i);
+            if(child.getParent() != this)
+                continue;
+
+            // Unlink the child, and detach it from the scene
+            unlinkChild(child);
+            child.setScene(null);
+        }
+
+        // Remove the children in a single pass
+        ListUtil.removeAll(this.children, this.childrenRemoveQueue);
 
         // Clear the list of queued destroyed children
         this.childrenRemoveQueue.clear();
@@ -332,6 +485,15 @@ public class GameObject extends AbstractGameObject {
         // Disable the game object
         setEnabled(false);
 
+        // Return the game object to it's prefab pool if it's pooled, and detach it without destroying anything
+        if(isPooled() && getPrefabPool().release(this)) {
+            if(hasParent())
+                getParent().removeChild(this);
+            else
+                getScene().removeGameObject(this);
+            return;
+        }
+
         // Destroy all components
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.components.size(); i < size; i++)
@@ -358,53 +520,75 @@ public class GameObject extends AbstractGameObject {
     }
 
     @Override
-    public synchronized void onDraw() {
+    public void reset() {
+        // Clear the motion state of the transform
+        this.transform.getLinearVelocity().zero();
+        this.transform.getLinearAcceleration().zero();
+        this.transform.getAngularVelocity().zero();
+        this.transform.getAngularAcceleration().zero();
+
+        // Reset all components
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.components.size(); i < size; i++)
+            this.components.get(i).reset();
+
+        // Reset all children
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.children.size(); i < size; i++)
+            this.children.get(i).reset();
+    }
+
+    @Override
+    public void onDraw() {
         // Define whether we started drawing
         boolean drawing = false;
 
         // Draw all drawable components and all children
+        final List<AbstractComponent> drawables = getIndexedComponents(DrawableComponentInterface.class);
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.components.size(); i < size; i++) {
-            // Make sure the component is drawable
-            if(this.components.get(i) instanceof DrawableComponentInterface) {
-                // Make sure the drawing mode is enabled
-                if(!drawing) {
-                    // Start the drawing process and set the flag
-                    drawStart();
-                    drawing = true;
-                }
-
-                // Draw the component if enabled
-                if(this.components.get(i).isEnabled())
-                    ((DrawableComponentInterface) this.components.get(i)).onDraw();
+        for(int i = 0, size = drawables.size(); i < size; i++) {
+            // Skip mesh renderers in the culling hierarchy or in a static batch, the scene draws them if visible
+            if(drawables.get(i) instanceof MeshRendererComponent
+                    && (((MeshRendererComponent) drawables.get(i)).isInCullingHierarchy()
+                    || ((MeshRendererComponent) drawables.get(i)).isStaticBatched()))
+                continue;
+
+            // Make sure the drawing mode is enabled, mesh renderers only submit to the render queue and don't need it
+            if(!drawing && !(drawables.get(i) instanceof MeshRendererComponentInterface)) {
+                // Start the drawing process and set the flag
+                drawStart();
+                drawing = true;
             }
+
+            // Draw the component if enabled
+            if(drawables.get(i).isEnabled())
+                ((DrawableComponentInterface) drawables.get(i)).onDraw();
         }
 
         // End the drawing process if it was enabled
         if(drawing)
             drawEnd();
 
-        // Draw all children if enabled
+        // Draw all children if enabled, children may be reparented meanwhile so the size is checked on each iteration
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.children.size(); i < size; i++)
+        for(int i = 0; i < this.children.size(); i++)
             if(this.children.get(i).isEnabled())
                 this.children.get(i).onDraw();
     }
 
     @Override
-    public synchronized void onDrawOverlay() {
+    public void onDrawOverlay() {
         // Draw all overlay components and all children
+        final List<AbstractComponent> overlays = getIndexedComponents(OverlayComponentInterface.class);
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.components.size(); i < size; i++)
-            // Make sure the component is drawable
-            if(this.components.get(i) instanceof OverlayComponentInterface)
-                // Draw the component overlay
-                if(this.components.get(i).isEnabled())
-                    ((OverlayComponentInterface) this.components.get(i)).onDrawOverlay();
+        for(int i = 0, size = overlays.size(); i < size; i++)
+            // Draw the component overlay
+            if(overlays.get(i).isEnabled())
+                ((OverlayComponentInterface) overlays.get(i)).onDrawOverlay();
 
-        // Draw all children
+        // Draw all children, children may be reparented meanwhile so the size is checked on each iteration
         //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.children.size(); i < size; i++)
+        for(int i = 0; i < this.children.size(); i++)
             if(this.children.get(i).isEnabled())
                 this.children.get(i).onDrawOverlay();
     }
@@ -412,21 +596,21 @@ public class GameObject extends AbstractGameObject {
     /**
      * Prepare and start the drawing process.
      */
-    private synchronized void drawStart() {
-        // Do not use the cached view matrix in multiple places at the same time
-        synchronized(viewMatrixCache) {
-            // Combine the world camera and game object matrix to construct the view matrix
-            getTransform().addWorldMatrix(MainCamera.createCameraViewMatrix(viewMatrixCache));
-
-            // Load the matrix to the GPU
-            GL11.glLoadMatrixf(viewMatrixCache.get(fb));
-        }
+    private void drawStart() {
+        // Get the view matrix cache for this thread
+        final Matrix4f viewMatrix = viewMatrixCache.get();
+
+        // Combine the world camera and game object matrix to construct the view matrix
+        getTransform().addWorldMatrix(MainCamera.createCameraViewMatrix(viewMatrix));
+
+        // Load the matrix to the GPU
+        GL11.glLoadMatrixf(viewMatrix.get(fb));
     }
 
     /**
      * End the current drawing process.
      */
-    private synchronized void drawEnd() {
+    private void drawEnd() {
         // Pop the OpenGL matrix
         GL11.glPopMatrix();
     }
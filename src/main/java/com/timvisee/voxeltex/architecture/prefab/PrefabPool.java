@@ -0,0 +1,156 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.architecture.prefab;
+
+import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Pool of prefab instances that are recycled instead of being destroyed.
+ *
+ * Game objects obtained from a pool are returned to it when they're destroyed, together with their children,
+ * components, meshes and materials. Once a returned game object has been detached from it's scene, it's reset and handed
+ * out again by {@link #obtain()}, so spawning and destroying pooled prefabs doesn't allocate anything.
+ *
+ * Components of pooled game objects should implement {@link com.timvisee.voxeltex.architecture.component.AbstractComponent#reset()}
+ * to restore their initial state, and should disable themselves rather than removing themselves from their owner.
+ *
+ * @param <T> Prefab type.
+ */
+public class PrefabPool<T extends AbstractGameObject> {
+
+    /**
+     * Default maximum number of idle game objects kept in a pool.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    /**
+     * Factory used to create new instances if no idle game object is available.
+     */
+    private final Supplier<T> factory;
+
+    /**
+     * Maximum number of idle game objects kept in this pool.
+     */
+    private final int maxSize;
+
+    /**
+     * Released game objects, oldest first.
+     */
+    private final ArrayDeque<T> released = new ArrayDeque<>();
+
+    /**
+     * Set of released game objects, used to ignore game objects that are released more than once.
+     */
+    private final Set<AbstractGameObject> releasedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Constructor.
+     *
+     * @param factory Factory used to create new instances.
+     */
+    public PrefabPool(Supplier<T> factory) {
+        this(factory, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param factory Factory used to create new instances.
+     * @param maxSize Maximum number of idle game objects kept in this pool.
+     */
+    public PrefabPool(Supplier<T> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Obtain a game object from the pool.
+     * A released game object is reset and reused if one is available that has been detached from it's scene,
+     * a new instance is created otherwise. The game object must be added to a scene or parent by the caller.
+     *
+     * @return Game object.
+     */
+    public T obtain() {
+        // Reuse the oldest released game object if it has been detached
+        T gameObject = this.released.peekFirst();
+        if(gameObject != null && gameObject.getScene() == null && !gameObject.hasParent()) {
+            // Take the game object out of the pool
+            this.released.pollFirst();
+            this.releasedSet.remove(gameObject);
+
+            // Reset and enable the game object
+            gameObject.reset();
+            gameObject.setEnabled(true);
+            return gameObject;
+        }
+
+        // Create a new instance, and assign it to this pool
+        gameObject = this.factory.get();
+        gameObject.setPrefabPool(this);
+        return gameObject;
+    }
+
+    /**
+     * Release the given game object into this pool.
+     * This is called automatically when a pooled game object is destroyed.
+     *
+     * @param gameObject Game object to release.
+     *
+     * @return True if the game object is kept by this pool, false if the pool is full and the game object should be
+     * destroyed.
+     */
+    public boolean release(AbstractGameObject gameObject) {
+        // Make sure the game object belongs to this pool
+        if(gameObject.getPrefabPool() != this)
+            throw new RuntimeException("Unable to release " + gameObject + ", it doesn't belong to this prefab pool");
+
+        // Ignore game objects that are released already
+        if(this.releasedSet.contains(gameObject))
+            return true;
+
+        // Don't keep the game object if the pool is full
+        if(this.released.size() >= this.maxSize)
+            return false;
+
+        // Add the game object to the pool
+        //noinspection unchecked
+        this.released.addLast((T) gameObject);
+        this.releasedSet.add(gameObject);
+        return true;
+    }
+
+    /**
+     * Get the number of idle game objects in this pool.
+     *
+     * @return Number of idle game objects.
+     */
+    public int size() {
+        return this.released.size();
+    }
+}
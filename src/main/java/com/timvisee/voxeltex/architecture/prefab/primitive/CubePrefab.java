@@ -27,7 +27,6 @@ import com.timvisee.voxeltex.architecture.component.mesh.filter.MeshFilterCompon
 import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
 import com.timvisee.voxeltex.architecture.gameobject.GameObject;
 import com.timvisee.voxeltex.module.material.Material;
-import com.timvisee.voxeltex.module.mesh.generator.CubeMeshGenerator;
 import com.timvisee.voxeltex.module.shader.ShaderManager;
 import com.timvisee.voxeltex.util.math.vector.Vector3fFactory;
 import org.joml.Vector3f;
@@ -80,8 +79,9 @@ public class CubePrefab extends GameObject {
         // Construct the super
         super(name);
 
-        // Create the mesh filter component
-        this.meshFilter = new MeshFilterComponent(new CubeMeshGenerator(size).createMesh());
+        // Create the mesh filter component, which shares the cube mesh through the mesh cache of the scene
+        final Vector3f meshSize = new Vector3f(size);
+        this.meshFilter = new MeshFilterComponent(cache -> cache.obtainCube(meshSize));
 
         // Create the mesh renderer component
         this.meshRenderer = new MeshRendererComponent(new Material(ShaderManager.SHADER_DEFAULT));
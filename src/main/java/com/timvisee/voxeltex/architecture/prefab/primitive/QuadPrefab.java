@@ -30,6 +30,7 @@ import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.mesh.generator.QuadMeshGenerator;
 import com.timvisee.voxeltex.module.shader.ShaderManager;
 import com.timvisee.voxeltex.util.math.vector.Vector2fFactory;
+import com.timvisee.voxeltex.util.math.vector.Vector3fFactory;
 import org.joml.Vector2f;
 
 public class QuadPrefab extends GameObject {
@@ -90,8 +91,11 @@ public class QuadPrefab extends GameObject {
         // Construct the super
         super(name);
 
-        // Create the mesh filter component
-        this.meshFilter = new MeshFilterComponent(new QuadMeshGenerator(DEFAULT_ORIENTATION, size).createMesh());
+        // Create the mesh filter component, which shares the quad mesh through the mesh cache of the scene
+        final Vector2f meshSize = new Vector2f(size);
+        this.meshFilter = new MeshFilterComponent(
+                cache -> cache.obtainQuad(DEFAULT_ORIENTATION, meshSize, Vector3fFactory.zero())
+        );
 
         // Create the mesh renderer component
         this.meshRenderer = new MeshRendererComponent(new Material(ShaderManager.SHADER_DEFAULT));
@@ -22,12 +22,24 @@
 
 package com.timvisee.voxeltex.architecture.scene;
 
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
 import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+import com.timvisee.voxeltex.architecture.scene.schedule.SceneScheduler;
+import com.timvisee.voxeltex.architecture.scene.schedule.ScheduledTask;
+import com.timvisee.voxeltex.architecture.scene.schedule.TweenListener;
 import com.timvisee.voxeltex.engine.VoxelTexEngine;
 import com.timvisee.voxeltex.engine.light.LightManager;
 import com.timvisee.voxeltex.engine.physics.ScenePhysicsEngine;
-
+import com.timvisee.voxeltex.engine.render.batch.StaticBatcher;
+import com.timvisee.voxeltex.engine.render.culling.BoundingVolumeHierarchy;
+import com.timvisee.voxeltex.engine.render.queue.RenderQueue;
+import com.timvisee.voxeltex.module.mesh.MeshCache;
+import com.timvisee.voxeltex.module.shader.FrameUniformBuffer;
+import com.timvisee.voxeltex.module.transform.TransformStore;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractScene {
 
@@ -46,6 +58,56 @@ public abstract class AbstractScene {
      */
     private final ScenePhysicsEngine physicsEngine = new ScenePhysicsEngine(this);
 
+    /**
+     * Scheduler for timed callbacks and tweens in this scene.
+     */
+    private final SceneScheduler scheduler = new SceneScheduler();
+
+    /**
+     * Render queue, meshes are submitted to this queue while the scene is drawn.
+     */
+    private final RenderQueue renderQueue = new RenderQueue();
+
+    /**
+     * Bounding volume hierarchy of the mesh renderers in this scene, used for frustum culling.
+     */
+    private final BoundingVolumeHierarchy<MeshRendererComponent> cullingHierarchy = new BoundingVolumeHierarchy<>();
+
+    /**
+     * Static batcher, which merges the meshes of static objects in this scene.
+     */
+    private final StaticBatcher staticBatcher = new StaticBatcher(this);
+
+    /**
+     * Cache of the generated meshes that are shared by the game objects in this scene.
+     */
+    private final MeshCache meshCache = new MeshCache();
+
+    /**
+     * Uniform buffer holding the camera and light data of this scene, shared by all shader programs.
+     */
+    private final FrameUniformBuffer frameUniformBuffer = new FrameUniformBuffer();
+
+    /**
+     * Transform store for this scene, or null if transforms aren't stored.
+     */
+    private TransformStore transformStore = null;
+
+    /**
+     * Defines whether game objects in this scene are updated in parallel.
+     */
+    private boolean parallelUpdate = false;
+
+    /**
+     * Number of game objects attached to this scene, including all children.
+     */
+    private int attachedCount = 0;
+
+    /**
+     * Number of game objects attached to this scene for each game object type.
+     */
+    private final Map<Class<?>, int[]> attachedTypeCounts = new HashMap<>();
+
     /**
      * Defines whether the scene has started. True if started, false if not.
      */
@@ -89,6 +151,245 @@ public abstract class AbstractScene {
         return this.physicsEngine;
     }
 
+    /**
+     * Get the scheduler for timed callbacks and tweens in this scene.
+     *
+     * @return Scene scheduler.
+     */
+    public SceneScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * Get the render queue of this scene.
+     * Meshes are submitted to this queue while the scene is drawn, and are rendered sorted by state afterwards.
+     *
+     * @return Render queue.
+     */
+    public RenderQueue getRenderQueue() {
+        return this.renderQueue;
+    }
+
+    /**
+     * Get the bounding volume hierarchy of the mesh renderers in this scene.
+     * Mesh renderers in this hierarchy are only drawn if they intersect the view frustum of the main camera.
+     *
+     * @return Culling hierarchy.
+     */
+    public BoundingVolumeHierarchy<MeshRendererComponent> getCullingHierarchy() {
+        return this.cullingHierarchy;
+    }
+
+    /**
+     * Get the static batcher of this scene.
+     * Visible static mesh renderers that share a material are merged into a mesh per chunk by this batcher.
+     *
+     * @return Static batcher.
+     */
+    public StaticBatcher getStaticBatcher() {
+        return this.staticBatcher;
+    }
+
+    /**
+     * Get the mesh cache of this scene.
+     * Generated meshes are shared between the game objects in this scene through this cache, and are disposed along
+     * with the scene.
+     *
+     * @return Mesh cache.
+     */
+    public MeshCache getMeshCache() {
+        return this.meshCache;
+    }
+
+    /**
+     * Get the frame uniform buffer of this scene.
+     * It holds the camera and light data, and is uploaded once each time the scene is drawn.
+     *
+     * @return Frame uniform buffer.
+     */
+    public FrameUniformBuffer getFrameUniformBuffer() {
+        return this.frameUniformBuffer;
+    }
+
+    /**
+     * Schedule a callback to be invoked on the engine thread after the given delay.
+     *
+     * @param delay Delay in seconds.
+     * @param callback Callback.
+     *
+     * @return Task handle, which may be used to cancel the callback.
+     */
+    public ScheduledTask schedule(float delay, Runnable callback) {
+        return this.scheduler.schedule(delay, callback);
+    }
+
+    /**
+     * Schedule a tween that starts after the given delay, and is updated each frame until the duration has passed.
+     *
+     * @param delay Delay in seconds before the tween starts.
+     * @param duration Tween duration in seconds.
+     * @param listener Tween listener.
+     *
+     * @return Task handle, which may be used to cancel the tween.
+     */
+    public ScheduledTask tween(float delay, float duration, TweenListener listener) {
+        return this.scheduler.tween(delay, duration, listener);
+    }
+
+    /**
+     * Get the transform store for this scene.
+     *
+     * @return Transform store, or null if transforms aren't stored.
+     */
+    public TransformStore getTransformStore() {
+        return this.transformStore;
+    }
+
+    /**
+     * Check whether this scene stores the transforms of it's game objects in a transform store.
+     *
+     * @return True if transforms are stored, false if not.
+     */
+    public boolean hasTransformStore() {
+        return this.transformStore != null;
+    }
+
+    /**
+     * Set whether the transforms of all game objects in this scene should be packed into a transform store.
+     * This is recommended for scenes with a lot of game objects, because the store integrates and propagates all
+     * transforms as linear loops over packed arrays.
+     *
+     * @param enabled True to enable the transform store, false to disable it.
+     */
+    public void setTransformStoreEnabled(boolean enabled) {
+        // Make sure the state changes
+        if(enabled == hasTransformStore())
+            return;
+
+        // Disable the store, and unbind all transforms
+        if(!enabled) {
+            this.transformStore.clear();
+            this.transformStore = null;
+            return;
+        }
+
+        // Create the store, and add the transforms of all current game objects
+        this.transformStore = new TransformStore();
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = getGameObjects().size(); i < size; i++)
+            this.transformStore.addAll(getGameObjects().get(i));
+    }
+
+    /**
+     * Check whether game objects in this scene are updated in parallel.
+     *
+     * @return True if updated in parallel, false if not.
+     */
+    public boolean isParallelUpdate() {
+        return this.parallelUpdate;
+    }
+
+    /**
+     * Set whether game objects in this scene should be updated in parallel.
+     *
+     * When enabled, transforms and components marked with
+     * {@link com.timvisee.voxeltex.architecture.component.ThreadSafeComponentInterface} are updated concurrently on
+     * the common fork-join pool first. All other components are updated on the engine thread afterwards, in their
+     * usual order. The physics engine is only updated once both phases have finished.
+     *
+     * This changes the update order: every thread-safe component in the scene is updated before every other
+     * component, instead of in the order the components were added to their game object. Transform listeners are
+     * notified on the engine thread between both phases.
+     *
+     * @param parallelUpdate True to update in parallel, false to update sequentially.
+     */
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    /**
+     * Called when a game object is attached to this scene.
+     * This is invoked automatically for every game object, including children, of which the scene is set to this
+     * scene.
+     *
+     * @param gameObject Attached game object.
+     */
+    public void onGameObjectAttached(AbstractGameObject gameObject) {
+        // Update the counts
+        this.attachedCount++;
+        int[] typeCount = this.attachedTypeCounts.get(gameObject.getClass());
+        if(typeCount == null)
+            this.attachedTypeCounts.put(gameObject.getClass(), typeCount = new int[1]);
+        typeCount[0]++;
+
+        // Add the transform to the transform store
+        if(hasTransformStore())
+            this.transformStore.add(gameObject.getTransform());
+    }
+
+    /**
+     * Called when a game object is detached from this scene.
+     * This is invoked automatically for every game object, including children, of which the scene is changed from
+     * this scene to a different scene or to null.
+     *
+     * @param gameObject Detached game object.
+     */
+    public void onGameObjectDetached(AbstractGameObject gameObject) {
+        // Update the counts
+        this.attachedCount--;
+        int[] typeCount = this.attachedTypeCounts.get(gameObject.getClass());
+        if(typeCount != null)
+            typeCount[0]--;
+
+        // Remove the transform from the transform store
+        if(hasTransformStore())
+            this.transformStore.remove(gameObject.getTransform());
+
+        // Remove the mesh renderers from the static batches and the culling hierarchy, they're added again when the
+        // game object is started
+        final List<MeshRendererComponent> renderers = gameObject.getComponents(MeshRendererComponent.class);
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = renderers.size(); i < size; i++) {
+            this.staticBatcher.remove(renderers.get(i));
+            renderers.get(i).removeFromCullingHierarchy();
+        }
+    }
+
+    /**
+     * Called when the enabled state of a game object in this scene has changed.
+     * The static batches are validated, since renderers of the game object and it's descendants may not be rendered
+     * anymore.
+     *
+     * @param gameObject Game object.
+     */
+    public void onGameObjectEnabledChanged(AbstractGameObject gameObject) {
+        this.staticBatcher.markChanged(gameObject);
+    }
+
+    /**
+     * Get the number of game objects attached to this scene, including all children.
+     * This count is maintained incrementally, and is thus available in constant time.
+     *
+     * @return Number of attached game objects.
+     */
+    public int getAttachedGameObjectCount() {
+        return this.attachedCount;
+    }
+
+    /**
+     * Get the number of game objects of the given type attached to this scene, including all children.
+     * Only game objects of exactly the given class are counted, subclasses are counted separately.
+     * This count is maintained incrementally, and is thus available in constant time.
+     *
+     * @param type Game object type, such as a prefab class.
+     *
+     * @return Number of attached game objects of the given type.
+     */
+    public int getGameObjectCount(Class<? extends AbstractGameObject> type) {
+        int[] typeCount = this.attachedTypeCounts.get(type);
+        return typeCount != null ? typeCount[0] : 0;
+    }
+
     /**
      * Check whether the scene is started.
      *
@@ -0,0 +1,124 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.architecture.scene;
+
+import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+import com.timvisee.voxeltex.module.transform.TransformEventBuffer;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task that concurrently updates a range of game objects and their children.
+ * Ranges larger than the split threshold are split in halves, so both the list of root game objects in a scene and
+ * large lists of children are spread over the worker threads.
+ *
+ * Only the concurrent part of each game object is updated, see {@link AbstractGameObject#updateConcurrent()}. Transform
+ * events are recorded in the event buffer of the thread, and are raised on the engine thread once all tasks finished.
+ */
+class ParallelUpdateTask extends RecursiveAction {
+
+    /**
+     * Maximum number of game objects in a range that is updated by a single task without splitting it.
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+
+    /**
+     * The scene that is updated.
+     */
+    private final Scene scene;
+
+    /**
+     * The list of game objects to update a range of.
+     */
+    private final List<AbstractGameObject> gameObjects;
+
+    /**
+     * Index of the first game object to update, inclusive.
+     */
+    private final int from;
+
+    /**
+     * Index of the last game object to update, exclusive.
+     */
+    private final int to;
+
+    /**
+     * Constructor.
+     *
+     * @param scene The scene that is updated.
+     * @param gameObjects List of game objects.
+     * @param from Index of the first game object to update, inclusive.
+     * @param to Index of the last game object to update, exclusive.
+     */
+    ParallelUpdateTask(Scene scene, List<AbstractGameObject> gameObjects, int from, int to) {
+        this.scene = scene;
+        this.gameObjects = gameObjects;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        // Record the transform events raised on this thread in it's own buffer
+        final TransformEventBuffer previous = this.scene.getWorkerEventBuffer().enter();
+        try {
+            update();
+        } finally {
+            TransformEventBuffer.leave(previous);
+        }
+    }
+
+    /**
+     * Update the range of game objects, or split it into two tasks if it's too large.
+     */
+    private void update() {
+        // Split the range if it's too large
+        if(this.to - this.from > SPLIT_THRESHOLD) {
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new ParallelUpdateTask(this.scene, this.gameObjects, this.from, middle),
+                    new ParallelUpdateTask(this.scene, this.gameObjects, middle, this.to)
+            );
+            return;
+        }
+
+        // Update the game objects in this range
+        for(int i = this.from; i < this.to; i++) {
+            // Get the game object, and make sure it's enabled
+            final AbstractGameObject gameObject = this.gameObjects.get(i);
+            if(!gameObject.isEnabled())
+                continue;
+
+            // Update the concurrent part of the game object
+            gameObject.updateConcurrent();
+
+            // Update the children, validate the transform first so children on other threads only read it
+            final int childCount = gameObject.getChildren().size();
+            if(childCount > 0) {
+                gameObject.getTransform().validate();
+                new ParallelUpdateTask(this.scene, gameObject.getChildren(), 0, childCount).update();
+            }
+        }
+    }
+}
@@ -22,10 +22,19 @@
 
 package com.timvisee.voxeltex.architecture.scene;
 
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
 import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+import com.timvisee.voxeltex.module.render.RenderOverlayHelper;
+import com.timvisee.voxeltex.module.transform.TransformEventBuffer;
+import com.timvisee.voxeltex.runtime.global.MainCamera;
+import com.timvisee.voxeltex.runtime.global.Time;
+import com.timvisee.voxeltex.util.ListUtil;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Scene extends AbstractScene {
 
@@ -34,6 +43,42 @@ public class Scene extends AbstractScene {
      */
     private List<AbstractGameObject> gameObjects = new ArrayList<>();
 
+    /**
+     * Transform event buffers of all threads that took part in a parallel update of this scene.
+     */
+    private final List<TransformEventBuffer> workerEventBuffers = new ArrayList<>();
+
+    /**
+     * Transform event buffer of each thread that takes part in a parallel update of this scene.
+     */
+    private final ThreadLocal<TransformEventBuffer> workerEventBuffer = ThreadLocal.withInitial(() -> {
+        final TransformEventBuffer buffer = new TransformEventBuffer();
+        synchronized(this.workerEventBuffers) {
+            this.workerEventBuffers.add(buffer);
+        }
+        return buffer;
+    });
+
+    /**
+     * View frustum of the main camera, used for culling.
+     */
+    private final FrustumIntersection frustum = new FrustumIntersection();
+
+    /**
+     * Matrix used to construct the view frustum.
+     */
+    private final Matrix4f frustumMatrix = new Matrix4f();
+
+    /**
+     * Camera view matrix used to construct the view frustum.
+     */
+    private final Matrix4f viewMatrix = new Matrix4f();
+
+    /**
+     * List of mesh renderers that are visible in the current frame.
+     */
+    private final List<MeshRendererComponent> visibleRenderers = new ArrayList<>();
+
     /**
      * List of game objects queued to be removed.
      */
@@ -46,20 +91,10 @@ public class Scene extends AbstractScene {
 
     @Override
     public int getGameObjectCount(boolean recursive) {
-        // Return the number if not recursive
+        // Return the number of root objects if not recursive, or the maintained total otherwise
         if(!recursive)
-            this.gameObjects.size();
-
-        // Count the number of game objects
-        int count = 0;
-
-        // Loop through all game objects and count the total
-        //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.gameObjects.size(); i < size; i++)
-            count += this.gameObjects.get(i).getChildCount(true);
-
-        // Return the object count
-        return count;
+            return this.gameObjects.size();
+        return getAttachedGameObjectCount();
     }
 
     @Override
@@ -116,45 +151,119 @@ public class Scene extends AbstractScene {
 
     @Override
     public void update() {
+        // Integrate and propagate all stored transforms
+        if(hasTransformStore())
+            getTransformStore().update(Time.deltaTimeFloat);
+
+        // Invoke all scheduled callbacks that are due, and update the running tweens
+        getScheduler().update(Time.timeFloat);
+
         // Update all game objects
-        //noinspection ForLoopReplaceableByForEach
-        for(int i = 0, size = this.gameObjects.size(); i < size; i++)
-            if(this.gameObjects.get(i).isEnabled())
-                this.gameObjects.get(i).update();
+        if(isParallelUpdate()) {
+            // Update the thread-safe parts concurrently, this blocks until all tasks have finished
+            final int count = this.gameObjects.size();
+            ForkJoinPool.commonPool().invoke(new ParallelUpdateTask(this, this.gameObjects, 0, count));
+
+            // Raise the transform events the workers have recorded on this thread
+            synchronized(this.workerEventBuffers) {
+                //noinspection ForLoopReplaceableByForEach
+                for(int i = 0, size = this.workerEventBuffers.size(); i < size; i++)
+                    this.workerEventBuffers.get(i).flush();
+            }
+
+            // Update the remaining parts on this thread
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0, size = this.gameObjects.size(); i < size; i++)
+                if(this.gameObjects.get(i).isEnabled())
+                    this.gameObjects.get(i).updateSequential();
+
+        } else {
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0, size = this.gameObjects.size(); i < size; i++)
+                if(this.gameObjects.get(i).isEnabled())
+                    this.gameObjects.get(i).update();
+        }
 
         // Update the physics engine and simulate the next physics step
         getPhysicsEngine().update();
 
-        // Remove all game objects that were queued to be removed
+        // Detach all game objects that were queued to be removed from this scene
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.gameObjectsRemoveQueue.size(); i < size; i++) {
             // Reset the parent of the game object
             this.gameObjectsRemoveQueue.get(i).setParent(null);
 
-            // Remove the game object
-            this.gameObjects.remove(this.gameObjectsRemoveQueue.get(i));
+            // Reset the scene of the game object, which also updates the counts and the transform store
+            if(this.gameObjectsRemoveQueue.get(i).getScene() == this)
+                this.gameObjectsRemoveQueue.get(i).setScene(null);
         }
 
+        // Remove the game objects in a single pass
+        ListUtil.removeAll(this.gameObjects, this.gameObjectsRemoveQueue);
+
         // Clear the list of game objects queued to be removed
         this.gameObjectsRemoveQueue.clear();
     }
 
+    /**
+     * Get the transform event buffer of the current thread, for a parallel update of this scene.
+     *
+     * @return Transform event buffer.
+     */
+    TransformEventBuffer getWorkerEventBuffer() {
+        return this.workerEventBuffer.get();
+    }
+
     @Override
     public void onDraw() {
+        // Upload the camera and light data shared by all shader programs
+        getFrameUniformBuffer().update(this);
+
         // Draw all game objects if enabled
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.gameObjects.size(); i < size; i++)
             if(this.gameObjects.get(i).isEnabled())
                 this.gameObjects.get(i).onDraw();
+
+        // Construct the view frustum of the main camera
+        MainCamera.createCameraViewMatrix(this.viewMatrix);
+        this.frustumMatrix.set(MainCamera.getProjectionMatrix()).mul(this.viewMatrix);
+        this.frustum.set(this.frustumMatrix);
+
+        // Update the static batches, renderers that left a batch are added to the culling hierarchy again
+        getStaticBatcher().update(Time.timeFloat);
+
+        // Update the culling hierarchy, and draw the mesh renderers that intersect the view frustum
+        getCullingHierarchy().update();
+        getCullingHierarchy().query(this.frustum, this.visibleRenderers);
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.visibleRenderers.size(); i < size; i++) {
+            // Add static renderers to a batch, they're drawn on their own until the batch is rebuilt
+            getStaticBatcher().add(this.visibleRenderers.get(i));
+            this.visibleRenderers.get(i).onDraw();
+        }
+        this.visibleRenderers.clear();
+
+        // Draw the static batches that intersect the view frustum
+        getStaticBatcher().submit(this.frustum, getRenderQueue());
+
+        // Render all meshes that were queued while drawing the game objects
+        getRenderQueue().render(this);
     }
 
     @Override
     public void onDrawOverlay() {
+        // Begin batching the overlay
+        RenderOverlayHelper.begin(this);
+
         // Draw the overlay of all game objects if enabled
         //noinspection ForLoopReplaceableByForEach
         for(int i = 0, size = this.gameObjects.size(); i < size; i++)
             if(this.gameObjects.get(i).isEnabled())
                 this.gameObjects.get(i).onDrawOverlay();
+
+        // Draw everything that is still batched
+        RenderOverlayHelper.end();
     }
 
     @Override
@@ -164,6 +273,12 @@ public class Scene extends AbstractScene {
         for(int i = 0, size = this.gameObjects.size(); i < size; i++)
             this.gameObjects.get(i).destroy();
 
+        // Dispose the static batches, the cached meshes, the render queue and the frame uniform buffer
+        getStaticBatcher().dispose();
+        getMeshCache().disposeAll();
+        getRenderQueue().dispose();
+        getFrameUniformBuffer().dispose();
+
         // Show status message
         System.out.println(this + " is queued to be unloaded.");
 
@@ -0,0 +1,235 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.architecture.scene.schedule;
+
+import com.timvisee.voxeltex.runtime.global.Time;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scheduler for timed callbacks and tweens in a scene, backed by a hashed timer wheel.
+ *
+ * Scheduled tasks are put in the wheel slot of the tick they're due at, so each update only visits the slots of the
+ * ticks that have passed since the previous update, instead of checking every pending task. Components that only
+ * wait for a point in time should schedule a callback and sleep, rather than comparing the time on each update.
+ *
+ * Tweens are tasks that, once due, are updated each frame with their progress until their duration has passed.
+ */
+public class SceneScheduler {
+
+    /**
+     * Number of slots in the timer wheel.
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * Duration of a single tick in seconds.
+     */
+    private static final float TICK_DURATION = 0.01f;
+
+    /**
+     * Timer wheel slots, holding the pending tasks due in each tick modulo the wheel size.
+     */
+    private final List<List<ScheduledTask>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    /**
+     * Tweens that are currently running.
+     */
+    private final List<ScheduledTask> runningTweens = new ArrayList<>();
+
+    /**
+     * Tasks that are due in the current update, in the order they were found.
+     */
+    private final List<ScheduledTask> dueTasks = new ArrayList<>();
+
+    /**
+     * The last tick that has been processed.
+     */
+    private long currentTick;
+
+    /**
+     * Number of pending tasks in the wheel.
+     */
+    private int pendingCount = 0;
+
+    /**
+     * Constructor.
+     */
+    public SceneScheduler() {
+        // Create the wheel slots
+        for(int i = 0; i < WHEEL_SIZE; i++)
+            this.wheel.add(new ArrayList<>());
+
+        // Start at the current tick
+        this.currentTick = toTick(Time.timeFloat);
+    }
+
+    /**
+     * Schedule a callback to be invoked after the given delay.
+     *
+     * @param delay Delay in seconds.
+     * @param callback Callback.
+     *
+     * @return Task handle, which may be used to cancel the callback.
+     */
+    public ScheduledTask schedule(float delay, Runnable callback) {
+        return add(new ScheduledTask(callback, null, Time.timeFloat + delay, 0f, dueTick(delay)));
+    }
+
+    /**
+     * Schedule a tween that starts after the given delay, and runs for the given duration.
+     * The listener is updated once each frame while the tween is running.
+     *
+     * @param delay Delay in seconds before the tween starts.
+     * @param duration Tween duration in seconds.
+     * @param listener Tween listener.
+     *
+     * @return Task handle, which may be used to cancel the tween.
+     */
+    public ScheduledTask tween(float delay, float duration, TweenListener listener) {
+        return add(new ScheduledTask(null, listener, Time.timeFloat + delay, duration, dueTick(delay)));
+    }
+
+    /**
+     * Get the number of pending tasks and running tweens.
+     *
+     * @return Number of tasks.
+     */
+    public int getTaskCount() {
+        return this.pendingCount + this.runningTweens.size();
+    }
+
+    /**
+     * Update the scheduler.
+     * This invokes all callbacks that are due, starts all tweens that are due, and updates all running tweens.
+     *
+     * @param time Current time in seconds.
+     */
+    public void update(float time) {
+        // Collect the tasks of all ticks that have passed, visiting each slot at most once
+        final long targetTick = toTick(time);
+        final long firstTick = Math.max(this.currentTick + 1, targetTick - WHEEL_SIZE + 1);
+        for(long tick = firstTick; tick <= targetTick && this.pendingCount > 0; tick++)
+            collect(this.wheel.get((int) (tick % WHEEL_SIZE)), targetTick);
+        this.currentTick = Math.max(this.currentTick, targetTick);
+
+        // Invoke the due callbacks and start the due tweens
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.dueTasks.size(); i < size; i++) {
+            final ScheduledTask task = this.dueTasks.get(i);
+            if(task.isCancelled())
+                continue;
+
+            if(task.isTween())
+                this.runningTweens.add(task);
+            else {
+                task.setDone();
+                task.callback.run();
+            }
+        }
+        this.dueTasks.clear();
+
+        // Update all running tweens, and compact the list to remove the tweens that have finished
+        final int tweenCount = this.runningTweens.size();
+        int keep = 0;
+        for(int i = 0; i < tweenCount; i++) {
+            final ScheduledTask tween = this.runningTweens.get(i);
+
+            // Determine the progress, and update or complete the tween
+            float progress = tween.duration > 0f ? Math.min(Math.max((time - tween.dueTime) / tween.duration, 0f), 1f) : 1f;
+            if(!tween.isCancelled())
+                tween.tweenListener.onTweenUpdate(progress);
+            if(!tween.isCancelled() && progress >= 1f) {
+                tween.setDone();
+                tween.tweenListener.onTweenComplete();
+            }
+
+            // Keep the tween if it hasn't finished
+            if(!tween.isCancelled() && !tween.isDone())
+                this.runningTweens.set(keep++, tween);
+        }
+        this.runningTweens.subList(keep, tweenCount).clear();
+    }
+
+    /**
+     * Move all tasks in the given slot that are due at or before the given tick to the list of due tasks.
+     * Cancelled tasks are dropped.
+     *
+     * @param slot Wheel slot.
+     * @param targetTick Tick to collect the due tasks for.
+     */
+    private void collect(List<ScheduledTask> slot, long targetTick) {
+        for(int i = 0; i < slot.size(); i++) {
+            final ScheduledTask task = slot.get(i);
+            if(!task.isCancelled() && task.dueTick > targetTick)
+                continue;
+
+            // Swap remove the task from the slot, order within a slot doesn't matter
+            slot.set(i, slot.get(slot.size() - 1));
+            slot.remove(slot.size() - 1);
+            i--;
+            this.pendingCount--;
+
+            // Queue the task if it isn't cancelled
+            if(!task.isCancelled())
+                this.dueTasks.add(task);
+        }
+    }
+
+    /**
+     * Add the given task to the timer wheel.
+     *
+     * @param task Task.
+     *
+     * @return Task.
+     */
+    private ScheduledTask add(ScheduledTask task) {
+        this.wheel.get((int) (task.dueTick % WHEEL_SIZE)).add(task);
+        this.pendingCount++;
+        return task;
+    }
+
+    /**
+     * Get the tick a task with the given delay is due at.
+     * Tasks are never due in a tick that has already been processed.
+     *
+     * @param delay Delay in seconds.
+     *
+     * @return Due tick.
+     */
+    private long dueTick(float delay) {
+        return Math.max((long) Math.ceil((Time.timeFloat + Math.max(delay, 0f)) / TICK_DURATION), this.currentTick + 1);
+    }
+
+    /**
+     * Get the tick for the given time.
+     *
+     * @param time Time in seconds.
+     *
+     * @return Tick.
+     */
+    private static long toTick(float time) {
+        return (long) Math.floor(time / TICK_DURATION);
+    }
+}
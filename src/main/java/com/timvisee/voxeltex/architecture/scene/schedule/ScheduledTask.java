@@ -0,0 +1,124 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.architecture.scene.schedule;
+
+/**
+ * Handle of a callback or tween scheduled on a {@link SceneScheduler}.
+ */
+public class ScheduledTask {
+
+    /**
+     * Callback to invoke when the task is due, or null if this task is a tween.
+     */
+    final Runnable callback;
+
+    /**
+     * Tween listener, or null if this task is a plain callback.
+     */
+    final TweenListener tweenListener;
+
+    /**
+     * Time in seconds the task is due at, which is the start time for tweens.
+     */
+    final float dueTime;
+
+    /**
+     * Tween duration in seconds.
+     */
+    final float duration;
+
+    /**
+     * Scheduler tick the task is due at.
+     */
+    final long dueTick;
+
+    /**
+     * True if the task has been cancelled.
+     */
+    private boolean cancelled = false;
+
+    /**
+     * True if the task has finished, which is after the callback was invoked or the tween has completed.
+     */
+    private boolean done = false;
+
+    /**
+     * Constructor.
+     *
+     * @param callback Callback, or null for a tween.
+     * @param tweenListener Tween listener, or null for a callback.
+     * @param dueTime Time in seconds the task is due at.
+     * @param duration Tween duration in seconds.
+     * @param dueTick Scheduler tick the task is due at.
+     */
+    ScheduledTask(Runnable callback, TweenListener tweenListener, float dueTime, float duration, long dueTick) {
+        this.callback = callback;
+        this.tweenListener = tweenListener;
+        this.dueTime = dueTime;
+        this.duration = duration;
+        this.dueTick = dueTick;
+    }
+
+    /**
+     * Cancel the task.
+     * The callback won't be invoked, and the tween won't be updated any further.
+     * Nothing happens if the task has already finished.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Check whether the task has been cancelled.
+     *
+     * @return True if cancelled, false if not.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Check whether the task has finished.
+     *
+     * @return True if finished, false if not.
+     */
+    public boolean isDone() {
+        return this.done;
+    }
+
+    /**
+     * Mark the task as finished.
+     */
+    void setDone() {
+        this.done = true;
+    }
+
+    /**
+     * Check whether this task is a tween.
+     *
+     * @return True if this is a tween, false if it's a plain callback.
+     */
+    public boolean isTween() {
+        return this.tweenListener != null;
+    }
+}
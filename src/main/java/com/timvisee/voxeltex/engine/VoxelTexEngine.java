@@ -24,6 +24,8 @@ package com.timvisee.voxeltex.engine;
 
 import com.timvisee.voxeltex.VoxelTex;
 import com.timvisee.voxeltex.architecture.scene.SceneManager;
+import com.timvisee.voxeltex.engine.render.NullRenderer;
+import com.timvisee.voxeltex.engine.render.RenderBackend;
 import com.timvisee.voxeltex.engine.render.VoxelTexRenderer;
 import com.timvisee.voxeltex.module.resource.bundle.EngineResourceBundle;
 
@@ -39,11 +41,26 @@ public class VoxelTexEngine {
      */
     private VoxelTexRenderer renderer = null;
 
+    /**
+     * Null renderer instance, used instead of the renderer with the null render backend.
+     */
+    private NullRenderer nullRenderer = null;
+
+    /**
+     * Render backend the engine is initialized with.
+     */
+    private RenderBackend renderBackend = RenderBackend.OPENGL;
+
     /**
      * Engine and window title.
      */
     private String title = VoxelTex.getEngineNameFull() + " Window";
 
+    /**
+     * Defines whether the engine renders headless, into an offscreen framebuffer without a visible window.
+     */
+    private boolean headless = false;
+
     /**
      * Get the scene manager.
      *
@@ -71,6 +88,39 @@ public class VoxelTexEngine {
         return this.renderer != null;
     }
 
+    /**
+     * Get the null renderer instance.
+     *
+     * @return Null renderer instance, or null if the engine doesn't use the null render backend.
+     */
+    public NullRenderer getNullRenderer() {
+        return this.nullRenderer;
+    }
+
+    /**
+     * Get the render backend the engine is initialized with.
+     *
+     * @return Render backend.
+     */
+    public RenderBackend getRenderBackend() {
+        return this.renderBackend;
+    }
+
+    /**
+     * Set the render backend to initialize the engine with.
+     * With the null backend no window or graphics context is created, and the engine loop only ticks the scene.
+     * This must be configured before the engine is initialized.
+     *
+     * @param renderBackend Render backend.
+     */
+    public void setRenderBackend(RenderBackend renderBackend) {
+        // Make sure the engine hasn't been initialized yet
+        if(hasRenderer() || this.nullRenderer != null)
+            throw new RuntimeException("The render backend must be set before the engine is initialized");
+
+        this.renderBackend = renderBackend;
+    }
+
     /**
      * Set the engine title.
      *
@@ -85,6 +135,30 @@ public class VoxelTexEngine {
             this.renderer.getWindow().setTitle(title);
     }
 
+    /**
+     * Check whether the engine renders headless.
+     *
+     * @return True if headless, false if not.
+     */
+    public boolean isHeadless() {
+        return this.headless;
+    }
+
+    /**
+     * Set whether the engine renders headless.
+     * Headless engines render into an offscreen framebuffer, never show their window and don't poll window events.
+     * This must be configured before the engine is initialized.
+     *
+     * @param headless True to render headless, false if not.
+     */
+    public void setHeadless(boolean headless) {
+        // Make sure the renderer hasn't been created yet
+        if(hasRenderer())
+            throw new RuntimeException("The headless mode must be set before the engine is initialized");
+
+        this.headless = headless;
+    }
+
     /**
      * Initialize the engine.
      * This will configure the engine and load everything required before starting.
@@ -95,14 +169,21 @@ public class VoxelTexEngine {
         // Show a status message
         System.out.println("Initializing " + VoxelTex.getEngineNameFull() + " engine...");
 
-        // Create the voxel renderer
-        this.renderer = new VoxelTexRenderer(this);
+        // Create and initialize the null renderer when using the null render backend, there is no window
+        if(this.renderBackend == RenderBackend.NULL) {
+            this.nullRenderer = new NullRenderer(this);
+            this.nullRenderer.init();
 
-        // Initialize the renderer
-        this.renderer.init();
+        } else {
+            // Create the voxel renderer
+            this.renderer = new VoxelTexRenderer(this);
 
-        // Set the window title
-        this.renderer.getWindow().setTitle(title);
+            // Initialize the renderer
+            this.renderer.init();
+
+            // Set the window title
+            this.renderer.getWindow().setTitle(title);
+        }
 
         // Show a status message
         System.out.println(VoxelTex.ENGINE_NAME + " engine initialized successfully!");
@@ -131,7 +212,10 @@ public class VoxelTexEngine {
      */
     public void loop() {
         // Start the renderer
-        this.renderer.start();
+        if(this.nullRenderer != null)
+            this.nullRenderer.start();
+        else
+            this.renderer.start();
 
         // Show a status message
         System.out.println(VoxelTex.ENGINE_NAME + " engine has stopped");
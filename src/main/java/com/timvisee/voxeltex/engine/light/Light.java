@@ -70,10 +70,10 @@ public class Light {
     private float brightness;
 
     /**
-     * Cached light rotation.
+     * Cached light rotation, one instance for each thread.
      * Caching and recycling the instance adds a performance benefit.
      */
-    private static final Quaternionf lightRotationCache = new Quaternionf();
+    private static final ThreadLocal<Quaternionf> lightRotationCache = ThreadLocal.withInitial(Quaternionf::new);
 
     /**
      * Constructor.
@@ -229,14 +229,11 @@ public class Light {
      * @param lightObject Game object.
      */
     public void updatePosition(AbstractGameObject lightObject) {
-        // Only use the light rotation cache in once place at a time
-        synchronized(lightRotationCache) {
-            // Update the position based on the world space position of the given object
-            updatePosition(
-                    lightObject.getTransform().getWorldPosition(this.position),
-                    lightObject.getTransform().getWorldRotation(lightRotationCache)
-            );
-        }
+        // Update the position based on the world space position of the given object
+        updatePosition(
+                lightObject.getTransform().getWorldPosition(this.position),
+                lightObject.getTransform().getWorldRotation(lightRotationCache.get())
+        );
     }
 
     /**
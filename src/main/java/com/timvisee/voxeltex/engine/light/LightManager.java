@@ -23,13 +23,11 @@
 package com.timvisee.voxeltex.engine.light;
 
 import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
-import com.timvisee.voxeltex.module.shader.Shader;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 
-import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +38,36 @@ public class LightManager {
      */
     public static final int SHADER_LIGHT_LIMIT = 16;
 
+    /**
+     * Offset of the light count in the buffered light data, in bytes.
+     */
+    private static final int LIGHT_COUNT_OFFSET = 0;
+
+    /**
+     * Offset of the light type array in the buffered light data, each element takes 16 bytes.
+     */
+    private static final int LIGHT_TYPE_OFFSET = 16;
+
+    /**
+     * Offset of the light position array in the buffered light data, each element takes 16 bytes.
+     */
+    private static final int LIGHT_POSITION_OFFSET = LIGHT_TYPE_OFFSET + SHADER_LIGHT_LIMIT * 16;
+
+    /**
+     * Offset of the light rotation array in the buffered light data, each element takes 16 bytes.
+     */
+    private static final int LIGHT_ROTATION_OFFSET = LIGHT_POSITION_OFFSET + SHADER_LIGHT_LIMIT * 16;
+
+    /**
+     * Offset of the light color array in the buffered light data, each element takes 16 bytes.
+     */
+    private static final int LIGHT_COLOR_OFFSET = LIGHT_ROTATION_OFFSET + SHADER_LIGHT_LIMIT * 16;
+
+    /**
+     * Size of the buffered light data in bytes.
+     */
+    public static final int LIGHT_DATA_SIZE = LIGHT_COLOR_OFFSET + SHADER_LIGHT_LIMIT * 16;
+
     /**
      * Light sources available in the current scene.
      */
@@ -56,24 +84,20 @@ public class LightManager {
     private int bufferedLightCount = -1;
 
     /**
-     * Types of the buffered lights.
-     */
-    private IntBuffer lightTypeBuffer;
-
-    /**
-     * Positions of the buffered lights.
+     * Buffered light data in the std140 layout of the light section of the frame uniform block.
+     * This holds the light count, followed by the type, position, rotation and color arrays.
      */
-    private FloatBuffer lightPositionBuffer;
+    private final ByteBuffer lightData = BufferUtils.createByteBuffer(LIGHT_DATA_SIZE);
 
     /**
-     * Rotation of the buffered lights.
+     * Generation of the buffered light data, incremented each time the data changes.
      */
-    private FloatBuffer lightRotationBuffer;
+    private int generation = 0;
 
     /**
-     * Color of the buffered lights.
+     * Flag whether the buffered light data changed while buffering.
      */
-    private FloatBuffer lightColorBuffer;
+    private boolean dataChanged;
 
     /**
      * Constructor.
@@ -209,68 +233,92 @@ public class LightManager {
 
     /**
      * Buffer all current light data so it can be be send to shaders.
+     * The generation is incremented if the data differs from the previously buffered data.
      */
     public void buffer() {
-        // Compare the current number of lights to the buffered count, to check whether we should recreate the buffers
-        if(getLightCount() != this.bufferedLightCount) {
-            // Set the buffered count
-            this.bufferedLightCount = getLightCount();
-
-            // Recreate the buffers
-            this.lightTypeBuffer = BufferUtils.createIntBuffer(this.bufferedLightCount);
-            this.lightPositionBuffer = BufferUtils.createFloatBuffer(this.bufferedLightCount * 3);
-            this.lightRotationBuffer = BufferUtils.createFloatBuffer(this.bufferedLightCount * 3);
-            this.lightColorBuffer = BufferUtils.createFloatBuffer(this.bufferedLightCount * 4);
-        }
+        // Determine the number of lights that fit in the shader
+        final boolean firstBuffer = this.bufferedLightCount < 0;
+        this.bufferedLightCount = Math.min(getLightCount(), SHADER_LIGHT_LIMIT);
+        this.dataChanged = firstBuffer;
+
+        // Write the light count
+        putInt(LIGHT_COUNT_OFFSET, this.bufferedLightCount);
+
+        // Write the lights to the arrays
+        for(int i = 0; i < this.bufferedLightCount; i++) {
+            final Light light = this.lights.get(i);
+            final int element = i * 16;
 
-        // Clear the buffers
-        this.lightTypeBuffer.clear();
-        this.lightPositionBuffer.clear();
-        this.lightRotationBuffer.clear();
-        this.lightColorBuffer.clear();
+            putInt(LIGHT_TYPE_OFFSET + element, light.getType());
 
-        // Add the lights to the buffers
-        for(int i = 0, size = Math.min(this.bufferedLightCount, SHADER_LIGHT_LIMIT); i < size; i++) {
-            this.lightTypeBuffer.put(this.lights.get(i).getType());
+            putFloat(LIGHT_POSITION_OFFSET + element, light.getPosition().x);
+            putFloat(LIGHT_POSITION_OFFSET + element + 4, light.getPosition().y);
+            putFloat(LIGHT_POSITION_OFFSET + element + 8, light.getPosition().z);
 
-            this.lightPositionBuffer.put(this.lights.get(i).getPosition().x);
-            this.lightPositionBuffer.put(this.lights.get(i).getPosition().y);
-            this.lightPositionBuffer.put(this.lights.get(i).getPosition().z);
+            putFloat(LIGHT_ROTATION_OFFSET + element, light.getRotation().x);
+            putFloat(LIGHT_ROTATION_OFFSET + element + 4, light.getRotation().y);
+            putFloat(LIGHT_ROTATION_OFFSET + element + 8, light.getRotation().z);
+
+            putFloat(LIGHT_COLOR_OFFSET + element, light.getColor().x);
+            putFloat(LIGHT_COLOR_OFFSET + element + 4, light.getColor().y);
+            putFloat(LIGHT_COLOR_OFFSET + element + 8, light.getColor().z);
+            putFloat(LIGHT_COLOR_OFFSET + element + 12, light.getBrightness());
+        }
 
-            this.lightRotationBuffer.put(this.lights.get(i).getRotation().x);
-            this.lightRotationBuffer.put(this.lights.get(i).getRotation().y);
-            this.lightRotationBuffer.put(this.lights.get(i).getRotation().z);
+        // Increase the generation if the data has changed
+        if(this.dataChanged)
+            this.generation++;
+    }
 
-            this.lightColorBuffer.put(this.lights.get(i).getColor().x);
-            this.lightColorBuffer.put(this.lights.get(i).getColor().y);
-            this.lightColorBuffer.put(this.lights.get(i).getColor().z);
-            this.lightColorBuffer.put(this.lights.get(i).getBrightness());
+    /**
+     * Write an integer to the light data, and keep track of whether the data changed.
+     *
+     * @param index Byte index.
+     * @param value Value.
+     */
+    private void putInt(int index, int value) {
+        if(this.lightData.getInt(index) != value) {
+            this.lightData.putInt(index, value);
+            this.dataChanged = true;
         }
+    }
 
-        // Flip all buffers
-        this.lightTypeBuffer.flip();
-        this.lightPositionBuffer.flip();
-        this.lightRotationBuffer.flip();
-        this.lightColorBuffer.flip();
+    /**
+     * Write a float to the light data, and keep track of whether the data changed.
+     *
+     * @param index Byte index.
+     * @param value Value.
+     */
+    private void putFloat(int index, float value) {
+        putInt(index, Float.floatToRawIntBits(value));
     }
 
     /**
-     * Send the currently buffered data to the shader.
+     * Get the generation of the buffered light data.
+     * The generation is incremented each time the buffered data changes, so users of the data only need to upload it
+     * again when the generation differs from the generation they last uploaded.
      *
-     * @param shader The shader to send the light data to.
+     * @return Light data generation.
      */
-    public void sendToShader(Shader shader) {
+    public int getGeneration() {
         // Buffer the lights if they haven't been buffered yet
-        if(this.lightTypeBuffer == null)
+        if(this.bufferedLightCount < 0)
             buffer();
 
-        // Send the number of lights
-        shader.setUniform1i("lightCount", this.bufferedLightCount);
+        return this.generation;
+    }
+
+    /**
+     * Get the buffered light data, in the std140 layout of the light section of the frame uniform block.
+     * The data must only be read at absolute positions.
+     *
+     * @return Buffered light data of {@link #LIGHT_DATA_SIZE} bytes.
+     */
+    public ByteBuffer getLightData() {
+        // Buffer the lights if they haven't been buffered yet
+        if(this.bufferedLightCount < 0)
+            buffer();
 
-        // Send the data
-        shader.setUniform1iv("lightType", this.lightTypeBuffer);
-        shader.setUniform3fv("lightPosition", this.lightPositionBuffer);
-        shader.setUniform3fv("lightRotation", this.lightRotationBuffer);
-        shader.setUniform4fv("lightColor", this.lightColorBuffer);
+        return this.lightData;
     }
 }
@@ -0,0 +1,91 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class FrameCapture {
+
+    /**
+     * Read back the pixels of the currently bound read buffer.
+     *
+     * @param width Width of the area to read, in pixels.
+     * @param height Height of the area to read, in pixels.
+     *
+     * @return Image containing the pixels, with the top row first.
+     */
+    public static BufferedImage capture(int width, int height) {
+        // Make sure all rendering commands have finished, and read the pixels tightly packed
+        GL11.glFinish();
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        ByteBuffer pixels = BufferUtils.createByteBuffer(width * height * 4);
+        GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, pixels);
+
+        // Copy the pixels into an image, flipping the rows because OpenGL stores them bottom to top
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for(int y = 0; y < height; y++) {
+            for(int x = 0; x < width; x++) {
+                final int i = (x + (height - 1 - y) * width) * 4;
+                final int r = pixels.get(i) & 0xFF;
+                final int g = pixels.get(i + 1) & 0xFF;
+                final int b = pixels.get(i + 2) & 0xFF;
+                final int a = pixels.get(i + 3) & 0xFF;
+                image.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+            }
+        }
+
+        // Return the image
+        return image;
+    }
+
+    /**
+     * Read back the pixels of the currently bound read buffer and write them to a PNG file.
+     *
+     * @param width Width of the area to read, in pixels.
+     * @param height Height of the area to read, in pixels.
+     * @param file File to write the PNG image to.
+     */
+    public static void captureToFile(int width, int height, File file) {
+        // Capture the frame
+        BufferedImage image = capture(width, height);
+
+        // Create the parent directory if it doesn't exist
+        File parent = file.getAbsoluteFile().getParentFile();
+        if(parent != null && !parent.exists() && !parent.mkdirs())
+            throw new RuntimeException("Failed to create directory for frame capture: " + parent);
+
+        // Write the image
+        try {
+            ImageIO.write(image, "png", file);
+        } catch(IOException e) {
+            throw new RuntimeException("Failed to write frame capture to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of GPU resource uploads.
+ *
+ * Meshes and textures prepare their data on the CPU when they are created, and enqueue the upload here. The renderer
+ * processes the queue once each frame within a time budget, so bursts of newly created resources are spread over
+ * multiple frames instead of stalling a single one. Resources may be created on any thread, the uploads always run on
+ * the rendering thread.
+ */
+public class GpuUploadQueue {
+
+    /**
+     * Default time budget in nanoseconds to spend on uploads each frame.
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANO = 4000000L;
+
+    /**
+     * Queued uploads, in the order they were enqueued.
+     */
+    private static final Queue<Runnable> uploads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of queued uploads.
+     */
+    private static final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * Time budget in nanoseconds to spend on uploads each frame.
+     */
+    private static long frameBudgetNano = DEFAULT_FRAME_BUDGET_NANO;
+
+    /**
+     * Number of uploads processed in the last frame.
+     */
+    private static int lastUploadCount = 0;
+
+    /**
+     * Enqueue an upload, to be run on the rendering thread.
+     *
+     * @param upload Upload to run, which should do nothing if its resource was disposed in the meantime.
+     */
+    public static void enqueue(Runnable upload) {
+        uploads.add(upload);
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * Process the queued uploads within the frame budget.
+     * This must be called from the rendering thread.
+     *
+     * @return Number of processed uploads.
+     */
+    public static int process() {
+        return process(frameBudgetNano);
+    }
+
+    /**
+     * Process the queued uploads within the given time budget.
+     * At least one upload is processed if any are queued, so the queue always makes progress.
+     * This must be called from the rendering thread.
+     *
+     * @param budgetNano Time budget in nanoseconds.
+     *
+     * @return Number of processed uploads.
+     */
+    public static int process(long budgetNano) {
+        // Process uploads until the queue is empty or the budget is used
+        final long start = System.nanoTime();
+        int count = 0;
+        Runnable upload;
+        while((count == 0 || System.nanoTime() - start < budgetNano) && (upload = uploads.poll()) != null) {
+            pendingCount.decrementAndGet();
+            upload.run();
+            count++;
+        }
+
+        // Store and return the number of uploads
+        lastUploadCount = count;
+        return count;
+    }
+
+    /**
+     * Process all queued uploads, regardless of the frame budget.
+     * This must be called from the rendering thread.
+     *
+     * @return Number of processed uploads.
+     */
+    public static int flush() {
+        return process(Long.MAX_VALUE);
+    }
+
+    /**
+     * Drop all queued uploads without running them.
+     */
+    public static void clear() {
+        while(uploads.poll() != null)
+            pendingCount.decrementAndGet();
+    }
+
+    /**
+     * Get the number of queued uploads.
+     *
+     * @return Pending upload count.
+     */
+    public static int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Get the number of uploads processed in the last frame.
+     *
+     * @return Upload count.
+     */
+    public static int getLastUploadCount() {
+        return lastUploadCount;
+    }
+
+    /**
+     * Get the time budget to spend on uploads each frame.
+     *
+     * @return Frame budget in nanoseconds.
+     */
+    public static long getFrameBudget() {
+        return frameBudgetNano;
+    }
+
+    /**
+     * Set the time budget to spend on uploads each frame.
+     *
+     * @param frameBudgetNano Frame budget in nanoseconds.
+     */
+    public static void setFrameBudget(long frameBudgetNano) {
+        GpuUploadQueue.frameBudgetNano = frameBudgetNano;
+    }
+}
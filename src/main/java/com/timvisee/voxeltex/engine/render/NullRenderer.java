@@ -0,0 +1,185 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render;
+
+import com.timvisee.voxeltex.VoxelTex;
+import com.timvisee.voxeltex.engine.VoxelTexEngine;
+import com.timvisee.voxeltex.module.shader.ShaderManager;
+import com.timvisee.voxeltex.runtime.global.MainCamera;
+import com.timvisee.voxeltex.runtime.global.Time;
+
+/**
+ * Renderer for the null render backend.
+ *
+ * It doesn't create a window or graphics context, and never draws anything. Its loop only ticks the loaded scene with
+ * a fixed time step as fast as possible, so game logic and physics can be run on machines without a display or GPU.
+ */
+public class NullRenderer extends VoxelTexBaseRenderer {
+
+    /**
+     * Default fixed time step in seconds, used if no fixed step was configured.
+     */
+    public static final double DEFAULT_FIXED_STEP = 1.0 / 60.0;
+
+    /**
+     * Engine instance this renderer was created from.
+     */
+    private VoxelTexEngine engine;
+
+    /**
+     * Maximum number of steps to run before the loop stops, or zero to run until stopped.
+     */
+    private long stepLimit = 0;
+
+    /**
+     * Number of steps ran since the loop started.
+     */
+    private long stepCount = 0;
+
+    /**
+     * True if the loop should stop after the current step.
+     */
+    private volatile boolean stopRequested = false;
+
+    /**
+     * Constructor.
+     *
+     * @param engine Engine instance this renderer was created from.
+     */
+    public NullRenderer(VoxelTexEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Get the engine instance this renderer was created from.
+     *
+     * @return Engine.
+     */
+    public VoxelTexEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * Get the maximum number of steps to run before the loop stops.
+     *
+     * @return Step limit, or zero if unlimited.
+     */
+    public long getStepLimit() {
+        return this.stepLimit;
+    }
+
+    /**
+     * Set the maximum number of steps to run before the loop stops.
+     *
+     * @param stepLimit Step limit, or zero to run until stopped.
+     */
+    public void setStepLimit(long stepLimit) {
+        this.stepLimit = stepLimit;
+    }
+
+    /**
+     * Get the number of steps ran since the loop started.
+     *
+     * @return Step count.
+     */
+    public long getStepCount() {
+        return this.stepCount;
+    }
+
+    /**
+     * Request the loop to stop after the current step.
+     */
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    @Override
+    public void init() {
+        // Show a status message
+        System.out.println("Initializing " + VoxelTex.ENGINE_NAME + " null renderer...");
+
+        // Select the null render backend before any GPU resources are created
+        RenderBackend.setCurrent(RenderBackend.NULL);
+
+        // Load the engine shaders, they don't have a program but materials depend on them
+        ShaderManager.load();
+
+        // Initialize the Time object, and use a fixed step so the simulation doesn't depend on the real time
+        Time.init();
+        if(!Time.isFixedStep())
+            Time.setFixedStep(DEFAULT_FIXED_STEP);
+
+        // Show a status message
+        System.out.println(VoxelTex.ENGINE_NAME + " null renderer initialized successfully!");
+    }
+
+    @Override
+    public void start() {
+        // Loop the renderer, there are no GPU resources or windows to dispose afterwards
+        loop();
+    }
+
+    /**
+     * Run a single step, updating the time, main camera and loaded scene.
+     */
+    public void step() {
+        // Update the time
+        Time.update();
+
+        // Update the position of the main camera
+        MainCamera.update();
+
+        // Update the current scene
+        getEngine().getSceneManager().update();
+
+        // Count the step
+        this.stepCount++;
+    }
+
+    @Override
+    public void loop() {
+        // Show a status message
+        System.out.println(VoxelTex.ENGINE_NAME + " engine null renderer started!");
+
+        // Update the time to ensure it starts from zero in the first step
+        Time.update();
+
+        // Start the scene if it hasn't started yet
+        getEngine().getSceneManager().start();
+
+        // Reset the step count and remember when the loop started
+        this.stepCount = 0;
+        this.stopRequested = false;
+        final long loopStart = System.nanoTime();
+
+        // Step until stopped or the step limit is reached
+        while(!this.stopRequested && (this.stepLimit <= 0 || this.stepCount < this.stepLimit))
+            step();
+
+        // Show a status message with the step timings
+        final double elapsed = (System.nanoTime() - loopStart) / 1000000000.0;
+        System.out.println("Simulated " + this.stepCount + " steps in " + elapsed + " seconds ("
+                + (elapsed > 0.0 ? (long) (this.stepCount / elapsed) : 0) + " steps per second)");
+        System.out.println(VoxelTex.ENGINE_NAME + " engine null renderer stopped");
+    }
+}
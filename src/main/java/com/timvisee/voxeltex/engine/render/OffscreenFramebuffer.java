@@ -0,0 +1,175 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+public class OffscreenFramebuffer {
+
+    /**
+     * Framebuffer object handle.
+     */
+    private int framebufferHandle = 0;
+
+    /**
+     * Color renderbuffer handle.
+     */
+    private int colorHandle = 0;
+
+    /**
+     * Depth renderbuffer handle.
+     */
+    private int depthHandle = 0;
+
+    /**
+     * Width of the framebuffer in pixels.
+     */
+    private int width;
+
+    /**
+     * Height of the framebuffer in pixels.
+     */
+    private int height;
+
+    /**
+     * Constructor.
+     *
+     * @param width Width of the framebuffer in pixels.
+     * @param height Height of the framebuffer in pixels.
+     */
+    public OffscreenFramebuffer(int width, int height) {
+        create(width, height);
+    }
+
+    /**
+     * Create the framebuffer and its attachments with the given size.
+     *
+     * @param width Width in pixels.
+     * @param height Height in pixels.
+     */
+    private void create(int width, int height) {
+        // Store the size
+        this.width = width;
+        this.height = height;
+
+        // Create the color renderbuffer
+        this.colorHandle = GL30.glGenRenderbuffers();
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, this.colorHandle);
+        GL30.glRenderbufferStorage(GL30.GL_RENDERBUFFER, GL11.GL_RGBA8, width, height);
+
+        // Create the depth renderbuffer
+        this.depthHandle = GL30.glGenRenderbuffers();
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, this.depthHandle);
+        GL30.glRenderbufferStorage(GL30.GL_RENDERBUFFER, GL30.GL_DEPTH24_STENCIL8, width, height);
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+
+        // Create the framebuffer and attach both renderbuffers
+        this.framebufferHandle = GL30.glGenFramebuffers();
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, this.framebufferHandle);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0,
+                GL30.GL_RENDERBUFFER, this.colorHandle);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_STENCIL_ATTACHMENT,
+                GL30.GL_RENDERBUFFER, this.depthHandle);
+
+        // Make sure the framebuffer is complete
+        final int status = GL30.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        if(status != GL30.GL_FRAMEBUFFER_COMPLETE)
+            throw new RuntimeException("Failed to create offscreen framebuffer, status: " + status);
+    }
+
+    /**
+     * Bind the framebuffer as draw and read target.
+     */
+    public void bind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, this.framebufferHandle);
+        GL11.glReadBuffer(GL30.GL_COLOR_ATTACHMENT0);
+        GL11.glDrawBuffer(GL30.GL_COLOR_ATTACHMENT0);
+    }
+
+    /**
+     * Unbind the framebuffer, and render to the default framebuffer again.
+     */
+    public void unbind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    /**
+     * Resize the framebuffer if the given size differs from the current size.
+     * The framebuffer stays bound if it was bound before.
+     *
+     * @param width Width in pixels.
+     * @param height Height in pixels.
+     */
+    public void resize(int width, int height) {
+        // Skip if the size didn't change
+        if(this.width == width && this.height == height)
+            return;
+
+        // Recreate the framebuffer with the new size and bind it again
+        dispose();
+        create(width, height);
+        bind();
+    }
+
+    /**
+     * Get the width of the framebuffer.
+     *
+     * @return Width in pixels.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Get the height of the framebuffer.
+     *
+     * @return Height in pixels.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Dispose the framebuffer and its attachments.
+     */
+    public void dispose() {
+        // Delete the framebuffer
+        if(this.framebufferHandle != 0) {
+            GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+            GL30.glDeleteFramebuffers(this.framebufferHandle);
+            this.framebufferHandle = 0;
+        }
+
+        // Delete the renderbuffers
+        if(this.colorHandle != 0) {
+            GL30.glDeleteRenderbuffers(this.colorHandle);
+            this.colorHandle = 0;
+        }
+        if(this.depthHandle != 0) {
+            GL30.glDeleteRenderbuffers(this.depthHandle);
+            this.depthHandle = 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render;
+
+public enum RenderBackend {
+
+    /**
+     * Render through OpenGL, GPU resources are uploaded when they are created.
+     */
+    OPENGL,
+
+    /**
+     * Null backend without any graphics context.
+     * GPU resources only keep their CPU side data and empty handles, nothing is uploaded or drawn. Scenes can still be
+     * updated, which allows game logic and physics to run on machines without a display or GPU.
+     */
+    NULL;
+
+    /**
+     * The render backend that is currently active.
+     */
+    private static RenderBackend current = OPENGL;
+
+    /**
+     * Get the render backend that is currently active.
+     *
+     * @return Active render backend.
+     */
+    public static RenderBackend getCurrent() {
+        return RenderBackend.current;
+    }
+
+    /**
+     * Set the render backend that is currently active.
+     * This should be configured before any GPU resources are created.
+     *
+     * @param backend Render backend.
+     */
+    public static void setCurrent(RenderBackend backend) {
+        RenderBackend.current = backend;
+    }
+
+    /**
+     * Check whether the null backend is active, in which case no OpenGL calls may be made.
+     *
+     * @return True if the null backend is active, false if not.
+     */
+    public static boolean isNull() {
+        return RenderBackend.current == NULL;
+    }
+}
@@ -26,6 +26,7 @@ import com.timvisee.voxeltex.VoxelTex;
 import com.timvisee.voxeltex.engine.VoxelTexEngine;
 import com.timvisee.voxeltex.engine.window.VoxelTexWindow;
 import com.timvisee.voxeltex.module.render.OverlayUtil;
+import com.timvisee.voxeltex.module.render.RenderOverlayHelper;
 import com.timvisee.voxeltex.module.shader.ShaderManager;
 import com.timvisee.voxeltex.module.shader.ShaderTracker;
 import com.timvisee.voxeltex.module.texture.ImageTracker;
@@ -39,6 +40,7 @@ import org.lwjgl.glfw.GLFWFramebufferSizeCallback;
 import org.lwjgl.opengl.GL;
 import org.lwjgl.opengl.GL11;
 
+import java.io.File;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
@@ -69,6 +71,31 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
      */
     private long debugLastFreeMemory = -1L;
 
+    /**
+     * Offscreen framebuffer that is rendered into when running headless, null otherwise.
+     */
+    private OffscreenFramebuffer offscreenFramebuffer = null;
+
+    /**
+     * Maximum number of frames to render before the loop stops, or zero to render until the window closes.
+     */
+    private long frameLimit = 0;
+
+    /**
+     * Number of frames rendered since the loop started.
+     */
+    private long frameCount = 0;
+
+    /**
+     * File the next rendered frame is captured to, or null if no capture is requested.
+     */
+    private File captureFile = null;
+
+    /**
+     * Frame number the capture is requested for, or a negative number to capture the next frame.
+     */
+    private long captureFrameNumber = -1;
+
     /**
      * Constructor.
      *
@@ -100,6 +127,90 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
         return window;
     }
 
+    /**
+     * Check whether this renderer renders headless.
+     *
+     * @return True if headless, false if not.
+     */
+    public boolean isHeadless() {
+        return this.engine.isHeadless();
+    }
+
+    /**
+     * Get the offscreen framebuffer that is rendered into when running headless.
+     *
+     * @return Offscreen framebuffer, or null if not running headless.
+     */
+    public OffscreenFramebuffer getOffscreenFramebuffer() {
+        return this.offscreenFramebuffer;
+    }
+
+    /**
+     * Get the maximum number of frames to render before the loop stops.
+     *
+     * @return Frame limit, or zero if unlimited.
+     */
+    public long getFrameLimit() {
+        return this.frameLimit;
+    }
+
+    /**
+     * Set the maximum number of frames to render before the loop stops.
+     *
+     * @param frameLimit Frame limit, or zero to render until the window closes.
+     */
+    public void setFrameLimit(long frameLimit) {
+        this.frameLimit = frameLimit;
+    }
+
+    /**
+     * Check whether the frame limit has been reached.
+     *
+     * @return True if the frame limit is reached, false if not or if there's no limit.
+     */
+    public boolean isFrameLimitReached() {
+        return this.frameLimit > 0 && this.frameCount >= this.frameLimit;
+    }
+
+    /**
+     * Get the number of frames rendered since the loop started.
+     *
+     * @return Frame count.
+     */
+    public long getFrameCount() {
+        return this.frameCount;
+    }
+
+    /**
+     * Request the next rendered frame to be captured to a PNG file.
+     *
+     * @param file File to write the PNG image to.
+     */
+    public void requestCapture(File file) {
+        requestCapture(file, -1);
+    }
+
+    /**
+     * Request the given frame to be captured to a PNG file.
+     *
+     * @param file File to write the PNG image to.
+     * @param frameNumber Number of the frame to capture, starting at one, or a negative number for the next frame.
+     */
+    public void requestCapture(File file, long frameNumber) {
+        this.captureFile = file;
+        this.captureFrameNumber = frameNumber;
+    }
+
+    /**
+     * Capture the current contents of the rendered frame to a PNG file.
+     * This must be called from the rendering thread.
+     *
+     * @param file File to write the PNG image to.
+     */
+    public void captureFrame(File file) {
+        FrameCapture.captureToFile(this.window.getWidth(), this.window.getHeight(), file);
+    }
+
     /**
      * Initialize the renderer.
      */
@@ -135,8 +246,9 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
             }
         });
 
-        // Center the window
-        this.window.centerWindow();
+        // Center the window, unless it's never shown
+        if(!isHeadless())
+            this.window.centerWindow();
 
         // Create an int buffer for the window
         IntBuffer framebufferSize = BufferUtils.createIntBuffer(2);
@@ -151,15 +263,23 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
         // Set the swap interval (V-sync)
         glfwSwapInterval(0);
 
-        // Show the window
-        this.window.glShowWindow();
-
-        // Center the cursor
-        Input.centerMouseCursor();
+        // Show the window and center the cursor, unless we're rendering headless
+        if(!isHeadless()) {
+            this.window.glShowWindow();
+            Input.centerMouseCursor();
+        }
 
         // Create the rendering capabilities, required by LWJGL
         GL.createCapabilities();
 
+        // Render into an offscreen framebuffer when headless, the hidden window's buffers may not be backed
+        if(isHeadless()) {
+            this.offscreenFramebuffer = new OffscreenFramebuffer(this.window.getWidth(), this.window.getHeight());
+            this.offscreenFramebuffer.bind();
+            System.out.println("Rendering headless into a " + this.window.getWidth() + "x"
+                    + this.window.getHeight() + " offscreen framebuffer");
+        }
+
         // Print the OpenGL version
         System.out.println("OpenGL " + GL11.glGetString(GL11.GL_VERSION));
 
@@ -188,13 +308,21 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
             // Loop the renderer
             loop();
 
+            // Dispose the offscreen framebuffer
+            if(this.offscreenFramebuffer != null) {
+                this.offscreenFramebuffer.dispose();
+                this.offscreenFramebuffer = null;
+            }
+
             // Destroy the window
             this.window.glDestroyWindow();
 
-            // Dispose all tracked textures, images and shaders
+            // Drop the uploads that are still queued, then dispose all tracked textures, images and shaders
+            GpuUploadQueue.clear();
             TextureTracker.disposeAll();
             ImageTracker.disposeAll();
             ShaderTracker.disposeAll();
+            RenderOverlayHelper.dispose();
 
             // Free all callbacks
             fbCallback.release();
@@ -224,8 +352,12 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
         // Start the scene if it hasn't started yet
         getEngine().getSceneManager().start();
 
-        // Start a loop until the window should close
-        while(!this.window.glWindowShouldCloseBoolean()) {
+        // Reset the frame count and remember when the loop started
+        this.frameCount = 0;
+        final long loopStart = System.nanoTime();
+
+        // Start a loop until the window should close or the frame limit is reached
+        while(!this.window.glWindowShouldCloseBoolean() && !isFrameLimitReached()) {
             // Update time Time object
             Time.update();
 
@@ -244,6 +376,13 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
             // Update the current scene
             getEngine().getSceneManager().update();
 
+            // Upload queued GPU resources within the frame budget, so resources created while updating can be drawn
+            GpuUploadQueue.process();
+
+            // Keep the offscreen framebuffer in sync with the window size
+            if(this.offscreenFramebuffer != null)
+                this.offscreenFramebuffer.resize(this.window.getWidth(), this.window.getHeight());
+
             // Set the default viewport and clear the color and depth buffer
             this.window.glViewportDefault();
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
@@ -271,18 +410,37 @@ public class VoxelTexRenderer extends VoxelTexBaseRenderer {
             // Update the debug information
             updateDebug();
 
-            // Swap the buffers to render the frame
-            this.window.glSwapBuffers();
+            // Count the frame
+            this.frameCount++;
+
+            // Capture the frame if requested, before the buffers are swapped
+            if(this.captureFile != null
+                    && (this.captureFrameNumber < 0 || this.captureFrameNumber == this.frameCount)) {
+                captureFrame(this.captureFile);
+                this.captureFile = null;
+            }
+
+            // Finish the frame; swap the buffers, or wait for the offscreen frame to complete when headless
+            if(!isHeadless())
+                this.window.glSwapBuffers();
+            else
+                glFinish();
 
             // Close the window if requested
             if(Input.isKeyDownOnce(GLFW_KEY_ESCAPE))
                 this.window.glSetWindowShouldClose(true);
 
-            // Poll all events
-            glfwPollEvents();
+            // Poll all events, there are none to handle when headless
+            if(!isHeadless())
+                glfwPollEvents();
         }
 
-        // Show a status message
+        // Show a status message, with the frame timings when headless
+        if(isHeadless() && this.frameCount > 0) {
+            final double elapsed = (System.nanoTime() - loopStart) / 1000000000.0;
+            System.out.println("Rendered " + this.frameCount + " frames in " + elapsed + " seconds ("
+                    + (elapsed * 1000.0 / this.frameCount) + " ms per frame)");
+        }
         System.out.println(VoxelTex.ENGINE_NAME + " engine renderer stopped");
     }
 
@@ -0,0 +1,151 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.batch;
+
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.transform.Transform;
+import com.timvisee.voxeltex.module.transform.TransformListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class StaticBatch {
+
+    /**
+     * Material all members are rendered with.
+     */
+    final Material material;
+
+    /**
+     * Key of the chunk and vertex layout of this batch.
+     */
+    final long key;
+
+    /**
+     * Members of this batch.
+     */
+    final List<Member> members = new ArrayList<>();
+
+    /**
+     * Merged mesh of all included members in world space, or null if it hasn't been built.
+     */
+    Mesh mesh;
+
+    /**
+     * Flag whether an included member has left, which requires the mesh to be rebuilt right away.
+     */
+    boolean dirty = false;
+
+    /**
+     * Flag whether members have joined that aren't included in the mesh yet.
+     */
+    boolean pending = false;
+
+    /**
+     * Time the last member joined at.
+     */
+    float lastJoinTime;
+
+    /**
+     * Constructor.
+     *
+     * @param material Material all members are rendered with.
+     * @param key Key of the chunk and vertex layout of this batch.
+     */
+    StaticBatch(Material material, long key) {
+        this.material = material;
+        this.key = key;
+    }
+
+    /**
+     * Batch member.
+     * A member listens to the transform of it's renderer, and reports to the batcher when it has moved.
+     */
+    static class Member implements TransformListener {
+
+        /**
+         * The batcher the member is managed by.
+         */
+        final StaticBatcher batcher;
+
+        /**
+         * The batch the member is in.
+         */
+        final StaticBatch batch;
+
+        /**
+         * Mesh renderer of the member.
+         */
+        final MeshRendererComponent renderer;
+
+        /**
+         * Transform of the renderer when it joined.
+         */
+        final Transform transform;
+
+        /**
+         * The mesh of the member when it joined.
+         */
+        final Mesh mesh;
+
+        /**
+         * The world version of the transform of the member when it joined.
+         */
+        final int version;
+
+        /**
+         * Flag whether the member is included in the merged mesh.
+         */
+        boolean included = false;
+
+        /**
+         * Flag whether the member is queued to be validated by the batcher.
+         */
+        boolean queued = false;
+
+        /**
+         * Constructor.
+         *
+         * @param batcher The batcher the member is managed by.
+         * @param batch The batch the member is in.
+         * @param renderer Mesh renderer of the member.
+         * @param mesh The mesh of the member.
+         */
+        Member(StaticBatcher batcher, StaticBatch batch, MeshRendererComponent renderer, Mesh mesh) {
+            this.batcher = batcher;
+            this.batch = batch;
+            this.renderer = renderer;
+            this.transform = renderer.getTransform();
+            this.mesh = mesh;
+            this.version = this.transform.getWorldVersion();
+        }
+
+        @Override
+        public void onWorldInvalidated(Transform transform) {
+            this.batcher.queue(this);
+        }
+    }
+}
@@ -0,0 +1,524 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.batch;
+
+import com.timvisee.voxeltex.architecture.component.mesh.renderer.MeshRendererComponent;
+import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
+import com.timvisee.voxeltex.engine.render.queue.RenderQueue;
+import com.timvisee.voxeltex.module.Color;
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.mesh.RawMesh;
+import com.timvisee.voxeltex.module.transform.Transform;
+import com.timvisee.voxeltex.runtime.global.Time;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StaticBatcher {
+
+    /**
+     * Size of a batch chunk in world units along each axis.
+     * Static meshes are only merged with meshes in the same chunk, so batches can still be culled.
+     */
+    public static final float CHUNK_SIZE = 8f;
+
+    /**
+     * Time in seconds a batch waits after a member joined, before the members are merged.
+     * This prevents the batch from being rebuilt on each frame while a level is loading.
+     */
+    public static final float JOIN_SETTLE_TIME = 0.5f;
+
+    /**
+     * Number of bits used to store each chunk coordinate in a batch key.
+     */
+    private static final int CHUNK_BITS = 20;
+
+    /**
+     * Mask of a single chunk coordinate in a batch key.
+     */
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    /**
+     * Color the merged meshes are rendered with.
+     */
+    private static final Color BATCH_COLOR = new Color(1, 1, 1, 1);
+
+    /**
+     * The scene this batcher is for.
+     */
+    private final AbstractScene scene;
+
+    /**
+     * Batches by their material and key.
+     */
+    private final Map<Material, Map<Long, StaticBatch>> batches = new HashMap<>();
+
+    /**
+     * List of all batches.
+     */
+    private final List<StaticBatch> batchList = new ArrayList<>();
+
+    /**
+     * The batch member of each member renderer.
+     */
+    private final Map<MeshRendererComponent, StaticBatch.Member> members = new IdentityHashMap<>();
+
+    /**
+     * Members that reported a change, which are validated on the next update.
+     */
+    private final List<StaticBatch.Member> queuedMembers = new ArrayList<>();
+
+    /**
+     * Identity matrix, used as model matrix for merged meshes.
+     */
+    private final Matrix4f identityMatrix = new Matrix4f();
+
+    /**
+     * Cached world matrix of a member.
+     */
+    private final Matrix4f tempWorldMatrix = new Matrix4f();
+
+    /**
+     * Cached normal matrix of a member.
+     */
+    private final Matrix3f tempNormalMatrix = new Matrix3f();
+
+    /**
+     * Cached vector, used to transform vertexes and normals.
+     */
+    private final Vector3f tempVector = new Vector3f();
+
+    /**
+     * Constructor.
+     *
+     * @param scene The scene this batcher is for.
+     */
+    public StaticBatcher(AbstractScene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * Check whether the given renderer may be merged into a static batch.
+     * The transform must be static, the renderer must be renderable and have a mesh and an opaque material, and it must
+     * be rendered in white, since merged meshes are rendered with a single color. Renderers that changed while they
+     * were batched are never batched again.
+     *
+     * @param renderer Mesh renderer.
+     *
+     * @return True if it can be batched, false if not.
+     */
+    public static boolean isBatchable(MeshRendererComponent renderer) {
+        // Make sure the renderer is renderable, static and has a mesh and a material
+        if(renderer.isStaticBatchingRejected() || !renderer.isRenderable() || !renderer.getTransform().isStatic()
+                || !renderer.hasMaterial()
+                || !renderer.hasMeshFilterComponent() || !renderer.getMeshFilterComponent().hasMesh())
+            return false;
+
+        // Transparent materials are sorted per object, so they can't be merged
+        if(renderer.getMaterial().isTransparent())
+            return false;
+
+        // Make sure the color is white
+        final Color color = renderer.getColor();
+        return color.getRed() == 1f && color.getGreen() == 1f && color.getBlue() == 1f && color.getAlpha() == 1f;
+    }
+
+    /**
+     * Add a renderer to the static batch of it's material and chunk.
+     * The renderer keeps being drawn on it's own, until it's merged after the batch has settled.
+     *
+     * @param renderer Mesh renderer.
+     *
+     * @return True if the renderer was added, false if it's in a batch already or if it can't be batched.
+     */
+    public boolean add(MeshRendererComponent renderer) {
+        // Make sure the renderer isn't batched already, and that it can be batched
+        if(this.members.containsKey(renderer) || !isBatchable(renderer))
+            return false;
+
+        // Get the mesh and the world position of the renderer
+        final Mesh mesh = renderer.getMeshFilterComponent().getMesh();
+        final Transform transform = renderer.getTransform();
+        transform.getWorldMatrix(this.tempWorldMatrix).getTranslation(this.tempVector);
+
+        // Get or create the batch of the chunk the renderer is in
+        final long key = createKey(this.tempVector, mesh);
+        Map<Long, StaticBatch> materialBatches = this.batches.get(renderer.getMaterial());
+        if(materialBatches == null)
+            this.batches.put(renderer.getMaterial(), materialBatches = new HashMap<>());
+        StaticBatch batch = materialBatches.get(key);
+        if(batch == null) {
+            materialBatches.put(key, batch = new StaticBatch(renderer.getMaterial(), key));
+            this.batchList.add(batch);
+        }
+
+        // Add the member, the batch is rebuilt once it has settled
+        final StaticBatch.Member member = new StaticBatch.Member(this, batch, renderer, mesh);
+        batch.members.add(member);
+        batch.pending = true;
+        batch.lastJoinTime = Time.timeFloat;
+        this.members.put(renderer, member);
+
+        // Let the member report changes of it's transform and renderer
+        transform.addListener(member);
+        renderer.setStaticBatcher(this);
+        return true;
+    }
+
+    /**
+     * Remove a renderer from it's batch right away, because it's destroyed or detached from the scene.
+     * The renderer isn't added to the culling hierarchy again.
+     *
+     * @param renderer Mesh renderer.
+     *
+     * @return True if the renderer was removed, false if it wasn't in a batch.
+     */
+    public boolean remove(MeshRendererComponent renderer) {
+        final StaticBatch.Member member = this.members.get(renderer);
+        if(member == null)
+            return false;
+        removeMember(member);
+        return true;
+    }
+
+    /**
+     * Report that the given renderer has changed, for example because it's mesh, material or color was replaced.
+     * If it's in a batch, it's validated on the next update. This must be called on the engine thread.
+     *
+     * @param renderer Mesh renderer.
+     */
+    public void markChanged(MeshRendererComponent renderer) {
+        final StaticBatch.Member member = this.members.get(renderer);
+        if(member != null)
+            queue(member);
+    }
+
+    /**
+     * Report that the enabled state of the given game object has changed.
+     * The renderers of the game object and all of it's descendants that are in a batch are validated on the next
+     * update.
+     *
+     * @param gameObject Game object.
+     */
+    public void markChanged(AbstractGameObject gameObject) {
+        // Skip the walk if there are no members
+        if(this.members.isEmpty())
+            return;
+
+        // Report the renderers of the game object
+        final List<MeshRendererComponent> renderers = gameObject.getComponents(MeshRendererComponent.class);
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = renderers.size(); i < size; i++)
+            markChanged(renderers.get(i));
+
+        // Report the renderers of the children
+        final List<AbstractGameObject> children = gameObject.getChildren();
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = children.size(); i < size; i++)
+            markChanged(children.get(i));
+    }
+
+    /**
+     * Queue a member to be validated on the next update, if it isn't queued already.
+     *
+     * @param member Member.
+     */
+    void queue(StaticBatch.Member member) {
+        if(!member.queued) {
+            member.queued = true;
+            this.queuedMembers.add(member);
+        }
+    }
+
+    /**
+     * Remove a member from it's batch, and stop listening for it's changes.
+     * The batch is rebuilt on the next update if the member was merged into it.
+     *
+     * @param member Member.
+     */
+    private void removeMember(StaticBatch.Member member) {
+        // Remove the member from it's batch
+        member.batch.members.remove(member);
+        this.members.remove(member.renderer);
+
+        // Stop listening for changes, the renderer isn't drawn by the batch anymore
+        member.transform.removeListener(member);
+        member.renderer.setStaticBatcher(null);
+        member.renderer.setStaticBatched(false);
+
+        // The mesh must be rebuilt if the member was merged into it
+        if(member.included)
+            member.batch.dirty = true;
+    }
+
+    /**
+     * Update the batches.
+     * Members that reported a change are validated, and leave their batch to be drawn on their own again if they moved,
+     * changed or aren't static anymore. A renderer that changed while it's still rendered isn't batched again, since
+     * it's evidently animated. Batches are rebuilt right away when a merged member left, or when members joined and the
+     * batch has settled.
+     *
+     * @param time Current time in seconds.
+     */
+    public void update(float time) {
+        // Validate the members that reported a change, skip members that have left their batch already
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.queuedMembers.size(); i < size; i++) {
+            final StaticBatch.Member member = this.queuedMembers.get(i);
+            member.queued = false;
+            if(this.members.get(member.renderer) != member || isValidMember(member))
+                continue;
+
+            // Remove the member, and let the renderer draw on it's own again if it's still attached
+            removeMember(member);
+            final MeshRendererComponent renderer = member.renderer;
+            if(renderer.getOwner() == null)
+                continue;
+            renderer.addToCullingHierarchy();
+
+            // Don't batch the renderer again if it has changed while it's still rendered
+            if(renderer.isRenderable())
+                renderer.setStaticBatchingRejected(true);
+        }
+        this.queuedMembers.clear();
+
+        // Loop backwards through the batches, so empty batches can be removed
+        for(int b = this.batchList.size() - 1; b >= 0; b--) {
+            final StaticBatch batch = this.batchList.get(b);
+
+            // Dispose empty batches
+            if(batch.members.isEmpty()) {
+                disposeBatch(batch);
+                this.batches.get(batch.material).remove(batch.key);
+                this.batchList.set(b, this.batchList.get(this.batchList.size() - 1));
+                this.batchList.remove(this.batchList.size() - 1);
+                continue;
+            }
+
+            // Rebuild the batch if a merged member left, or if it has settled after members joined
+            if(batch.dirty || (batch.pending && time - batch.lastJoinTime >= JOIN_SETTLE_TIME))
+                rebuild(batch);
+        }
+    }
+
+    /**
+     * Submit all batches that intersect the given frustum to the render queue.
+     *
+     * @param frustum View frustum.
+     * @param queue Render queue.
+     */
+    public void submit(FrustumIntersection frustum, RenderQueue queue) {
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.batchList.size(); i < size; i++) {
+            // Make sure the batch has a mesh and is in view
+            final StaticBatch batch = this.batchList.get(i);
+            if(batch.mesh == null || !frustum.testAab(batch.mesh.getBoundsMin(), batch.mesh.getBoundsMax()))
+                continue;
+
+            // Submit the merged mesh, it's vertexes are in world space already
+            queue.submit(batch.material, batch.mesh, this.identityMatrix, BATCH_COLOR);
+        }
+    }
+
+    /**
+     * Check whether a member may stay in it's batch.
+     *
+     * @param member Member.
+     *
+     * @return True if it's still valid, false if it must leave the batch.
+     */
+    private boolean isValidMember(StaticBatch.Member member) {
+        final MeshRendererComponent renderer = member.renderer;
+        return renderer.getOwner() != null
+                && renderer.getScene() == this.scene
+                && isBatchable(renderer)
+                && renderer.getMaterial() == member.batch.material
+                && renderer.getMeshFilterComponent().getMesh() == member.mesh
+                && member.transform.getWorldVersion() == member.version;
+    }
+
+    /**
+     * Merge the meshes of all members of the given batch into a single mesh in world space.
+     *
+     * @param batch Batch to rebuild.
+     */
+    private void rebuild(StaticBatch batch) {
+        // Count the vertexes of all members
+        int vertexCount = 0;
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = batch.members.size(); i < size; i++)
+            vertexCount += batch.members.get(i).mesh.getRawMesh().getVertexCount();
+
+        // Determine the vertex layout, which is equal for all members of a batch
+        final RawMesh firstRaw = batch.members.get(0).mesh.getRawMesh();
+        final boolean hasNormals = firstRaw.hasNormalData();
+        final boolean hasTextures = firstRaw.hasTextureData();
+        final float[] vertexes = new float[vertexCount * RawMesh.VERTEX_AXIS_COUNT];
+        final float[] normals = new float[hasNormals ? vertexCount * RawMesh.NORMAL_AXIS_COUNT : 0];
+        final float[] textures = new float[hasTextures ? vertexCount * RawMesh.TEXTURE_AXIS_COUNT : 0];
+
+        // Transform the vertexes and normals of each member to world space, and copy the texture coordinates
+        int offset = 0;
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = batch.members.size(); i < size; i++) {
+            final StaticBatch.Member member = batch.members.get(i);
+            final RawMesh raw = member.mesh.getRawMesh();
+            member.transform.getWorldMatrix(this.tempWorldMatrix).normal(this.tempNormalMatrix);
+
+            for(int v = 0, count = raw.getVertexCount(); v < count; v++) {
+                // Transform the vertex
+                final int vi = v * RawMesh.VERTEX_AXIS_COUNT;
+                final int oi = (offset + v) * RawMesh.VERTEX_AXIS_COUNT;
+                this.tempVector.set(raw.getVertexes()[vi], raw.getVertexes()[vi + 1], raw.getVertexes()[vi + 2]);
+                this.tempWorldMatrix.transformPosition(this.tempVector);
+                vertexes[oi] = this.tempVector.x;
+                vertexes[oi + 1] = this.tempVector.y;
+                vertexes[oi + 2] = this.tempVector.z;
+
+                // Transform the normal with the normal matrix, which stays perpendicular under non-uniform scaling
+                if(hasNormals) {
+                    final int ni = v * RawMesh.NORMAL_AXIS_COUNT;
+                    this.tempVector.set(raw.getNormals()[ni], raw.getNormals()[ni + 1], raw.getNormals()[ni + 2]);
+                    this.tempNormalMatrix.transform(this.tempVector).normalize();
+                    normals[oi] = this.tempVector.x;
+                    normals[oi + 1] = this.tempVector.y;
+                    normals[oi + 2] = this.tempVector.z;
+                }
+
+                // Copy the texture coordinates
+                if(hasTextures) {
+                    final int ti = v * RawMesh.TEXTURE_AXIS_COUNT;
+                    final int to = (offset + v) * RawMesh.TEXTURE_AXIS_COUNT;
+                    textures[to] = raw.getTextures()[ti];
+                    textures[to + 1] = raw.getTextures()[ti + 1];
+                }
+            }
+            offset += raw.getVertexCount();
+
+            // The member is drawn by the batch now, remove it from the culling hierarchy
+            member.included = true;
+            member.renderer.setStaticBatched(true);
+            member.renderer.removeFromCullingHierarchy();
+        }
+
+        // Replace the merged mesh, and upload it right away since its members aren't drawn on their own anymore
+        disposeBatch(batch);
+        batch.mesh = new Mesh(new RawMesh(vertexes, normals, textures));
+        batch.mesh.uploadMesh();
+        batch.dirty = false;
+        batch.pending = false;
+    }
+
+    /**
+     * Clear the merged mesh of the given batch.
+     *
+     * @param batch Batch.
+     */
+    private static void disposeBatch(StaticBatch batch) {
+        if(batch.mesh != null) {
+            batch.mesh.clearMeshBuffer();
+            batch.mesh = null;
+        }
+    }
+
+    /**
+     * Create the key of the batch for a mesh at the given world position.
+     * The key holds the chunk coordinates and the vertex layout of the mesh, so merged meshes have a single layout.
+     *
+     * @param position World position.
+     * @param mesh Mesh.
+     *
+     * @return Batch key.
+     */
+    private static long createKey(Vector3f position, Mesh mesh) {
+        // Determine the chunk coordinates
+        final long x = (long) Math.floor(position.x / CHUNK_SIZE) & CHUNK_MASK;
+        final long y = (long) Math.floor(position.y / CHUNK_SIZE) & CHUNK_MASK;
+        final long z = (long) Math.floor(position.z / CHUNK_SIZE) & CHUNK_MASK;
+
+        // Pack the coordinates and the vertex layout
+        final long layout = (mesh.hasNormalData() ? 1L : 0L) | (mesh.hasTextureData() ? 2L : 0L);
+        return (layout << (CHUNK_BITS * 3)) | (x << (CHUNK_BITS * 2)) | (y << CHUNK_BITS) | z;
+    }
+
+    /**
+     * Get the number of batches.
+     *
+     * @return Batch count.
+     */
+    public int getBatchCount() {
+        return this.batchList.size();
+    }
+
+    /**
+     * Get the number of renderers that are in a batch.
+     *
+     * @return Member count.
+     */
+    public int getMemberCount() {
+        return this.members.size();
+    }
+
+    /**
+     * Remove all members from their batches, and clear all merged meshes.
+     * The renderers are drawn on their own again.
+     */
+    public void dispose() {
+        //noinspection ForLoopReplaceableByForEach
+        for(int b = 0, size = this.batchList.size(); b < size; b++) {
+            final StaticBatch batch = this.batchList.get(b);
+
+            // Stop listening for changes of the members, and let all merged members draw on their own again
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0, count = batch.members.size(); i < count; i++) {
+                final StaticBatch.Member member = batch.members.get(i);
+                final MeshRendererComponent renderer = member.renderer;
+                member.transform.removeListener(member);
+                renderer.setStaticBatcher(null);
+                if(renderer.isStaticBatched()) {
+                    renderer.setStaticBatched(false);
+                    renderer.addToCullingHierarchy();
+                }
+            }
+
+            // Clear the merged mesh
+            disposeBatch(batch);
+        }
+
+        // Clear the batches
+        this.batches.clear();
+        this.batchList.clear();
+        this.members.clear();
+        this.queuedMembers.clear();
+    }
+}
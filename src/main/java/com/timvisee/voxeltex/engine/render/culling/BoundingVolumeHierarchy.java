@@ -0,0 +1,746 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.engine.render.culling;
+
+import org.joml.FrustumIntersection;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounding volume hierarchy of cullable objects, used to find the objects within a view frustum.
+ *
+ * The hierarchy is a binary tree of axis aligned bounding boxes, with one object in each leaf. Objects are inserted
+ * and removed incrementally, by walking down the tree to the cheapest sibling and refitting the ancestors of the
+ * changed leaf. Leaves are enlarged by a margin, so objects that moved only a little stay in their leaf. Objects must
+ * report that their bounds have changed through {@link #markChanged(CullableInterface)}, only those are refitted on
+ * the next update. Incremental changes loosen the tree, so it's rebuilt from scratch, split at the median of the
+ * longest axis, once the number of changes since the last build exceeds the number of objects.
+ *
+ * @param <T> Cullable object type.
+ */
+public class BoundingVolumeHierarchy<T extends CullableInterface> {
+
+    /**
+     * Index used for a missing node.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Number of floats for a bounding box, the minimum corner followed by the maximum corner.
+     */
+    private static final int BOUNDS_SIZE = 6;
+
+    /**
+     * Margin the bounds of leaf nodes are enlarged with on each side, so small movements don't change the tree.
+     */
+    private static final float LEAF_MARGIN = 0.1f;
+
+    /**
+     * Minimum number of incremental changes before the tree is rebuilt.
+     */
+    private static final int REBUILD_MIN_CHANGES = 64;
+
+    /**
+     * Objects in the hierarchy.
+     */
+    private final List<T> entries = new ArrayList<>();
+
+    /**
+     * Index of each object in the entries list.
+     */
+    private final Map<T, Integer> entryIndexes = new IdentityHashMap<>();
+
+    /**
+     * World space bounds of each object.
+     */
+    private float[] entryBounds = new float[BOUNDS_SIZE * 64];
+
+    /**
+     * Leaf node of each object.
+     */
+    private int[] entryLeaf = new int[64];
+
+    /**
+     * Objects that reported their bounds have changed since the last update.
+     */
+    private final List<T> changedEntries = new ArrayList<>();
+
+    /**
+     * Entry indexes, used to order the objects when the tree is rebuilt.
+     */
+    private int[] order = new int[64];
+
+    /**
+     * Root node, or {@link #NONE} if the tree is empty.
+     */
+    private int root = NONE;
+
+    /**
+     * Number of allocated nodes, including nodes in the free list.
+     */
+    private int nodeCount = 0;
+
+    /**
+     * First node in the free list, or {@link #NONE} if it's empty.
+     */
+    private int freeNode = NONE;
+
+    /**
+     * Bounds of each node.
+     */
+    private float[] nodeBounds = new float[BOUNDS_SIZE * 128];
+
+    /**
+     * Parent of each node, or the next node in the free list for free nodes.
+     */
+    private int[] nodeParent = new int[128];
+
+    /**
+     * Left child of each inner node.
+     */
+    private int[] nodeLeft = new int[128];
+
+    /**
+     * Right child of each inner node.
+     */
+    private int[] nodeRight = new int[128];
+
+    /**
+     * Entry index of each leaf node, or {@link #NONE} for inner nodes.
+     */
+    private int[] nodeEntry = new int[128];
+
+    /**
+     * Stack used for traversing the tree.
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * Number of incremental changes to the tree since it was last rebuilt.
+     */
+    private int changes = 0;
+
+    /**
+     * Temporary minimum corner used for updating bounds.
+     */
+    private final Vector3f tempMin = new Vector3f();
+
+    /**
+     * Temporary maximum corner used for updating bounds.
+     */
+    private final Vector3f tempMax = new Vector3f();
+
+    /**
+     * Temporary bounds used for computing insertion costs.
+     */
+    private final float[] tempBounds = new float[BOUNDS_SIZE];
+
+    /**
+     * Add an object to the hierarchy, and fetch it's bounds.
+     *
+     * @param object Object to add.
+     *
+     * @return True if the object was added, false if it was in the hierarchy already.
+     */
+    public boolean add(T object) {
+        // Make sure the object isn't added already
+        if(this.entryIndexes.containsKey(object))
+            return false;
+
+        // Grow the entry arrays if they're full
+        final int index = this.entries.size();
+        if(index == this.entryLeaf.length) {
+            this.entryBounds = Arrays.copyOf(this.entryBounds, this.entryBounds.length * 2);
+            this.entryLeaf = Arrays.copyOf(this.entryLeaf, this.entryLeaf.length * 2);
+        }
+
+        // Add the object, and fetch it's bounds
+        this.entries.add(object);
+        this.entryIndexes.put(object, index);
+        if(object.updateWorldBounds(this.tempMin, this.tempMax))
+            setEntryBounds(index, this.tempMin, this.tempMax);
+        else
+            Arrays.fill(this.entryBounds, index * BOUNDS_SIZE, (index + 1) * BOUNDS_SIZE, 0f);
+
+        // Insert a leaf for the object
+        final int leaf = createLeaf(index);
+        this.entryLeaf[index] = leaf;
+        insertLeaf(leaf);
+        this.changes++;
+        return true;
+    }
+
+    /**
+     * Remove an object from the hierarchy.
+     *
+     * @param object Object to remove.
+     *
+     * @return True if the object was removed, false if it wasn't in the hierarchy.
+     */
+    public boolean remove(T object) {
+        // Get the index of the object
+        final Integer index = this.entryIndexes.remove(object);
+        if(index == null)
+            return false;
+
+        // Remove and free the leaf of the object
+        final int leaf = this.entryLeaf[index];
+        removeLeaf(leaf);
+        freeNode(leaf);
+        this.changes++;
+
+        // Swap remove the object, moving the last object, it's bounds and it's leaf into the freed slot
+        final int last = this.entries.size() - 1;
+        if(index != last) {
+            final T moved = this.entries.get(last);
+            this.entries.set(index, moved);
+            this.entryIndexes.put(moved, index);
+            System.arraycopy(this.entryBounds, last * BOUNDS_SIZE, this.entryBounds, index * BOUNDS_SIZE, BOUNDS_SIZE);
+            this.entryLeaf[index] = this.entryLeaf[last];
+            this.nodeEntry[this.entryLeaf[index]] = index;
+        }
+        this.entries.remove(last);
+        return true;
+    }
+
+    /**
+     * Report that the bounds of an object have changed, so they're fetched on the next update.
+     * Objects that aren't in the hierarchy on the next update are ignored. This must be called on the engine thread.
+     *
+     * @param object Object that has changed.
+     */
+    public void markChanged(T object) {
+        this.changedEntries.add(object);
+    }
+
+    /**
+     * Check whether the given object is in the hierarchy.
+     *
+     * @param object Object.
+     *
+     * @return True if the object is in the hierarchy, false if not.
+     */
+    public boolean contains(T object) {
+        return this.entryIndexes.containsKey(object);
+    }
+
+    /**
+     * Get the number of objects in the hierarchy.
+     *
+     * @return Number of objects.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Remove all objects from the hierarchy.
+     */
+    public void clear() {
+        this.entries.clear();
+        this.entryIndexes.clear();
+        this.changedEntries.clear();
+        resetNodes();
+        this.changes = 0;
+    }
+
+    /**
+     * Fetch the bounds of the objects that reported a change, and move their leaves if they left them.
+     * The tree is rebuilt instead, if it has been changed too often since the last build.
+     */
+    public void update() {
+        // Fetch the bounds of the changed objects, and reinsert the ones that left their leaf
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.changedEntries.size(); i < size; i++) {
+            // Skip objects that were removed, or whose bounds haven't actually changed
+            final Integer index = this.entryIndexes.get(this.changedEntries.get(i));
+            if(index == null || !this.entries.get(index).updateWorldBounds(this.tempMin, this.tempMax))
+                continue;
+            setEntryBounds(index, this.tempMin, this.tempMax);
+
+            // Reinsert the leaf if the object isn't within it's margin anymore
+            final int leaf = this.entryLeaf[index];
+            if(!containsEntry(leaf, index)) {
+                removeLeaf(leaf);
+                setLeafBounds(leaf, index);
+                insertLeaf(leaf);
+                this.changes++;
+            }
+        }
+        this.changedEntries.clear();
+
+        // Rebuild the tree if it has been changed too often
+        if(this.changes > Math.max(REBUILD_MIN_CHANGES, this.entries.size()))
+            build();
+    }
+
+    /**
+     * Find all renderable objects intersecting the given frustum.
+     * The tree should be updated first.
+     *
+     * @param frustum View frustum.
+     * @param dest List to add the visible objects to.
+     */
+    public void query(FrustumIntersection frustum, List<T> dest) {
+        // Make sure there is a tree to query
+        if(this.root == NONE)
+            return;
+
+        // Traverse the tree, starting at the root node
+        int stackSize = 0;
+        this.stack[stackSize++] = this.root;
+        while(stackSize > 0) {
+            // Skip the node if it's outside the frustum
+            final int node = this.stack[--stackSize];
+            if(!testBounds(frustum, this.nodeBounds, node))
+                continue;
+
+            // Test the object of a leaf node, or continue with the children of an inner node
+            final int entry = this.nodeEntry[node];
+            if(entry != NONE) {
+                final T object = this.entries.get(entry);
+                if(testBounds(frustum, this.entryBounds, entry) && object.isRenderable())
+                    dest.add(object);
+            } else {
+                if(stackSize + 2 > this.stack.length)
+                    this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+                this.stack[stackSize++] = this.nodeRight[node];
+                this.stack[stackSize++] = this.nodeLeft[node];
+            }
+        }
+    }
+
+    /**
+     * Rebuild the tree from scratch, with tight leaves.
+     */
+    private void build() {
+        // Reset the tree
+        resetNodes();
+        this.changes = 0;
+        final int size = this.entries.size();
+        if(size == 0)
+            return;
+
+        // Initialize the entry order
+        if(this.order.length < size)
+            this.order = new int[Math.max(size, this.order.length * 2)];
+        for(int i = 0; i < size; i++)
+            this.order[i] = i;
+
+        // Build the nodes recursively, starting with the root
+        this.root = buildNode(0, size, NONE);
+    }
+
+    /**
+     * Build a node for the entries in the given range of the order array, and all of it's children.
+     *
+     * @param start First position in the order array, inclusive.
+     * @param end Last position in the order array, exclusive.
+     * @param parent Parent node.
+     *
+     * @return Index of the created node.
+     */
+    private int buildNode(int start, int end, int parent) {
+        // Create a leaf if there's only one entry left
+        if(end - start == 1) {
+            final int leaf = createLeaf(this.order[start]);
+            this.entryLeaf[this.order[start]] = leaf;
+            this.nodeParent[leaf] = parent;
+            return leaf;
+        }
+
+        // Find the longest axis of the entry centers
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for(int i = start; i < end; i++) {
+            final float x = center(this.order[i], 0);
+            final float y = center(this.order[i], 1);
+            final float z = center(this.order[i], 2);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        final float extentX = maxX - minX;
+        final float extentY = maxY - minY;
+        final float extentZ = maxZ - minZ;
+        final int axis = extentX >= extentY && extentX >= extentZ ? 0 : (extentY >= extentZ ? 1 : 2);
+
+        // Split at the median, and build the children
+        final int mid = (start + end) >>> 1;
+        select(start, end - 1, mid, axis);
+        final int node = allocateNode();
+        this.nodeParent[node] = parent;
+        this.nodeEntry[node] = NONE;
+        this.nodeLeft[node] = buildNode(start, mid, node);
+        this.nodeRight[node] = buildNode(mid, end, node);
+        combineChildBounds(node);
+        return node;
+    }
+
+    /**
+     * Insert a leaf node into the tree, next to the sibling that enlarges the tree the least.
+     *
+     * @param leaf Leaf node, with it's bounds set.
+     */
+    private void insertLeaf(int leaf) {
+        // Make the leaf the root if the tree is empty
+        if(this.root == NONE) {
+            this.root = leaf;
+            this.nodeParent[leaf] = NONE;
+            return;
+        }
+
+        // Walk down the tree, to the sibling for which the cost of the enlarged ancestors is the smallest
+        int sibling = this.root;
+        while(this.nodeEntry[sibling] == NONE) {
+            // Get the cost of pairing with this node, and the cost that is inherited by the children
+            final float area = area(this.nodeBounds, sibling);
+            final float combinedArea = combinedArea(sibling, leaf);
+            final float cost = 2f * combinedArea;
+            final float inheritedCost = 2f * (combinedArea - area);
+
+            // Get the cost of descending into either child, and stop if pairing here is cheapest
+            final int left = this.nodeLeft[sibling];
+            final int right = this.nodeRight[sibling];
+            final float leftCost = descendCost(left, leaf) + inheritedCost;
+            final float rightCost = descendCost(right, leaf) + inheritedCost;
+            if(cost < leftCost && cost < rightCost)
+                break;
+            sibling = leftCost < rightCost ? left : right;
+        }
+
+        // Create a parent for the sibling and the leaf, in place of the sibling
+        final int oldParent = this.nodeParent[sibling];
+        final int parent = allocateNode();
+        this.nodeParent[parent] = oldParent;
+        this.nodeEntry[parent] = NONE;
+        this.nodeLeft[parent] = sibling;
+        this.nodeRight[parent] = leaf;
+        this.nodeParent[sibling] = parent;
+        this.nodeParent[leaf] = parent;
+        if(oldParent == NONE)
+            this.root = parent;
+        else if(this.nodeLeft[oldParent] == sibling)
+            this.nodeLeft[oldParent] = parent;
+        else
+            this.nodeRight[oldParent] = parent;
+
+        // Refit the new parent and it's ancestors
+        refitAncestors(parent);
+    }
+
+    /**
+     * Remove a leaf node from the tree. The leaf node itself isn't freed.
+     *
+     * @param leaf Leaf node.
+     */
+    private void removeLeaf(int leaf) {
+        // Empty the tree if the leaf is the root
+        if(leaf == this.root) {
+            this.root = NONE;
+            return;
+        }
+
+        // Replace the parent of the leaf by it's sibling, and free the parent
+        final int parent = this.nodeParent[leaf];
+        final int grandParent = this.nodeParent[parent];
+        final int sibling = this.nodeLeft[parent] == leaf ? this.nodeRight[parent] : this.nodeLeft[parent];
+        this.nodeParent[sibling] = grandParent;
+        if(grandParent == NONE)
+            this.root = sibling;
+        else if(this.nodeLeft[grandParent] == parent)
+            this.nodeLeft[grandParent] = sibling;
+        else
+            this.nodeRight[grandParent] = sibling;
+        freeNode(parent);
+
+        // Refit the ancestors of the removed parent
+        if(grandParent != NONE)
+            refitAncestors(grandParent);
+    }
+
+    /**
+     * Recompute the bounds of the given inner node and all of it's ancestors.
+     *
+     * @param node Inner node.
+     */
+    private void refitAncestors(int node) {
+        while(node != NONE) {
+            combineChildBounds(node);
+            node = this.nodeParent[node];
+        }
+    }
+
+    /**
+     * Set the bounds of an inner node to the combined bounds of it's children.
+     *
+     * @param node Inner node.
+     */
+    private void combineChildBounds(int node) {
+        final int offset = node * BOUNDS_SIZE;
+        final int left = this.nodeLeft[node] * BOUNDS_SIZE;
+        final int right = this.nodeRight[node] * BOUNDS_SIZE;
+        for(int i = 0; i < 3; i++)
+            this.nodeBounds[offset + i] = Math.min(this.nodeBounds[left + i], this.nodeBounds[right + i]);
+        for(int i = 3; i < BOUNDS_SIZE; i++)
+            this.nodeBounds[offset + i] = Math.max(this.nodeBounds[left + i], this.nodeBounds[right + i]);
+    }
+
+    /**
+     * Get the cost of inserting a leaf below the given node, excluding the cost inherited from it's ancestors.
+     *
+     * @param node Node to descend into.
+     * @param leaf Leaf node to insert.
+     *
+     * @return Cost.
+     */
+    private float descendCost(int node, int leaf) {
+        // A leaf node would be paired with the new leaf, an inner node would only be enlarged
+        final float combinedArea = combinedArea(node, leaf);
+        if(this.nodeEntry[node] != NONE)
+            return combinedArea;
+        return combinedArea - area(this.nodeBounds, node);
+    }
+
+    /**
+     * Get the surface area of the combined bounds of two nodes.
+     *
+     * @param a First node.
+     * @param b Second node.
+     *
+     * @return Combined surface area.
+     */
+    private float combinedArea(int a, int b) {
+        final int offsetA = a * BOUNDS_SIZE;
+        final int offsetB = b * BOUNDS_SIZE;
+        for(int i = 0; i < 3; i++)
+            this.tempBounds[i] = Math.min(this.nodeBounds[offsetA + i], this.nodeBounds[offsetB + i]);
+        for(int i = 3; i < BOUNDS_SIZE; i++)
+            this.tempBounds[i] = Math.max(this.nodeBounds[offsetA + i], this.nodeBounds[offsetB + i]);
+        return area(this.tempBounds, 0);
+    }
+
+    /**
+     * Get the surface area of the bounds at the given index in the given array.
+     *
+     * @param bounds Bounds array.
+     * @param index Index of the bounds.
+     *
+     * @return Surface area.
+     */
+    private static float area(float[] bounds, int index) {
+        final int offset = index * BOUNDS_SIZE;
+        final float x = bounds[offset + 3] - bounds[offset];
+        final float y = bounds[offset + 4] - bounds[offset + 1];
+        final float z = bounds[offset + 5] - bounds[offset + 2];
+        return 2f * (x * y + y * z + z * x);
+    }
+
+    /**
+     * Check whether the bounds of an entry are within the bounds of the given leaf node.
+     *
+     * @param leaf Leaf node.
+     * @param entry Entry index.
+     *
+     * @return True if the entry is within the leaf, false if not.
+     */
+    private boolean containsEntry(int leaf, int entry) {
+        final int node = leaf * BOUNDS_SIZE;
+        final int offset = entry * BOUNDS_SIZE;
+        for(int i = 0; i < 3; i++)
+            if(this.entryBounds[offset + i] < this.nodeBounds[node + i])
+                return false;
+        for(int i = 3; i < BOUNDS_SIZE; i++)
+            if(this.entryBounds[offset + i] > this.nodeBounds[node + i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Allocate a leaf node for the given entry, with it's bounds enlarged by the leaf margin.
+     *
+     * @param entry Entry index.
+     *
+     * @return Leaf node.
+     */
+    private int createLeaf(int entry) {
+        final int leaf = allocateNode();
+        this.nodeEntry[leaf] = entry;
+        setLeafBounds(leaf, entry);
+        return leaf;
+    }
+
+    /**
+     * Set the bounds of a leaf node to the bounds of the given entry, enlarged by the leaf margin.
+     *
+     * @param leaf Leaf node.
+     * @param entry Entry index.
+     */
+    private void setLeafBounds(int leaf, int entry) {
+        final int node = leaf * BOUNDS_SIZE;
+        final int offset = entry * BOUNDS_SIZE;
+        for(int i = 0; i < 3; i++) {
+            this.nodeBounds[node + i] = this.entryBounds[offset + i] - LEAF_MARGIN;
+            this.nodeBounds[node + 3 + i] = this.entryBounds[offset + 3 + i] + LEAF_MARGIN;
+        }
+    }
+
+    /**
+     * Partially sort the given range of the order array, so the entry at position k is the one that would be there
+     * if the range was sorted by the center of the entries on the given axis.
+     * Entries before position k are smaller or equal, entries after it are larger or equal.
+     *
+     * @param low First position, inclusive.
+     * @param high Last position, inclusive.
+     * @param k Position to select.
+     * @param axis Axis to sort on.
+     */
+    private void select(int low, int high, int k, int axis) {
+        while(high > low) {
+            // Partition around the center of the middle entry
+            final float pivot = center(this.order[(low + high) >>> 1], axis);
+            int i = low;
+            int j = high;
+            while(i <= j) {
+                while(center(this.order[i], axis) < pivot)
+                    i++;
+                while(center(this.order[j], axis) > pivot)
+                    j--;
+                if(i <= j) {
+                    final int swap = this.order[i];
+                    this.order[i++] = this.order[j];
+                    this.order[j--] = swap;
+                }
+            }
+
+            // Continue in the partition containing position k
+            if(k <= j)
+                high = j;
+            else if(k >= i)
+                low = i;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Get the center of an entry on the given axis. The value is doubled, which doesn't affect the ordering.
+     *
+     * @param entry Entry index.
+     * @param axis Axis.
+     *
+     * @return Doubled center.
+     */
+    private float center(int entry, int axis) {
+        return this.entryBounds[entry * BOUNDS_SIZE + axis] + this.entryBounds[entry * BOUNDS_SIZE + 3 + axis];
+    }
+
+    /**
+     * Allocate a node, reusing a free node if available and growing the node arrays if required.
+     *
+     * @return Node index.
+     */
+    private int allocateNode() {
+        // Reuse a free node
+        if(this.freeNode != NONE) {
+            final int node = this.freeNode;
+            this.freeNode = this.nodeParent[node];
+            return node;
+        }
+
+        // Grow the arrays if they're full
+        if(this.nodeCount == this.nodeEntry.length) {
+            final int capacity = this.nodeEntry.length * 2;
+            this.nodeBounds = Arrays.copyOf(this.nodeBounds, capacity * BOUNDS_SIZE);
+            this.nodeParent = Arrays.copyOf(this.nodeParent, capacity);
+            this.nodeLeft = Arrays.copyOf(this.nodeLeft, capacity);
+            this.nodeRight = Arrays.copyOf(this.nodeRight, capacity);
+            this.nodeEntry = Arrays.copyOf(this.nodeEntry, capacity);
+        }
+
+        // Return the next node
+        return this.nodeCount++;
+    }
+
+    /**
+     * Add a node to the free list, so it can be reused.
+     *
+     * @param node Node index.
+     */
+    private void freeNode(int node) {
+        this.nodeParent[node] = this.freeNode;
+        this.nodeEntry[node] = NONE;
+        this.freeNode = node;
+    }
+
+    /**
+     * Free all nodes, leaving an empty tree.
+     */
+    private void resetNodes() {
+        this.root = NONE;
+        this.nodeCount = 0;
+        this.freeNode = NONE;
+    }
+
+    /**
+     * Set the bounds of an entry.
+     *
+     * @param index Entry index.
+     * @param min Minimum corner.
+     * @param max Maximum corner.
+     */
+    private void setEntryBounds(int index, Vector3f min, Vector3f max) {
+        final int offset = index * BOUNDS_SIZE;
+        this.entryBounds[offset] = min.x;
+        this.entryBounds[offset + 1] = min.y;
+        this.entryBounds[offset + 2] = min.z;
+        this.entryBounds[offset + 3] = max.x;
+        this.entryBounds[offset + 4] = max.y;
+        this.entryBounds[offset + 5] = max.z;
+    }
+
+    /**
+     * Test whether the bounds at the given index in the given array intersect the frustum.
+     *
+     * @param frustum View frustum.
+     * @param bounds Bounds array.
+     * @param index Index of the bounds.
+     *
+     * @return True if the bounds intersect the frustum, false if not.
+     */
+    private static boolean testBounds(FrustumIntersection frustum, float[] bounds, int index) {
+        final int offset = index * BOUNDS_SIZE;
+        return frustum.testAab(
+                bounds[offset], bounds[offset + 1], bounds[offset + 2],
+                bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]
+        );
+    }
+}
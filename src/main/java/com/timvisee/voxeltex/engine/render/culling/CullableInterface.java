@@ -0,0 +1,46 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.culling;
+
+import org.joml.Vector3f;
+
+public interface CullableInterface {
+
+    /**
+     * Update the world space axis aligned bounding box of this object, if it has changed since the last update.
+     *
+     * @param min Destination for the minimum corner. Only written if the bounds have changed.
+     * @param max Destination for the maximum corner. Only written if the bounds have changed.
+     *
+     * @return True if the bounds have changed and were written, false if not.
+     */
+    boolean updateWorldBounds(Vector3f min, Vector3f max);
+
+    /**
+     * Check whether this object should be rendered if it's in view.
+     *
+     * @return True if renderable, false if not.
+     */
+    boolean isRenderable();
+}
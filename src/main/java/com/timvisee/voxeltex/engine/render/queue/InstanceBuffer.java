@@ -0,0 +1,160 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.queue;
+
+import com.timvisee.voxeltex.module.shader.specific.InstancedTexturedShader;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL33;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Vertex buffer holding the per instance model matrix and color for an instanced draw call.
+ */
+class InstanceBuffer {
+
+    /**
+     * Maximum number of instances in a single instanced draw call.
+     */
+    static final int MAX_INSTANCES = 1024;
+
+    /**
+     * Number of floats for each instance, a model matrix followed by a color.
+     */
+    private static final int FLOATS_PER_INSTANCE = 16 + 4;
+
+    /**
+     * Number of bytes for each instance.
+     */
+    private static final int INSTANCE_STRIDE = FLOATS_PER_INSTANCE * 4;
+
+    /**
+     * Client side buffer the instance data is written to before it's uploaded.
+     */
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(MAX_INSTANCES * FLOATS_PER_INSTANCE);
+
+    /**
+     * VBO handle of the instance buffer, or zero if it hasn't been created yet.
+     */
+    private int vboHandle = 0;
+
+    /**
+     * Number of instances in the buffer.
+     */
+    private int instanceCount = 0;
+
+    /**
+     * Clear the instance data, so new instances can be added.
+     */
+    void clear() {
+        this.data.clear();
+        this.instanceCount = 0;
+    }
+
+    /**
+     * Add the given item as instance.
+     *
+     * @param item Render queue item.
+     */
+    void add(RenderQueueItem item) {
+        // Write the model matrix and color
+        final int offset = this.instanceCount * FLOATS_PER_INSTANCE;
+        item.modelMatrix.get(offset, this.data);
+        item.color.get(offset + 16, this.data);
+
+        // Increase the instance count
+        this.instanceCount++;
+    }
+
+    /**
+     * Get the number of instances in the buffer.
+     *
+     * @return Number of instances.
+     */
+    int getInstanceCount() {
+        return this.instanceCount;
+    }
+
+    /**
+     * Upload the instance data, and configure the per instance attributes of the given shader to use it.
+     *
+     * @param shader Instanced shader.
+     */
+    void bind(InstancedTexturedShader shader) {
+        // Create the buffer on first use
+        if(this.vboHandle == 0)
+            this.vboHandle = GL15.glGenBuffers();
+
+        // Upload the instance data, orphaning the previous buffer storage
+        this.data.limit(this.instanceCount * FLOATS_PER_INSTANCE);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.vboHandle);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, this.data, GL15.GL_STREAM_DRAW);
+
+        // Configure the model matrix, one attribute for each column
+        final int matrixLocation = shader.getInstanceMatrixLocation();
+        for(int column = 0; column < 4; column++) {
+            GL20.glVertexAttribPointer(matrixLocation + column, 4, GL11.GL_FLOAT, false, INSTANCE_STRIDE, column * 16L);
+            GL20.glEnableVertexAttribArray(matrixLocation + column);
+            GL33.glVertexAttribDivisor(matrixLocation + column, 1);
+        }
+
+        // Configure the color
+        final int colorLocation = shader.getInstanceColorLocation();
+        GL20.glVertexAttribPointer(colorLocation, 4, GL11.GL_FLOAT, false, INSTANCE_STRIDE, 16 * 4L);
+        GL20.glEnableVertexAttribArray(colorLocation);
+        GL33.glVertexAttribDivisor(colorLocation, 1);
+
+        // Unbind the buffer, the attribute pointers keep referencing it
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Disable the per instance attributes of the given shader.
+     *
+     * @param shader Instanced shader.
+     */
+    void unbind(InstancedTexturedShader shader) {
+        // Disable the model matrix and color attributes, and reset their divisors
+        final int matrixLocation = shader.getInstanceMatrixLocation();
+        for(int column = 0; column < 4; column++) {
+            GL33.glVertexAttribDivisor(matrixLocation + column, 0);
+            GL20.glDisableVertexAttribArray(matrixLocation + column);
+        }
+        GL33.glVertexAttribDivisor(shader.getInstanceColorLocation(), 0);
+        GL20.glDisableVertexAttribArray(shader.getInstanceColorLocation());
+    }
+
+    /**
+     * Dispose the instance buffer from the graphics card.
+     */
+    void dispose() {
+        if(this.vboHandle != 0) {
+            GL15.glDeleteBuffers(this.vboHandle);
+            this.vboHandle = 0;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.queue;
+
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
+import com.timvisee.voxeltex.module.Color;
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.shader.Shader;
+import com.timvisee.voxeltex.module.shader.specific.InstancedTexturedShader;
+import com.timvisee.voxeltex.module.texture.Texture;
+import com.timvisee.voxeltex.module.transform.Transform;
+import com.timvisee.voxeltex.runtime.global.MainCamera;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Queue of meshes to render in a scene.
+ *
+ * Mesh renderers submit their mesh to this queue while the scene is drawn, instead of drawing it right away.
+ * When the scene has been traversed, the queued items are sorted by shader program, texture and mesh, and rendered
+ * in that order. The shader, material, texture and mesh are then only bound once for each group of items sharing them,
+ * rather than once for every item.
+ *
+ * Consecutive items sharing the same material and mesh are merged into a single instanced draw call if the shader of
+ * the material has an instanced variant, and the graphics card supports instancing.
+ */
+public class RenderQueue {
+
+    /**
+     * Initial capacity of the queue.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Minimum number of items sharing a material and mesh to render them as instances.
+     */
+    private static final int INSTANCING_MIN_ITEMS = 4;
+
+    /**
+     * Comparator to sort queued items for rendering.
+     * Opaque items come first, grouped by their sort key and front to back within each group so they benefit from
+     * early depth rejection. Transparent items follow, back to front so they blend correctly.
+     */
+    private static final Comparator<RenderQueueItem> SORT_KEY_COMPARATOR = (a, b) -> {
+        // Render opaque items before transparent items
+        if(a.transparent != b.transparent)
+            return a.transparent ? 1 : -1;
+
+        // Sort transparent items back to front, and opaque items by state and front to back
+        final int order;
+        if(a.transparent) {
+            order = Float.compare(b.depth, a.depth);
+            return order != 0 ? order : Long.compare(a.sortKey, b.sortKey);
+        }
+        order = Long.compare(a.sortKey, b.sortKey);
+        return order != 0 ? order : Float.compare(a.depth, b.depth);
+    };
+
+    /**
+     * Queued items. The items are recycled between frames, only the first {@link #itemCount} items are queued.
+     */
+    private RenderQueueItem[] items = new RenderQueueItem[INITIAL_CAPACITY];
+
+    /**
+     * Number of queued items.
+     */
+    private int itemCount = 0;
+
+    /**
+     * Number of shader, material and mesh binds in the last render.
+     */
+    private int bindCount = 0;
+
+    /**
+     * Number of draw calls in the last render.
+     */
+    private int drawCount = 0;
+
+    /**
+     * Flag whether instanced rendering is supported, or null if this hasn't been checked yet.
+     */
+    private Boolean instancingSupported;
+
+    /**
+     * Buffer for per instance data of instanced draw calls.
+     */
+    private final InstanceBuffer instanceBuffer = new InstanceBuffer();
+
+    /**
+     * Camera view matrix used while rendering.
+     */
+    private final Matrix4f viewMatrix = new Matrix4f();
+
+    /**
+     * Combined model view matrix used while rendering.
+     */
+    private final Matrix4f modelViewMatrix = new Matrix4f();
+
+    /**
+     * Float buffer used to load the model view matrix.
+     */
+    private final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+
+    /**
+     * Vector used to determine the center of a mesh in view space.
+     */
+    private final Vector3f tempCenter = new Vector3f();
+
+    /**
+     * Number of items rendered in the transparent pass in the last render.
+     */
+    private int transparentCount = 0;
+
+    /**
+     * Queue a mesh to be rendered.
+     * Meshes that aren't uploaded to the graphics card yet, or whose material texture isn't, are skipped.
+     *
+     * @param material Material to render the mesh with.
+     * @param mesh Mesh to render.
+     * @param transform Transform of the mesh.
+     * @param color Color to render the mesh with.
+     */
+    public void submit(Material material, Mesh mesh, Transform transform, Color color) {
+        // Skip the mesh if it or it's texture isn't uploaded yet
+        if(!isUploaded(material, mesh))
+            return;
+
+        // Queue the mesh, and set the world matrix of the transform as model matrix
+        transform.getWorldMatrix(next(material, mesh, color).modelMatrix);
+    }
+
+    /**
+     * Queue a mesh to be rendered with the given model matrix.
+     * Meshes that aren't uploaded to the graphics card yet, or whose material texture isn't, are skipped.
+     *
+     * @param material Material to render the mesh with.
+     * @param mesh Mesh to render.
+     * @param modelMatrix Model matrix of the mesh, this matrix is copied.
+     * @param color Color to render the mesh with.
+     */
+    public void submit(Material material, Mesh mesh, Matrix4f modelMatrix, Color color) {
+        // Skip the mesh if it or it's texture isn't uploaded yet
+        if(!isUploaded(material, mesh))
+            return;
+
+        next(material, mesh, color).modelMatrix.set(modelMatrix);
+    }
+
+    /**
+     * Check whether the mesh and the texture of the material are uploaded to the graphics card, so they can be bound.
+     *
+     * @param material Material to render the mesh with.
+     * @param mesh Mesh to render.
+     *
+     * @return True if uploaded, false if an upload is still pending.
+     */
+    private static boolean isUploaded(Material material, Mesh mesh) {
+        return mesh.isBuffered() && (!material.hasTexture() || !material.getTexture().isUploadPending());
+    }
+
+    /**
+     * Get the next item in the queue, and fill it with the given state.
+     *
+     * @param material Material to render the mesh with.
+     * @param mesh Mesh to render.
+     * @param color Color to render the mesh with.
+     *
+     * @return The queued item, of which the model matrix must still be set.
+     */
+    private RenderQueueItem next(Material material, Mesh mesh, Color color) {
+        // Grow the queue if it's full
+        if(this.itemCount == this.items.length)
+            this.items = Arrays.copyOf(this.items, this.items.length * 2);
+
+        // Get or create the next item
+        RenderQueueItem item = this.items[this.itemCount];
+        if(item == null)
+            item = this.items[this.itemCount] = new RenderQueueItem();
+        this.itemCount++;
+
+        // Fill the item
+        item.material = material;
+        item.mesh = mesh;
+        color.toVector4f(item.color);
+        item.sortKey = createSortKey(material, mesh);
+        item.transparent = item.color.w < 1f || material.isTransparent();
+        return item;
+    }
+
+    /**
+     * Render all queued items, and clear the queue afterwards.
+     *
+     * @param scene Scene that is rendered.
+     */
+    public void render(AbstractScene scene) {
+        // Create the camera view matrix once for all items
+        MainCamera.createCameraViewMatrix(this.viewMatrix);
+
+        // Determine the view depth of each item, and sort the items into the opaque and transparent pass
+        for(int i = 0; i < this.itemCount; i++)
+            this.items[i].depth = computeDepth(this.items[i]);
+        Arrays.sort(this.items, 0, this.itemCount, SORT_KEY_COMPARATOR);
+
+        // Check whether instancing is supported once
+        if(this.instancingSupported == null)
+            this.instancingSupported = GL.getCapabilities().OpenGL33;
+
+        // Keep track of the currently bound state
+        Shader shader = null;
+        Material material = null;
+        Texture texture = null;
+        Mesh mesh = null;
+        boolean transparentPass = false;
+        this.bindCount = 0;
+        this.drawCount = 0;
+        this.transparentCount = 0;
+
+        // Render all items
+        int i = 0;
+        while(i < this.itemCount) {
+            final RenderQueueItem item = this.items[i];
+
+            // Start the transparent pass, transparent items are tested against but don't write to the depth buffer
+            if(item.transparent && !transparentPass) {
+                transparentPass = true;
+                this.transparentCount = this.itemCount - i;
+                GL11.glDepthMask(false);
+            }
+
+            // Count the following items that share the material, mesh and pass, up to the instance limit
+            int runEnd = i + 1;
+            while(runEnd < this.itemCount && runEnd - i < InstanceBuffer.MAX_INSTANCES
+                    && this.items[runEnd].material == item.material && this.items[runEnd].mesh == item.mesh
+                    && this.items[runEnd].transparent == item.transparent)
+                runEnd++;
+
+            // Determine whether to render the items as instances, and select the shader to use
+            final Shader itemShader = item.material.getShader();
+            final boolean instanced = this.instancingSupported && itemShader.hasInstancedShader()
+                    && runEnd - i >= INSTANCING_MIN_ITEMS;
+            final Shader targetShader = instanced ? itemShader.getInstancedShader() : itemShader;
+
+            // Bind the shader if it has changed, the material must be updated after this
+            if(targetShader != shader) {
+                shader = targetShader;
+                shader.bind();
+                material = null;
+                this.bindCount++;
+            }
+
+            // Update the shader for the material if it has changed
+            if(item.material != material) {
+                material = item.material;
+                shader.update(scene, material);
+                this.bindCount++;
+
+                // Bind the texture if it has changed
+                if(material.getTexture() != texture) {
+                    texture = material.getTexture();
+                    if(texture != null)
+                        texture.bind(GL13.GL_TEXTURE0);
+                    else
+                        Texture.unbind();
+                }
+
+                // Let the shader sample the texture from the first texture unit
+                if(texture != null)
+                    shader.getTextureUniform().set(0);
+            }
+
+            // Bind the mesh if it has changed
+            if(item.mesh != mesh) {
+                if(mesh != null)
+                    mesh.unbind();
+                mesh = item.mesh;
+                mesh.bind();
+                this.bindCount++;
+            }
+
+            // Render the items
+            if(instanced) {
+                // Fill the instance buffer with the items
+                this.instanceBuffer.clear();
+                for(int j = i; j < runEnd; j++)
+                    this.instanceBuffer.add(this.items[j]);
+
+                // Load the camera view matrix, the model matrix is part of the instance data
+                GL11.glLoadMatrixf(this.viewMatrix.get(this.matrixBuffer));
+
+                // Draw all instances at once
+                final InstancedTexturedShader instancedShader = itemShader.getInstancedShader();
+                this.instanceBuffer.bind(instancedShader);
+                mesh.drawBoundInstanced(this.instanceBuffer.getInstanceCount());
+                this.instanceBuffer.unbind(instancedShader);
+                this.drawCount++;
+
+            } else {
+                for(int j = i; j < runEnd; j++) {
+                    final RenderQueueItem runItem = this.items[j];
+
+                    // Load the model view matrix, and send the model matrix and color to the shader
+                    this.modelViewMatrix.set(this.viewMatrix).mul(runItem.modelMatrix);
+                    GL11.glLoadMatrixf(this.modelViewMatrix.get(this.matrixBuffer));
+                    shader.getModelMatrixUniform().set(runItem.modelMatrix);
+                    shader.getColorUniform().set(runItem.color);
+
+                    // Draw the mesh
+                    mesh.drawBound();
+                    this.drawCount++;
+                }
+            }
+
+            // Continue with the next item after this run
+            i = runEnd;
+        }
+
+        // Restore depth writes after the transparent pass
+        if(transparentPass)
+            GL11.glDepthMask(true);
+
+        // Unbind the state that is still bound
+        if(mesh != null)
+            mesh.unbind();
+        if(texture != null)
+            Texture.unbind();
+        if(shader != null)
+            shader.unbind();
+
+        // Clear the queue
+        clear();
+    }
+
+    /**
+     * Clear the queue without rendering.
+     */
+    public void clear() {
+        // Release the references of the queued items
+        for(int i = 0; i < this.itemCount; i++)
+            this.items[i].clear();
+
+        // Reset the item count
+        this.itemCount = 0;
+    }
+
+    /**
+     * Dispose the buffers used by the queue from the graphics card.
+     */
+    public void dispose() {
+        // Clear the queue and dispose the instance buffer
+        clear();
+        this.instanceBuffer.dispose();
+    }
+
+    /**
+     * Get the number of queued items.
+     *
+     * @return Number of queued items.
+     */
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Get the number of shader, material and mesh binds in the last render.
+     *
+     * @return Number of binds.
+     */
+    public int getBindCount() {
+        return this.bindCount;
+    }
+
+    /**
+     * Get the number of items that were rendered in the transparent pass in the last render.
+     *
+     * @return Number of transparent items.
+     */
+    public int getTransparentCount() {
+        return this.transparentCount;
+    }
+
+    /**
+     * Get the number of draw calls in the last render.
+     *
+     * @return Number of draw calls.
+     */
+    public int getDrawCount() {
+        return this.drawCount;
+    }
+
+    /**
+     * Compute the distance of the center of the mesh of the given item to the camera, along the view direction.
+     *
+     * @param item Render queue item.
+     *
+     * @return View depth.
+     */
+    private float computeDepth(RenderQueueItem item) {
+        // Determine the center of the mesh bounds, and transform it to view space
+        this.tempCenter.set(item.mesh.getBoundsMin()).add(item.mesh.getBoundsMax()).mul(0.5f);
+        item.modelMatrix.transformPosition(this.tempCenter);
+        this.viewMatrix.transformPosition(this.tempCenter);
+
+        // The camera looks along the negative Z axis in view space
+        return -this.tempCenter.z;
+    }
+
+    /**
+     * Create the sort key for an item with the given material and mesh.
+     * Items are sorted by the shader program first, then by texture, then by material and then by mesh. Items with
+     * the same key therefore share all state, and are only ordered by depth. The IDs are truncated to fit in the key,
+     * which only weakens the grouping of very large IDs.
+     *
+     * @param material Material.
+     * @param mesh Mesh.
+     *
+     * @return Sort key.
+     */
+    private static long createSortKey(Material material, Mesh mesh) {
+        // Get the shader program, texture, material and mesh vertex array IDs
+        final long programId = material.getShader().getProgramId() & 0x3FFL;
+        final long textureId = material.hasTexture() ? material.getTexture().getId() & 0xFFFFL : 0L;
+        final long materialId = material.getId() & 0x3FFFFL;
+        final long meshId = mesh.getVaoHandle() & 0xFFFFFL;
+
+        // Combine the IDs into a single key
+        return (programId << 54) | (textureId << 38) | (materialId << 20) | meshId;
+    }
+}
@@ -0,0 +1,75 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.engine.render.queue;
+
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+
+class RenderQueueItem {
+
+    /**
+     * Material to render the mesh with.
+     */
+    Material material;
+
+    /**
+     * Mesh to render.
+     */
+    Mesh mesh;
+
+    /**
+     * Model matrix of the mesh in world space.
+     */
+    final Matrix4f modelMatrix = new Matrix4f();
+
+    /**
+     * Color to render the mesh with.
+     */
+    final Vector4f color = new Vector4f();
+
+    /**
+     * Sort key, grouping items by shader program, texture, material and mesh.
+     */
+    long sortKey;
+
+    /**
+     * Flag whether the item is transparent, and is rendered in the transparent pass.
+     */
+    boolean transparent;
+
+    /**
+     * Distance of the center of the mesh to the camera along the view direction.
+     */
+    float depth;
+
+    /**
+     * Clear the references held by this item, so the queued material and mesh can be garbage collected.
+     */
+    void clear() {
+        this.material = null;
+        this.mesh = null;
+    }
+}
@@ -30,7 +30,7 @@ import com.timvisee.voxeltex.module.texture.Texture;
 public class BitmapFontMaterial extends Material {
 
     /**
-     * Font color.
+     * Default font color, used when text is rendered without explicit color.
      */
     private Color color = Color.WHITE;
 
@@ -61,38 +61,4 @@ public class BitmapFontMaterial extends Material {
     public void setColor(Color color) {
         this.color = color;
     }
-
-    @Override
-    public void bind() {
-        this.bind('?');
-    }
-
-    /**
-     * Character to draw with this material.
-     *
-     * @param c Character.
-     */
-    public void bind(char c) {
-        bind(c, 1.0f);
-    }
-
-    /**
-     * Character to draw with this material.
-     *
-     * @param c Character.
-     * @param characterWidthFactor Character width factor.
-     */
-    public void bind(char c, float characterWidthFactor) {
-        // Bind the parent
-        super.bind();
-
-        // Send the tile position to the font shader
-        getShader().setUniform2f("tilePosition", BitmapFontUtil.getCharCoords(c));
-
-        // Send the tile position to the font shader
-        getShader().setUniform4f("color", this.color.toVector4f());
-
-        // Send the character width factor
-        getShader().setUniform1f("charWidth", characterWidthFactor);
-    }
 }
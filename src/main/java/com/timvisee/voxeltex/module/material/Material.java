@@ -30,8 +30,20 @@ import com.timvisee.voxeltex.util.math.vector.Vector2fFactory;
 import org.joml.Vector2f;
 import org.lwjgl.opengl.GL13;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Material implements MaterialInterface {
 
+    /**
+     * The ID that is given to the next created material. Materials may be created on resource loader threads.
+     */
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Unique ID of this material.
+     */
+    private final int id = nextId.getAndIncrement();
+
     /**
      * Material shader.
      */
@@ -52,6 +64,11 @@ public class Material implements MaterialInterface {
      */
     private Vector2f tile = Vector2fFactory.one();
 
+    /**
+     * Flag whether this material is transparent.
+     */
+    private boolean transparent = false;
+
     /**
      * Constructor.
      *
@@ -93,6 +110,15 @@ public class Material implements MaterialInterface {
         this(ShaderManager.SHADER_DEFAULT_TEXTURED, texture, null);
     }
 
+    /**
+     * Get the unique ID of this material.
+     *
+     * @return Material ID.
+     */
+    public int getId() {
+        return this.id;
+    }
+
     @Override
     public Shader getShader() {
         return shader;
@@ -143,6 +169,16 @@ public class Material implements MaterialInterface {
         this.tile = tile;
     }
 
+    @Override
+    public boolean isTransparent() {
+        return this.transparent;
+    }
+
+    @Override
+    public void setTransparent(boolean transparent) {
+        this.transparent = transparent;
+    }
+
     @Override
     public void bind() {
         // Bind the shader
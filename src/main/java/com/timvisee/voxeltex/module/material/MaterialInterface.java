@@ -99,6 +99,21 @@ public interface MaterialInterface {
      */
     void setTiling(Vector2f tile);
 
+    /**
+     * Check whether this material is transparent.
+     * Transparent materials are rendered after all opaque meshes, sorted back to front.
+     *
+     * @return True if transparent, false if not.
+     */
+    boolean isTransparent();
+
+    /**
+     * Set whether this material is transparent.
+     *
+     * @param transparent True if transparent, false if not.
+     */
+    void setTransparent(boolean transparent);
+
     /**
      * Bind the current material to OpenGL before rendering.
      */
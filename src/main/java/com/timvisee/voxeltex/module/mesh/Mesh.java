@@ -20,65 +20,95 @@
  * program. If not, see <http://opensource.org/licenses/MIT/>.                *
  ******************************************************************************/
 
+
 package com.timvisee.voxeltex.module.mesh;
 
+import com.timvisee.voxeltex.engine.render.GpuUploadQueue;
+import com.timvisee.voxeltex.engine.render.RenderBackend;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.model.RawModel;
+import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
 import static org.lwjgl.opengl.GL15.glBindBuffer;
 
+/**
+ * Mesh buffered on the graphics card.
+ *
+ * The vertex, normal and texture coordinates of the raw mesh are interleaved into a single vertex buffer, in which
+ * duplicate vertexes are merged. The triangles are described by an index buffer. A vertex array object holding the
+ * complete buffer configuration is built once, so binding the mesh for drawing is a single call.
+ *
+ * The vertex data is prepared when the mesh is created, while uploading it is deferred to the {@link GpuUploadQueue}.
+ * The mesh isn't drawn until it's uploaded.
+ */
 public class Mesh {
 
+    /**
+     * Size of a float in bytes.
+     */
+    private static final int FLOAT_SIZE = 4;
+
     /**
      * The raw mesh object containing the vertexes data.
      */
     private RawMesh raw;
 
     /**
-     * The number of vertexes in the buffered mesh.
+     * The number of unique vertexes in the buffered mesh.
      */
     private int vertexCount;
 
     /**
-     * The number of normals in the buffered mesh.
+     * The number of indexes in the buffered mesh.
      */
-    private int normalCount;
+    private int indexCount;
 
     /**
-     * Vertex buffer.
+     * Minimum corner of the axis aligned bounding box of the mesh, in local space.
      */
-    private FloatBuffer vertexBuffer;
+    private final Vector3f boundsMin = new Vector3f();
 
     /**
-     * Vertex buffer.
+     * Maximum corner of the axis aligned bounding box of the mesh, in local space.
      */
-    private FloatBuffer normalBuffer;
+    private final Vector3f boundsMax = new Vector3f();
 
     /**
-     * Texture buffer.
+     * VBO handle of the interleaved vertex buffer.
      */
-    private FloatBuffer textureBuffer;
+    private int vboVertexHandle = 0;
 
     /**
-     * VBO vertex buffer handle.
+     * VBO handle of the index buffer.
      */
-    private int vboVertexHandle = 0;
+    private int vboIndexHandle = 0;
 
     /**
-     * VBO normal buffer handle.
+     * VAO handle of the vertex array object.
      */
-    private int vboNormalHandle = 0;
+    private int vaoHandle = 0;
 
     /**
-     * VBO texture buffer handle.
+     * Prepared interleaved vertex buffer waiting to be uploaded, or null if there's nothing to upload.
      */
-    private int vboTextureHandle = 0;
+    private FloatBuffer pendingVertexBuffer = null;
+
+    /**
+     * Prepared index buffer waiting to be uploaded, or null if there's nothing to upload.
+     */
+    private IntBuffer pendingIndexBuffer = null;
 
     /**
      * Constructor.
@@ -89,8 +119,8 @@ public class Mesh {
         // Set the raw mesh
         this.raw = raw;
 
-        // Buffer the mesh
-        bufferMesh();
+        // Prepare the mesh, and queue it for uploading
+        bufferMeshDeferred();
     }
 
     /**
@@ -102,8 +132,8 @@ public class Mesh {
         // Set the raw mesh
         this.raw = raw.toRawMesh();
 
-        // Buffer the mesh
-        bufferMesh();
+        // Prepare the mesh, and queue it for uploading
+        bufferMeshDeferred();
     }
 
     /**
@@ -116,48 +146,66 @@ public class Mesh {
     }
 
     /**
-     * Get the vertex buffer.
+     * Get the VBO handle of the interleaved vertex buffer.
      *
-     * @return Vertex buffer.
+     * @return VBO vertex buffer handle.
      */
-    public FloatBuffer getVertexBuffer() {
-        return vertexBuffer;
+    public int getVboVertexHandle() {
+        return vboVertexHandle;
     }
 
     /**
-     * Get the normal buffer.
+     * Get the VBO handle of the index buffer.
      *
-     * @return Normal buffer.
+     * @return VBO index buffer handle.
      */
-    public FloatBuffer getNormalBuffer() {
-        return normalBuffer;
+    public int getVboIndexHandle() {
+        return vboIndexHandle;
     }
 
     /**
-     * Get the texture buffer.
+     * Get the VAO handle of the vertex array object.
      *
-     * @return Texture buffer.
+     * @return VAO handle.
      */
-    public FloatBuffer getTextureBuffer() {
-        return textureBuffer;
+    public int getVaoHandle() {
+        return vaoHandle;
     }
 
     /**
-     * Get the VBO vertex buffer handle.
+     * Get the number of unique vertexes in the buffered mesh.
      *
-     * @return VBO vertex buffer handle.
+     * @return Vertex count.
      */
-    public int getVboVertexHandle() {
-        return vboVertexHandle;
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Get the number of indexes in the buffered mesh.
+     *
+     * @return Index count.
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * Get the minimum corner of the axis aligned bounding box of the mesh, in local space.
+     *
+     * @return Minimum bounds corner.
+     */
+    public Vector3f getBoundsMin() {
+        return this.boundsMin;
     }
 
     /**
-     * Get the VBO texture buffer handle.
+     * Get the maximum corner of the axis aligned bounding box of the mesh, in local space.
      *
-     * @return VBO texture buffer handle.
+     * @return Maximum bounds corner.
      */
-    public int getVboTextureHandle() {
-        return vboTextureHandle;
+    public Vector3f getBoundsMax() {
+        return this.boundsMax;
     }
 
     /**
@@ -166,11 +214,6 @@ public class Mesh {
      * @return True if this mesh has normal data, false if not.
      */
     public boolean hasNormalData() {
-        // Determine the result based on the stored buffers if data has been buffered
-        if(isBuffered())
-            return this.vboNormalHandle > 0;
-
-        // The mesh isn't buffered, determine the result based on the raw mesh
         return this.raw.hasNormalData();
     }
 
@@ -180,11 +223,6 @@ public class Mesh {
      * @return True if this mesh has texture data, false if not.
      */
     public boolean hasTextureData() {
-        // Determine the result based on the stored buffers if data has been buffered
-        if(isBuffered())
-            return this.vboTextureHandle > 0;
-
-        // The mesh isn't buffered, determine the result based on the raw mesh
         return this.raw.hasTextureData();
     }
 
@@ -194,55 +232,166 @@ public class Mesh {
      * @return True if this mash is buffered, false if not.
      */
     public boolean isBuffered() {
-        return this.vboVertexHandle > 0;
+        return this.vaoHandle > 0;
     }
 
     /**
-     * Build and buffer the mesh on the graphics card.
+     * Check whether the mesh is prepared, but still waiting to be uploaded to the graphics card.
+     *
+     * @return True if an upload is pending, false if not.
+     */
+    public boolean isUploadPending() {
+        return this.pendingVertexBuffer != null;
+    }
+
+    /**
+     * Build and buffer the mesh on the graphics card immediately.
+     * This must be called from the rendering thread.
      */
     public void bufferMesh() {
-        // Create a flipped float buffer for the vertexes
-        this.vertexBuffer = BufferUtils.createFloatBuffer(this.raw.getVertexCount() * this.raw.getVertexAxisCount());
-        this.vertexBuffer.put(this.raw.getVertexes());
-        this.vertexBuffer.flip();
+        // Prepare the mesh and upload it right away
+        prepareMesh();
+        uploadMesh();
+    }
 
-        // Create a VBO handle for the vertexes and bind the buffer
-        vboVertexHandle = GL15.glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, this.vboVertexHandle);
-        GL15.glBufferData(GL_ARRAY_BUFFER, this.vertexBuffer, GL15.GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    /**
+     * Build the mesh, and queue it to be buffered on the graphics card by the rendering thread.
+     * This may be called from any thread, the mesh isn't drawn until it's uploaded.
+     */
+    public void bufferMeshDeferred() {
+        // Prepare the mesh and queue the upload if there's anything to upload
+        prepareMesh();
+        if(isUploadPending())
+            GpuUploadQueue.enqueue(this::uploadMesh);
+    }
 
-        // Buffer the normal data if the mesh has any configured
-        if(this.raw.hasNormalData()) {
-            // Create a flipped float buffer for the normal coordinates
-            this.normalBuffer = BufferUtils.createFloatBuffer(this.raw.getNormalCount() * this.raw.getNormalAxisCount());
-            this.normalBuffer.put(this.raw.getNormals());
-            this.normalBuffer.flip();
-
-            // Create a VBO handle for the normal coordinates and bind the buffer
-            vboNormalHandle = GL15.glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, this.vboNormalHandle);
-            GL15.glBufferData(GL_ARRAY_BUFFER, this.normalBuffer, GL15.GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
+    /**
+     * Build the interleaved vertex and index buffers of the mesh, without uploading them.
+     * The buffers are kept until the mesh is uploaded.
+     */
+    private void prepareMesh() {
+        // Compute the bounding box of the mesh
+        this.raw.computeBounds(this.boundsMin, this.boundsMax);
+
+        // Don't build or upload any buffers with the null render backend, only keep the raw data and counts
+        if(RenderBackend.isNull()) {
+            this.vertexCount = this.raw.getVertexCount();
+            this.indexCount = this.raw.getVertexCount();
+            return;
         }
 
-        // Buffer the texture data if the mesh has any configured
-        if(this.raw.hasTextureData()) {
-            // Create a flipped float buffer for the texture coordinates
-            this.textureBuffer = BufferUtils.createFloatBuffer(this.raw.getVertexCount() * this.raw.getTextureAxisCount());
-            this.textureBuffer.put(this.raw.getTextures());
-            this.textureBuffer.flip();
-
-            // Create a VBO handle for the texture coordinates and bind the buffer
-            vboTextureHandle = GL15.glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, this.vboTextureHandle);
-            GL15.glBufferData(GL_ARRAY_BUFFER, this.textureBuffer, GL15.GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
+        // Determine the interleaved vertex layout, the position is followed by the normal and texture coordinates
+        final boolean normals = hasNormalData();
+        final boolean textures = hasTextureData();
+        final int normalOffset = RawMesh.VERTEX_AXIS_COUNT;
+        final int textureOffset = normalOffset + (normals ? RawMesh.NORMAL_AXIS_COUNT : 0);
+        final int stride = textureOffset + (textures ? RawMesh.TEXTURE_AXIS_COUNT : 0);
+
+        // Get the raw data and the number of axis for each part
+        final float[] rawVertexes = this.raw.getVertexes();
+        final float[] rawNormals = this.raw.getNormals();
+        final float[] rawTextures = this.raw.getTextures();
+        final int vertexAxis = RawMesh.VERTEX_AXIS_COUNT;
+        final int normalAxis = RawMesh.NORMAL_AXIS_COUNT;
+        final int textureAxis = RawMesh.TEXTURE_AXIS_COUNT;
+
+        // Interleave the vertexes, merging duplicates and building the index list
+        final int rawVertexCount = this.raw.getVertexCount();
+        final float[] interleaved = new float[rawVertexCount * stride];
+        final int[] indexes = new int[rawVertexCount];
+        final Map<VertexKey, Integer> uniqueVertexes = new HashMap<>();
+        int uniqueCount = 0;
+        for(int i = 0; i < rawVertexCount; i++) {
+            // Write the vertex in the next free slot
+            final int offset = uniqueCount * stride;
+            System.arraycopy(rawVertexes, i * vertexAxis, interleaved, offset, vertexAxis);
+            if(normals)
+                System.arraycopy(rawNormals, i * normalAxis, interleaved, offset + normalOffset, normalAxis);
+            if(textures)
+                System.arraycopy(rawTextures, i * textureAxis, interleaved, offset + textureOffset, textureAxis);
+
+            // Reference an identical vertex if there is one, or keep the slot for this vertex
+            final VertexKey key = new VertexKey(interleaved, offset, stride);
+            final Integer existing = uniqueVertexes.get(key);
+            if(existing != null)
+                indexes[i] = existing;
+            else {
+                uniqueVertexes.put(key, uniqueCount);
+                indexes[i] = uniqueCount++;
+            }
         }
 
-        // Set the number of vertexes and normals
-        this.vertexCount = this.raw.getVertexCount();
-        this.normalCount = this.raw.getNormalCount();
+        // Create flipped buffers for the vertexes and indexes
+        FloatBuffer vertexBuffer = BufferUtils.createFloatBuffer(uniqueCount * stride);
+        vertexBuffer.put(interleaved, 0, uniqueCount * stride);
+        vertexBuffer.flip();
+        IntBuffer indexBuffer = BufferUtils.createIntBuffer(indexes.length);
+        indexBuffer.put(indexes);
+        indexBuffer.flip();
+
+        // Set the number of vertexes and indexes
+        this.vertexCount = uniqueCount;
+        this.indexCount = indexes.length;
+
+        // Keep the buffers until the mesh is uploaded
+        this.pendingIndexBuffer = indexBuffer;
+        this.pendingVertexBuffer = vertexBuffer;
+    }
+
+    /**
+     * Upload the prepared buffers of the mesh to the graphics card, if an upload is pending.
+     * The client side buffers are only used for uploading, and aren't kept afterwards.
+     * This must be called from the rendering thread.
+     */
+    public void uploadMesh() {
+        // Take the pending buffers, and make sure there is anything to upload
+        final FloatBuffer vertexBuffer = this.pendingVertexBuffer;
+        final IntBuffer indexBuffer = this.pendingIndexBuffer;
+        if(vertexBuffer == null || indexBuffer == null)
+            return;
+        this.pendingVertexBuffer = null;
+        this.pendingIndexBuffer = null;
+
+        // Determine the interleaved vertex layout, the position is followed by the normal and texture coordinates
+        final boolean normals = hasNormalData();
+        final boolean textures = hasTextureData();
+        final int vertexAxis = RawMesh.VERTEX_AXIS_COUNT;
+        final int textureAxis = RawMesh.TEXTURE_AXIS_COUNT;
+        final int normalOffset = vertexAxis;
+        final int textureOffset = normalOffset + (normals ? RawMesh.NORMAL_AXIS_COUNT : 0);
+        final int stride = textureOffset + (textures ? textureAxis : 0);
+
+        // Create and bind the vertex array object, it records the buffer configuration below
+        this.vaoHandle = GL30.glGenVertexArrays();
+        GL30.glBindVertexArray(this.vaoHandle);
+
+        // Create a VBO handle for the vertexes and buffer them
+        this.vboVertexHandle = GL15.glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, this.vboVertexHandle);
+        GL15.glBufferData(GL_ARRAY_BUFFER, vertexBuffer, GL15.GL_STATIC_DRAW);
+
+        // Configure the vertex, normal and texture coordinate pointers and enable their client states
+        final int strideBytes = stride * FLOAT_SIZE;
+        GL11.glVertexPointer(vertexAxis, GL11.GL_FLOAT, strideBytes, 0L);
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        if(normals) {
+            GL11.glNormalPointer(GL11.GL_FLOAT, strideBytes, (long) normalOffset * FLOAT_SIZE);
+            GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
+        }
+        if(textures) {
+            GL11.glTexCoordPointer(textureAxis, GL11.GL_FLOAT, strideBytes, (long) textureOffset * FLOAT_SIZE);
+            GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        }
+
+        // Create a VBO handle for the indexes and buffer them, the binding is stored in the vertex array object
+        this.vboIndexHandle = GL15.glGenBuffers();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.vboIndexHandle);
+        GL15.glBufferData(GL_ELEMENT_ARRAY_BUFFER, indexBuffer, GL15.GL_STATIC_DRAW);
+
+        // Unbind the vertex array object before unbinding the buffers, to keep the index buffer bound to it
+        GL30.glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     /**
@@ -260,75 +409,142 @@ public class Mesh {
      * Clear the buffers for this mesh on the graphics card.
      */
     public void clearMeshBuffer() {
-        // Delete data from old buffers if available
-        if(this.vertexBuffer != null)
-            this.vertexBuffer.clear();
-        if(this.normalBuffer != null)
-            this.normalBuffer.clear();
-        if(this.textureBuffer != null)
-            this.textureBuffer.clear();
-
-        // Reset the buffer instances
-        this.vertexBuffer = null;
-        this.normalBuffer = null;
-        this.textureBuffer = null;
+        // Drop the buffers that are still waiting to be uploaded
+        this.pendingVertexBuffer = null;
+        this.pendingIndexBuffer = null;
+
+        // Delete the vertex array object
+        if(this.vaoHandle != 0)
+            GL30.glDeleteVertexArrays(this.vaoHandle);
 
         // Clear old VBO buffers
         if(this.vboVertexHandle != 0)
             GL15.glDeleteBuffers(this.vboVertexHandle);
-        if(this.vboNormalHandle != 0)
-            GL15.glDeleteBuffers(this.vboNormalHandle);
-        if(this.vboTextureHandle != 0)
-            GL15.glDeleteBuffers(this.vboTextureHandle);
+        if(this.vboIndexHandle != 0)
+            GL15.glDeleteBuffers(this.vboIndexHandle);
 
-        // Reset the VBO handles
+        // Reset the handles
+        this.vaoHandle = 0;
         this.vboVertexHandle = 0;
-        this.vboNormalHandle = 0;
-        this.vboTextureHandle = 0;
+        this.vboIndexHandle = 0;
 
-        // Reset the vertex and normal count
+        // Reset the vertex and index count
         this.vertexCount = 0;
-        this.normalCount = 0;
+        this.indexCount = 0;
     }
 
     /**
      * Render or draw the mesh using OpenGL.
      */
     public void draw(Material material) {
-        // Bind the vertex buffer
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        GL11.glVertexPointer(this.raw.getVertexAxisCount(), GL11.GL_FLOAT, 0, 0L);
-
-        // Bind the normal coordinate buffer if available
-        if(hasNormalData()) {
-            glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-            GL11.glNormalPointer(GL11.GL_FLOAT, 0, 0L);
-        }
+        // Skip the mesh if it isn't uploaded yet
+        if(!isBuffered())
+            return;
+
+        // Bind the mesh, draw it and unbind it again
+        bind();
+        drawBound();
+        unbind();
+    }
 
-        // Bind the texture coordinate buffer if available
-        if(hasTextureData()) {
-            glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-            GL11.glTexCoordPointer(this.raw.getTextureAxisCount(), GL11.GL_FLOAT, 0, 0L);
-        }
+    /**
+     * Bind the vertex array object of this mesh.
+     * Multiple draw calls may be made with {@link #drawBound()} until the mesh is unbound.
+     */
+    public void bind() {
+        GL30.glBindVertexArray(this.vaoHandle);
+    }
 
-        // Enable the client states for the buffers that were bound
-        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
-        if(hasNormalData())
-            GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
-        if(hasTextureData())
-            GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+    /**
+     * Draw the mesh. The mesh must be bound using {@link #bind()} before calling this.
+     */
+    public void drawBound() {
+        GL11.glDrawElements(GL11.GL_TRIANGLES, this.indexCount, GL11.GL_UNSIGNED_INT, 0L);
+    }
+
+    /**
+     * Draw the given number of instances of the mesh. The mesh must be bound using {@link #bind()} before calling this,
+     * and the per instance attributes must be configured.
+     *
+     * @param instanceCount Number of instances to draw.
+     */
+    public void drawBoundInstanced(int instanceCount) {
+        GL31.glDrawElementsInstanced(GL11.GL_TRIANGLES, this.indexCount, GL11.GL_UNSIGNED_INT, 0L, instanceCount);
+    }
+
+    /**
+     * Unbind the vertex array object of this mesh.
+     */
+    public void unbind() {
+        GL30.glBindVertexArray(0);
+    }
 
-        // Draw the mesh
-        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, this.vertexCount);
+    /**
+     * Key to find identical vertexes in an interleaved vertex array.
+     */
+    private static class VertexKey {
+
+        /**
+         * Interleaved vertex array.
+         */
+        private final float[] data;
+
+        /**
+         * Offset of the vertex in the array.
+         */
+        private final int offset;
+
+        /**
+         * Number of floats for the vertex.
+         */
+        private final int length;
+
+        /**
+         * Cached hash code.
+         */
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param data Interleaved vertex array.
+         * @param offset Offset of the vertex in the array.
+         * @param length Number of floats for the vertex.
+         */
+        private VertexKey(float[] data, int offset, int length) {
+            // Set the fields
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+
+            // Calculate the hash code
+            int hash = 1;
+            for(int i = 0; i < length; i++)
+                hash = 31 * hash + Float.floatToIntBits(data[offset + i]);
+            this.hash = hash;
+        }
 
-        // Disable the client used states
-        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
-        if(hasNormalData())
-            GL11.glDisableClientState(GL11.GL_NORMAL_ARRAY);
-        if(hasTextureData())
-            GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
 
-        // Unbind all buffers
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        @Override
+        public boolean equals(Object obj) {
+            // Make sure the other object is a vertex key
+            if(!(obj instanceof VertexKey))
+                return false;
+
+            // Compare the vertex data
+            final VertexKey other = (VertexKey) obj;
+            if(this.hash != other.hash || this.length != other.length)
+                return false;
+            for(int i = 0; i < this.length; i++) {
+                final int bits = Float.floatToIntBits(this.data[this.offset + i]);
+                if(bits != Float.floatToIntBits(other.data[other.offset + i]))
+                    return false;
+            }
+            return true;
+        }
     }
 }
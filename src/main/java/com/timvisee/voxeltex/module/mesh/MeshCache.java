@@ -0,0 +1,211 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.module.mesh;
+
+import com.timvisee.voxeltex.module.mesh.generator.CubeMeshGenerator;
+import com.timvisee.voxeltex.module.mesh.generator.MeshGenerateInterface;
+import com.timvisee.voxeltex.module.mesh.generator.QuadMeshGenerator;
+import com.timvisee.voxeltex.util.math.vector.Vector3fFactory;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of generated meshes, shared between everything in a scene that uses a mesh with the same generator parameters.
+ * Each scene has it's own cache, which is disposed along with the scene.
+ *
+ * Each call to obtain a mesh adds a reference to it, which must be released again when the mesh isn't used anymore.
+ * The mesh is disposed from the graphics card once all references have been released.
+ *
+ * The cache is synchronized, so meshes may be obtained and released from any thread.
+ */
+public class MeshCache {
+
+    /**
+     * Cached mesh entries by their key.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Cached mesh entries by their mesh.
+     */
+    private final Map<Mesh, Entry> meshEntries = new IdentityHashMap<>();
+
+    /**
+     * Obtain a shared cube mesh with the given size.
+     *
+     * @param size Cube size.
+     *
+     * @return Shared mesh.
+     */
+    public Mesh obtainCube(Vector3f size) {
+        return obtainCube(size, Vector3fFactory.zero());
+    }
+
+    /**
+     * Obtain a shared cube mesh with the given size and offset.
+     *
+     * @param size Cube size.
+     * @param offset Cube offset.
+     *
+     * @return Shared mesh.
+     */
+    public Mesh obtainCube(Vector3f size, Vector3f offset) {
+        return obtain(
+                "cube:" + size.x + "," + size.y + "," + size.z + ":" + offset.x + "," + offset.y + "," + offset.z,
+                () -> new CubeMeshGenerator(size, offset)
+        );
+    }
+
+    /**
+     * Obtain a shared quad mesh with the given orientation, size and offset.
+     *
+     * @param orientation Quad orientation.
+     * @param size Quad size.
+     * @param offset Quad offset.
+     *
+     * @return Shared mesh.
+     */
+    public Mesh obtainQuad(int orientation, Vector2f size, Vector3f offset) {
+        return obtain(
+                "quad:" + orientation + ":" + size.x + "," + size.y + ":" + offset.x + "," + offset.y + "," + offset.z,
+                () -> new QuadMeshGenerator(orientation, size, offset)
+        );
+    }
+
+    /**
+     * Obtain a shared mesh for the given key.
+     * The mesh is generated with the given generator if it isn't cached yet.
+     *
+     * @param key Unique key describing the generator and its parameters.
+     * @param generator Supplier of the generator to create the mesh with.
+     *
+     * @return Shared mesh.
+     */
+    public synchronized Mesh obtain(String key, Supplier<MeshGenerateInterface> generator) {
+        // Get the cached entry, or generate the mesh if it isn't cached
+        Entry entry = this.entries.get(key);
+        if(entry == null) {
+            entry = new Entry(key, generator.get().createMesh());
+            this.entries.put(key, entry);
+            this.meshEntries.put(entry.mesh, entry);
+        }
+
+        // Add a reference and return the mesh
+        entry.references++;
+        return entry.mesh;
+    }
+
+    /**
+     * Release a reference to the given mesh.
+     * The mesh is disposed from the graphics card if this was the last reference.
+     *
+     * @param mesh Mesh to release.
+     *
+     * @return True if the mesh was cached and a reference was released, false if the mesh isn't cached.
+     */
+    public synchronized boolean release(Mesh mesh) {
+        // Get the cached entry, meshes that aren't cached are managed elsewhere
+        final Entry entry = this.meshEntries.get(mesh);
+        if(entry == null)
+            return false;
+
+        // Remove a reference, and dispose the mesh if it isn't used anymore
+        if(--entry.references <= 0) {
+            this.entries.remove(entry.key);
+            this.meshEntries.remove(mesh);
+            mesh.clearMeshBuffer();
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the given mesh is cached.
+     *
+     * @param mesh Mesh.
+     *
+     * @return True if the mesh is cached, false if not.
+     */
+    public synchronized boolean isCached(Mesh mesh) {
+        return this.meshEntries.containsKey(mesh);
+    }
+
+    /**
+     * Get the number of cached meshes.
+     *
+     * @return Mesh count.
+     */
+    public synchronized int getMeshCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Dispose all cached meshes from the graphics card, and clear the cache.
+     */
+    public synchronized void disposeAll() {
+        // Dispose all meshes
+        for(Entry entry : this.entries.values())
+            entry.mesh.clearMeshBuffer();
+
+        // Clear the cache
+        this.entries.clear();
+        this.meshEntries.clear();
+    }
+
+    /**
+     * Cached mesh entry.
+     */
+    private static class Entry {
+
+        /**
+         * Cache key.
+         */
+        private final String key;
+
+        /**
+         * Cached mesh.
+         */
+        private final Mesh mesh;
+
+        /**
+         * Number of references to the mesh.
+         */
+        private int references = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param key Cache key.
+         * @param mesh Cached mesh.
+         */
+        private Entry(String key, Mesh mesh) {
+            this.key = key;
+            this.mesh = mesh;
+        }
+    }
+}
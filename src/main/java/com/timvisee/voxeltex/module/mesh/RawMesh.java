@@ -22,6 +22,8 @@
 
 package com.timvisee.voxeltex.module.mesh;
 
+import org.joml.Vector3f;
+
 public class RawMesh {
 
     /**
@@ -140,6 +142,33 @@ public class RawMesh {
         return this.textures.length > 0;
     }
 
+    /**
+     * Compute the axis aligned bounding box of all vertexes in this mesh.
+     * If the mesh doesn't have any vertexes, both corners are set to the origin.
+     *
+     * @param min Destination for the minimum corner.
+     * @param max Destination for the maximum corner.
+     */
+    public void computeBounds(Vector3f min, Vector3f max) {
+        // Return the origin if there are no vertexes
+        if(this.vertexes.length < VERTEX_AXIS_COUNT) {
+            min.zero();
+            max.zero();
+            return;
+        }
+
+        // Start with the first vertex, and grow the bounds to contain all other vertexes
+        min.set(this.vertexes[0], this.vertexes[1], this.vertexes[2]);
+        max.set(min);
+        for(int i = VERTEX_AXIS_COUNT; i + 2 < this.vertexes.length; i += VERTEX_AXIS_COUNT) {
+            final float x = this.vertexes[i];
+            final float y = this.vertexes[i + 1];
+            final float z = this.vertexes[i + 2];
+            min.set(Math.min(min.x, x), Math.min(min.y, y), Math.min(min.z, z));
+            max.set(Math.max(max.x, x), Math.max(max.y, y), Math.max(max.z, z));
+        }
+    }
+
     /**
      * Get the number of axis used for vertex data.
      *
@@ -22,20 +22,72 @@
 
 package com.timvisee.voxeltex.module.render;
 
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.font.BitmapFont;
+import com.timvisee.voxeltex.module.font.BitmapFontUtil;
+import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.transform.rectangle.Rectangle;
 import org.joml.Vector2f;
 import org.lwjgl.opengl.GL11;
 
 public class RenderOverlayHelper {
 
+    /**
+     * Sprite batch all overlay geometry is added to.
+     */
+    private static final SpriteBatch batch = new SpriteBatch();
+
+    /**
+     * Begin drawing the overlay of the given scene.
+     * Everything that is rendered through this helper is batched until the overlay is finished.
+     *
+     * @param scene Scene that is drawn.
+     */
+    public static void begin(AbstractScene scene) {
+        batch.begin(scene);
+    }
+
+    /**
+     * Finish drawing the overlay, and draw everything that is still batched.
+     */
+    public static void end() {
+        batch.end();
+    }
+
+    /**
+     * Get the sprite batch the overlay is drawn with.
+     *
+     * @return Sprite batch.
+     */
+    public static SpriteBatch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Delete the buffers used to draw the overlay.
+     */
+    public static void dispose() {
+        batch.dispose();
+    }
+
+    /**
+     * Set the material the following shapes are rendered with.
+     *
+     * @param material Material, or null to render without shader and texture.
+     */
+    public static void material(Material material) {
+        batch.setMaterial(material);
+    }
+
     /**
      * Set the width of lines being rendered.
      *
      * @param lineWidth Line width.
      */
     public static void lineWidth(float lineWidth) {
+        // Draw the batched lines with the current width first
+        batch.flush();
         GL11.glLineWidth(lineWidth);
     }
 
@@ -56,7 +108,7 @@ public class RenderOverlayHelper {
      * @param b Blue channel intensity.
      */
     public static void color(float r, float g, float b) {
-        GL11.glColor3f(r, g, b);
+        batch.setColor(r, g, b, 1f);
     }
 
     /**
@@ -68,11 +120,11 @@ public class RenderOverlayHelper {
      * @param a Alpha channel intensity.
      */
     public static void color(float r, float g, float b, float a) {
-        GL11.glColor4f(r, g, b, a);
+        batch.setColor(r, g, b, a);
     }
 
     /**
-     * Render a rectangle at the given position.
+     * Render a rectangle at the given position, with the current material and color.
      *
      * @param position Rectangle position.
      * @param size Rectangle size.
@@ -82,7 +134,7 @@ public class RenderOverlayHelper {
     }
 
     /**
-     * Render a rectangle at the given position.
+     * Render a rectangle at the given position, with the current material and color.
      *
      * @param x Rectangle X position.
      * @param y Rectangle Y position.
@@ -90,25 +142,11 @@ public class RenderOverlayHelper {
      * @param h Rectangle height.
      */
     public static void renderRectangle(float x, float y, float w, float h) {
-        // Enable line drawing mode
-        GL11.glBegin(GL11.GL_QUADS);
-
-        // Draw the grid
-        GL11.glVertex3f(x, y, 0f);
-        GL11.glTexCoord2f(1, 1);
-        GL11.glVertex3f(x + w, y, 0f);
-        GL11.glTexCoord2f(1, 0);
-        GL11.glVertex3f(x + w, y + h, 0f);
-        GL11.glTexCoord2f(0, 0);
-        GL11.glVertex3f(x, y + h, 0f);
-        GL11.glTexCoord2f(0, 1);
-
-        // Finish drawing
-        GL11.glEnd();
+        batch.addQuad(x, y, w, h);
     }
 
     /**
-     * Render a line at the given position.
+     * Render a line at the given position, with the current material and color.
      *
      * @param position Line position.
      * @param size Line size.
@@ -118,7 +156,7 @@ public class RenderOverlayHelper {
     }
 
     /**
-     * Render a line at the given position.
+     * Render a line at the given position, with the current material and color.
      *
      * @param x Line X position.
      * @param y Line Y position.
@@ -126,15 +164,19 @@ public class RenderOverlayHelper {
      * @param h Line height.
      */
     public static void renderLine(float x, float y, float w, float h) {
-        // Enable line drawing mode
-        GL11.glBegin(GL11.GL_LINES);
-
-        // Draw the grid
-        GL11.glVertex3f(x, y, 0f);
-        GL11.glVertex3f(x + w, y + h, 0f);
+        batch.addLine(x, y, x + w, y + h);
+    }
 
-        // Finish drawing
-        GL11.glEnd();
+    /**
+     * Render a font inside the given rectangle with the given text, in the color of the font material.
+     * The size of the font will be adjusted automatically to fit the rectangle.
+     *
+     * @param rectangle Rectangle to draw in, in overlay space.
+     * @param font The font to draw.
+     * @param text The text to draw.
+     */
+    public static void renderFont(Rectangle rectangle, BitmapFont font, String text) {
+        renderFont(rectangle, font, text, font.getMaterial().getColor());
     }
 
     /**
@@ -144,8 +186,9 @@ public class RenderOverlayHelper {
      * @param rectangle Rectangle to draw in, in overlay space.
      * @param font The font to draw.
      * @param text The text to draw.
+     * @param color The color to draw the text in.
      */
-    public static void renderFont(Rectangle rectangle, BitmapFont font, String text) {
+    public static void renderFont(Rectangle rectangle, BitmapFont font, String text, Color color) {
         // Get the window ratio factor
         final float windowRatio = OverlayUtil.getWindowRatioFactor();
 
@@ -161,32 +204,51 @@ public class RenderOverlayHelper {
             fontWidthX *= rectangle.getWidth() / fontWidthX;
         }
 
-        // Determine the X and Y offset of the string
+        // Determine the X and Y offset of the string, and render it
         float fontOffsetX = (rectangle.getWidth() - fontWidthX) / 2.0f;
         float fontOffsetY = (rectangle.getHeight() - size) / 2.0f;
+        renderFont(rectangle.getX() + fontOffsetX, rectangle.getY() + fontOffsetY, size, font, text, color);
+    }
+
+    /**
+     * Render a font at the given position with the given text.
+     * All characters are added to the overlay batch, and are drawn together.
+     *
+     * @param x X position of the text, in overlay space.
+     * @param y Y position of the text, in overlay space.
+     * @param size Font size, in overlay space.
+     * @param font The font to draw.
+     * @param text The text to draw.
+     * @param color The color to draw the text in.
+     */
+    public static void renderFont(float x, float y, float size, BitmapFont font, String text, Color color) {
+        // Get the window ratio factor and the size of a tile on the font bitmap
+        final float windowRatio = OverlayUtil.getWindowRatioFactor();
+        final float tileSize = 1.0f / BitmapFont.BITMAP_FONT_TILE_SIZE;
+
+        // Select the font material and color
+        batch.setMaterial(font.getMaterial());
+        color(color);
 
-        // Bind and render each character separately
+        // Add each character, and accumulate the width of the characters before it
+        float characterWidthOffset = 0.0f;
         for(int i = 0; i < text.length(); i++) {
-            // Get the current character
+            // Get the current character, and calculate it's width factor
             final char c = text.charAt(i);
-
-            // Calculate the width factor of the current character
             final float widthFactor = font.getFontWidths().getCharacterWidthFactor(c);
 
-            // Bind the font material with the current character and the proper character width
-            font.getMaterial().bind(c, widthFactor);
-
-            // Calculate the character width offset
-            final float characterWidthOffset = size * font.getFontWidths().getStringWidthFactor(text.substring(0, i));
+            // Determine the region of the character on the bitmap, centered horizontally within it's tile
+            final int charIndex = BitmapFontUtil.getCharIndex(c);
+            final float u0 = (charIndex % BitmapFont.BITMAP_FONT_TILE_SIZE) * tileSize
+                    + tileSize * (1.0f - widthFactor) / 2.0f;
+            final float v0 = (charIndex / BitmapFont.BITMAP_FONT_TILE_SIZE) * tileSize;
 
-            // Render the rectangle, and compensate with the window ratio factor
-            renderRectangle(
-                    rectangle.getX() + characterWidthOffset / windowRatio + fontOffsetX, rectangle.getY() + fontOffsetY,
-                    size * widthFactor / windowRatio, size
+            // Add the character, and compensate with the window ratio factor
+            batch.addQuad(
+                    x + characterWidthOffset / windowRatio, y, size * widthFactor / windowRatio, size,
+                    u0, v0, u0 + tileSize * widthFactor, v0 + tileSize
             );
-
-            // Unbind the material
-            font.getMaterial().unbind();
+            characterWidthOffset += size * widthFactor;
         }
     }
 }
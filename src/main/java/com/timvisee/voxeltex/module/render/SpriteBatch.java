@@ -0,0 +1,333 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.module.render;
+
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.texture.Texture;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Batch renderer for 2D overlay geometry.
+ * Quads and lines are accumulated into a streaming vertex buffer with their position, texture coordinates and color,
+ * and are drawn with a single draw call each time the material or primitive type changes.
+ */
+public class SpriteBatch {
+
+    /**
+     * Maximum number of vertexes in the batch, before it's flushed.
+     */
+    public static final int MAX_VERTEXES = 6 * 2048;
+
+    /**
+     * Number of floats for each vertex, the position, texture coordinates and color.
+     */
+    private static final int FLOATS_PER_VERTEX = 2 + 2 + 4;
+
+    /**
+     * Number of bytes for each vertex.
+     */
+    private static final int VERTEX_STRIDE = FLOATS_PER_VERTEX * 4;
+
+    /**
+     * Client side buffer the vertexes are written to before they're uploaded.
+     */
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(MAX_VERTEXES * FLOATS_PER_VERTEX);
+
+    /**
+     * VBO handle of the vertex buffer, or zero if it hasn't been created yet.
+     */
+    private int vboHandle = 0;
+
+    /**
+     * Number of vertexes in the batch.
+     */
+    private int vertexCount = 0;
+
+    /**
+     * OpenGL primitive type of the vertexes in the batch.
+     */
+    private int mode = GL11.GL_TRIANGLES;
+
+    /**
+     * Material the batch is drawn with, or null to draw it without shader and texture.
+     */
+    private Material material = null;
+
+    /**
+     * Scene that is drawn, used to update the material.
+     */
+    private AbstractScene scene;
+
+    /**
+     * Red channel intensity of added vertexes.
+     */
+    private float red = 1f;
+
+    /**
+     * Green channel intensity of added vertexes.
+     */
+    private float green = 1f;
+
+    /**
+     * Blue channel intensity of added vertexes.
+     */
+    private float blue = 1f;
+
+    /**
+     * Alpha channel intensity of added vertexes.
+     */
+    private float alpha = 1f;
+
+    /**
+     * Number of draw calls since the batch began.
+     */
+    private int drawCount = 0;
+
+    /**
+     * Begin batching the overlay of the given scene.
+     *
+     * @param scene Scene that is drawn.
+     */
+    public void begin(AbstractScene scene) {
+        // Set the scene, and reset the state
+        this.scene = scene;
+        this.material = null;
+        this.drawCount = 0;
+        setColor(1f, 1f, 1f, 1f);
+    }
+
+    /**
+     * Flush the batch, and finish batching.
+     */
+    public void end() {
+        flush();
+        this.material = null;
+        this.scene = null;
+    }
+
+    /**
+     * Set the material the following geometry is drawn with.
+     * The batch is flushed if the material is different.
+     *
+     * @param material Material, or null to draw without shader and texture.
+     */
+    public void setMaterial(Material material) {
+        if(this.material != material) {
+            flush();
+            this.material = material;
+        }
+    }
+
+    /**
+     * Get the material the following geometry is drawn with.
+     *
+     * @return Material, or null.
+     */
+    public Material getMaterial() {
+        return this.material;
+    }
+
+    /**
+     * Set the color of the following geometry.
+     *
+     * @param r Red channel intensity.
+     * @param g Green channel intensity.
+     * @param b Blue channel intensity.
+     * @param a Alpha channel intensity.
+     */
+    public void setColor(float r, float g, float b, float a) {
+        this.red = r;
+        this.green = g;
+        this.blue = b;
+        this.alpha = a;
+    }
+
+    /**
+     * Add a quad to the batch, using the full texture.
+     *
+     * @param x Quad X position.
+     * @param y Quad Y position.
+     * @param w Quad width.
+     * @param h Quad height.
+     */
+    public void addQuad(float x, float y, float w, float h) {
+        addQuad(x, y, w, h, 0f, 0f, 1f, 1f);
+    }
+
+    /**
+     * Add a quad to the batch.
+     * The top of the texture region is drawn at the top of the quad, at the Y position plus the height.
+     *
+     * @param x Quad X position.
+     * @param y Quad Y position.
+     * @param w Quad width.
+     * @param h Quad height.
+     * @param u0 Left texture coordinate.
+     * @param v0 Top texture coordinate.
+     * @param u1 Right texture coordinate.
+     * @param v1 Bottom texture coordinate.
+     */
+    public void addQuad(float x, float y, float w, float h, float u0, float v0, float u1, float v1) {
+        // Make sure the batch is drawing triangles and has room for the quad
+        prepare(GL11.GL_TRIANGLES, 6);
+
+        // Add the two triangles of the quad
+        addVertex(x, y, u0, v1);
+        addVertex(x + w, y, u1, v1);
+        addVertex(x + w, y + h, u1, v0);
+        addVertex(x + w, y + h, u1, v0);
+        addVertex(x, y + h, u0, v0);
+        addVertex(x, y, u0, v1);
+    }
+
+    /**
+     * Add a line to the batch.
+     *
+     * @param x1 Start X position.
+     * @param y1 Start Y position.
+     * @param x2 End X position.
+     * @param y2 End Y position.
+     */
+    public void addLine(float x1, float y1, float x2, float y2) {
+        // Make sure the batch is drawing lines and has room for the line
+        prepare(GL11.GL_LINES, 2);
+
+        // Add the line
+        addVertex(x1, y1, 0f, 0f);
+        addVertex(x2, y2, 0f, 0f);
+    }
+
+    /**
+     * Make sure the batch contains the given primitive type, and has room for the given number of vertexes.
+     * The batch is flushed if this isn't the case.
+     *
+     * @param mode OpenGL primitive type.
+     * @param count Number of vertexes.
+     */
+    private void prepare(int mode, int count) {
+        // Flush the batch if the primitive type changes or if it's full
+        if(this.mode != mode || this.vertexCount + count > MAX_VERTEXES)
+            flush();
+
+        // Set the primitive type
+        this.mode = mode;
+    }
+
+    /**
+     * Add a vertex with the current color to the batch.
+     *
+     * @param x X position.
+     * @param y Y position.
+     * @param u Texture U coordinate.
+     * @param v Texture V coordinate.
+     */
+    private void addVertex(float x, float y, float u, float v) {
+        this.data.put(x).put(y).put(u).put(v).put(this.red).put(this.green).put(this.blue).put(this.alpha);
+        this.vertexCount++;
+    }
+
+    /**
+     * Draw all vertexes in the batch with the current material, and clear the batch.
+     */
+    public void flush() {
+        // Make sure there's anything to draw
+        if(this.vertexCount == 0)
+            return;
+
+        // Create the vertex buffer if it hasn't been created yet
+        if(this.vboHandle == 0) {
+            this.vboHandle = GL15.glGenBuffers();
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.vboHandle);
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) this.data.capacity() * 4, GL15.GL_STREAM_DRAW);
+        } else
+            GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.vboHandle);
+
+        // Upload the vertexes
+        this.data.flip();
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, this.data);
+
+        // Bind the material, or draw without shader and texture
+        if(this.material != null) {
+            this.material.bind();
+            this.material.update(this.scene);
+        } else {
+            GL20.glUseProgram(0);
+            Texture.unbind();
+        }
+
+        // Configure the vertex attributes
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glVertexPointer(2, GL11.GL_FLOAT, VERTEX_STRIDE, 0);
+        GL11.glTexCoordPointer(2, GL11.GL_FLOAT, VERTEX_STRIDE, 2 * 4);
+        GL11.glColorPointer(4, GL11.GL_FLOAT, VERTEX_STRIDE, 4 * 4);
+
+        // Draw the batch
+        GL11.glDrawArrays(this.mode, 0, this.vertexCount);
+        this.drawCount++;
+
+        // Reset the vertex attributes and unbind the buffer and material
+        GL11.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        if(this.material != null)
+            this.material.unbind();
+
+        // Clear the batch
+        this.data.clear();
+        this.vertexCount = 0;
+    }
+
+    /**
+     * Get the number of draw calls since the batch began.
+     *
+     * @return Draw call count.
+     */
+    public int getDrawCount() {
+        return this.drawCount;
+    }
+
+    /**
+     * Delete the vertex buffer.
+     */
+    public void dispose() {
+        // Clear the batch
+        this.data.clear();
+        this.vertexCount = 0;
+
+        // Delete the buffer
+        if(this.vboHandle != 0) {
+            GL15.glDeleteBuffers(this.vboHandle);
+            this.vboHandle = 0;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.resource;
+
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.model.loader.ObjModelLoader;
+import com.timvisee.voxeltex.module.texture.Image;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Loads resources in parallel on a pool of worker threads.
+ *
+ * Workers only do CPU work, such as reading resource streams, decoding images and parsing models. Meshes and textures
+ * created from the results queue their GPU upload, which is handled by the rendering thread.
+ */
+public class AsyncResourceLoader {
+
+    /**
+     * Worker thread pool.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Submitted tasks, in submission order.
+     */
+    private final List<Future<?>> tasks = new ArrayList<>();
+
+    /**
+     * Number of finished tasks.
+     */
+    private final AtomicInteger finishedCount = new AtomicInteger();
+
+    /**
+     * Constructor, using a worker for each available processor.
+     */
+    public AsyncResourceLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threads Number of worker threads.
+     */
+    public AsyncResourceLoader(int threads) {
+        // Create the worker pool, the workers shouldn't keep the application alive
+        final AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            final Thread thread = new Thread(runnable, "Resource loader " + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Submit a task to be run on a worker.
+     *
+     * @param task Task.
+     * @param <T> Result type.
+     *
+     * @return Future for the result.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        final Future<T> future = this.executor.submit(() -> {
+            try {
+                return task.call();
+            } finally {
+                this.finishedCount.incrementAndGet();
+            }
+        });
+        this.tasks.add(future);
+        return future;
+    }
+
+    /**
+     * Read and decode an image on a worker.
+     *
+     * @param data Supplier of the encoded image data, called on the worker.
+     *
+     * @return Future for the image.
+     */
+    public Future<Image> loadImage(Supplier<ByteBuffer> data) {
+        return submit(() -> Image.loadFromByteBuffer(data.get()));
+    }
+
+    /**
+     * Parse an OBJ model and prepare its mesh on a worker. The mesh is uploaded by the rendering thread.
+     *
+     * @param input Supplier of the model input stream, called on the worker.
+     *
+     * @return Future for the mesh.
+     */
+    public Future<Mesh> loadObjMesh(Supplier<InputStream> input) {
+        return submit(() -> new Mesh(ObjModelLoader.loadModelFromInputStream(input.get())));
+    }
+
+    /**
+     * Get the number of submitted tasks.
+     *
+     * @return Task count.
+     */
+    public int getTaskCount() {
+        return this.tasks.size();
+    }
+
+    /**
+     * Get the number of finished tasks.
+     *
+     * @return Finished task count.
+     */
+    public int getFinishedCount() {
+        return this.finishedCount.get();
+    }
+
+    /**
+     * Wait for all submitted tasks to finish, and shut the workers down.
+     *
+     * @param listener Listener to report the progress to, or null.
+     */
+    public void await(ResourceLoadListener listener) {
+        try {
+            // Wait for the tasks in order, and report the progress after each of them
+            final int total = this.tasks.size();
+            //noinspection ForLoopReplaceableByForEach
+            for(int i = 0; i < total; i++) {
+                get(this.tasks.get(i));
+                if(listener != null)
+                    listener.onProgress(getFinishedCount(), total);
+            }
+
+        } finally {
+            // Shut the workers down
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the result of a task, waiting for it to finish if it hasn't yet.
+     *
+     * @param future Task future.
+     * @param <T> Result type.
+     *
+     * @return Task result.
+     */
+    public static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+
+        } catch(ExecutionException e) {
+            throw new RuntimeException("Failed to load resource", e.getCause());
+
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading resources", e);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.resource.asset;
+
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.model.loader.ObjModelLoader;
+import com.timvisee.voxeltex.module.resource.ResourceLoaderInterface;
+import com.timvisee.voxeltex.module.texture.Image;
+import com.timvisee.voxeltex.module.texture.Texture;
+
+/**
+ * Handle of an asset in an {@link AssetRegistry}.
+ *
+ * The asset is loaded when it's first used. Users that only need the asset for a while can acquire and release it,
+ * the asset is unloaded when it's released by all of them. Assets that are used through {@link #get()} stay loaded
+ * until the registry is disposed.
+ *
+ * @param <T> Type of the loaded asset value.
+ */
+public class Asset<T> {
+
+    /**
+     * Registry this asset is part of.
+     */
+    private final AssetRegistry registry;
+
+    /**
+     * Unique key of the asset.
+     */
+    private final String key;
+
+    /**
+     * Asset type.
+     */
+    private final AssetType type;
+
+    /**
+     * Resource loader to load the asset data with.
+     */
+    private final ResourceLoaderInterface source;
+
+    /**
+     * Resource path of the asset data, or null if the asset doesn't have its own data.
+     */
+    private final String path;
+
+    /**
+     * Key of the texture asset a material uses, or null if the material loads its own texture from the path.
+     */
+    private final String textureKey;
+
+    /**
+     * Name of the group this asset is part of, or null.
+     */
+    private final String group;
+
+    /**
+     * Weight of the asset when randomly selected from its group.
+     */
+    private final int weight;
+
+    /**
+     * True if the asset is only loaded on first use, false if it's preloaded.
+     */
+    private final boolean lazy;
+
+    /**
+     * Loaded asset value, or null if not loaded.
+     */
+    private T value = null;
+
+    /**
+     * Texture asset the loaded material has acquired, or null.
+     */
+    private Asset<Texture> textureAsset = null;
+
+    /**
+     * Number of users that acquired the asset.
+     */
+    private int referenceCount = 0;
+
+    /**
+     * True if the asset was used through {@link #get()}, and stays loaded until the registry is disposed.
+     */
+    private boolean retained = false;
+
+    /**
+     * Constructor.
+     *
+     * @param registry Registry this asset is part of.
+     * @param key Unique key of the asset.
+     * @param type Asset type.
+     * @param source Resource loader to load the asset data with.
+     * @param path Resource path of the asset data, or null.
+     * @param textureKey Key of the texture asset a material uses, or null.
+     * @param group Name of the group this asset is part of, or null.
+     * @param weight Weight of the asset when randomly selected from its group.
+     * @param lazy True to only load the asset on first use, false to preload it.
+     */
+    Asset(AssetRegistry registry, String key, AssetType type, ResourceLoaderInterface source, String path,
+          String textureKey, String group, int weight, boolean lazy) {
+        this.registry = registry;
+        this.key = key;
+        this.type = type;
+        this.source = source;
+        this.path = path;
+        this.textureKey = textureKey;
+        this.group = group;
+        this.weight = weight;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Get the unique key of the asset.
+     *
+     * @return Asset key.
+     */
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Get the asset type.
+     *
+     * @return Asset type.
+     */
+    public AssetType getType() {
+        return this.type;
+    }
+
+    /**
+     * Get the resource path of the asset data.
+     *
+     * @return Resource path, or null.
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Get the key of the texture asset a material uses.
+     *
+     * @return Texture asset key, or null if the material loads its own texture from the path.
+     */
+    public String getTextureKey() {
+        return this.textureKey;
+    }
+
+    /**
+     * Get the name of the group this asset is part of.
+     *
+     * @return Group name, or null.
+     */
+    public String getGroup() {
+        return this.group;
+    }
+
+    /**
+     * Get the weight of the asset when randomly selected from its group.
+     *
+     * @return Weight.
+     */
+    public int getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Check whether the asset is only loaded on first use.
+     *
+     * @return True if lazy, false if it's preloaded.
+     */
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    /**
+     * Check whether the asset is loaded.
+     *
+     * @return True if loaded, false if not.
+     */
+    public synchronized boolean isLoaded() {
+        return this.value != null;
+    }
+
+    /**
+     * Get the number of users that acquired the asset.
+     *
+     * @return Reference count.
+     */
+    public synchronized int getReferenceCount() {
+        return this.referenceCount;
+    }
+
+    /**
+     * Get the asset value, and load it if it isn't loaded yet.
+     * The caller doesn't release the asset, it therefore stays loaded until the registry is disposed.
+     *
+     * @return Asset value.
+     */
+    public synchronized T get() {
+        // Retain the asset, releasing acquired references must not unload it while it's used through this value
+        this.retained = true;
+        return load();
+    }
+
+    /**
+     * Acquire the asset, and load it if it isn't loaded yet.
+     * Each acquire must be followed by a {@link #release()} once the asset isn't used anymore.
+     *
+     * @return Asset value.
+     */
+    public synchronized T acquire() {
+        this.referenceCount++;
+        return load();
+    }
+
+    /**
+     * Release the asset after it was acquired.
+     * The asset is unloaded when it isn't acquired anymore, unless it's retained. This must be called from the
+     * rendering thread, since GPU resources may be disposed.
+     */
+    public synchronized void release() {
+        // Make sure the asset was acquired
+        if(this.referenceCount <= 0)
+            throw new RuntimeException("Asset '" + this.key + "' was released more often than it was acquired");
+
+        // Unload the asset when nobody uses it anymore
+        this.referenceCount--;
+        if(this.referenceCount == 0 && !this.retained)
+            unload();
+    }
+
+    /**
+     * Load the asset if it isn't loaded yet.
+     *
+     * @return Asset value.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized T load() {
+        // Return the value if it's loaded already
+        if(this.value != null)
+            return this.value;
+
+        // Load the value based on the asset type
+        switch(this.type) {
+            case IMAGE:
+                this.value = (T) loadImage();
+                break;
+
+            case TEXTURE:
+                this.value = (T) Texture.consumeImage(loadImage());
+                break;
+
+            case MATERIAL:
+                // Use the referenced texture asset, or load a texture of our own
+                final Texture texture;
+                if(this.textureKey != null) {
+                    this.textureAsset = this.registry.get(this.textureKey, Texture.class);
+                    texture = this.textureAsset.acquire();
+                } else
+                    texture = Texture.consumeImage(loadImage());
+                this.value = (T) new Material(texture);
+                break;
+
+            case MESH:
+                this.value = (T) new Mesh(ObjModelLoader.loadModelFromInputStream(
+                        this.source.loadResourceStream(this.path)
+                ));
+                break;
+        }
+
+        // Return the loaded value
+        return this.value;
+    }
+
+    /**
+     * Load and decode the image at the asset path.
+     *
+     * @return Image.
+     */
+    private Image loadImage() {
+        return Image.loadFromByteBuffer(this.source.loadResourceByteBuffer(this.path));
+    }
+
+    /**
+     * Unload the asset, disposing the resources it owns.
+     * This must be called from the rendering thread.
+     */
+    synchronized void unload() {
+        // Make sure the asset is loaded
+        if(this.value == null)
+            return;
+
+        // Dispose the value based on the asset type
+        switch(this.type) {
+            case IMAGE:
+                ((Image) this.value).dispose();
+                break;
+
+            case TEXTURE:
+                ((Texture) this.value).dispose();
+                break;
+
+            case MATERIAL:
+                // Release the referenced texture asset, or dispose our own texture
+                if(this.textureAsset != null) {
+                    this.textureAsset.release();
+                    this.textureAsset = null;
+                } else if(((Material) this.value).hasTexture())
+                    ((Material) this.value).getTexture().dispose();
+                break;
+
+            case MESH:
+                ((Mesh) this.value).clearMeshBuffer();
+                break;
+        }
+
+        // Reset the state
+        this.value = null;
+        this.referenceCount = 0;
+        this.retained = false;
+    }
+}
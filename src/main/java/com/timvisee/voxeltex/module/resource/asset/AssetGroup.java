@@ -0,0 +1,152 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.resource.asset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Group of assets, of which a random asset can be selected based on the asset weights.
+ *
+ * @param <T> Type of the loaded asset values.
+ */
+public class AssetGroup<T> {
+
+    /**
+     * Random number generator used for selecting random assets.
+     */
+    private static final Random RANDOM = new Random();
+
+    /**
+     * Name of the group.
+     */
+    private final String name;
+
+    /**
+     * Assets in this group.
+     */
+    private final List<Asset<T>> assets = new ArrayList<>();
+
+    /**
+     * Sum of the weights of all assets in this group.
+     */
+    private int totalWeight = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param name Name of the group.
+     */
+    AssetGroup(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the group.
+     *
+     * @return Group name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Add an asset to the group.
+     *
+     * @param asset Asset.
+     */
+    void add(Asset<T> asset) {
+        // Make sure the weight is positive, other weights would skew the random selection
+        if(asset.getWeight() <= 0)
+            throw new RuntimeException("Asset '" + asset.getKey() + "' in group '" + this.name + "' has weight "
+                    + asset.getWeight() + ", the weight must be positive");
+
+        // Add the asset
+        this.assets.add(asset);
+        this.totalWeight += asset.getWeight();
+    }
+
+    /**
+     * Get the assets in this group.
+     *
+     * @return Unmodifiable list of assets.
+     */
+    public List<Asset<T>> getAssets() {
+        return Collections.unmodifiableList(this.assets);
+    }
+
+    /**
+     * Get the number of assets in this group.
+     *
+     * @return Asset count.
+     */
+    public int size() {
+        return this.assets.size();
+    }
+
+    /**
+     * Get the sum of the weights of all assets in this group.
+     *
+     * @return Total weight.
+     */
+    public int getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    /**
+     * Select a random asset from this group, based on the asset weights.
+     *
+     * @return Random asset.
+     */
+    public Asset<T> pickRandom() {
+        return pickRandom(RANDOM);
+    }
+
+    /**
+     * Select a random asset from this group, based on the asset weights.
+     *
+     * @param random Random number generator to use.
+     *
+     * @return Random asset.
+     */
+    public Asset<T> pickRandom(Random random) {
+        // Make sure there's anything to select
+        if(this.totalWeight <= 0)
+            throw new RuntimeException("Unable to select a random asset, asset group '" + this.name + "' is empty");
+
+        // Pick a weight, and find the asset it lands on
+        int pick = random.nextInt(this.totalWeight);
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.assets.size(); i < size; i++) {
+            final Asset<T> asset = this.assets.get(i);
+            if(pick < asset.getWeight())
+                return asset;
+            pick -= asset.getWeight();
+        }
+
+        // This can't happen, the weights add up to the total weight
+        throw new RuntimeException("Failed to select a random asset from group '" + this.name + "'");
+    }
+}
@@ -0,0 +1,280 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.resource.asset;
+
+import com.timvisee.voxeltex.module.resource.AsyncResourceLoader;
+import com.timvisee.voxeltex.module.resource.ResourceLoaderInterface;
+import com.timvisee.yamlwrapper.ConfigurationSection;
+import com.timvisee.yamlwrapper.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of keyed assets, declared in asset manifest files.
+ *
+ * A manifest lists assets below its root 'assets' section, by key. Each asset has a 'type' (image, texture, material
+ * or mesh) and a resource 'path'. Materials may reference a texture asset by its 'texture' key instead. Assets can
+ * optionally be part of a 'group' with a 'weight' for random selection, and can be loaded on first use with
+ * 'load: lazy'. A 'source' selects a named resource loader, the loader the manifest was read with is used otherwise.
+ */
+public class AssetRegistry {
+
+    /**
+     * Load mode of assets that are only loaded on first use.
+     */
+    private static final String LOAD_LAZY = "lazy";
+
+    /**
+     * Named resource loaders assets can be loaded from.
+     */
+    private final Map<String, ResourceLoaderInterface> sources = new HashMap<>();
+
+    /**
+     * Registered assets by their key.
+     */
+    private final Map<String, Asset<?>> assets = new HashMap<>();
+
+    /**
+     * Registered assets, in registration order.
+     */
+    private final List<Asset<?>> assetList = new ArrayList<>();
+
+    /**
+     * Asset groups by their name.
+     */
+    private final Map<String, AssetGroup<?>> groups = new HashMap<>();
+
+    /**
+     * Add a named resource loader, which assets in a manifest can select as their source.
+     *
+     * @param name Source name.
+     * @param loader Resource loader.
+     */
+    public void addSource(String name, ResourceLoaderInterface loader) {
+        this.sources.put(name, loader);
+    }
+
+    /**
+     * Load an asset manifest, and register all assets it declares.
+     * The assets themselves aren't loaded yet.
+     *
+     * @param loader Resource loader to read the manifest with, and the default source of its assets.
+     * @param path Resource path of the manifest.
+     */
+    public void loadManifest(ResourceLoaderInterface loader, String path) {
+        // Load the YAML configuration
+        final YamlConfiguration config = YamlConfiguration.loadFromStream(loader.loadResourceStream(path));
+
+        // Make sure there are assets
+        if(!config.isConfigurationSection("assets"))
+            throw new RuntimeException("Asset manifest '" + path + "' doesn't contain an assets section");
+
+        // Register each asset
+        final List<String> keys = config.getKeys("assets");
+        for(int i = 0, size = keys.size(); i < size; i++) {
+            final String key = keys.get(i);
+            final ConfigurationSection assetConfig = config.getConfigurationSection("assets." + key);
+
+            // Get the resource loader to use
+            ResourceLoaderInterface source = loader;
+            if(assetConfig.getString("source", null) != null) {
+                source = this.sources.get(assetConfig.getString("source"));
+                if(source == null)
+                    throw new RuntimeException("Unknown source '" + assetConfig.getString("source") + "' for asset '"
+                            + key + "' in manifest '" + path + "'");
+            }
+
+            // Make sure the weight is positive
+            final int weight = assetConfig.getInt("weight", 1);
+            if(weight <= 0)
+                throw new RuntimeException("Asset '" + key + "' in manifest '" + path + "' has weight " + weight
+                        + ", the weight must be positive");
+
+            // Create and register the asset
+            register(new Asset<>(
+                    this,
+                    key,
+                    AssetType.fromName(assetConfig.getString("type")),
+                    source,
+                    assetConfig.getString("path", null),
+                    assetConfig.getString("texture", null),
+                    assetConfig.getString("group", null),
+                    weight,
+                    LOAD_LAZY.equalsIgnoreCase(assetConfig.getString("load", null))
+            ));
+        }
+
+        // Show a status message
+        System.out.println(keys.size() + " assets registered from '" + path + "'");
+    }
+
+    /**
+     * Register an asset, and add it to its group.
+     *
+     * @param asset Asset.
+     */
+    @SuppressWarnings("unchecked")
+    private void register(Asset<?> asset) {
+        // Make sure the key is unique
+        if(this.assets.containsKey(asset.getKey()))
+            throw new RuntimeException("Asset '" + asset.getKey() + "' is registered already");
+
+        // Make sure a path is available to load the asset from
+        if(!hasPath(asset) && (asset.getType() != AssetType.MATERIAL || asset.getTextureKey() == null))
+            throw new RuntimeException("Asset '" + asset.getKey() + "' doesn't have a path");
+
+        // Register the asset
+        this.assets.put(asset.getKey(), asset);
+        this.assetList.add(asset);
+
+        // Add the asset to its group
+        if(asset.getGroup() != null) {
+            AssetGroup<?> group = this.groups.get(asset.getGroup());
+            if(group == null) {
+                group = new AssetGroup<>(asset.getGroup());
+                this.groups.put(asset.getGroup(), group);
+            }
+            ((AssetGroup<Object>) group).add((Asset<Object>) asset);
+        }
+    }
+
+    /**
+     * Check whether an asset has a resource path.
+     *
+     * @param asset Asset.
+     *
+     * @return True if the asset has a path, false if not.
+     */
+    private static boolean hasPath(Asset<?> asset) {
+        return asset.getPath() != null && !asset.getPath().isEmpty();
+    }
+
+    /**
+     * Get an asset by its key.
+     *
+     * @param key Asset key.
+     * @param valueClass Class of the asset value.
+     * @param <T> Type of the asset value.
+     *
+     * @return Asset.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Asset<T> get(String key, Class<T> valueClass) {
+        // Get the asset, and make sure it exists
+        final Asset<?> asset = this.assets.get(key);
+        if(asset == null)
+            throw new RuntimeException("Unknown asset: " + key);
+
+        // Make sure the asset type matches
+        if(!valueClass.isAssignableFrom(asset.getType().getValueClass()))
+            throw new RuntimeException("Asset '" + key + "' is a " + asset.getType().getName() + ", not a "
+                    + valueClass.getSimpleName());
+
+        return (Asset<T>) asset;
+    }
+
+    /**
+     * Get an asset group by its name.
+     *
+     * @param name Group name.
+     * @param valueClass Class of the asset values in the group.
+     * @param <T> Type of the asset values.
+     *
+     * @return Asset group.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> AssetGroup<T> getGroup(String name, Class<T> valueClass) {
+        // Get the group, and make sure it exists
+        final AssetGroup<?> group = this.groups.get(name);
+        if(group == null)
+            throw new RuntimeException("Unknown asset group: " + name);
+
+        // Make sure the type of each asset matches
+        final List<? extends Asset<?>> members = group.getAssets();
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = members.size(); i < size; i++)
+            if(!valueClass.isAssignableFrom(members.get(i).getType().getValueClass()))
+                throw new RuntimeException("Asset group '" + name + "' contains asset '" + members.get(i).getKey()
+                        + "' which isn't a " + valueClass.getSimpleName());
+
+        return (AssetGroup<T>) group;
+    }
+
+    /**
+     * Get the number of registered assets.
+     *
+     * @return Asset count.
+     */
+    public int getAssetCount() {
+        return this.assetList.size();
+    }
+
+    /**
+     * Get the number of loaded assets.
+     *
+     * @return Loaded asset count.
+     */
+    public int getLoadedCount() {
+        int count = 0;
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.assetList.size(); i < size; i++)
+            if(this.assetList.get(i).isLoaded())
+                count++;
+        return count;
+    }
+
+    /**
+     * Submit all assets that aren't lazy to be loaded on the workers of the given resource loader.
+     * The assets are retained until the registry is disposed.
+     *
+     * @param loader Resource loader.
+     */
+    public void preload(AsyncResourceLoader loader) {
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.assetList.size(); i < size; i++) {
+            final Asset<?> asset = this.assetList.get(i);
+            if(!asset.isLazy())
+                loader.submit(asset::get);
+        }
+    }
+
+    /**
+     * Unload all assets.
+     * This must be called from the rendering thread.
+     */
+    public void dispose() {
+        // Unload the materials first, so they release their textures before those are unloaded
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.assetList.size(); i < size; i++)
+            if(this.assetList.get(i).getType() == AssetType.MATERIAL)
+                this.assetList.get(i).unload();
+
+        // Unload the other assets
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.assetList.size(); i < size; i++)
+            this.assetList.get(i).unload();
+    }
+}
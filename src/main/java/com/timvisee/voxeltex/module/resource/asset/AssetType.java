@@ -0,0 +1,107 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.resource.asset;
+
+import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.mesh.Mesh;
+import com.timvisee.voxeltex.module.texture.Image;
+import com.timvisee.voxeltex.module.texture.Texture;
+
+public enum AssetType {
+
+    /**
+     * Decoded image.
+     */
+    IMAGE("image", Image.class),
+
+    /**
+     * Texture, created from an image.
+     */
+    TEXTURE("texture", Texture.class),
+
+    /**
+     * Textured material, using the default textured shader.
+     */
+    MATERIAL("material", Material.class),
+
+    /**
+     * Mesh, created from an OBJ model.
+     */
+    MESH("mesh", Mesh.class);
+
+    /**
+     * Name of the type, as used in asset manifests.
+     */
+    private final String name;
+
+    /**
+     * Class of the loaded asset values.
+     */
+    private final Class<?> valueClass;
+
+    /**
+     * Constructor.
+     *
+     * @param name Name of the type, as used in asset manifests.
+     * @param valueClass Class of the loaded asset values.
+     */
+    AssetType(String name, Class<?> valueClass) {
+        this.name = name;
+        this.valueClass = valueClass;
+    }
+
+    /**
+     * Get the name of the type, as used in asset manifests.
+     *
+     * @return Type name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the class of the loaded asset values.
+     *
+     * @return Value class.
+     */
+    public Class<?> getValueClass() {
+        return this.valueClass;
+    }
+
+    /**
+     * Get the asset type by its manifest name.
+     *
+     * @param name Type name, case insensitive.
+     *
+     * @return Asset type.
+     */
+    public static AssetType fromName(String name) {
+        // Find the type with the given name
+        for(AssetType type : values())
+            if(type.name.equalsIgnoreCase(name))
+                return type;
+
+        // Unknown type, throw an exception
+        throw new RuntimeException("Unknown asset type: " + name);
+    }
+}
@@ -23,9 +23,13 @@
 package com.timvisee.voxeltex.module.resource.bundle;
 
 import com.timvisee.voxeltex.module.material.Material;
+import com.timvisee.voxeltex.module.resource.AsyncResourceLoader;
+import com.timvisee.voxeltex.module.resource.engine.EngineAssetLoader;
 import com.timvisee.voxeltex.module.texture.Image;
 import com.timvisee.voxeltex.module.texture.Texture;
 
+import java.util.concurrent.Future;
+
 public class EngineResourceBundle implements ResourceBundleInterface {
 
     /**
@@ -52,12 +56,18 @@ public class EngineResourceBundle implements ResourceBundleInterface {
         // Show status message
         System.out.println("Loading engine resources...");
 
-        // Load box texture and material
-        this.TEXTURE_BOX = loadEngineTexture("images/box/box.png");
+        // Decode the images in parallel
+        final AsyncResourceLoader loader = new AsyncResourceLoader();
+        final Future<Image> boxImage = loadEngineImage(loader, "images/box/box.png");
+        final Future<Image> groundImage = loadEngineImage(loader, "images/ground.png");
+        loader.await(null);
+
+        // Create the box texture and material
+        this.TEXTURE_BOX = Texture.fromImage(AsyncResourceLoader.get(boxImage));
         this.MATERIAL_BOX = new Material(this.TEXTURE_BOX);
 
-        // Load the ground resources
-        this.TEXTURE_GROUND = loadEngineTexture("images/ground.png");
+        // Create the ground resources
+        this.TEXTURE_GROUND = Texture.fromImage(AsyncResourceLoader.get(groundImage));
         this.MATERIAL_GROUND = new Material(this.TEXTURE_GROUND);
     }
 
@@ -72,24 +82,15 @@ public class EngineResourceBundle implements ResourceBundleInterface {
     }
 
     /**
-     * Load a texture from engine resources.
-     *
-     * @param path Image resource path.
-     *
-     * @return Texture.
-     */
-    private Texture loadEngineTexture(String path) {
-        return Texture.fromImage(loadEngineImage(path));
-    }
-
-    /**
-     * Load an image from engine resources.
+     * Load and decode an image from engine resources on a worker.
      *
+     * @param loader Resource loader.
      * @param path Image resource path.
      *
-     * @return Image.
+     * @return Future of the image.
      */
-    private Image loadEngineImage(String path) {
-        return Image.loadFromEngineAssets(path);
+    private Future<Image> loadEngineImage(AsyncResourceLoader loader, String path) {
+        final EngineAssetLoader engineAssets = EngineAssetLoader.getInstance();
+        return loader.loadImage(() -> engineAssets.loadResourceByteBuffer(path));
     }
 }
@@ -24,9 +24,12 @@ package com.timvisee.voxeltex.module.shader;
 
 import org.joml.*;
 import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL31;
 
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL20.*;
 
@@ -38,10 +41,10 @@ public abstract class AbstractShader implements ShaderInterface {
     protected int programId;
 
     /**
-     * Cached float buffer for a matrix.
-     * This is used to minimize object allocation which drastically improves performance.
+     * Uniform handles of this shader by their name.
+     * The active uniforms are resolved when the shader is created, other names are resolved on first use.
      */
-    private static final FloatBuffer matrixFloatBufferCache = BufferUtils.createFloatBuffer(16);
+    private final Map<String, Uniform> uniforms = new HashMap<>();
 
     /**
      * Constructor.
@@ -52,10 +55,75 @@ public abstract class AbstractShader implements ShaderInterface {
         // Set the fields
         this.programId = programId;
 
+        // Resolve the uniforms, and connect the shared frame uniform block
+        if(programId != 0) {
+            resolveUniforms();
+            bindUniformBlock(FrameUniformBuffer.BLOCK_NAME, FrameUniformBuffer.BINDING);
+        }
+
         // Track the shader
         ShaderTracker.trackShader(this);
     }
 
+    /**
+     * Resolve the locations of all active uniforms of the linked program, and create their handles.
+     */
+    private void resolveUniforms() {
+        // Get the number of active uniforms
+        final int count = glGetProgrami(this.programId, GL_ACTIVE_UNIFORMS);
+        final IntBuffer sizeBuffer = BufferUtils.createIntBuffer(1);
+        final IntBuffer typeBuffer = BufferUtils.createIntBuffer(1);
+
+        for(int i = 0; i < count; i++) {
+            // Get the uniform name and location, uniforms in a uniform block don't have a location
+            final String name = glGetActiveUniform(this.programId, i, sizeBuffer, typeBuffer);
+            final Uniform uniform = new Uniform(name, glGetUniformLocation(this.programId, name));
+            this.uniforms.put(name, uniform);
+
+            // Arrays are reported by their first element, also make them available by their plain name
+            if(name.endsWith("[0]"))
+                this.uniforms.put(name.substring(0, name.length() - 3), uniform);
+        }
+    }
+
+    /**
+     * Connect the uniform block with the given name to a uniform buffer binding point, if the program has the block.
+     *
+     * @param blockName Uniform block name.
+     * @param binding Binding point.
+     */
+    protected void bindUniformBlock(String blockName, int binding) {
+        // Make sure uniform buffers are supported
+        if(!UniformBuffer.isSupported())
+            return;
+
+        // Get the block index, and connect it if the program has the block
+        final int blockIndex = GL31.glGetUniformBlockIndex(this.programId, blockName);
+        if(blockIndex != GL31.GL_INVALID_INDEX)
+            GL31.glUniformBlockBinding(this.programId, blockIndex, binding);
+    }
+
+    /**
+     * Get the handle of the uniform with the given name.
+     * Handles should be stored by shaders that set uniforms often, to skip the name lookup.
+     *
+     * @param name Uniform name.
+     *
+     * @return Uniform handle, which is ignored when set if the program doesn't have the uniform.
+     */
+    public Uniform getUniform(String name) {
+        // Get the cached handle
+        Uniform uniform = this.uniforms.get(name);
+
+        // Resolve and cache the handle if it's requested for the first time, shaders without a program have no uniforms
+        if(uniform == null) {
+            uniform = new Uniform(name, this.programId != 0 ? glGetUniformLocation(this.programId, name) : -1);
+            this.uniforms.put(name, uniform);
+        }
+
+        return uniform;
+    }
+
     @Override
     public int getProgramId() {
         return programId;
@@ -63,7 +131,7 @@ public abstract class AbstractShader implements ShaderInterface {
 
     @Override
     public void bind() {
-        // Bind the shader program to OpenGL
+        // Bind the shader program to OpenGL, the uniform values are kept by the program
         glUseProgram(this.programId);
     }
 
@@ -75,7 +143,8 @@ public abstract class AbstractShader implements ShaderInterface {
     @Override
     public void dispose() {
         // Dispose the shader from OpenGL
-        glDeleteProgram(this.programId);
+        if(this.programId != 0)
+            glDeleteProgram(this.programId);
 
         // Untrack the shader
         ShaderTracker.untrackShader(this);
@@ -89,85 +158,83 @@ public abstract class AbstractShader implements ShaderInterface {
      * @return Attribute location.
      */
     public int getAttributeLocation(String name) {
-        return glGetAttribLocation(this.programId, name);
+        return this.programId != 0 ? glGetAttribLocation(this.programId, name) : -1;
     }
 
     /**
      * Retrieve uniform location of a variable from the shader.
+     * The location is cached, so it's only retrieved from OpenGL once.
      *
      * @param name Variable name.
      *
      * @return Uniform variable location.
      */
     public int getUniformLocation(String name) {
-        return glGetUniformLocation(this.programId, name);
+        return getUniform(name).getLocation();
     }
 
     @Override
     public void setUniform1f(String name, float value) {
-        glUniform1f(getUniformLocation(name), value);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform1i(String name, int value) {
-        glUniform1i(getUniformLocation(name), value);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform1iv(String name, IntBuffer buff) {
-        glUniform1iv(getUniformLocation(name), buff);
+        getUniform(name).set1iv(buff);
     }
 
     @Override
     public void setUniform2f(String name, Vector2f value) {
-        glUniform2f(getUniformLocation(name), value.x, value.y);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform2i(String name, Vector2i value) {
-        glUniform2i(getUniformLocation(name), value.x, value.y);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform3f(String name, Vector3f value) {
-        glUniform3f(getUniformLocation(name), value.x, value.y, value.z);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform3i(String name, Vector3i value) {
-        glUniform3i(getUniformLocation(name), value.x, value.y, value.z);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform3fv(String name, FloatBuffer buff) {
-        glUniform3fv(getUniformLocation(name), buff);
+        getUniform(name).set3fv(buff);
     }
 
     @Override
     public void setUniform4f(String name, Vector4f value) {
-        glUniform4f(getUniformLocation(name), value.x, value.y, value.z, value.w);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform4i(String name, Vector4i value) {
-        glUniform4i(getUniformLocation(name), value.x, value.y, value.z, value.w);
+        getUniform(name).set(value);
     }
 
     @Override
     public void setUniform4fv(String name, FloatBuffer buff) {
-        glUniform4fv(getUniformLocation(name), buff);
+        getUniform(name).set4fv(buff);
     }
 
     @Override
     public void setUniformMatrix4f(String name, Matrix4f matrix) {
-        // Synchronize so we don't modify the cached float buffer from multiple places at the same time
-        synchronized(matrixFloatBufferCache) {
-            setUniformMatrix4f(name, matrix, matrixFloatBufferCache);
-        }
+        getUniform(name).set(matrix);
     }
 
     @Override
     public void setUniformMatrix4f(String name, Matrix4f matrix, FloatBuffer buff) {
-        glUniformMatrix4fv(getUniformLocation(name), false, matrix.get(buff));
+        getUniform(name).set(matrix, buff);
     }
 }
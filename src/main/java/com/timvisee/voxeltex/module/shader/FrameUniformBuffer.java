@@ -0,0 +1,148 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.module.shader;
+
+import com.timvisee.voxeltex.architecture.scene.AbstractScene;
+import com.timvisee.voxeltex.engine.light.LightManager;
+import com.timvisee.voxeltex.runtime.global.MainCamera;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Uniform buffer holding the per frame data of a scene, the camera matrices and position, and the lights.
+ * Programs that declare the FrameData uniform block read from this buffer, so the data is only uploaded once per frame.
+ */
+public class FrameUniformBuffer extends UniformBuffer {
+
+    /**
+     * Name of the uniform block in the shaders.
+     */
+    public static final String BLOCK_NAME = "FrameData";
+
+    /**
+     * Binding point of the uniform block.
+     */
+    public static final int BINDING = 0;
+
+    /**
+     * Offset of the projection matrix in bytes.
+     */
+    private static final int PROJECTION_MATRIX_OFFSET = 0;
+
+    /**
+     * Offset of the view matrix in bytes.
+     */
+    private static final int VIEW_MATRIX_OFFSET = 64;
+
+    /**
+     * Offset of the camera position in bytes.
+     */
+    private static final int CAMERA_POSITION_OFFSET = 128;
+
+    /**
+     * Offset of the light data in bytes.
+     */
+    private static final int LIGHT_DATA_OFFSET = 144;
+
+    /**
+     * Size of the uniform block in bytes.
+     */
+    public static final int SIZE = LIGHT_DATA_OFFSET + LightManager.LIGHT_DATA_SIZE;
+
+    /**
+     * Camera view matrix.
+     */
+    private final Matrix4f viewMatrix = new Matrix4f();
+
+    /**
+     * Generation of the light data that was last uploaded, or -1 if no light data has been uploaded.
+     */
+    private int lightGeneration = -1;
+
+    /**
+     * The light manager the light data was last uploaded from.
+     */
+    private LightManager lightManager;
+
+    /**
+     * Constructor.
+     */
+    public FrameUniformBuffer() {
+        super(SIZE, BINDING);
+    }
+
+    /**
+     * Write the camera and light data of the given scene, and upload it.
+     * The light data is only uploaded if it changed since the last upload.
+     *
+     * @param scene Scene that is drawn.
+     */
+    public void update(AbstractScene scene) {
+        // Write the camera matrices and position
+        final ByteBuffer data = getData();
+        MainCamera.getProjectionMatrix().get(PROJECTION_MATRIX_OFFSET, data);
+        MainCamera.createCameraViewMatrix(this.viewMatrix).get(VIEW_MATRIX_OFFSET, data);
+        final Vector3f cameraPosition = MainCamera.getCameraPositionLastUpdate();
+        data.putFloat(CAMERA_POSITION_OFFSET, cameraPosition.x);
+        data.putFloat(CAMERA_POSITION_OFFSET + 4, cameraPosition.y);
+        data.putFloat(CAMERA_POSITION_OFFSET + 8, cameraPosition.z);
+        data.putFloat(CAMERA_POSITION_OFFSET + 12, 1f);
+
+        // Upload only the camera data if the lights haven't changed since the last upload
+        final LightManager lights = scene.getLightManager();
+        if(lights == this.lightManager && lights.getGeneration() == this.lightGeneration) {
+            upload(0, LIGHT_DATA_OFFSET);
+            return;
+        }
+
+        // Copy the light data, and upload everything
+        final ByteBuffer lightData = lights.getLightData();
+        for(int i = 0; i < LightManager.LIGHT_DATA_SIZE; i += 4)
+            data.putInt(LIGHT_DATA_OFFSET + i, lightData.getInt(i));
+        upload();
+
+        // Remember the uploaded light generation
+        this.lightManager = lights;
+        this.lightGeneration = lights.getGeneration();
+    }
+
+    /**
+     * Get the generation of the light data that was last uploaded.
+     *
+     * @return Light data generation, or -1 if no light data has been uploaded.
+     */
+    public int getLightGeneration() {
+        return this.lightGeneration;
+    }
+
+    @Override
+    public void dispose() {
+        // Dispose the buffer, and make sure the light data is uploaded again when it's recreated
+        super.dispose();
+        this.lightManager = null;
+        this.lightGeneration = -1;
+    }
+}
@@ -25,9 +25,30 @@ package com.timvisee.voxeltex.module.shader;
 import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.shader.raw.AbstractRawShader;
+import com.timvisee.voxeltex.module.shader.specific.InstancedTexturedShader;
 
 public class Shader extends AbstractShader {
 
+    /**
+     * Variant of this shader used for instanced rendering, or null if this shader can't be instanced.
+     */
+    private InstancedTexturedShader instancedShader;
+
+    /**
+     * Handle of the model matrix uniform.
+     */
+    private final Uniform modelMatrixUniform = getUniform("modelMatrix");
+
+    /**
+     * Handle of the color uniform.
+     */
+    private final Uniform colorUniform = getUniform("color");
+
+    /**
+     * Handle of the texture sampler uniform.
+     */
+    private final Uniform textureUniform = getUniform("texture");
+
     /**
      * Constructor.
      *
@@ -47,6 +68,60 @@ public class Shader extends AbstractShader {
         this(rawShader.compile());
     }
 
+    /**
+     * Get the variant of this shader used for instanced rendering.
+     *
+     * @return Instanced shader, or null if this shader can't be instanced.
+     */
+    public InstancedTexturedShader getInstancedShader() {
+        return this.instancedShader;
+    }
+
+    /**
+     * Check whether this shader has a variant for instanced rendering.
+     *
+     * @return True if this shader can be instanced, false if not.
+     */
+    public boolean hasInstancedShader() {
+        return this.instancedShader != null;
+    }
+
+    /**
+     * Set the variant of this shader used for instanced rendering.
+     *
+     * @param instancedShader Instanced shader, or null if this shader can't be instanced.
+     */
+    public void setInstancedShader(InstancedTexturedShader instancedShader) {
+        this.instancedShader = instancedShader;
+    }
+
+    /**
+     * Get the handle of the model matrix uniform.
+     *
+     * @return Model matrix uniform.
+     */
+    public Uniform getModelMatrixUniform() {
+        return this.modelMatrixUniform;
+    }
+
+    /**
+     * Get the handle of the color uniform.
+     *
+     * @return Color uniform.
+     */
+    public Uniform getColorUniform() {
+        return this.colorUniform;
+    }
+
+    /**
+     * Get the handle of the texture sampler uniform.
+     *
+     * @return Texture uniform.
+     */
+    public Uniform getTextureUniform() {
+        return this.textureUniform;
+    }
+
     @Override
     public void update(AbstractScene scene, Material material) {
         // Configure the projection and view matrix of the shader
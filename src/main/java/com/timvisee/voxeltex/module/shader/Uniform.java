@@ -0,0 +1,361 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.module.shader;
+
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector2i;
+import org.joml.Vector3f;
+import org.joml.Vector3i;
+import org.joml.Vector4f;
+import org.joml.Vector4i;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL20.*;
+
+/**
+ * Handle to a uniform variable of a shader program.
+ * The location is resolved once, and the last uploaded value is remembered so unchanged values aren't uploaded again.
+ * Uniforms may only be set while their shader program is bound.
+ */
+public class Uniform {
+
+    /**
+     * Maximum number of components of a cached value, the size of a 4x4 matrix.
+     */
+    private static final int MAX_COMPONENTS = 16;
+
+    /**
+     * Cached float buffer for a matrix.
+     * Uniforms may only be set from the OpenGL context thread, so this buffer is never used concurrently.
+     */
+    private static final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(MAX_COMPONENTS);
+
+    /**
+     * Cached array for the components of a matrix.
+     */
+    private static final float[] matrixArray = new float[MAX_COMPONENTS];
+
+    /**
+     * Uniform name.
+     */
+    private final String name;
+
+    /**
+     * Uniform location, or -1 if the program doesn't have this uniform.
+     */
+    private final int location;
+
+    /**
+     * Raw bits of the components of the last uploaded value.
+     */
+    private final int[] value = new int[MAX_COMPONENTS];
+
+    /**
+     * Number of components of the last uploaded value, or -1 if it isn't known.
+     */
+    private int valueComponents = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param name Uniform name.
+     * @param location Uniform location, or -1.
+     */
+    public Uniform(String name, int location) {
+        this.name = name;
+        this.location = location;
+    }
+
+    /**
+     * Get the uniform name.
+     *
+     * @return Uniform name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the uniform location.
+     *
+     * @return Uniform location, or -1 if the program doesn't have this uniform.
+     */
+    public int getLocation() {
+        return this.location;
+    }
+
+    /**
+     * Check whether the program has this uniform.
+     * Setting a uniform that doesn't exist is ignored.
+     *
+     * @return True if it exists, false if not.
+     */
+    public boolean exists() {
+        return this.location >= 0;
+    }
+
+    /**
+     * Forget the last uploaded value, so the next value is always uploaded.
+     */
+    public void invalidate() {
+        this.valueComponents = -1;
+    }
+
+    /**
+     * Set a float value.
+     *
+     * @param x Value.
+     */
+    public void set(float x) {
+        if(exists() && changed(1, bits(x), 0, 0, 0))
+            glUniform1f(this.location, x);
+    }
+
+    /**
+     * Set an integer value.
+     *
+     * @param x Value.
+     */
+    public void set(int x) {
+        if(exists() && changed(1, x, 0, 0, 0))
+            glUniform1i(this.location, x);
+    }
+
+    /**
+     * Set a two component float vector.
+     *
+     * @param x X value.
+     * @param y Y value.
+     */
+    public void set(float x, float y) {
+        if(exists() && changed(2, bits(x), bits(y), 0, 0))
+            glUniform2f(this.location, x, y);
+    }
+
+    /**
+     * Set a two component float vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector2f value) {
+        set(value.x, value.y);
+    }
+
+    /**
+     * Set a two component integer vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector2i value) {
+        if(exists() && changed(2, value.x, value.y, 0, 0))
+            glUniform2i(this.location, value.x, value.y);
+    }
+
+    /**
+     * Set a three component float vector.
+     *
+     * @param x X value.
+     * @param y Y value.
+     * @param z Z value.
+     */
+    public void set(float x, float y, float z) {
+        if(exists() && changed(3, bits(x), bits(y), bits(z), 0))
+            glUniform3f(this.location, x, y, z);
+    }
+
+    /**
+     * Set a three component float vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector3f value) {
+        set(value.x, value.y, value.z);
+    }
+
+    /**
+     * Set a three component integer vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector3i value) {
+        if(exists() && changed(3, value.x, value.y, value.z, 0))
+            glUniform3i(this.location, value.x, value.y, value.z);
+    }
+
+    /**
+     * Set a four component float vector.
+     *
+     * @param x X value.
+     * @param y Y value.
+     * @param z Z value.
+     * @param w W value.
+     */
+    public void set(float x, float y, float z, float w) {
+        if(exists() && changed(4, bits(x), bits(y), bits(z), bits(w)))
+            glUniform4f(this.location, x, y, z, w);
+    }
+
+    /**
+     * Set a four component float vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector4f value) {
+        set(value.x, value.y, value.z, value.w);
+    }
+
+    /**
+     * Set a four component integer vector.
+     *
+     * @param value Value.
+     */
+    public void set(Vector4i value) {
+        if(exists() && changed(4, value.x, value.y, value.z, value.w))
+            glUniform4i(this.location, value.x, value.y, value.z, value.w);
+    }
+
+    /**
+     * Set a 4x4 matrix.
+     *
+     * @param matrix Matrix.
+     */
+    public void set(Matrix4f matrix) {
+        // Make sure the uniform exists
+        if(!exists())
+            return;
+
+        // Compare the matrix to the last uploaded value, and remember it
+        matrix.get(matrixArray);
+        boolean changed = this.valueComponents != MAX_COMPONENTS;
+        for(int i = 0; i < MAX_COMPONENTS; i++) {
+            final int bits = bits(matrixArray[i]);
+            if(this.value[i] != bits) {
+                this.value[i] = bits;
+                changed = true;
+            }
+        }
+        this.valueComponents = MAX_COMPONENTS;
+
+        // Upload the matrix if it has changed
+        if(changed) {
+            matrixBuffer.clear();
+            matrixBuffer.put(matrixArray).flip();
+            glUniformMatrix4fv(this.location, false, matrixBuffer);
+        }
+    }
+
+    /**
+     * Set a 4x4 matrix from the given buffer.
+     * Buffered values aren't compared, and are always uploaded.
+     *
+     * @param matrix Matrix.
+     * @param buff Buffer to put the matrix in before uploading.
+     */
+    public void set(Matrix4f matrix, FloatBuffer buff) {
+        if(exists()) {
+            invalidate();
+            glUniformMatrix4fv(this.location, false, matrix.get(buff));
+        }
+    }
+
+    /**
+     * Set an integer array.
+     * Buffered values aren't compared, and are always uploaded.
+     *
+     * @param buff Buffer with the values.
+     */
+    public void set1iv(IntBuffer buff) {
+        if(exists()) {
+            invalidate();
+            glUniform1iv(this.location, buff);
+        }
+    }
+
+    /**
+     * Set a three component float vector array.
+     * Buffered values aren't compared, and are always uploaded.
+     *
+     * @param buff Buffer with the values.
+     */
+    public void set3fv(FloatBuffer buff) {
+        if(exists()) {
+            invalidate();
+            glUniform3fv(this.location, buff);
+        }
+    }
+
+    /**
+     * Set a four component float vector array.
+     * Buffered values aren't compared, and are always uploaded.
+     *
+     * @param buff Buffer with the values.
+     */
+    public void set4fv(FloatBuffer buff) {
+        if(exists()) {
+            invalidate();
+            glUniform4fv(this.location, buff);
+        }
+    }
+
+    /**
+     * Compare the given value to the last uploaded value, and remember it.
+     *
+     * @param components Number of components.
+     * @param x Raw bits of the first component.
+     * @param y Raw bits of the second component.
+     * @param z Raw bits of the third component.
+     * @param w Raw bits of the fourth component.
+     *
+     * @return True if the value has changed and must be uploaded, false if not.
+     */
+    private boolean changed(int components, int x, int y, int z, int w) {
+        // Check whether the value is equal to the last uploaded value
+        if(this.valueComponents == components && this.value[0] == x && this.value[1] == y
+                && this.value[2] == z && this.value[3] == w)
+            return false;
+
+        // Remember the value
+        this.valueComponents = components;
+        this.value[0] = x;
+        this.value[1] = y;
+        this.value[2] = z;
+        this.value[3] = w;
+        return true;
+    }
+
+    /**
+     * Get the raw bits of a float, so values are compared exactly.
+     *
+     * @param value Float value.
+     *
+     * @return Raw bits.
+     */
+    private static int bits(float value) {
+        return Float.floatToRawIntBits(value);
+    }
+}
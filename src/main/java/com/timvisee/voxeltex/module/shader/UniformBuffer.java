@@ -0,0 +1,164 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+
+package com.timvisee.voxeltex.module.shader;
+
+import com.timvisee.voxeltex.engine.render.RenderBackend;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Uniform buffer object, holding the data of a uniform block that is shared by all shader programs using the block.
+ * The data is written to a client side buffer in the std140 layout, and is uploaded at once.
+ */
+public class UniformBuffer {
+
+    /**
+     * Size of the buffer in bytes.
+     */
+    private final int size;
+
+    /**
+     * Binding point the buffer is bound to.
+     */
+    private final int binding;
+
+    /**
+     * Client side buffer the data is written to before it's uploaded.
+     * Data must be written at absolute positions, so the position of this buffer stays at zero.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Handle of the uniform buffer, or zero if it hasn't been created yet.
+     */
+    private int handle = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param size Size of the buffer in bytes.
+     * @param binding Binding point the buffer is bound to.
+     */
+    public UniformBuffer(int size, int binding) {
+        this.size = size;
+        this.binding = binding;
+        this.data = BufferUtils.createByteBuffer(size);
+    }
+
+    /**
+     * Check whether uniform buffers are supported by the current OpenGL context.
+     *
+     * @return True if supported, false if not.
+     */
+    public static boolean isSupported() {
+        return !RenderBackend.isNull()
+                && (GL.getCapabilities().OpenGL31 || GL.getCapabilities().GL_ARB_uniform_buffer_object);
+    }
+
+    /**
+     * Get the client side buffer the data is written to.
+     *
+     * @return Data buffer.
+     */
+    public ByteBuffer getData() {
+        return this.data;
+    }
+
+    /**
+     * Get the size of the buffer in bytes.
+     *
+     * @return Size in bytes.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Get the binding point the buffer is bound to.
+     *
+     * @return Binding point.
+     */
+    public int getBinding() {
+        return this.binding;
+    }
+
+    /**
+     * Upload the data, and bind the buffer to it's binding point.
+     */
+    public void upload() {
+        upload(0, this.size);
+    }
+
+    /**
+     * Upload a range of the data, and bind the buffer to it's binding point.
+     *
+     * @param offset Offset of the range in bytes.
+     * @param length Length of the range in bytes.
+     */
+    public void upload(int offset, int length) {
+        // Make sure uniform buffers are supported
+        if(!isSupported())
+            return;
+
+        // Create the buffer if it hasn't been created yet, the full data is uploaded in that case
+        if(this.handle == 0) {
+            this.handle = GL15.glGenBuffers();
+            GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, this.handle);
+            GL15.glBufferData(GL31.GL_UNIFORM_BUFFER, this.data, GL15.GL_DYNAMIC_DRAW);
+        } else {
+            // Upload the range
+            GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, this.handle);
+            this.data.limit(offset + length).position(offset);
+            GL15.glBufferSubData(GL31.GL_UNIFORM_BUFFER, offset, this.data);
+            this.data.clear();
+        }
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+
+        // Bind the buffer to it's binding point
+        bind();
+    }
+
+    /**
+     * Bind the buffer to it's binding point, so the programs using the uniform block read from it.
+     */
+    public void bind() {
+        if(this.handle != 0)
+            GL30.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, this.binding, this.handle);
+    }
+
+    /**
+     * Delete the buffer.
+     */
+    public void dispose() {
+        if(this.handle != 0) {
+            GL15.glDeleteBuffers(this.handle);
+            this.handle = 0;
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package com.timvisee.voxeltex.module.shader.raw;
 
+import com.timvisee.voxeltex.engine.render.RenderBackend;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
 
@@ -75,6 +76,10 @@ public class RawShader extends AbstractRawShader {
 
     @Override
     public int compile() {
+        // Don't compile anything with the null render backend, shaders without a program are never bound
+        if(RenderBackend.isNull())
+            return 0;
+
         // Show a status message
         System.out.print("Compiling shader... ");
 
@@ -22,8 +22,6 @@
 
 package com.timvisee.voxeltex.module.shader.specific;
 
-import com.timvisee.voxeltex.architecture.scene.AbstractScene;
-import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.shader.Shader;
 import com.timvisee.voxeltex.module.shader.raw.AbstractRawShader;
 import com.timvisee.voxeltex.module.shader.raw.EngineAssetsRawShader;
@@ -69,14 +67,4 @@ public class BitmapFontShader extends Shader {
     public BitmapFontShader(AbstractRawShader rawShader) {
         super(rawShader);
     }
-
-    @Override
-    public void update(AbstractScene scene, Material material) {
-        // Call the parent
-        super.update(scene, material);
-
-        // Send texture tiling data to the shader
-        if(material != null)
-            setUniform2f("tiling", material.getTiling());
-    }
 }
@@ -26,6 +26,7 @@ import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.shader.Shader;
+import com.timvisee.voxeltex.module.shader.Uniform;
 import com.timvisee.voxeltex.module.shader.raw.AbstractRawShader;
 import com.timvisee.voxeltex.module.shader.raw.EngineAssetsRawShader;
 
@@ -41,6 +42,11 @@ public class DefaultShader extends Shader {
      */
     private static final String SHADER_FRAGMENT_ASSET_PATH = "shaders/default.frag";
 
+    /**
+     * Handle of the color uniform.
+     */
+    private final Uniform colourUniform = getUniform("colour");
+
     /**
      * Constructor.
      */
@@ -72,6 +78,7 @@ public class DefaultShader extends Shader {
         super.update(scene, material);
 
         // Set the shader color
-        setUniform4f("colour", Color.ORANGE.toVector4f());
+        this.colourUniform.set(Color.ORANGE.getRed(), Color.ORANGE.getGreen(), Color.ORANGE.getBlue(),
+                Color.ORANGE.getAlpha());
     }
 }
@@ -26,10 +26,9 @@ import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.shader.Shader;
+import com.timvisee.voxeltex.module.shader.Uniform;
 import com.timvisee.voxeltex.module.shader.raw.AbstractRawShader;
 import com.timvisee.voxeltex.module.shader.raw.EngineAssetsRawShader;
-import com.timvisee.voxeltex.util.math.vector.Vector4fFactory;
-import org.joml.Vector4f;
 
 public class GuiTextureShader extends Shader {
 
@@ -49,10 +48,9 @@ public class GuiTextureShader extends Shader {
     private Color color = new Color(1, 1, 1, 1);
 
     /**
-     * Temporary vector, used while performing certain calculations.
-     * Using and recycling this temporary matrix minimizes object allocation, resulting in better performance.
+     * Handle of the texture tiling uniform.
      */
-    private final Vector4f tempVector4f = Vector4fFactory.identity();
+    private final Uniform tilingUniform = getUniform("tiling");
 
     /**
      * Constructor.
@@ -86,13 +84,10 @@ public class GuiTextureShader extends Shader {
 
         // Send texture tiling data to the shader
         if(material != null)
-            setUniform2f("tiling", material.getTiling());
+            this.tilingUniform.set(material.getTiling());
 
-        // Make sure we aren't using the temporary vector more than once at the same time
-        synchronized(this.tempVector4f) {
-            // Send the color channel intensity
-            setUniform4f("color", this.color.toVector4f(this.tempVector4f));
-        }
+        // Send the color channel intensity
+        getColorUniform().set(this.color.getRed(), this.color.getGreen(), this.color.getBlue(), this.color.getAlpha());
     }
 
     /**
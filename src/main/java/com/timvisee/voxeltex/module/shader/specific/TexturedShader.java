@@ -25,6 +25,7 @@ package com.timvisee.voxeltex.module.shader.specific;
 import com.timvisee.voxeltex.architecture.scene.AbstractScene;
 import com.timvisee.voxeltex.module.material.Material;
 import com.timvisee.voxeltex.module.shader.Shader;
+import com.timvisee.voxeltex.module.shader.Uniform;
 import com.timvisee.voxeltex.module.shader.raw.AbstractRawShader;
 import com.timvisee.voxeltex.module.shader.raw.EngineAssetsRawShader;
 
@@ -40,6 +41,11 @@ public class TexturedShader extends Shader {
      */
     private static final String SHADER_FRAGMENT_ASSET_PATH = "shaders/textured.frag";
 
+    /**
+     * Handle of the texture tiling uniform.
+     */
+    private final Uniform tilingUniform = getUniform("tiling");
+
     /**
      * Constructor.
      */
@@ -70,11 +76,8 @@ public class TexturedShader extends Shader {
         // Call the parent
         super.update(scene, material);
 
-        // Send the lighting data to the shader
-        scene.getLightManager().sendToShader(this);
-
-        // Send texture tiling data to the shader
+        // Send texture tiling data to the shader, the lights are read from the frame uniform buffer
         if(material != null)
-            setUniform2f("tiling", material.getTiling());
+            this.tilingUniform.set(material.getTiling());
     }
 }
@@ -23,14 +23,16 @@
 package com.timvisee.voxeltex.module.texture;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ImageTracker {
 
     /**
      * List of images managed by the engine.
+     * Synchronized, since images may be loaded on resource loader threads.
      */
-    private static List<Image> images = new ArrayList<>();
+    private static List<Image> images = Collections.synchronizedList(new ArrayList<>());
 
     /**
      * Add a new image to the tracker.
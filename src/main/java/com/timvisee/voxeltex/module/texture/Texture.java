@@ -22,6 +22,8 @@
 
 package com.timvisee.voxeltex.module.texture;
 
+import com.timvisee.voxeltex.engine.render.GpuUploadQueue;
+import com.timvisee.voxeltex.engine.render.RenderBackend;
 import com.timvisee.voxeltex.module.Color;
 import com.timvisee.voxeltex.util.BufferUtil;
 import org.lwjgl.opengl.GL13;
@@ -46,8 +48,9 @@ public class Texture {
 
     /**
      * Unique texture ID, for OpenGL.
+     * Zero until the texture is uploaded.
      */
-    private int id;
+    private int id = 0;
 
     /**
      * Texture width.
@@ -77,13 +80,36 @@ public class Texture {
      */
     private static int wrap = GL_REPEAT;
 
+    /**
+     * Texture data waiting to be uploaded, or null if there's nothing to upload.
+     */
+    private ByteBuffer pendingBuffer = null;
+
+    /**
+     * Number of components in the texture data waiting to be uploaded.
+     */
+    private int pendingComponents;
+
+    /**
+     * Filter option the pending texture data is uploaded with.
+     */
+    private int pendingFilter;
+
+    /**
+     * Wrap option the pending texture data is uploaded with.
+     */
+    private int pendingWrap;
+
+    /**
+     * Image the pending texture data belongs to, which is disposed after uploading, or null.
+     * It's set before the upload is queued, which publishes it to the rendering thread.
+     */
+    private Image pendingImage = null;
+
     /**
      * Constructor.
      */
     private Texture() {
-        // Assign a texture ID from OpenGL
-        this.id = glGenTextures();
-
         // Add the texture to the texture manager
         TextureTracker.trackTexture(this);
     }
@@ -136,11 +162,13 @@ public class Texture {
      * @return Texture.
      */
     public static Texture consumeImage(Image image) {
-        // Create the texture
-        Texture texture = fromImage(image);
+        // Create the texture, the image is disposed once the texture is uploaded
+        Texture texture = fromByteBuffer(image.getImage(), image.getWidth(), image.getHeight(), image.getComponents(),
+                image);
 
-        // Dispose/consume the image since we're done
-        image.dispose();
+        // Dispose/consume the image right away if nothing is uploaded
+        if(RenderBackend.isNull())
+            image.dispose();
 
         // Return the texture that was created
         return texture;
@@ -148,6 +176,8 @@ public class Texture {
 
     /**
      * Create a texture from a byte buffer.
+     * The texture is uploaded by the {@link GpuUploadQueue}, the buffer must stay valid until that happened. This may
+     * be called from any thread.
      *
      * @param buffer The byte buffer containing the texture data.
      * @param width Texture width.
@@ -157,30 +187,88 @@ public class Texture {
      * @return Texture.
      */
     public static Texture fromByteBuffer(ByteBuffer buffer, int width, int height, int components) {
-        // Create a new texture instance
+        return fromByteBuffer(buffer, width, height, components, null);
+    }
+
+    /**
+     * Create a texture from a byte buffer, and dispose the given image once the buffer is uploaded.
+     * The image is stored before the upload is queued, so the rendering thread can't upload the texture without
+     * disposing it.
+     *
+     * @param buffer The byte buffer containing the texture data.
+     * @param width Texture width.
+     * @param height Texture height.
+     * @param components Number of components in the texture buffer. Choose from COMPONENTS_RGBA or COMPONENTS_RGB.
+     * @param image Image the buffer belongs to, which is disposed after uploading, or null.
+     *
+     * @return Texture.
+     */
+    private static Texture fromByteBuffer(ByteBuffer buffer, int width, int height, int components, Image image) {
+        // Create a new texture instance, and set the width and height
         Texture texture = new Texture();
+        texture.width = width;
+        texture.height = height;
 
-        // Bind the texture
-        texture.bind(GL13.GL_TEXTURE0);
+        // Only keep the size with the null render backend, the texture data is never uploaded
+        if(RenderBackend.isNull())
+            return texture;
+
+        // Keep the texture data with the current options, and queue the upload
+        texture.pendingComponents = components;
+        texture.pendingFilter = filter;
+        texture.pendingWrap = wrap;
+        texture.pendingBuffer = buffer;
+        texture.pendingImage = image;
+        GpuUploadQueue.enqueue(texture::upload);
+
+        // Return the created texture
+        return texture;
+    }
+
+    /**
+     * Upload the pending texture data to the graphics card, if an upload is pending.
+     * This must be called from the rendering thread.
+     */
+    public void upload() {
+        // Take the pending buffer, and make sure there is anything to upload
+        final ByteBuffer buffer = this.pendingBuffer;
+        if(buffer == null)
+            return;
+        this.pendingBuffer = null;
+
+        // Assign a texture ID from OpenGL, and bind the texture
+        this.id = glGenTextures();
+        bind(GL13.GL_TEXTURE0);
 
         // Set the texture parameters
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, wrap);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, wrap);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, filter);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, filter);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, this.pendingWrap);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, this.pendingWrap);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, this.pendingFilter);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, this.pendingFilter);
 
         // Configure the texture and write the buffer to the texture
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, components == 4 ? GL_RGBA : GL_RGB, GL_UNSIGNED_BYTE, buffer);
+        final int format = this.pendingComponents == 4 ? GL_RGBA : GL_RGB;
+        final int width = (int) this.width;
+        final int height = (int) this.height;
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, format, GL_UNSIGNED_BYTE, buffer);
 
         // Done using the texture, unbind
         Texture.unbind();
 
-        // Set the width and height
-        texture.width = width;
-        texture.height = height;
+        // Dispose the consumed image now that its data is uploaded
+        if(this.pendingImage != null) {
+            this.pendingImage.dispose();
+            this.pendingImage = null;
+        }
+    }
 
-        // Return the created texture
-        return texture;
+    /**
+     * Check whether the texture data is still waiting to be uploaded to the graphics card.
+     *
+     * @return True if an upload is pending, false if not.
+     */
+    public boolean isUploadPending() {
+        return this.pendingBuffer != null;
     }
 
     /**
@@ -345,8 +433,15 @@ public class Texture {
      * This will free the memory used by this texture.
      */
     public void dispose() {
+        // Drop the data that is still waiting to be uploaded, and dispose the consumed image
+        this.pendingBuffer = null;
+        if(this.pendingImage != null) {
+            this.pendingImage.dispose();
+            this.pendingImage = null;
+        }
+
         // Remove the texture from OpenGL
-        if(glIsTexture(id))
+        if(this.id != 0 && glIsTexture(id))
             glDeleteTextures(id);
 
         // Remove the image from the texture manager
@@ -23,14 +23,16 @@
 package com.timvisee.voxeltex.module.texture;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TextureTracker {
 
     /**
      * List of textures managed by the engine.
+     * Synchronized, since textures may be created on resource loader threads.
      */
-    private static List<Texture> textures = new ArrayList<>();
+    private static List<Texture> textures = Collections.synchronizedList(new ArrayList<>());
 
     /**
      * Add a new texture to the tracker.
@@ -31,6 +31,33 @@ import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transform of a game object, defining it's position, rotation and scale relative to it's parent.
+ *
+ * The local and world matrices are cached. Changes are pushed: the setters, and the getters that hand out the mutable
+ * position, rotation and scale, mark the transform and all of it's descendants as dirty. A query on a clean transform
+ * is therefore a single flag check, and a dirty transform only rebuilds the part of the parent chain that is dirty.
+ * The getters that copy the position, rotation or scale into a destination only read, and don't mark anything dirty.
+ *
+ * When the transform is bound to a {@link TransformStore}, the store owns the state and this transform is a view on
+ * it's slot: the getters and setters read and write the packed arrays of the store directly. Only when a mutable
+ * object is handed out, the state of the slot is checked out into the objects of this transform, which then hold the
+ * state until the store checks it back in at the start of it's next update.
+ *
+ * Threading: a transform, like the rest of the scene graph, is confined to the engine thread that updates and draws
+ * the scene. No locking is done. All modifications, and the first query after a modification, must happen on the
+ * engine thread. The only exception is a parallel scene update, in which a worker thread may modify the transform of
+ * the game object it's updating. The listeners are then notified on the engine thread after the update, through the
+ * {@link TransformEventBuffer} of the worker.
+ *
+ * Querying a transform lazily rebuilds it's cached matrices, but a query on a transform that has been validated (see
+ * {@link #validate()}) and hasn't been modified afterwards does not write any state. Other threads may therefore read
+ * a transform after the engine thread has validated it and handed it over through a happens-before edge, such as
+ * submitting a task to an executor, as long as the engine thread doesn't modify it until those reads have finished.
+ */
 public class Transform {
 
     /**
@@ -40,6 +67,7 @@ public class Transform {
 
     /**
      * Game object position.
+     * If the transform is stored, this only holds the position while the state is checked out.
      */
     private final Vector3f position = Vector3fFactory.identity();
 
@@ -74,10 +102,69 @@ public class Transform {
     private final Vector3f angVel = new Vector3f();
 
     /**
-     * Temporary matrix, used while performing certain calculations.
-     * Using and recycling this temporary matrix minimizes object allocation, resulting in better performance.
+     * Cached transformation matrix in local space.
      */
-    private final Matrix4f tempMatrix = new Matrix4f();
+    private final Matrix4f localMatrix = new Matrix4f();
+
+    /**
+     * Cached transformation matrix in world space.
+     */
+    private final Matrix4f worldMatrix = new Matrix4f();
+
+    /**
+     * True if the cached local matrix must be rebuilt, because the local state has changed.
+     */
+    private boolean localDirty = true;
+
+    /**
+     * True if the cached world matrix must be rebuilt, because the local state or an ancestor has changed.
+     * If a transform is dirty, all of it's descendants are dirty as well.
+     */
+    private boolean worldDirty = true;
+
+    /**
+     * Version of the cached world matrix.
+     * Incremented each time the world matrix is rebuilt and actually changes, so other systems are able to detect
+     * that data they derived from it is stale.
+     */
+    private int worldVersion = 0;
+
+    /**
+     * Temporary world matrix, one instance for each thread, used to detect whether a rebuilt world matrix has changed.
+     */
+    private static final ThreadLocal<Matrix4f> tempWorldMatrix = ThreadLocal.withInitial(Matrix4f::new);
+
+    /**
+     * Defines whether this transform is static.
+     * Static transforms are never integrated, and may be treated as immovable by other systems.
+     */
+    private boolean staticHint = false;
+
+    /**
+     * The transform store this transform is bound to, or null if it isn't stored.
+     */
+    private TransformStore store = null;
+
+    /**
+     * The slot of this transform in it's store, or -1 if it isn't stored.
+     */
+    private int storeIndex = -1;
+
+    /**
+     * True if the state of the store slot is checked out into the objects of this transform, because a mutable
+     * object was handed out. The objects then hold the state, until the store checks it back in.
+     */
+    private boolean checkedOut = false;
+
+    /**
+     * Temporary rotation, one instance for each thread, used to read the rotation of a stored transform.
+     */
+    private static final ThreadLocal<Quaternionf> tempRotation = ThreadLocal.withInitial(Quaternionf::new);
+
+    /**
+     * Listeners that are notified when the world matrix is invalidated, or null if there are none.
+     */
+    private List<TransformListener> listeners = null;
 
     /**
      * Constructor.
@@ -117,7 +204,11 @@ public class Transform {
      * @return Local transformation matrix.
      */
     public Matrix4f getLocalMatrix(Matrix4f dest) {
-        return addLocalMatrix(dest.identity());
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Copy the cached local matrix
+        return dest.set(this.localMatrix);
     }
 
     /**
@@ -128,7 +219,11 @@ public class Transform {
      * @return Combined matrix.
      */
     public Matrix4f addLocalMatrix(Matrix4f matrix) {
-        return matrix.translate(this.position).rotate(this.rotation).scale(this.scale);
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Combine the given matrix with the cached local matrix
+        return matrix.mul(this.localMatrix);
     }
 
     /**
@@ -151,7 +246,11 @@ public class Transform {
      * @return World transformation matrix.
      */
     public Matrix4f getWorldMatrix(Matrix4f dest) {
-        return addLocalMatrix(getParentWorldMatrix(dest));
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Copy the cached world matrix
+        return dest.set(this.worldMatrix);
     }
 
     /**
@@ -162,10 +261,11 @@ public class Transform {
      * @return Combined matrix.
      */
     public Matrix4f addWorldMatrix(Matrix4f matrix) {
-        // Synchronize to ensure we aren't using the matrix cache multiple times at once
-        synchronized(tempMatrix) {
-            return matrix.mul(getWorldMatrix(tempMatrix));
-        }
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Combine the given matrix with the cached world matrix
+        return matrix.mul(this.worldMatrix);
     }
 
     /**
@@ -230,13 +330,31 @@ public class Transform {
 
     /**
      * Get the position of this game object in local space.
+     * The vector may be modified directly, the transform is therefore marked as changed.
+     * Use {@link #getPosition(Vector3f)} to only read the position.
      *
      * @return Game object local position.
      */
     public Vector3f getPosition() {
+        checkOut();
+        invalidateLocal();
         return this.position;
     }
 
+    /**
+     * Get the position of this game object in local space.
+     * The transform isn't marked as changed.
+     *
+     * @param dest Destination vector. (allocation free)
+     *
+     * @return Game object local position.
+     */
+    public Vector3f getPosition(Vector3f dest) {
+        if(isView())
+            return this.store.getVector(TransformStore.POSITION, this.storeIndex, dest);
+        return dest.set(this.position);
+    }
+
     /**
      * Get the position of this game object in world space.
      *
@@ -257,10 +375,11 @@ public class Transform {
      * @return Game object world position.
      */
     public Vector3f getWorldPosition(Vector3f dest) {
-        // Make sure we aren't using the matrix cache more than once at the same time
-        synchronized(tempMatrix) {
-            return getWorldMatrix(tempMatrix).getTranslation(dest);
-        }
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Get the translation from the cached world matrix
+        return this.worldMatrix.getTranslation(dest);
     }
 
     /**
@@ -299,7 +418,7 @@ public class Transform {
      * @param position Game object local position.
      */
     public void setPosition(Vector3f position) {
-        this.position.set(position);
+        setPosition(position.x, position.y, position.z);
     }
 
     /**
@@ -310,18 +429,40 @@ public class Transform {
      * @param z Z coordinate.
      */
     public void setPosition(float x, float y, float z) {
-        this.position.set(x, y, z);
+        if(isView())
+            this.store.setVector(TransformStore.POSITION, this.storeIndex, x, y, z);
+        else
+            this.position.set(x, y, z);
+        invalidateLocal();
     }
 
     /**
      * Get the rotation of the game object in local space.
+     * The quaternion may be modified directly, the transform is therefore marked as changed.
+     * Use {@link #getRotation(Quaternionf)} to only read the rotation.
      *
      * @return Game object local rotation.
      */
     public Quaternionf getRotation() {
+        checkOut();
+        invalidateLocal();
         return this.rotation;
     }
 
+    /**
+     * Get the rotation of the game object in local space.
+     * The transform isn't marked as changed.
+     *
+     * @param dest Destination quaternion. (allocation free)
+     *
+     * @return Game object local rotation.
+     */
+    public Quaternionf getRotation(Quaternionf dest) {
+        if(isView())
+            return this.store.getRotation(this.storeIndex, dest);
+        return dest.set(this.rotation);
+    }
+
     /**
      * Get the rotation of the game object in world space.
      *
@@ -342,10 +483,11 @@ public class Transform {
      * @return Game object world rotation.
      */
     public Quaternionf getWorldRotation(Quaternionf dest) {
-        // Make sure we aren't using the matrix cache more than once at the same time
-        synchronized(tempMatrix) {
-            return getWorldMatrix(tempMatrix).getUnnormalizedRotation(dest);
-        }
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Get the rotation from the cached world matrix
+        return this.worldMatrix.getUnnormalizedRotation(dest);
     }
 
     /**
@@ -385,18 +527,41 @@ public class Transform {
      */
     public void setRotation(Quaternionf rotation) {
         // Set the rotation and normalize to prevent weird rotation glitches on non-normalized quaternions
-        this.rotation.set(rotation).normalize();
+        if(isView()) {
+            final Quaternionf normalized = tempRotation.get().set(rotation).normalize();
+            this.store.setRotation(this.storeIndex, normalized.x, normalized.y, normalized.z, normalized.w);
+        } else
+            this.rotation.set(rotation).normalize();
+        invalidateLocal();
     }
 
     /**
      * Get the scale of the game object in local space.
+     * The vector may be modified directly, the transform is therefore marked as changed.
+     * Use {@link #getScale(Vector3f)} to only read the scale.
      *
      * @return Game object local scale.
      */
     public Vector3f getScale() {
+        checkOut();
+        invalidateLocal();
         return this.scale;
     }
 
+    /**
+     * Get the scale of the game object in local space.
+     * The transform isn't marked as changed.
+     *
+     * @param dest Destination vector. (allocation free)
+     *
+     * @return Game object local scale.
+     */
+    public Vector3f getScale(Vector3f dest) {
+        if(isView())
+            return this.store.getVector(TransformStore.SCALE, this.storeIndex, dest);
+        return dest.set(this.scale);
+    }
+
     /**
      * Get the scale of the game object in world space.
      *
@@ -417,10 +582,11 @@ public class Transform {
      * @return Game object world scale.
      */
     public Vector3f getWorldScale(Vector3f dest) {
-        // Make sure we aren't using the matrix cache more than once at the same time
-        synchronized(tempMatrix) {
-            return getWorldMatrix(tempMatrix).getScale(dest);
-        }
+        // Make sure the cached matrices are up to date
+        validate();
+
+        // Get the scale from the cached world matrix
+        return this.worldMatrix.getScale(dest);
     }
 
     /**
@@ -459,7 +625,7 @@ public class Transform {
      * @param scale Game object local local.
      */
     public void setScale(Vector3f scale) {
-        this.scale.set(scale);
+        setScale(scale.x, scale.y, scale.z);
     }
 
     /**
@@ -470,7 +636,11 @@ public class Transform {
      * @param z Scale on the Z axis.
      */
     public void setScale(float x, float y, float z) {
-        this.scale.set(x, y, z);
+        if(isView())
+            this.store.setVector(TransformStore.SCALE, this.storeIndex, x, y, z);
+        else
+            this.scale.set(x, y, z);
+        invalidateLocal();
     }
 
     /**
@@ -493,7 +663,7 @@ public class Transform {
      * @return Destination.
      */
     public Vector3f forward(Vector3f dest) {
-        return this.rotation.positiveZ(dest).negate();
+        return getLocalRotation().positiveZ(dest).negate();
     }
 
     /**
@@ -516,7 +686,7 @@ public class Transform {
      * @return Destination.
      */
     public Vector3f right(Vector3f dest) {
-        return this.rotation.positiveX(dest);
+        return getLocalRotation().positiveX(dest);
     }
 
     /**
@@ -539,7 +709,7 @@ public class Transform {
      * @return Destination.
      */
     public Vector3f up(Vector3f dest) {
-        return this.rotation.positiveY(dest);
+        return getLocalRotation().positiveY(dest);
     }
 
     /**
@@ -548,7 +718,8 @@ public class Transform {
      * @return Linear acceleration.
      */
     public Vector3f getLinearAcceleration() {
-        return linAcc;
+        checkOut();
+        return this.linAcc;
     }
 
     /**
@@ -557,7 +728,10 @@ public class Transform {
      * @param linAcc Linear acceleration.
      */
     public void setLinearAcceleration(Vector3f linAcc) {
-        this.linAcc.set(linAcc);
+        if(isView())
+            this.store.setVector(TransformStore.LIN_ACC, this.storeIndex, linAcc.x, linAcc.y, linAcc.z);
+        else
+            this.linAcc.set(linAcc);
     }
 
     /**
@@ -566,6 +740,7 @@ public class Transform {
      * @return Set the linear velocity.
      */
     public Vector3f getLinearVelocity() {
+        checkOut();
         return this.linVel;
     }
 
@@ -575,7 +750,10 @@ public class Transform {
      * @param linVel Linear velocity.
      */
     public void setLinearVelocity(Vector3f linVel) {
-        this.linVel.set(linVel);
+        if(isView())
+            this.store.setVector(TransformStore.LIN_VEL, this.storeIndex, linVel.x, linVel.y, linVel.z);
+        else
+            this.linVel.set(linVel);
     }
 
     /**
@@ -584,6 +762,7 @@ public class Transform {
      * @return Angular acceleration.
      */
     public Vector3f getAngularAcceleration() {
+        checkOut();
         return this.angAcc;
     }
 
@@ -593,7 +772,10 @@ public class Transform {
      * @param angAcc Angular acceleration.
      */
     public void setAngularAcceleration(Vector3f angAcc) {
-        this.angAcc.set(angAcc);
+        if(isView())
+            this.store.setVector(TransformStore.ANG_ACC, this.storeIndex, angAcc.x, angAcc.y, angAcc.z);
+        else
+            this.angAcc.set(angAcc);
     }
 
     /**
@@ -602,6 +784,7 @@ public class Transform {
      * @return Angular velocity.
      */
     public Vector3f getAngularVelocity() {
+        checkOut();
         return this.angVel;
     }
 
@@ -611,13 +794,414 @@ public class Transform {
      * @param angVel Angular velocity.
      */
     public void setAngularVelocity(Vector3f angVel) {
-        this.angVel.set(angVel);
+        if(isView())
+            this.store.setVector(TransformStore.ANG_VEL, this.storeIndex, angVel.x, angVel.y, angVel.z);
+        else
+            this.angVel.set(angVel);
+    }
+
+    /**
+     * Check whether this transform is marked as static.
+     *
+     * @return True if static, false if not.
+     */
+    public boolean isStatic() {
+        return this.staticHint;
+    }
+
+    /**
+     * Set whether this transform is static.
+     *
+     * A static transform is never integrated, regardless of it's velocities and accelerations. Other systems, such as
+     * physics, may treat the game object as immovable. The position, rotation and scale may still be set explicitly.
+     *
+     * @param staticHint True if static, false if not.
+     */
+    public void setStatic(boolean staticHint) {
+        this.staticHint = staticHint;
+        if(this.store != null)
+            this.store.markActiveDirty();
+    }
+
+    /**
+     * Check whether this transform would move when integrated.
+     * This is the case if it isn't static, and has a non-zero linear or angular velocity or acceleration.
+     *
+     * @return True if moving, false if not.
+     */
+    public boolean isMoving() {
+        // Static transforms never move
+        if(this.staticHint)
+            return false;
+
+        // Check the motion state of the store slot, or of this transform
+        if(isView())
+            return this.store.isMoving(this.storeIndex);
+        return !isZero(this.linVel) || !isZero(this.angVel) || !isZero(this.linAcc) || !isZero(this.angAcc);
+    }
+
+    /**
+     * Check whether all components of the given vector are zero.
+     *
+     * @param vector Vector.
+     *
+     * @return True if zero, false if not.
+     */
+    private static boolean isZero(Vector3f vector) {
+        return vector.x == 0f && vector.y == 0f && vector.z == 0f;
+    }
+
+    /**
+     * Get the world matrix version.
+     * This version is incremented each time the cached world matrix of this transform is rebuilt and has changed.
+     *
+     * @return World matrix version.
+     */
+    public int getWorldVersion() {
+        validate();
+        return this.worldVersion;
+    }
+
+    /**
+     * Mark the cached matrices of this transform as dirty, forcing them to be rebuilt on the next query.
+     * The cached world matrices of all descendants are marked as dirty as well.
+     */
+    public void markDirty() {
+        invalidateLocal();
+    }
+
+    /**
+     * Add a listener, that is notified when the world matrix of this transform is invalidated.
+     *
+     * @param listener Listener.
+     */
+    public void addListener(TransformListener listener) {
+        if(this.listeners == null)
+            this.listeners = new ArrayList<>(1);
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener Listener.
+     *
+     * @return True if the listener was removed, false if it wasn't added.
+     */
+    public boolean removeListener(TransformListener listener) {
+        return this.listeners != null && this.listeners.remove(listener);
+    }
+
+    /**
+     * Called when the parent of the owner has changed.
+     * The world matrix of this transform and all it's descendants must be rebuilt.
+     */
+    public void onParentChanged() {
+        invalidateWorld();
+        if(this.store != null)
+            this.store.markOrderDirty();
+    }
+
+    /**
+     * Called when the enabled state of the owner has changed.
+     * A store only integrates transforms of game objects that are enabled in the hierarchy.
+     */
+    public void onEnabledChanged() {
+        if(this.store != null)
+            this.store.markActiveDirty();
+    }
+
+    /**
+     * Check whether the cached world matrix of this transform must be rebuilt.
+     *
+     * @return True if dirty, false if the cached matrices are up to date.
+     */
+    boolean isWorldDirty() {
+        return this.worldDirty;
+    }
+
+    /**
+     * Mark the local state of this transform as changed.
+     * The cached local matrix is rebuilt on the next query, and the world matrices of this transform and all it's
+     * descendants are invalidated.
+     */
+    private void invalidateLocal() {
+        this.localDirty = true;
+        invalidateWorld();
+    }
+
+    /**
+     * Mark the cached world matrix of this transform and all it's descendants as dirty.
+     * Descendants of a dirty transform are always dirty as well, so the propagation stops at transforms that are dirty
+     * already.
+     */
+    private void invalidateWorld() {
+        // Stop if this transform, and thus all of it's descendants, are dirty already
+        if(this.worldDirty)
+            return;
+        this.worldDirty = true;
+
+        // Let the store know the matrices of this slot must be rebuilt
+        if(this.store != null)
+            this.store.markChanged(this.storeIndex);
+
+        // Notify the listeners, or record the event if it's raised on a worker thread
+        if(this.listeners != null) {
+            final TransformEventBuffer buffer = TransformEventBuffer.getCurrent();
+            if(buffer != null)
+                buffer.addInvalidated(this);
+            else
+                notifyListeners();
+        }
+
+        // Invalidate the children
+        if(this.owner == null)
+            return;
+        final List<AbstractGameObject> children = this.owner.getChildren();
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = children.size(); i < size; i++)
+            children.get(i).getTransform().invalidateWorld();
+    }
+
+    /**
+     * Notify the listeners that the world matrix of this transform was invalidated.
+     */
+    void notifyListeners() {
+        if(this.listeners == null)
+            return;
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.listeners.size(); i < size; i++)
+            this.listeners.get(i).onWorldInvalidated(this);
+    }
+
+    /**
+     * Check whether this transform is bound to a transform store.
+     * Stored transforms are integrated by their store, instead of by {@link #update()}.
+     *
+     * @return True if stored, false if not.
+     */
+    public boolean isStored() {
+        return this.store != null;
+    }
+
+    /**
+     * Get the transform store this transform is bound to.
+     *
+     * @return Transform store, or null if it isn't stored.
+     */
+    public TransformStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * Get the slot of this transform in it's store.
+     *
+     * @return Store slot, or -1 if it isn't stored.
+     */
+    int getStoreIndex() {
+        return this.storeIndex;
+    }
+
+    /**
+     * Bind this transform to the given store slot.
+     * Unbinding the transform doesn't copy it's state, see {@link #loadFromStore()}.
+     *
+     * @param store Transform store, or null to unbind.
+     * @param storeIndex Store slot, or -1 to unbind.
+     */
+    void setStore(TransformStore store, int storeIndex) {
+        this.store = store;
+        this.storeIndex = storeIndex;
+        if(store == null)
+            this.checkedOut = false;
+    }
+
+    /**
+     * Check whether this transform reads and writes it's state directly in the slot of it's store.
+     * This is the case if it's stored, and the state isn't checked out.
+     *
+     * @return True if this transform is a view on it's store slot, false if it holds it's own state.
+     */
+    private boolean isView() {
+        return this.store != null && !this.checkedOut;
+    }
+
+    /**
+     * Check whether the state of the store slot is checked out into the objects of this transform.
+     *
+     * @return True if checked out, false if not.
+     */
+    boolean isCheckedOut() {
+        return this.checkedOut;
+    }
+
+    /**
+     * Check out the state of the store slot into the objects of this transform, because a mutable object is handed
+     * out. Nothing is done if the transform isn't stored, or if the state is checked out already.
+     */
+    private void checkOut() {
+        // Copy the state of the slot
+        if(!isView())
+            return;
+        loadFromStore();
+        this.checkedOut = true;
+
+        // Let the store know, or record it if this happens on a worker thread
+        final TransformEventBuffer buffer = TransformEventBuffer.getCurrent();
+        if(buffer != null)
+            buffer.addCheckedOut(this);
+        else
+            this.store.markCheckedOut(this.storeIndex);
+    }
+
+    /**
+     * Let the store know the state of the slot is checked out, after the check out was recorded on a worker thread.
+     */
+    void reportCheckedOut() {
+        if(this.store != null && this.checkedOut)
+            this.store.markCheckedOut(this.storeIndex);
+    }
+
+    /**
+     * Write the checked out state back into the store slot, after which the store holds the state again.
+     */
+    void checkIn() {
+        saveToStore();
+        this.checkedOut = false;
+    }
+
+    /**
+     * Copy the state of the store slot into the objects of this transform.
+     */
+    void loadFromStore() {
+        final int slot = this.storeIndex;
+        this.store.getVector(TransformStore.POSITION, slot, this.position);
+        this.store.getRotation(slot, this.rotation);
+        this.store.getVector(TransformStore.SCALE, slot, this.scale);
+        this.store.getVector(TransformStore.LIN_ACC, slot, this.linAcc);
+        this.store.getVector(TransformStore.LIN_VEL, slot, this.linVel);
+        this.store.getVector(TransformStore.ANG_ACC, slot, this.angAcc);
+        this.store.getVector(TransformStore.ANG_VEL, slot, this.angVel);
+    }
+
+    /**
+     * Copy the state in the objects of this transform into the store slot.
+     */
+    void saveToStore() {
+        final int slot = this.storeIndex;
+        this.store.setVector(TransformStore.POSITION, slot, this.position.x, this.position.y, this.position.z);
+        this.store.setRotation(slot, this.rotation.x, this.rotation.y, this.rotation.z, this.rotation.w);
+        this.store.setVector(TransformStore.SCALE, slot, this.scale.x, this.scale.y, this.scale.z);
+        this.store.setVector(TransformStore.LIN_ACC, slot, this.linAcc.x, this.linAcc.y, this.linAcc.z);
+        this.store.setVector(TransformStore.LIN_VEL, slot, this.linVel.x, this.linVel.y, this.linVel.z);
+        this.store.setVector(TransformStore.ANG_ACC, slot, this.angAcc.x, this.angAcc.y, this.angAcc.z);
+        this.store.setVector(TransformStore.ANG_VEL, slot, this.angVel.x, this.angVel.y, this.angVel.z);
+    }
+
+    /**
+     * Get the local rotation for reading, without checking out the state of a stored transform.
+     * The returned quaternion must not be modified.
+     *
+     * @return Local rotation.
+     */
+    private Quaternionf getLocalRotation() {
+        if(isView())
+            return this.store.getRotation(this.storeIndex, tempRotation.get());
+        return this.rotation;
+    }
+
+    /**
+     * Replace the cached matrices with matrices that were built by a transform store.
+     *
+     * @param local Packed local matrices, in column major order.
+     * @param world Packed world matrices, in column major order.
+     * @param offset Offset of the matrices of this transform.
+     */
+    void setCachedMatrices(float[] local, float[] world, int offset) {
+        // Copy the matrices
+        set(this.localMatrix, local, offset);
+        final Matrix4f newWorld = set(tempWorldMatrix.get(), world, offset);
+
+        // Store the world matrix, and bump the version if it has changed
+        applyWorldMatrix(newWorld);
+        this.localDirty = false;
+    }
+
+    /**
+     * Set a matrix from a packed column major array.
+     *
+     * @param dest Destination matrix.
+     * @param src Source array.
+     * @param o Source offset.
+     *
+     * @return Destination matrix.
+     */
+    private static Matrix4f set(Matrix4f dest, float[] src, int o) {
+        return dest.set(src[o], src[o + 1], src[o + 2], src[o + 3],
+                src[o + 4], src[o + 5], src[o + 6], src[o + 7],
+                src[o + 8], src[o + 9], src[o + 10], src[o + 11],
+                src[o + 12], src[o + 13], src[o + 14], src[o + 15]);
+    }
+
+    /**
+     * Make sure the cached local and world matrices are up to date, and rebuild them if they aren't.
+     * This is a single flag check if the transform is clean. Otherwise, only the dirty part of the parent chain is
+     * rebuilt.
+     *
+     * This is called automatically by all matrix and world space queries, but may be called explicitly on the engine
+     * thread before handing the transform over to other threads for reading.
+     */
+    public void validate() {
+        // Nothing has to be done if the world matrix is up to date
+        if(!this.worldDirty)
+            return;
+
+        // Rebuild the local matrix if the local state has changed
+        if(this.localDirty) {
+            if(isView())
+                this.store.buildLocalMatrix(this.storeIndex, this.localMatrix);
+            else
+                this.localMatrix.identity().translate(this.position).rotate(this.rotation).scale(this.scale);
+            this.localDirty = false;
+        }
+
+        // Combine the parent world matrix with the local matrix, validate the parent first
+        final Matrix4f newWorld = tempWorldMatrix.get();
+        if(this.owner != null && this.owner.hasParent()) {
+            final Transform parent = this.owner.getParent().getTransform();
+            parent.validate();
+            parent.worldMatrix.mul(this.localMatrix, newWorld);
+        } else
+            newWorld.set(this.localMatrix);
+
+        // Store the world matrix
+        applyWorldMatrix(newWorld);
+    }
+
+    /**
+     * Store a rebuilt world matrix, and mark the world matrix as clean.
+     * The world version is only bumped if the matrix has actually changed.
+     *
+     * @param newWorld Rebuilt world matrix.
+     */
+    private void applyWorldMatrix(Matrix4f newWorld) {
+        if(!newWorld.equals(this.worldMatrix)) {
+            this.worldMatrix.set(newWorld);
+            this.worldVersion++;
+        }
+        this.worldDirty = false;
     }
 
     /**
      * Update the transform.
+     * Nothing is done if the transform is stored, because it's store integrates all of it's transforms at once.
+     * Nothing is done for transforms that aren't moving either.
      */
-    public synchronized void update() {
+    public void update() {
+        // Stored transforms are integrated by their store, and static transforms are skipped
+        if(this.store != null || !isMoving())
+            return;
+
         // Update linear velocity based on linear acceleration
         linVel.fma(Time.deltaTimeFloat, this.linAcc);
 
@@ -629,5 +1213,8 @@ public class Transform {
 
         // Update position based on linear velocity
         this.position.fma(Time.deltaTimeFloat, this.linVel);
+
+        // The local state has changed
+        invalidateLocal();
     }
 }
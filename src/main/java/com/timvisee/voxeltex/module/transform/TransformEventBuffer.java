@@ -0,0 +1,121 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.transform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer of transform events that are raised on a worker thread during a parallel scene update.
+ *
+ * Listeners of a transform may touch state that is shared by the whole scene, such as the culling hierarchy, and so
+ * does checking out a stored transform. While a buffer is entered on a thread, the transforms that are invalidated or
+ * checked out on that thread are recorded instead of notifying their listeners or their store. Each worker thread has
+ * it's own buffer, so recording doesn't need any locking. The engine thread flushes the buffers after all workers
+ * have finished, which notifies the listeners and stores on the engine thread.
+ */
+public class TransformEventBuffer {
+
+    /**
+     * The buffer that is entered on each thread, or null if events aren't buffered on the thread.
+     */
+    private static final ThreadLocal<TransformEventBuffer> current = new ThreadLocal<>();
+
+    /**
+     * Transforms that were invalidated while this buffer was entered.
+     */
+    private final List<Transform> invalidated = new ArrayList<>();
+
+    /**
+     * Stored transforms that were checked out while this buffer was entered.
+     */
+    private final List<Transform> checkedOut = new ArrayList<>();
+
+    /**
+     * Enter this buffer on the current thread, so the events raised on it are recorded in this buffer.
+     *
+     * @return The buffer that was entered before, which must be passed to {@link #leave(TransformEventBuffer)}.
+     */
+    public TransformEventBuffer enter() {
+        final TransformEventBuffer previous = current.get();
+        current.set(this);
+        return previous;
+    }
+
+    /**
+     * Leave the buffer that is entered on the current thread, and enter the previous buffer again.
+     *
+     * @param previous The buffer that was returned by {@link #enter()}, or null.
+     */
+    public static void leave(TransformEventBuffer previous) {
+        if(previous != null)
+            current.set(previous);
+        else
+            current.remove();
+    }
+
+    /**
+     * Get the buffer that is entered on the current thread.
+     *
+     * @return Entered buffer, or null if events are raised directly on this thread.
+     */
+    static TransformEventBuffer getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Record that the world matrix of the given transform was invalidated.
+     *
+     * @param transform Invalidated transform.
+     */
+    void addInvalidated(Transform transform) {
+        this.invalidated.add(transform);
+    }
+
+    /**
+     * Record that the given stored transform was checked out.
+     *
+     * @param transform Checked out transform.
+     */
+    void addCheckedOut(Transform transform) {
+        this.checkedOut.add(transform);
+    }
+
+    /**
+     * Raise all recorded events, and clear the buffer.
+     * This must be called on the engine thread, after the thread that recorded the events has finished.
+     */
+    public void flush() {
+        // Notify the listeners of invalidated transforms
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.invalidated.size(); i < size; i++)
+            this.invalidated.get(i).notifyListeners();
+        this.invalidated.clear();
+
+        // Report the checked out transforms to their store
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = this.checkedOut.size(); i < size; i++)
+            this.checkedOut.get(i).reportCheckedOut();
+        this.checkedOut.clear();
+    }
+}
@@ -0,0 +1,797 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.module.transform;
+
+import com.timvisee.voxeltex.architecture.gameobject.AbstractGameObject;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Scene wide transform store, packing the transform state of all game objects in a scene into contiguous primitive
+ * float arrays indexed by slot.
+ *
+ * The store owns the state of the transforms that are added to it, each transform becomes a view on it's slot. The
+ * store integrates the velocities and accelerations of all transforms, and propagates their local and world matrices,
+ * as linear loops over the packed arrays in {@link #update(float)}. The resulting matrices are written into the caches
+ * of the transforms that have changed, so queries on the transforms don't have to rebuild anything.
+ *
+ * When game code requests one of the mutable JOML objects of a stored transform, the state of it's slot is checked
+ * out into the objects of the transform. The store checks these slots back in at the start of the next update, so
+ * only slots that were actually handed out are copied. Reading the state through the getters that take a destination
+ * never checks a slot out.
+ *
+ * Like transforms themselves, the store is confined to the engine thread. Transforms may however be marked as changed
+ * during a parallel scene update, which only writes the flag of their own slot. Transforms that are checked out on a
+ * worker thread are recorded in the {@link TransformEventBuffer} of the worker, and only reported to the store on the
+ * engine thread.
+ */
+public class TransformStore {
+
+    /**
+     * Vector field of the local position.
+     */
+    static final int POSITION = 0;
+
+    /**
+     * Vector field of the local scale.
+     */
+    static final int SCALE = 1;
+
+    /**
+     * Vector field of the linear acceleration.
+     */
+    static final int LIN_ACC = 2;
+
+    /**
+     * Vector field of the linear velocity.
+     */
+    static final int LIN_VEL = 3;
+
+    /**
+     * Vector field of the angular acceleration.
+     */
+    static final int ANG_ACC = 4;
+
+    /**
+     * Vector field of the angular velocity.
+     */
+    static final int ANG_VEL = 5;
+
+    /**
+     * Initial number of slots to allocate.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Number of floats for a three component vector.
+     */
+    private static final int VEC3 = 3;
+
+    /**
+     * Number of floats for a quaternion.
+     */
+    private static final int QUAT = 4;
+
+    /**
+     * Number of floats for a 4x4 matrix.
+     */
+    private static final int MAT4 = 16;
+
+    /**
+     * Transform bound to each slot.
+     */
+    private Transform[] transforms = new Transform[INITIAL_CAPACITY];
+
+    /**
+     * Slot of the parent transform for each slot, or -1 if the parent isn't stored or if there is no parent.
+     */
+    private int[] parents = new int[INITIAL_CAPACITY];
+
+    /**
+     * Slots ordered so that parents always come before their children.
+     */
+    private int[] order = new int[INITIAL_CAPACITY];
+
+    /**
+     * Depth of each slot in the hierarchy, used to build the slot order.
+     */
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Defines whether each slot is enabled, which is the case if it's game object and all it's ancestors are enabled.
+     */
+    private boolean[] enabled = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Defines whether each slot is active, which is the case if it's enabled and not static.
+     */
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Defines whether the matrices of each slot must be rebuilt.
+     * Set by the transforms when they're invalidated, and reset when the matrices are propagated.
+     */
+    private boolean[] changed = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Defines whether the state of each slot is checked out into the objects of it's transform.
+     */
+    private boolean[] checkedOut = new boolean[INITIAL_CAPACITY];
+
+    /**
+     * Packed local positions.
+     */
+    private float[] position = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed local rotations.
+     */
+    private float[] rotation = new float[INITIAL_CAPACITY * QUAT];
+
+    /**
+     * Packed local scales.
+     */
+    private float[] scale = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed linear accelerations.
+     */
+    private float[] linAcc = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed linear velocities.
+     */
+    private float[] linVel = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed angular accelerations.
+     */
+    private float[] angAcc = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed angular velocities.
+     */
+    private float[] angVel = new float[INITIAL_CAPACITY * VEC3];
+
+    /**
+     * Packed local matrices, in column major order.
+     */
+    private float[] local = new float[INITIAL_CAPACITY * MAT4];
+
+    /**
+     * Packed world matrices, in column major order.
+     */
+    private float[] world = new float[INITIAL_CAPACITY * MAT4];
+
+    /**
+     * Number of used slots.
+     */
+    private int size = 0;
+
+    /**
+     * True if the slot order must be rebuilt, because transforms were added, removed or reparented.
+     */
+    private boolean orderDirty = false;
+
+    /**
+     * True if the enabled and active state of the slots must be rebuilt.
+     */
+    private boolean activeDirty = false;
+
+    /**
+     * True if any slot may be checked out.
+     */
+    private boolean anyCheckedOut = false;
+
+    /**
+     * Temporary quaternion, used for rotation integration.
+     */
+    private final Quaternionf tempRotation = new Quaternionf();
+
+    /**
+     * Temporary matrix, used to read the world matrix of parents that aren't stored.
+     */
+    private final Matrix4f tempMatrix = new Matrix4f();
+
+    /**
+     * Temporary packed matrix, used to read the world matrix of parents that aren't stored.
+     */
+    private final float[] tempParentWorld = new float[MAT4];
+
+    /**
+     * Get the number of transforms in this store.
+     *
+     * @return Number of transforms.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add the given transform to the store.
+     * The state of the transform is moved into the store. Nothing is done if the transform is already in this store.
+     *
+     * @param transform Transform to add.
+     */
+    public void add(Transform transform) {
+        // Make sure the transform isn't stored already
+        if(transform.getStore() == this)
+            return;
+
+        // Make sure the transform isn't stored in a different store
+        if(transform.getStore() != null)
+            throw new RuntimeException("Transform is already bound to a different transform store.");
+
+        // Grow the arrays if they're full
+        if(this.size == this.transforms.length)
+            grow(this.transforms.length * 2);
+
+        // Bind the transform to the next free slot, and move it's state into the slot
+        int slot = this.size++;
+        this.transforms[slot] = transform;
+        this.parents[slot] = -1;
+        this.checkedOut[slot] = false;
+        transform.setStore(this, slot);
+        transform.saveToStore();
+
+        // Build the matrices of the slot, and rebuild the order
+        transform.markDirty();
+        this.changed[slot] = true;
+        this.orderDirty = true;
+        this.activeDirty = true;
+    }
+
+    /**
+     * Add the transform of the given game object and all it's children to the store, recursively.
+     *
+     * @param gameObject Game object.
+     */
+    public void addAll(AbstractGameObject gameObject) {
+        // Add the transform of the game object itself
+        add(gameObject.getTransform());
+
+        // Add all children
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = gameObject.getChildren().size(); i < size; i++)
+            addAll(gameObject.getChildren().get(i));
+    }
+
+    /**
+     * Remove the given transform from the store.
+     * The state of the slot is moved back into the transform. The last slot is moved into the freed slot, so the
+     * packed arrays stay contiguous.
+     *
+     * @param transform Transform to remove.
+     */
+    public void remove(Transform transform) {
+        // Make sure the transform is stored in this store
+        if(transform.getStore() != this)
+            return;
+
+        // Get the slot of the transform, move it's state back into the transform and unbind it
+        int slot = transform.getStoreIndex();
+        if(!transform.isCheckedOut())
+            transform.loadFromStore();
+        transform.setStore(null, -1);
+
+        // Move the last slot into the freed slot
+        int last = --this.size;
+        if(slot != last) {
+            this.transforms[slot] = this.transforms[last];
+            this.transforms[slot].setStore(this, slot);
+            this.changed[slot] = this.changed[last];
+            this.checkedOut[slot] = this.checkedOut[last];
+            System.arraycopy(this.position, last * VEC3, this.position, slot * VEC3, VEC3);
+            System.arraycopy(this.rotation, last * QUAT, this.rotation, slot * QUAT, QUAT);
+            System.arraycopy(this.scale, last * VEC3, this.scale, slot * VEC3, VEC3);
+            System.arraycopy(this.linAcc, last * VEC3, this.linAcc, slot * VEC3, VEC3);
+            System.arraycopy(this.linVel, last * VEC3, this.linVel, slot * VEC3, VEC3);
+            System.arraycopy(this.angAcc, last * VEC3, this.angAcc, slot * VEC3, VEC3);
+            System.arraycopy(this.angVel, last * VEC3, this.angVel, slot * VEC3, VEC3);
+            System.arraycopy(this.local, last * MAT4, this.local, slot * MAT4, MAT4);
+            System.arraycopy(this.world, last * MAT4, this.world, slot * MAT4, MAT4);
+        }
+        this.transforms[last] = null;
+
+        // The order must be rebuilt
+        this.orderDirty = true;
+        this.activeDirty = true;
+    }
+
+    /**
+     * Remove the transform of the given game object and all it's children from the store, recursively.
+     *
+     * @param gameObject Game object.
+     */
+    public void removeAll(AbstractGameObject gameObject) {
+        // Remove the transform of the game object itself
+        remove(gameObject.getTransform());
+
+        // Remove all children
+        //noinspection ForLoopReplaceableByForEach
+        for(int i = 0, size = gameObject.getChildren().size(); i < size; i++)
+            removeAll(gameObject.getChildren().get(i));
+    }
+
+    /**
+     * Remove all transforms from the store, and move their state back into the transforms.
+     */
+    public void clear() {
+        // Move the state back into all transforms, and unbind them
+        for(int i = 0; i < this.size; i++) {
+            if(!this.transforms[i].isCheckedOut())
+                this.transforms[i].loadFromStore();
+            this.transforms[i].setStore(null, -1);
+            this.transforms[i] = null;
+        }
+
+        // Reset the size
+        this.size = 0;
+        this.orderDirty = false;
+        this.activeDirty = false;
+        this.anyCheckedOut = false;
+    }
+
+    /**
+     * Update all transforms in the store.
+     * This integrates velocities and accelerations of all active transforms, and propagates the local and world
+     * matrices of all transforms that have changed.
+     *
+     * @param deltaTime Time since the last update in seconds.
+     */
+    public void update(float deltaTime) {
+        // Check the state of slots that were handed out back in
+        if(this.anyCheckedOut)
+            checkIn();
+
+        // Rebuild the slot order if the hierarchy has changed, and the active state if anything was toggled
+        if(this.orderDirty)
+            buildOrder();
+        if(this.activeDirty)
+            buildActive();
+
+        // Integrate, and propagate the matrices
+        integrate(deltaTime);
+        propagate();
+    }
+
+    /**
+     * Check the state of all checked out slots back in, so the store holds their state again.
+     */
+    private void checkIn() {
+        for(int i = 0; i < this.size; i++) {
+            if(this.checkedOut[i]) {
+                this.transforms[i].checkIn();
+                this.checkedOut[i] = false;
+            }
+        }
+        this.anyCheckedOut = false;
+    }
+
+    /**
+     * Resolve the parent slots, and order all slots by their depth in the hierarchy, so parents are always processed
+     * before their children.
+     */
+    private void buildOrder() {
+        // Resolve the parent slots
+        for(int i = 0; i < this.size; i++) {
+            final Transform parent = getParentTransform(this.transforms[i]);
+            this.parents[i] = parent != null && parent.getStore() == this ? parent.getStoreIndex() : -1;
+        }
+
+        // Determine the depth of each slot, and the maximum depth
+        int maxDepth = 0;
+        for(int i = 0; i < this.size; i++) {
+            int depth = 0;
+            for(int parent = this.parents[i]; parent >= 0; parent = this.parents[parent])
+                depth++;
+            this.depths[i] = depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        // Count the slots for each depth, and sort them into the order array
+        int[] offsets = new int[maxDepth + 2];
+        for(int i = 0; i < this.size; i++)
+            offsets[this.depths[i] + 1]++;
+        for(int d = 1; d < offsets.length; d++)
+            offsets[d] += offsets[d - 1];
+        for(int i = 0; i < this.size; i++)
+            this.order[offsets[this.depths[i]]++] = i;
+
+        // Reset the dirty flag, the enabled state depends on the order
+        this.orderDirty = false;
+        this.activeDirty = true;
+    }
+
+    /**
+     * Determine which slots are enabled and active, parents first.
+     */
+    private void buildActive() {
+        for(int o = 0; o < this.size; o++) {
+            final int i = this.order[o];
+            final int parent = this.parents[i];
+            final AbstractGameObject owner = this.transforms[i].getOwner();
+            this.enabled[i] = owner.isEnabled() && (parent >= 0 ? this.enabled[parent] : isAncestryEnabled(owner));
+            this.active[i] = this.enabled[i] && !this.transforms[i].isStatic();
+        }
+        this.activeDirty = false;
+    }
+
+    /**
+     * Integrate the velocities and accelerations of all active slots, and mark the slots that moved as changed.
+     *
+     * @param deltaTime Time since the last update in seconds.
+     */
+    private void integrate(float deltaTime) {
+        // Integrate the linear and angular velocities
+        for(int v = 0, n = this.size * VEC3; v < n; v++) {
+            if(!this.active[v / VEC3])
+                continue;
+            this.linVel[v] += deltaTime * this.linAcc[v];
+            this.angVel[v] += deltaTime * this.angAcc[v];
+            this.position[v] += deltaTime * this.linVel[v];
+        }
+
+        // Integrate the rotations of all slots that are rotating
+        for(int i = 0; i < this.size; i++) {
+            final int v = i * VEC3;
+            if(!this.active[i] || (this.angVel[v] == 0f && this.angVel[v + 1] == 0f && this.angVel[v + 2] == 0f))
+                continue;
+
+            // Integrate the rotation
+            final int q = i * QUAT;
+            this.tempRotation.set(this.rotation[q], this.rotation[q + 1], this.rotation[q + 2], this.rotation[q + 3])
+                    .integrate(deltaTime, this.angVel[v], this.angVel[v + 1], this.angVel[v + 2]);
+            this.rotation[q] = this.tempRotation.x;
+            this.rotation[q + 1] = this.tempRotation.y;
+            this.rotation[q + 2] = this.tempRotation.z;
+            this.rotation[q + 3] = this.tempRotation.w;
+        }
+
+        // Invalidate the transforms that moved, which also marks their descendants as changed
+        for(int i = 0; i < this.size; i++)
+            if(this.active[i] && isMoving(i))
+                this.transforms[i].markDirty();
+    }
+
+    /**
+     * Rebuild the local and world matrices of all changed slots, parents first, and write them into the caches of the
+     * transforms.
+     */
+    private void propagate() {
+        for(int o = 0; o < this.size; o++) {
+            // Skip slots that are up to date
+            final int i = this.order[o];
+            if(!this.changed[i])
+                continue;
+
+            // Build the local matrix
+            final int m = i * MAT4;
+            final int parent = this.parents[i];
+            final Transform transform = this.transforms[i];
+            buildLocal(i, m);
+
+            // Combine the local matrix with the parent world matrix
+            if(parent >= 0)
+                multiply(this.world, parent * MAT4, this.local, m, this.world, m);
+            else if(transform.getOwner().hasParent()) {
+                load(getParentTransform(transform).getWorldMatrix(this.tempMatrix), this.tempParentWorld, 0);
+                multiply(this.tempParentWorld, 0, this.local, m, this.world, m);
+            } else
+                System.arraycopy(this.local, m, this.world, m, MAT4);
+
+            // Write the matrices into the transform cache
+            transform.setCachedMatrices(this.local, this.world, m);
+            this.changed[i] = false;
+        }
+    }
+
+    /**
+     * Mark the matrices of the given slot as changed, so they're rebuilt on the next update.
+     *
+     * @param slot Slot.
+     */
+    void markChanged(int slot) {
+        this.changed[slot] = true;
+    }
+
+    /**
+     * Mark the state of the given slot as checked out, so it's checked back in on the next update.
+     * This must be called on the engine thread.
+     *
+     * @param slot Slot.
+     */
+    void markCheckedOut(int slot) {
+        this.checkedOut[slot] = true;
+        this.anyCheckedOut = true;
+    }
+
+    /**
+     * Mark the slot order as dirty, because the hierarchy has changed.
+     */
+    void markOrderDirty() {
+        this.orderDirty = true;
+    }
+
+    /**
+     * Mark the enabled and active state of the slots as dirty, because game objects were enabled or disabled, or
+     * because a transform became static or dynamic.
+     */
+    void markActiveDirty() {
+        this.activeDirty = true;
+    }
+
+    /**
+     * Get the packed array of a vector field.
+     *
+     * @param field Vector field.
+     *
+     * @return Packed array.
+     */
+    private float[] getVectorArray(int field) {
+        switch(field) {
+            case POSITION:
+                return this.position;
+            case SCALE:
+                return this.scale;
+            case LIN_ACC:
+                return this.linAcc;
+            case LIN_VEL:
+                return this.linVel;
+            case ANG_ACC:
+                return this.angAcc;
+            case ANG_VEL:
+                return this.angVel;
+            default:
+                throw new RuntimeException("Unknown transform store field: " + field);
+        }
+    }
+
+    /**
+     * Read a vector field of the given slot.
+     *
+     * @param field Vector field.
+     * @param slot Slot.
+     * @param dest Destination vector.
+     *
+     * @return Destination vector.
+     */
+    Vector3f getVector(int field, int slot, Vector3f dest) {
+        final float[] array = getVectorArray(field);
+        final int v = slot * VEC3;
+        return dest.set(array[v], array[v + 1], array[v + 2]);
+    }
+
+    /**
+     * Write a vector field of the given slot.
+     *
+     * @param field Vector field.
+     * @param slot Slot.
+     * @param x X component.
+     * @param y Y component.
+     * @param z Z component.
+     */
+    void setVector(int field, int slot, float x, float y, float z) {
+        final float[] array = getVectorArray(field);
+        final int v = slot * VEC3;
+        array[v] = x;
+        array[v + 1] = y;
+        array[v + 2] = z;
+    }
+
+    /**
+     * Read the rotation of the given slot.
+     *
+     * @param slot Slot.
+     * @param dest Destination quaternion.
+     *
+     * @return Destination quaternion.
+     */
+    Quaternionf getRotation(int slot, Quaternionf dest) {
+        final int q = slot * QUAT;
+        return dest.set(this.rotation[q], this.rotation[q + 1], this.rotation[q + 2], this.rotation[q + 3]);
+    }
+
+    /**
+     * Write the rotation of the given slot.
+     *
+     * @param slot Slot.
+     * @param x X component.
+     * @param y Y component.
+     * @param z Z component.
+     * @param w W component.
+     */
+    void setRotation(int slot, float x, float y, float z, float w) {
+        final int q = slot * QUAT;
+        this.rotation[q] = x;
+        this.rotation[q + 1] = y;
+        this.rotation[q + 2] = z;
+        this.rotation[q + 3] = w;
+    }
+
+    /**
+     * Build the local matrix of the given slot from it's current state, without storing it in the store.
+     *
+     * @param slot Slot.
+     * @param dest Destination matrix.
+     */
+    void buildLocalMatrix(int slot, Matrix4f dest) {
+        final int m = slot * MAT4;
+        buildLocal(slot, m);
+        final float[] l = this.local;
+        dest.set(l[m], l[m + 1], l[m + 2], l[m + 3],
+                l[m + 4], l[m + 5], l[m + 6], l[m + 7],
+                l[m + 8], l[m + 9], l[m + 10], l[m + 11],
+                l[m + 12], l[m + 13], l[m + 14], l[m + 15]);
+    }
+
+    /**
+     * Build the local translation, rotation and scale matrix of the given slot.
+     *
+     * @param i Slot.
+     * @param m Matrix offset.
+     */
+    private void buildLocal(int i, int m) {
+        final int v = i * VEC3;
+        final int q = i * QUAT;
+        final float x = this.rotation[q], y = this.rotation[q + 1], z = this.rotation[q + 2], w = this.rotation[q + 3];
+        final float sx = this.scale[v], sy = this.scale[v + 1], sz = this.scale[v + 2];
+
+        // Compute the rotation matrix components, matching the JOML quaternion to matrix conversion
+        final float w2 = w * w, x2 = x * x, y2 = y * y, z2 = z * z;
+        final float zw = z * w, xy = x * y, xz = x * z, yw = y * w, yz = y * z, xw = x * w;
+
+        // Write the rotated and scaled basis vectors and the translation, in column major order
+        this.local[m] = (w2 + x2 - z2 - y2) * sx;
+        this.local[m + 1] = (xy + zw + zw + xy) * sx;
+        this.local[m + 2] = (xz - yw + xz - yw) * sx;
+        this.local[m + 3] = 0f;
+        this.local[m + 4] = (-zw + xy - zw + xy) * sy;
+        this.local[m + 5] = (y2 - z2 + w2 - x2) * sy;
+        this.local[m + 6] = (yz + yz + xw + xw) * sy;
+        this.local[m + 7] = 0f;
+        this.local[m + 8] = (yw + xz + xz + yw) * sz;
+        this.local[m + 9] = (yz + yz - xw - xw) * sz;
+        this.local[m + 10] = (z2 - y2 - x2 + w2) * sz;
+        this.local[m + 11] = 0f;
+        this.local[m + 12] = this.position[v];
+        this.local[m + 13] = this.position[v + 1];
+        this.local[m + 14] = this.position[v + 2];
+        this.local[m + 15] = 1f;
+    }
+
+    /**
+     * Multiply two column major matrices, and store the result.
+     * The destination must not overlap with the left hand side matrix.
+     *
+     * @param a Left hand side array.
+     * @param ao Left hand side offset.
+     * @param b Right hand side array.
+     * @param bo Right hand side offset.
+     * @param dest Destination array.
+     * @param destOffset Destination offset.
+     */
+    private static void multiply(float[] a, int ao, float[] b, int bo, float[] dest, int destOffset) {
+        for(int c = 0; c < 4; c++) {
+            final float b0 = b[bo + c * 4], b1 = b[bo + c * 4 + 1], b2 = b[bo + c * 4 + 2], b3 = b[bo + c * 4 + 3];
+            for(int r = 0; r < 4; r++)
+                dest[destOffset + c * 4 + r] = a[ao + r] * b0 + a[ao + 4 + r] * b1 + a[ao + 8 + r] * b2
+                        + a[ao + 12 + r] * b3;
+        }
+    }
+
+    /**
+     * Check whether the given slot has any velocity or acceleration.
+     *
+     * @param i Slot.
+     *
+     * @return True if moving, false if not.
+     */
+    boolean isMoving(int i) {
+        for(int v = i * VEC3, n = v + VEC3; v < n; v++)
+            if(this.linVel[v] != 0f || this.linAcc[v] != 0f || this.angVel[v] != 0f || this.angAcc[v] != 0f)
+                return true;
+        return false;
+    }
+
+    /**
+     * Check whether all ancestors of the given game object are enabled.
+     *
+     * @param gameObject Game object.
+     *
+     * @return True if all ancestors are enabled, false if not.
+     */
+    private static boolean isAncestryEnabled(AbstractGameObject gameObject) {
+        for(AbstractGameObject parent = gameObject.getParent(); parent != null; parent = parent.getParent())
+            if(!parent.isEnabled())
+                return false;
+        return true;
+    }
+
+    /**
+     * Get the parent transform of the given transform.
+     *
+     * @param transform Transform.
+     *
+     * @return Parent transform, or null if there is no parent.
+     */
+    private static Transform getParentTransform(Transform transform) {
+        if(transform.getOwner() == null || !transform.getOwner().hasParent())
+            return null;
+        return transform.getOwner().getParent().getTransform();
+    }
+
+    /**
+     * Load the given matrix into a packed array, in column major order.
+     *
+     * @param matrix Matrix.
+     * @param dest Destination array.
+     * @param offset Destination offset.
+     */
+    private static void load(Matrix4f matrix, float[] dest, int offset) {
+        dest[offset] = matrix.m00();
+        dest[offset + 1] = matrix.m01();
+        dest[offset + 2] = matrix.m02();
+        dest[offset + 3] = matrix.m03();
+        dest[offset + 4] = matrix.m10();
+        dest[offset + 5] = matrix.m11();
+        dest[offset + 6] = matrix.m12();
+        dest[offset + 7] = matrix.m13();
+        dest[offset + 8] = matrix.m20();
+        dest[offset + 9] = matrix.m21();
+        dest[offset + 10] = matrix.m22();
+        dest[offset + 11] = matrix.m23();
+        dest[offset + 12] = matrix.m30();
+        dest[offset + 13] = matrix.m31();
+        dest[offset + 14] = matrix.m32();
+        dest[offset + 15] = matrix.m33();
+    }
+
+    /**
+     * Grow all arrays to the given capacity.
+     *
+     * @param capacity New capacity in slots.
+     */
+    private void grow(int capacity) {
+        this.transforms = Arrays.copyOf(this.transforms, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.order = Arrays.copyOf(this.order, capacity);
+        this.depths = Arrays.copyOf(this.depths, capacity);
+        this.enabled = Arrays.copyOf(this.enabled, capacity);
+        this.active = Arrays.copyOf(this.active, capacity);
+        this.changed = Arrays.copyOf(this.changed, capacity);
+        this.checkedOut = Arrays.copyOf(this.checkedOut, capacity);
+        this.position = Arrays.copyOf(this.position, capacity * VEC3);
+        this.rotation = Arrays.copyOf(this.rotation, capacity * QUAT);
+        this.scale = Arrays.copyOf(this.scale, capacity * VEC3);
+        this.linAcc = Arrays.copyOf(this.linAcc, capacity * VEC3);
+        this.linVel = Arrays.copyOf(this.linVel, capacity * VEC3);
+        this.angAcc = Arrays.copyOf(this.angAcc, capacity * VEC3);
+        this.angVel = Arrays.copyOf(this.angVel, capacity * VEC3);
+        this.local = Arrays.copyOf(this.local, capacity * MAT4);
+        this.world = Arrays.copyOf(this.world, capacity * MAT4);
+    }
+}
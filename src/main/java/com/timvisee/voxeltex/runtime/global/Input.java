@@ -58,12 +58,23 @@ public class Input {
         Input.window = window;
     }
 
+    /**
+     * Check whether the input managers are attached to a window.
+     * No input is available when the engine runs without a window, all keys and buttons are reported as released.
+     *
+     * @return True if attached, false if not.
+     */
+    public static boolean isAttached() {
+        return keyInputManager != null && mouseInputManager != null;
+    }
+
     /**
      * Update all attached input managers.
      * This should be called once in the beginning of each frame.
      */
     public static void update() {
-        mouseInputManager.update();
+        if(mouseInputManager != null)
+            mouseInputManager.update();
     }
 
     /**
@@ -71,8 +82,10 @@ public class Input {
      */
     public static void destroy() {
         // Destroy the input managers
-        keyInputManager.destroy();
-        mouseInputManager.destroy();
+        if(keyInputManager != null)
+            keyInputManager.destroy();
+        if(mouseInputManager != null)
+            mouseInputManager.destroy();
     }
 
     /**
@@ -101,7 +114,7 @@ public class Input {
      * @return True if the key is down, false if not.
      */
     public static boolean isKeyDown(int keyCode) {
-        return keyInputManager.isKeyDown(keyCode);
+        return keyInputManager != null && keyInputManager.isKeyDown(keyCode);
     }
 
     /**
@@ -112,7 +125,7 @@ public class Input {
      * @return True if the key is pressed once, false if not.
      */
     public static boolean isKeyDownOnce(int keyCode) {
-        return keyInputManager.isKeyDownOnce(keyCode);
+        return keyInputManager != null && keyInputManager.isKeyDownOnce(keyCode);
     }
 
     /**
@@ -121,7 +134,7 @@ public class Input {
      * @return X position.
      */
     public static float getMouseX() {
-        return mouseInputManager.getMouseX();
+        return mouseInputManager != null ? mouseInputManager.getMouseX() : 0.0f;
     }
 
     /**
@@ -130,7 +143,7 @@ public class Input {
      * @return X position.
      */
     public static float getMouseXOverlay() {
-        return Input.getMouseX() / Input.window.getWidth();
+        return Input.window != null ? Input.getMouseX() / Input.window.getWidth() : 0.0f;
     }
 
     /**
@@ -139,7 +152,7 @@ public class Input {
      * @return Y position.
      */
     public static float getMouseY() {
-        return mouseInputManager.getMouseY();
+        return mouseInputManager != null ? mouseInputManager.getMouseY() : 0.0f;
     }
 
     /**
@@ -148,7 +161,7 @@ public class Input {
      * @return Y position.
      */
     public static float getMouseYOverlay() {
-        return 1.0f - Input.getMouseY() / Input.window.getHeight();
+        return Input.window != null ? 1.0f - Input.getMouseY() / Input.window.getHeight() : 0.0f;
     }
 
     /**
@@ -157,7 +170,7 @@ public class Input {
      * @return X movement.
      */
     public static float getMouseDeltaX() {
-        return mouseInputManager.getMouseDeltaX();
+        return mouseInputManager != null ? mouseInputManager.getMouseDeltaX() : 0.0f;
     }
 
     /**
@@ -166,7 +179,7 @@ public class Input {
      * @return Y movement.
      */
     public static float getMouseDeltaY() {
-        return mouseInputManager.getMouseDeltaY();
+        return mouseInputManager != null ? mouseInputManager.getMouseDeltaY() : 0.0f;
     }
 
     /**
@@ -177,7 +190,7 @@ public class Input {
      * @return X position.
      */
     public static float getMouseAsyncX() {
-        return mouseInputManager.getMouseAsyncX();
+        return mouseInputManager != null ? mouseInputManager.getMouseAsyncX() : 0.0f;
     }
 
     /**
@@ -188,7 +201,7 @@ public class Input {
      * @return Y position.
      */
     public static float getMouseAsyncY() {
-        return mouseInputManager.getMouseAsyncY();
+        return mouseInputManager != null ? mouseInputManager.getMouseAsyncY() : 0.0f;
     }
 
     /**
@@ -199,7 +212,7 @@ public class Input {
      * @return True if the mouse button is down, false if not.
      */
     public static boolean isMouseButtonDown(int mouseButtonCode) {
-        return mouseInputManager.isMouseButtonDown(mouseButtonCode);
+        return mouseInputManager != null && mouseInputManager.isMouseButtonDown(mouseButtonCode);
     }
 
     /**
@@ -207,7 +220,8 @@ public class Input {
      * Note: This doesn't work on Mac OS X based systems.
      */
     public static void centerMouseCursor() {
-        mouseInputManager.centerMouseCursor();
+        if(mouseInputManager != null)
+            mouseInputManager.centerMouseCursor();
     }
 
     /**
@@ -221,6 +235,8 @@ public class Input {
      * @return Mouse cursor mode.
      */
     public static int getMouseCursorMode() {
+        if(mouseInputManager == null)
+            return MouseInputManager.CURSOR_MODE_NORMAL;
         return mouseInputManager.getMouseCursorMode();
     }
 
@@ -235,6 +251,7 @@ public class Input {
      * @param cursorMode Mouse cursor mode.
      */
     public static void setMouseCursorMode(int cursorMode) {
-        mouseInputManager.setMouseCursorMode(cursorMode);
+        if(mouseInputManager != null)
+            mouseInputManager.setMouseCursorMode(cursorMode);
     }
 }
@@ -56,10 +56,10 @@ public class MainCamera {
     private static final Matrix4f projectionMatrix = new Matrix4f();
 
     /**
-     * Cached camera view matrix that is used for rendering from time to time.
+     * Cached camera view matrix that is used for rendering from time to time, one instance for each thread.
      * Caching and recycling the instance adds a huge performance benefit.
      */
-    private static final Matrix4f cameraViewMatrixCache = new Matrix4f();
+    private static final ThreadLocal<Matrix4f> cameraViewMatrixCache = ThreadLocal.withInitial(Matrix4f::new);
 
     /**
      * Get the main camera component that is used for rendering.
@@ -99,8 +99,9 @@ public class MainCamera {
 
     /**
      * Update the camera positions.
+     * This must be called from the engine thread, see {@link com.timvisee.voxeltex.module.transform.Transform}.
      */
-    public static synchronized void update() {
+    public static void update() {
         // Make sure the main camera component is set
         if(MainCamera.mainCameraComponent == null) {
             // Reset the position and rotation
@@ -148,18 +149,12 @@ public class MainCamera {
 
     /**
      * Create the camera view matrix.
+     * The returned matrix is a cached instance owned by the calling thread, and is reused on the next call.
      *
      * @return Camera view matrix.
      */
     public static Matrix4f createCameraViewMatrix() {
-        // Make sure the camera view matrix isn't modified by something else while using it
-        synchronized(cameraViewMatrixCache) {
-            // Set the matrix to it's identity
-            cameraViewMatrixCache.identity();
-
-            // Create the camera view matrix
-            return createCameraViewMatrix(cameraViewMatrixCache);
-        }
+        return createCameraViewMatrix(cameraViewMatrixCache.get());
     }
 
     /**
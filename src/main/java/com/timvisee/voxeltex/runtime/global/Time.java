@@ -66,6 +66,11 @@ public class Time {
      */
     public static long deltaTimeNano = 0;
 
+    /**
+     * Fixed time step in seconds each frame advances the time with, or zero to use the real elapsed time.
+     */
+    private static double fixedStep = 0.0;
+
     /**
      * Get the timer.
      *
@@ -75,6 +80,39 @@ public class Time {
         return Time.timer;
     }
 
+    /**
+     * Get the fixed time step.
+     *
+     * @return Fixed time step in seconds, or zero if the real elapsed time is used.
+     */
+    public static double getFixedStep() {
+        return Time.fixedStep;
+    }
+
+    /**
+     * Set the fixed time step.
+     * When set, each update advances the time by exactly this step instead of using the real elapsed time,
+     * which makes frames reproducible in headless runs.
+     *
+     * @param fixedStep Fixed time step in seconds, or zero to use the real elapsed time.
+     */
+    public static void setFixedStep(double fixedStep) {
+        // Make sure the step isn't negative
+        if(fixedStep < 0.0)
+            throw new RuntimeException("The fixed time step may not be negative");
+
+        Time.fixedStep = fixedStep;
+    }
+
+    /**
+     * Check whether a fixed time step is used.
+     *
+     * @return True if a fixed time step is used, false if not.
+     */
+    public static boolean isFixedStep() {
+        return Time.fixedStep > 0.0;
+    }
+
     /**
      * Initialize the Time object.
      * Required before being used.
@@ -93,10 +131,15 @@ public class Time {
         double lastTime = Time.time;
         long lastTimeNano = Time.timeNano;
 
-        // Store the current times
-        time = Time.timer.getElapsedTime();
+        // Store the current times, advance by the fixed step if one is set
+        if(isFixedStep()) {
+            time = Time.isFirst ? 0.0 : lastTime + Time.fixedStep;
+            timeNano = Time.isFirst ? 0 : lastTimeNano + (long) (Time.fixedStep * 1000000000.0);
+        } else {
+            time = Time.timer.getElapsedTime();
+            timeNano = Time.timer.getElapsedNano();
+        }
         timeFloat = (float) time;
-        timeNano = Time.timer.getElapsedNano();
 
         // Calculate the delta times
         if(!Time.isFirst) {
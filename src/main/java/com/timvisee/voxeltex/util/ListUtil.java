@@ -0,0 +1,71 @@
+/******************************************************************************
+ * Copyright (c) Tim Visee 2016. All rights reserved.                         *
+ *                                                                            *
+ * @author Tim Visee                                                          *
+ * @website http://timvisee.com/                                              *
+ *                                                                            *
+ * Open Source != No Copyright                                                *
+ *                                                                            *
+ * Permission is hereby granted, free of charge, to any person obtaining a    *
+ * copy of this software and associated documentation files (the "Software"), *
+ * to deal in the Software without restriction, including without limitation  *
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,   *
+ * and/or sell copies of the Software, and to permit persons to whom the      *
+ * Software is furnished to do so, subject to the following conditions:       *
+ *                                                                            *
+ * The above copyright notice and this permission notice shall be included    *
+ * in all copies or substantial portions of the Software.                     *
+ *                                                                            *
+ * You should have received a copy of The MIT License (MIT) along with this   *
+ * program. If not, see <http://opensource.org/licenses/MIT/>.                *
+ ******************************************************************************/
+
+package com.timvisee.voxeltex.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class ListUtil {
+
+    /**
+     * Remove all elements in the given collection from the given list, compared by identity.
+     *
+     * All elements are removed in a single compacting pass over the list, so removing a lot of elements at once
+     * doesn't take quadratic time like removing them one by one with {@link List#remove(Object)} does. The order of
+     * the remaining elements is preserved. The list must support random access for this to be efficient.
+     *
+     * @param list List to remove the elements from.
+     * @param remove Elements to remove.
+     * @param <T> Element type.
+     *
+     * @return Number of removed elements.
+     */
+    public static <T> int removeAll(List<T> list, Collection<?> remove) {
+        // Return early if there's nothing to remove
+        if(remove.isEmpty())
+            return 0;
+
+        // Build an identity set of the elements to remove
+        Set<Object> removeSet = Collections.newSetFromMap(new IdentityHashMap<>(remove.size() * 2));
+        removeSet.addAll(remove);
+
+        // Move all elements that are kept to the front of the list
+        final int size = list.size();
+        int write = 0;
+        for(int read = 0; read < size; read++) {
+            final T element = list.get(read);
+            if(removeSet.contains(element))
+                continue;
+            if(write != read)
+                list.set(write, element);
+            write++;
+        }
+
+        // Cut off the tail of the list
+        list.subList(write, size).clear();
+        return size - write;
+    }
+}
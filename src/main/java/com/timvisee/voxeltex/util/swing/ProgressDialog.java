@@ -162,4 +162,21 @@ public class ProgressDialog extends JDialog {
         // Print the status to the console
         System.out.println("Status: " + status);
     }
+
+    /**
+     * Set the progress shown by the progress bar.
+     *
+     * @param progress Progress, from 0.0 to 1.0.
+     */
+    public void setProgress(float progress) {
+        this.progressBar.setIndeterminate(false);
+        this.progressBar.setValue((int) (Math.min(Math.max(progress, 0.0f), 1.0f) * this.progressBar.getMaximum()));
+    }
+
+    /**
+     * Set the progress bar to show an unknown amount of progress.
+     */
+    public void setProgressIndeterminate() {
+        this.progressBar.setIndeterminate(true);
+    }
 }
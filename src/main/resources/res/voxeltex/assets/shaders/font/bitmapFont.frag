@@ -22,25 +22,10 @@
 
 #version 120
 
-// Texture and tiling data
+// Texture data, the texture coordinates select the character on the bitmap
 uniform sampler2D texture;
-uniform vec2 tiling = vec2(1.0, 1.0);
-uniform vec2 tileSize = vec2(16.0, 16.0);
-uniform vec2 tilePosition = vec2(1.0, 4.0);
-uniform vec4 color = vec4(1);
-uniform float charWidth = 1.0;
-
-// Fragment position data
-varying vec4 position;
 
 void main(void) {
-    // Calculate the character offset and it's centered offset
-    vec2 charOffset = vec2(tilePosition / tileSize);
-    vec2 charOffsetSized = charOffset + vec2(1.0 / tileSize.x * (1.0 - charWidth) / 2.0, 0);
-
-    // Create the character width factor vector
-    vec2 charSizeFactor = vec2(charWidth, 1.0);
-
     // Determine and set the fragment color
-    gl_FragColor = texture2D(texture, gl_TexCoord[0].st * tiling / tileSize * charSizeFactor + charOffsetSized) * color;
+    gl_FragColor = texture2D(texture, gl_TexCoord[0].st) * gl_Color;
 }
@@ -37,6 +37,9 @@ void main() {
     // Pass the texture coordinates to the fragment shader
 	gl_TexCoord[0] = gl_MultiTexCoord0;
 
+    // Pass the vertex color to the fragment shader
+    gl_FrontColor = gl_Color;
+
     // Set the vertex point position
 	gl_Position = gl_ModelViewProjectionMatrix * gl_Vertex;
 }
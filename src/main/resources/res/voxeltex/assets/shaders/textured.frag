@@ -21,6 +21,7 @@
  ******************************************************************************/
 
 #version 120
+#extension GL_ARB_uniform_buffer_object : enable
 
 // Texture and tiling data
 uniform sampler2D texture;
@@ -34,13 +35,18 @@ varying vec4 position;
 // Surface normal
 varying vec3 surfaceNormal;
 
-// Light data
+// Per frame camera and light data, shared by all programs
 const int LIGHT_COUNT_MAX = 16;
-uniform int lightCount;
-uniform int lightType[LIGHT_COUNT_MAX];
-uniform vec3 lightPosition[LIGHT_COUNT_MAX];
-uniform vec3 lightRotation[LIGHT_COUNT_MAX];
-uniform vec4 lightColor[LIGHT_COUNT_MAX];
+layout(std140) uniform FrameData {
+    mat4 frameProjectionMatrix;
+    mat4 frameViewMatrix;
+    vec4 frameCameraPosition;
+    int lightCount;
+    int lightType[LIGHT_COUNT_MAX];
+    vec4 lightPosition[LIGHT_COUNT_MAX];
+    vec4 lightRotation[LIGHT_COUNT_MAX];
+    vec4 lightColor[LIGHT_COUNT_MAX];
+};
 
 void main(void) {
     // Create a variable to define the diffuse color in
@@ -51,7 +57,7 @@ void main(void) {
         // Process a directional light
         if(lightType[i] == 1) {
             // Calculate the dot product of both vectors and clamp the brightness to zero and above
-            float brightness = max(dot(normalize(surfaceNormal), normalize(lightRotation[i])), 0.0) * lightColor[i].w;
+            float brightness = max(dot(normalize(surfaceNormal), normalize(lightRotation[i].xyz)), 0.0) * lightColor[i].w;
 
             // Calculate the diffuse color and append it to the result
             diffuse += brightness * lightColor[i].xyz;
@@ -60,7 +66,7 @@ void main(void) {
         // Process a point light
         if(lightType[i] == 2) {
             // Calculate the distance to the light
-            float lightDistance = distance(position.xyz, lightPosition[i]);
+            float lightDistance = distance(position.xyz, lightPosition[i].xyz);
 
             // Skip the light processing if the light is too far away for optimization
             // TODO: Is this calibrated properly?
@@ -68,7 +74,7 @@ void main(void) {
 //                continue;
 
             // Calculate the light direction
-            vec3 lightDirection = lightPosition[i] - position.xyz;
+            vec3 lightDirection = lightPosition[i].xyz - position.xyz;
 
             // Calculate the dot product of both vectors and clamp the brightness to zero and above
             float brightness = max(dot(normalize(surfaceNormal), normalize(lightDirection)), 0.0) /